@@ -0,0 +1,144 @@
+package org.luun.hsf.asm01.kitchencontrolbe.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.luun.hsf.asm01.kitchencontrolbe.KItchenControlBeApplication;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Order;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderDetail;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Product;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ProductType;
+import org.luun.hsf.asm01.kitchencontrolbe.mapper.OrderMapper;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.ProductRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.StoreRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Spring context on the in-memory H2 database of src/test/resources plus a reproducible dataset:
+ * N stores x M products x K orders of L lines, generated from a fixed seed so runs of different
+ * releases measure the same work.
+ */
+@State(Scope.Benchmark)
+public class KitchenState {
+
+    private static final long SEED = 42;
+    private static final LocalDateTime BASE_DATE = LocalDateTime.of(2024, 1, 1, 6, 0);
+
+    @Param("20")
+    public int stores;
+
+    @Param("200")
+    public int products;
+
+    @Param("1000")
+    public int orders;
+
+    @Param("8")
+    public int linesPerOrder;
+
+    ConfigurableApplicationContext context;
+    OrderMapper orderMapper;
+    IOrderService orderService;
+    ObjectMapper objectMapper;
+    //ObjectMapper của các converter Smile/CBOR mà Spring MVC dùng khi client gửi Accept tương ứng
+    ObjectMapper smileMapper;
+    ObjectMapper cborMapper;
+
+    List<OrderRequestDTO> requests;
+    List<OrderRequestDTO.OrderDetailRequest> detailRequests;
+    List<Order> orderEntities;
+    List<OrderResponseDTO> responses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(KItchenControlBeApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN")
+                .run();
+        orderMapper = context.getBean(OrderMapper.class);
+        orderService = context.getBean(IOrderService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        smileMapper = context.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper();
+        cborMapper = context.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+
+        int[] storeIds = seedStores(context.getBean(StoreRepository.class));
+        int[] productIds = seedProducts(context.getBean(ProductRepository.class));
+
+        Random random = new Random(SEED);
+        requests = new ArrayList<>(orders);
+        detailRequests = new ArrayList<>(orders * linesPerOrder);
+        orderEntities = new ArrayList<>(orders);
+        int detailId = 1;
+        for (int i = 0; i < orders; i++) {
+            List<OrderRequestDTO.OrderDetailRequest> lines = new ArrayList<>(linesPerOrder);
+            Order order = new Order();
+            order.setOrderId(i + 1);
+            order.setStoreId(storeIds[random.nextInt(storeIds.length)]);
+            order.setOrderDate(BASE_DATE.plusSeconds(i));
+            order.setStatus(OrderStatus.WAITTING);
+            order.setOrderDetails(new ArrayList<>(linesPerOrder));
+            for (int l = 0; l < linesPerOrder; l++) {
+                int productId = productIds[random.nextInt(productIds.length)];
+                float quantity = 1 + random.nextInt(20);
+                lines.add(new OrderRequestDTO.OrderDetailRequest(productId, quantity));
+                OrderDetail detail = new OrderDetail();
+                detail.setOrderDetailId(detailId++);
+                detail.setOrder(order);
+                detail.setProductId(productId);
+                detail.setQuantity(quantity);
+                order.getOrderDetails().add(detail);
+            }
+            requests.add(new OrderRequestDTO(order.getStoreId(), lines));
+            detailRequests.addAll(lines);
+            orderEntities.add(order);
+        }
+        //Cũng là bước warm up CatalogCache cho các benchmark mapper
+        responses = orderEntities.stream().map(orderMapper::toResponseDTO).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private int[] seedStores(StoreRepository storeRepository) {
+        List<Store> entities = new ArrayList<>(stores);
+        for (int i = 0; i < stores; i++) {
+            Store store = new Store();
+            store.setStoreName("Store " + i);
+            store.setAddress("Address " + i);
+            entities.add(store);
+        }
+        return storeRepository.saveAll(entities).stream().mapToInt(Store::getStoreId).toArray();
+    }
+
+    private int[] seedProducts(ProductRepository productRepository) {
+        List<Product> entities = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            Product product = new Product();
+            product.setProductName("Product " + i);
+            product.setProductType(ProductType.FINISHED_PRODUCT);
+            product.setUnit("kg");
+            entities.add(product);
+        }
+        return productRepository.saveAll(entities).stream().mapToInt(p -> p.getProductId().intValue()).toArray();
+    }
+}
@@ -0,0 +1,102 @@
+package org.luun.hsf.asm01.kitchencontrolbe.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializes and parses the List&lt;OrderResponseDTO&gt; of K orders as JSON, Smile and CBOR with the
+ * ObjectMappers Spring MVC picks for each Accept header. Payload sizes (raw and gzip, as sent with
+ * server.compression) are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderEncodingBenchmark {
+
+    private static final TypeReference<List<OrderResponseDTO>> ORDER_LIST = new TypeReference<>() {
+    };
+
+    @State(Scope.Benchmark)
+    public static class Payloads {
+        byte[] json;
+        byte[] smile;
+        byte[] cbor;
+
+        @Setup(Level.Trial)
+        public void setUp(KitchenState state) throws IOException {
+            json = state.objectMapper.writeValueAsBytes(state.responses);
+            smile = state.smileMapper.writeValueAsBytes(state.responses);
+            cbor = state.cborMapper.writeValueAsBytes(state.responses);
+            //Định dạng nhị phân phải đọc lại ra đúng dữ liệu
+            if (!read(state.smileMapper, smile).equals(state.responses) || !read(state.cborMapper, cbor).equals(state.responses)) {
+                throw new IllegalStateException("Binary payload does not round-trip");
+            }
+            System.out.printf("%n%d orders x %d lines: json=%d B (gzip %d), smile=%d B (gzip %d), cbor=%d B (gzip %d)%n",
+                    state.orders, state.linesPerOrder, json.length, gzipSize(json),
+                    smile.length, gzipSize(smile), cbor.length, gzipSize(cbor));
+        }
+
+        private static int gzipSize(byte[] payload) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(payload);
+            }
+            return out.size();
+        }
+    }
+
+    @Benchmark
+    public byte[] writeJson(KitchenState state) throws IOException {
+        return state.objectMapper.writeValueAsBytes(state.responses);
+    }
+
+    @Benchmark
+    public byte[] writeSmile(KitchenState state) throws IOException {
+        return state.smileMapper.writeValueAsBytes(state.responses);
+    }
+
+    @Benchmark
+    public byte[] writeCbor(KitchenState state) throws IOException {
+        return state.cborMapper.writeValueAsBytes(state.responses);
+    }
+
+    //Phía client (tablet) phải parse lại payload
+    @Benchmark
+    public List<OrderResponseDTO> readJson(KitchenState state, Payloads payloads) throws IOException {
+        return read(state.objectMapper, payloads.json);
+    }
+
+    @Benchmark
+    public List<OrderResponseDTO> readSmile(KitchenState state, Payloads payloads) throws IOException {
+        return read(state.smileMapper, payloads.smile);
+    }
+
+    @Benchmark
+    public List<OrderResponseDTO> readCbor(KitchenState state, Payloads payloads) throws IOException {
+        return read(state.cborMapper, payloads.cbor);
+    }
+
+    private static List<OrderResponseDTO> read(ObjectMapper mapper, byte[] payload) throws IOException {
+        return mapper.readValue(payload, ORDER_LIST);
+    }
+}
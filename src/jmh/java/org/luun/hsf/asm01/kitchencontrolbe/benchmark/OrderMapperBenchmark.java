@@ -0,0 +1,37 @@
+package org.luun.hsf.asm01.kitchencontrolbe.benchmark;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+//Map toàn bộ K order của dataset, CatalogCache đã được warm up nên không có SQL trong phép đo
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMapperBenchmark {
+
+    @Benchmark
+    public void toResponseDTO(KitchenState state, Blackhole blackhole) {
+        for (Order order : state.orderEntities) {
+            blackhole.consume(state.orderMapper.toResponseDTO(order));
+        }
+    }
+
+    @Benchmark
+    public void toOrderDetailEntity(KitchenState state, Blackhole blackhole) {
+        for (OrderRequestDTO.OrderDetailRequest request : state.detailRequests) {
+            blackhole.consume(state.orderMapper.toOrderDetailEntity(request));
+        }
+    }
+}
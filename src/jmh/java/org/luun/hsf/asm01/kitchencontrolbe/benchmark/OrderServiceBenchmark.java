@@ -0,0 +1,33 @@
+package org.luun.hsf.asm01.kitchencontrolbe.benchmark;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//1 lần gọi = 1 order (1 transaction, INSERT order + L dòng detail) trên H2, lần lượt theo dataset
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderServiceBenchmark {
+
+    private int next;
+
+    @Benchmark
+    public OrderResponseDTO createOrder(KitchenState state) {
+        OrderResponseDTO response = state.orderService.createOrder(state.requests.get(next));
+        next = (next + 1) % state.requests.size();
+        return response;
+    }
+}
@@ -2,8 +2,10 @@ package org.luun.hsf.asm01.kitchencontrolbe;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class KItchenControlBeApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,166 @@
+package org.luun.hsf.asm01.kitchencontrolbe.archive;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.OrderVersionCache;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderArchiveResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderArchive;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.projection.OrderLinesCodec;
+import org.luun.hsf.asm01.kitchencontrolbe.projection.OrderViewProjection;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderArchiveRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves orders placed more than min-age ago that are finished (DONE, DAMAGED) or soft deleted from
+ * orders + order_details into orders_archive, one row per order with the details encoded like
+ * order_view. Each chunk is locked, copied and deleted in its own transaction, oldest orders first,
+ * with a pause between chunks so the hot tables are not held for the whole run.
+ */
+@Slf4j
+@Component
+public class OrderArchiver {
+
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final OrderViewProjection orderView;
+    private final OrderVersionCache orderVersions;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    @Value("${kitchen.orders.archive.min-age:P90D}")
+    private Duration minAge;
+
+    @Value("${kitchen.orders.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${kitchen.orders.archive.pause:PT0.2S}")
+    private Duration pause;
+
+    @Value("${kitchen.orders.archive.max-orders-per-run:100000}")
+    private int maxOrdersPerRun;
+
+    public OrderArchiver(OrderArchiveRepository orderArchiveRepository,
+                         OrderViewProjection orderView,
+                         OrderVersionCache orderVersions,
+                         EntityManager entityManager,
+                         TransactionTemplate transactionTemplate) {
+        this.orderArchiveRepository = orderArchiveRepository;
+        this.orderView = orderView;
+        this.orderVersions = orderVersions;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public OrderArchiveResultDTO archive() {
+        if (!runLock.tryLock()) {
+            throw new RuntimeException("An order archive run is already running");
+        }
+        try {
+            long start = System.nanoTime();
+            LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+            int archived = 0;
+            int chunks = 0;
+            while (archived < maxOrdersPerRun) {
+                int limit = Math.min(chunkSize, maxOrdersPerRun - archived);
+                ChunkResult chunk = transactionTemplate.execute(status -> archiveChunk(cutoff, limit));
+                if (!chunk.archived().isEmpty()) {
+                    orderVersions.changed(chunk.archived());
+                    archived += chunk.archived().size();
+                    chunks++;
+                }
+                if (chunk.candidates() < limit) {
+                    break;
+                }
+                pause();
+            }
+
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            if (chunks > 0) {
+                log.info("Archived {} orders placed before {} in {} chunks, {} ms", archived, cutoff, chunks, elapsedMillis);
+            }
+            return OrderArchiveResultDTO.builder()
+                    .cutoff(cutoff)
+                    .ordersArchived(archived)
+                    .chunks(chunks)
+                    .elapsedMillis(elapsedMillis)
+                    .build();
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private ChunkResult archiveChunk(LocalDateTime cutoff, int limit) {
+        List<Integer> candidates = orderArchiveRepository.findArchivable(cutoff, limit);
+        if (candidates.isEmpty()) {
+            return new ChunkResult(0, List.of());
+        }
+        //Khóa rồi kiểm tra lại: order có thể đã đổi status hoặc có feedback giữa 2 câu
+        List<Integer> orderIds = orderArchiveRepository.lockArchivable(candidates);
+        if (orderIds.isEmpty()) {
+            return new ChunkResult(candidates.size(), List.of());
+        }
+
+        Map<Integer, StringBuilder> lines = new HashMap<>(orderIds.size() * 2);
+        for (Object[] row : orderArchiveRepository.findDetailRows(orderIds)) {
+            OrderLinesCodec.append(lines.computeIfAbsent(((Number) row[0]).intValue(), id -> new StringBuilder()),
+                    ((Number) row[1]).intValue(), ((Number) row[2]).floatValue());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Object[] row : orderArchiveRepository.findOrderRows(orderIds)) {
+            OrderArchive archive = new OrderArchive();
+            archive.setOrderId(((Number) row[0]).intValue());
+            archive.setStoreId(((Number) row[1]).intValue());
+            archive.setPlanId(row[2] == null ? null : ((Number) row[2]).longValue());
+            archive.setDeliveryId(row[3] == null ? null : ((Number) row[3]).longValue());
+            archive.setOrderDate(toLocalDateTime(row[4]));
+            archive.setStatus(OrderStatus.valueOf(row[5].toString()));
+            archive.setVersion(((Number) row[6]).longValue());
+            archive.setDeletedAt(toLocalDateTime(row[7]));
+            StringBuilder orderLines = lines.get(archive.getOrderId());
+            archive.setLines(orderLines == null ? "" : orderLines.toString());
+            archive.setArchivedAt(now);
+            entityManager.persist(archive);
+        }
+        //INSERT vào orders_archive trước khi xóa khỏi orders
+        entityManager.flush();
+        entityManager.clear();
+        orderView.deleted(orderIds);
+        orderArchiveRepository.deleteOrders(orderIds);
+        return new ChunkResult(candidates.size(), orderIds);
+    }
+
+    //Tùy driver, cột timestamp của câu SQL native trả về Timestamp hoặc LocalDateTime
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    private void pause() {
+        if (pause.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(pause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Order archive run interrupted", e);
+        }
+    }
+
+    private record ChunkResult(int candidates, List<Integer> archived) {
+    }
+}
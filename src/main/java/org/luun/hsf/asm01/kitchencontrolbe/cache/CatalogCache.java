@@ -0,0 +1,209 @@
+package org.luun.hsf.asm01.kitchencontrolbe.cache;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.CatalogCacheStatsDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.ProductRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.StoreRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+//Cache tên product/store để điền vào response order: đọc không lock, miss load bằng 1 câu IN (...)
+//Entry hết hạn sau TTL, đầy max-entries thì bỏ key cũ nhất trước
+@Component
+public class CatalogCache {
+
+    private final NameCache products;
+    private final NameCache stores;
+
+    public CatalogCache(ProductRepository productRepository,
+                        StoreRepository storeRepository,
+                        @Value("${kitchen.catalog-cache.max-entries:10000}") int maxEntries,
+                        @Value("${kitchen.catalog-cache.ttl:PT10M}") Duration ttl) {
+        this.products = new NameCache(maxEntries, ttl, ids -> toNameMap(productRepository.findNamesByProductIdIn(
+                ids.stream().map(Integer::longValue).collect(Collectors.toList()))));
+        this.stores = new NameCache(maxEntries, ttl, ids -> toNameMap(storeRepository.findNamesByStoreIdIn(ids)));
+    }
+
+    public String productName(int productId) {
+        return products.get(productId);
+    }
+
+    public String storeName(int storeId) {
+        return stores.get(storeId);
+    }
+
+    //Load trước các id còn thiếu bằng 1 query để lúc map từng DTO không phát sinh SQL
+    public void preloadProducts(Collection<Integer> productIds) {
+        products.preload(productIds);
+    }
+
+    public void preloadStores(Collection<Integer> storeIds) {
+        stores.preload(storeIds);
+    }
+
+    public void invalidateProduct(int productId) {
+        products.invalidate(productId);
+    }
+
+    public void invalidateStore(int storeId) {
+        stores.invalidate(storeId);
+    }
+
+    public void invalidateAll() {
+        products.invalidateAll();
+        stores.invalidateAll();
+    }
+
+    public CatalogCacheStatsDTO stats() {
+        return CatalogCacheStatsDTO.builder()
+                .productEntries(products.size())
+                .productHits(products.hits.sum())
+                .productMisses(products.misses.sum())
+                .storeEntries(stores.size())
+                .storeHits(stores.hits.sum())
+                .storeMisses(stores.misses.sum())
+                .build();
+    }
+
+    private static Map<Integer, String> toNameMap(List<Object[]> rows) {
+        Map<Integer, String> names = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            names.put(((Number) row[0]).intValue(), (String) row[1]);
+        }
+        return names;
+    }
+
+    private record Entry(String name, long loadedAt) {
+    }
+
+    private static final class NameCache {
+
+        //Id không tồn tại cũng được cache để không query lại mỗi lần
+        private static final String ABSENT = new String();
+        //Đánh dấu entry đã bị invalidate, giữ key trong map để insertionOrder không bị thêm trùng
+        private static final Entry STALE = new Entry(ABSENT, 0);
+
+        private final int maxEntries;
+        private final long ttlNanos;
+        private final Function<Collection<Integer>, Map<Integer, String>> loader;
+        //Key bị box: IntObjectMap không đọc được song song với ghi, bản copy-on-write phải chép cả map mỗi lần miss
+        private final ConcurrentHashMap<Integer, Entry> entries = new ConcurrentHashMap<>();
+        //Thứ tự thêm vào, để đầy thì bỏ key cũ nhất trước. Chỉ sửa khi giữ writeLock
+        private final ArrayDeque<Integer> insertionOrder = new ArrayDeque<>();
+        //Giữ khi ghi vào entries và khi invalidate, đọc không cần lock
+        private final ReentrantLock writeLock = new ReentrantLock();
+        //Tăng mỗi lần invalidate: load bắt đầu trước đó (đọc tên cũ từ DB) không được ghi kết quả vào cache
+        private volatile long generation;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        NameCache(int maxEntries, Duration ttl, Function<Collection<Integer>, Map<Integer, String>> loader) {
+            this.maxEntries = maxEntries;
+            this.ttlNanos = ttl.toNanos();
+            this.loader = loader;
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        String get(int id) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry != STALE && !isExpired(entry, System.nanoTime())) {
+                hits.increment();
+                return resolve(entry);
+            }
+            misses.increment();
+            return resolve(load(List.of(id)).get(id));
+        }
+
+        void preload(Collection<Integer> ids) {
+            long now = System.nanoTime();
+            List<Integer> missing = ids.stream()
+                    .distinct()
+                    .filter(id -> {
+                        Entry entry = entries.get(id);
+                        return entry == null || entry == STALE || isExpired(entry, now);
+                    })
+                    .collect(Collectors.toList());
+            if (!missing.isEmpty()) {
+                load(missing);
+            }
+        }
+
+        void invalidate(int id) {
+            writeLock.lock();
+            try {
+                generation++;
+                entries.replace(id, STALE);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        void invalidateAll() {
+            writeLock.lock();
+            try {
+                generation++;
+                entries.clear();
+                insertionOrder.clear();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        //Trả về entry vừa load cho caller kể cả khi không được ghi vào cache
+        private Map<Integer, Entry> load(Collection<Integer> ids) {
+            long loadGeneration = generation;
+            Map<Integer, String> loaded = loader.apply(ids);
+            long now = System.nanoTime();
+            Map<Integer, Entry> result = new HashMap<>(ids.size() * 2);
+            for (Integer id : ids) {
+                String name = loaded.get(id);
+                result.put(id, new Entry(name == null ? ABSENT : name, now));
+            }
+            writeLock.lock();
+            try {
+                if (generation == loadGeneration) {
+                    result.forEach(this::put);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            return result;
+        }
+
+        //Gọi khi giữ writeLock
+        private void put(Integer id, Entry entry) {
+            if (entries.put(id, entry) == null) {
+                insertionOrder.add(id);
+                while (entries.size() > maxEntries) {
+                    Integer oldest = insertionOrder.poll();
+                    if (oldest == null) {
+                        break;
+                    }
+                    entries.remove(oldest);
+                }
+            }
+        }
+
+        private boolean isExpired(Entry entry, long now) {
+            return now - entry.loadedAt() > ttlNanos;
+        }
+
+        private static String resolve(Entry entry) {
+            return entry == null || entry.name() == ABSENT ? null : entry.name();
+        }
+    }
+}
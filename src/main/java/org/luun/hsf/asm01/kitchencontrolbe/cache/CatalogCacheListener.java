@@ -0,0 +1,33 @@
+package org.luun.hsf.asm01.kitchencontrolbe.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Product;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.util.AfterCommit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+//Entity listener của Product và Store: commit xong thì bỏ entry tương ứng khỏi CatalogCache
+//Dùng ObjectProvider vì entityManagerFactory tạo listener trước khi CatalogCache (cần repository) sẵn sàng
+@Component
+@RequiredArgsConstructor
+public class CatalogCacheListener {
+
+    private final ObjectProvider<CatalogCache> catalogCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof Product product && product.getProductId() != null) {
+            int productId = product.getProductId().intValue();
+            AfterCommit.run(() -> catalogCache.getObject().invalidateProduct(productId));
+        } else if (entity instanceof Store store && store.getStoreId() != null) {
+            int storeId = store.getStoreId();
+            AfterCommit.run(() -> catalogCache.getObject().invalidateStore(storeId));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.luun.hsf.asm01.kitchencontrolbe.cache;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Bounded cache of Idempotency-Key -> response of the order created with that key.
+ * Lookups are a plain ConcurrentHashMap read and never lock. Keys are evicted oldest-first once
+ * max-entries is exceeded and ignored after the TTL; replays of evicted keys are still answered
+ * from the unique orders.idempotency_key column.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    //Thứ tự thêm vào, dùng để bỏ key cũ nhất khi vượt maxEntries
+    private final ConcurrentLinkedQueue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    public IdempotencyCache(@Value("${kitchen.orders.idempotency.max-entries:100000}") int maxEntries,
+                            @Value("${kitchen.orders.idempotency.ttl:PT24H}") Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public OrderResponseDTO get(String key) {
+        Entry entry = entries.get(key);
+        //Entry hết hạn vẫn nằm trong map tới khi bị đẩy ra, để map và insertionOrder luôn khớp nhau
+        return entry == null || System.nanoTime() - entry.storedAt() > ttlNanos ? null : entry.response();
+    }
+
+    public void put(String key, OrderResponseDTO response) {
+        if (entries.put(key, new Entry(response, System.nanoTime())) == null) {
+            insertionOrder.add(key);
+            while (entries.size() > maxEntries) {
+                String oldest = insertionOrder.poll();
+                if (oldest == null) {
+                    break;
+                }
+                entries.remove(oldest);
+            }
+        }
+    }
+
+    private record Entry(OrderResponseDTO response, long storedAt) {
+    }
+}
@@ -0,0 +1,153 @@
+package org.luun.hsf.asm01.kitchencontrolbe.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * orderId -> orders.version, so conditional GETs can answer 304 without loading the order, plus the
+ * registry of long-poll waiters. Writers call {@link #changed} after commit, which drops the cached
+ * version and wakes the waiters of those orders. Misses read only the version column.
+ * A reader that loaded a version while the order was being changed could cache the old value; a
+ * per-stripe change counter, checked after the put, detects that and takes the entry back.
+ * Entries expire after the TTL, which bounds staleness for changes made by other instances.
+ */
+@Component
+public class OrderVersionCache {
+
+    private static final int STRIPES = 1024;
+    private static final int PLAN_PAGE_SIZE = 1000;
+    //Đánh dấu entry đã bị đổi, giữ key trong map để insertionOrder không bị thêm trùng
+    private static final Entry STALE = new Entry(-1, Long.MIN_VALUE);
+
+    private final OrderRepository orderRepository;
+    private final ConcurrentHashMap<Integer, Entry> entries = new ConcurrentHashMap<>();
+    //Thứ tự thêm vào, dùng để bỏ key cũ nhất khi vượt maxEntries
+    private final ConcurrentLinkedQueue<Integer> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicLongArray changeCounters = new AtomicLongArray(STRIPES);
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    //Chỉ sửa list bên trong compute/remove của map nên không cần lock riêng
+    private final ConcurrentHashMap<Integer, List<CompletableFuture<Boolean>>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+    private final int maxWaiters;
+
+    public OrderVersionCache(OrderRepository orderRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${kitchen.orders.version-cache.max-entries:100000}") int maxEntries,
+                             @Value("${kitchen.orders.version-cache.ttl:PT1M}") Duration ttl,
+                             @Value("${kitchen.orders.watch.max-waiters:10000}") int maxWaiters) {
+        this.orderRepository = orderRepository;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.maxWaiters = maxWaiters;
+        Gauge.builder("kitchen.orders.watchers", waiterCount, AtomicInteger::get)
+                .description("Long-poll requests waiting for an order to change")
+                .register(meterRegistry);
+    }
+
+    //null nếu order không tồn tại
+    public Long version(int orderId) {
+        Entry entry = entries.get(orderId);
+        if (entry != null && entry != STALE && System.nanoTime() - entry.storedAt() <= ttlNanos) {
+            return entry.version();
+        }
+        int stripe = stripe(orderId);
+        long counter = changeCounters.get(stripe);
+        Long version = orderRepository.findVersionByOrderId(orderId).orElse(null);
+        if (version == null) {
+            return null;
+        }
+        Entry loaded = new Entry(version, System.nanoTime());
+        put(orderId, loaded);
+        //Order vừa đổi trong lúc đọc: version đọc được có thể đã cũ
+        if (changeCounters.get(stripe) != counter) {
+            entries.replace(orderId, loaded, STALE);
+        }
+        return version;
+    }
+
+    //Gọi sau commit cho mọi thay đổi của order (status, plan, delivery, xóa)
+    public void changed(Collection<Integer> orderIds) {
+        for (Integer orderId : orderIds) {
+            changeCounters.incrementAndGet(stripe(orderId));
+            entries.replace(orderId, STALE);
+            List<CompletableFuture<Boolean>> woken = waiters.remove(orderId);
+            if (woken != null) {
+                waiterCount.addAndGet(-woken.size());
+                woken.forEach(waiter -> waiter.complete(true));
+            }
+        }
+    }
+
+    //Như changed cho mọi order của plan, đọc orderId từng trang để không giữ cả plan trong bộ nhớ
+    public void changedByPlan(Long planId) {
+        int after = 0;
+        while (true) {
+            List<Integer> ids = orderRepository.findIdsByPlanIdAfter(planId, after, PageRequest.of(0, PLAN_PAGE_SIZE));
+            if (ids.isEmpty()) {
+                return;
+            }
+            changed(ids);
+            after = ids.get(ids.size() - 1);
+        }
+    }
+
+    //Future hoàn thành với true khi order đổi; người gọi phải cancel khi thôi chờ (timeout, client ngắt)
+    public CompletableFuture<Boolean> awaitChange(int orderId) {
+        if (waiterCount.incrementAndGet() > maxWaiters) {
+            waiterCount.decrementAndGet();
+            throw new RuntimeException("Too many clients are watching orders, retry later");
+        }
+        CompletableFuture<Boolean> waiter = new CompletableFuture<>();
+        waiters.compute(orderId, (id, list) -> {
+            List<CompletableFuture<Boolean>> result = list == null ? new ArrayList<>(2) : list;
+            result.add(waiter);
+            return result;
+        });
+        return waiter;
+    }
+
+    public void cancel(int orderId, CompletableFuture<Boolean> waiter) {
+        waiters.computeIfPresent(orderId, (id, list) -> {
+            if (list.remove(waiter)) {
+                waiterCount.decrementAndGet();
+            }
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private void put(int orderId, Entry entry) {
+        if (entries.put(orderId, entry) == null) {
+            insertionOrder.add(orderId);
+            while (entries.size() > maxEntries) {
+                Integer oldest = insertionOrder.poll();
+                if (oldest == null) {
+                    break;
+                }
+                entries.remove(oldest);
+            }
+        }
+    }
+
+    private static int stripe(int orderId) {
+        return Math.floorMod(Integer.hashCode(orderId), STRIPES);
+    }
+
+    private record Entry(long version, long storedAt) {
+    }
+}
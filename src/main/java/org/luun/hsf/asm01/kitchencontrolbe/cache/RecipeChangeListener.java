@@ -0,0 +1,25 @@
+package org.luun.hsf.asm01.kitchencontrolbe.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IBomService;
+import org.luun.hsf.asm01.kitchencontrolbe.util.AfterCommit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+//Entity listener của Recipe và RecipeDetail: công thức thay đổi (sau commit) thì bỏ đồ thị BOM đã cache
+@Component
+@RequiredArgsConstructor
+public class RecipeChangeListener {
+
+    private final ObjectProvider<IBomService> bomService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        AfterCommit.run(() -> bomService.getObject().invalidate());
+    }
+}
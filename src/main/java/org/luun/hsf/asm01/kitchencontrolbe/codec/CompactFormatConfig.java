@@ -0,0 +1,46 @@
+package org.luun.hsf.asm01.kitchencontrolbe.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings of the API responses, picked by the Accept header (JSON stays the default).
+ * Smile writes every field name of a List&lt;OrderResponseDTO&gt; once and back-references it
+ * afterwards, and with shared string values the same holds for repeated statuses, store and
+ * product names, so it gives the smallest payloads; CBOR (RFC 8949) is offered for clients without
+ * a Smile decoder. Both write LocalDateTime as a number array instead of an ISO string. These beans
+ * replace the converters Spring MVC registers by default for the same media types, so they use the
+ * spring.jackson settings and modules of the JSON ObjectMapper.
+ */
+@Configuration
+public class CompactFormatConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new MappingJackson2SmileHttpMessageConverter(compactMapper(builder, factory));
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(compactMapper(builder, new CBORFactory()));
+    }
+
+    //builder là prototype bean của Spring Boot, đã áp dụng spring.jackson.*
+    private static ObjectMapper compactMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        return builder.factory(factory)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
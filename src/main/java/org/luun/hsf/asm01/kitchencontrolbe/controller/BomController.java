@@ -0,0 +1,53 @@
+package org.luun.hsf.asm01.kitchencontrolbe.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.BomDemandRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.MaterialDemandDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IBomService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/bom")
+@RequiredArgsConstructor
+@Tag(name = "BOM API", description = "Raw-material demand computed from recipes")
+public class BomController {
+
+    private final IBomService bomService;
+
+    @Operation(summary = "Explode one product", description = "Raw materials needed to make the given quantity of a product, through every recipe level")
+    @GetMapping("/products/{productId}")
+    public ResponseEntity<List<MaterialDemandDTO>> explodeProduct(@PathVariable("productId") long productId,
+                                                                  @RequestParam(value = "quantity", defaultValue = "1") double quantity) {
+        return ResponseEntity.ok(bomService.explodeProduct(productId, quantity));
+    }
+
+    @Operation(summary = "Raw-material demand of orders", description = "Total raw materials needed for the given orders")
+    @PostMapping("/demand")
+    public ResponseEntity<List<MaterialDemandDTO>> demandForOrders(@RequestBody BomDemandRequest request) {
+        return ResponseEntity.ok(bomService.demandForOrders(request.getOrderIds()));
+    }
+
+    @Operation(summary = "Raw-material demand of a date window", description = "Total raw materials needed for all orders with the given status placed in [from, to)")
+    @GetMapping("/demand")
+    public ResponseEntity<List<MaterialDemandDTO>> demandForWindow(
+            @RequestParam(value = "status", defaultValue = "WAITTING") OrderStatus status,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(bomService.demandForWindow(status, from, to));
+    }
+
+    @Operation(summary = "Reload recipes", description = "Drop the cached recipe graph, it is reloaded on next use")
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> invalidate() {
+        bomService.invalidate();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,31 @@
+package org.luun.hsf.asm01.kitchencontrolbe.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.CatalogCache;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.CatalogCacheStatsDTO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/catalog-cache")
+@RequiredArgsConstructor
+@Tag(name = "Catalog Cache API", description = "Inspect and invalidate the product/store name cache")
+public class CatalogCacheController {
+
+    private final CatalogCache catalogCache;
+
+    @Operation(summary = "Cache statistics", description = "Entry counts and hit/miss counters for products and stores")
+    @GetMapping("/stats")
+    public ResponseEntity<CatalogCacheStatsDTO> getStats() {
+        return ResponseEntity.ok(catalogCache.stats());
+    }
+
+    @Operation(summary = "Invalidate the cache", description = "Drop every cached product and store name, they are reloaded on next access")
+    @DeleteMapping
+    public ResponseEntity<Void> invalidateAll() {
+        catalogCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,46 @@
+package org.luun.hsf.asm01.kitchencontrolbe.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.DeliveryPlanRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.DeliveryPlanResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.DeliveryResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.DeliveryStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IDeliveryService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/deliveries")
+@RequiredArgsConstructor
+@Tag(name = "Deliveries API", description = "Plan delivery runs and track their status")
+public class DeliveryController {
+
+    private final IDeliveryService deliveryService;
+
+    @Operation(summary = "Plan deliveries for a day", description = "Group the day's DONE orders by store into delivery runs sized by shipper capacity")
+    @PostMapping("/plan")
+    public ResponseEntity<DeliveryPlanResultDTO> planDeliveries(@RequestBody DeliveryPlanRequest request) {
+        return ResponseEntity.ok(deliveryService.planDeliveries(request));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<DeliveryResponseDTO> getDelivery(@PathVariable("id") long deliveryId) {
+        return ResponseEntity.ok(deliveryService.getDelivery(deliveryId));
+    }
+
+    @Operation(summary = "Change delivery status", description = "Move a delivery one step along WAITTING -> PROCESSING -> DONE")
+    @ApiResponses( value = {
+            @ApiResponse(responseCode = "200", description = "Status changed"),
+            @ApiResponse(responseCode = "400", description = "Invalid transition")
+        }
+    )
+    @PatchMapping("/{id}/status")
+    public ResponseEntity<DeliveryResponseDTO> changeStatus(@PathVariable("id") long deliveryId,
+                                                            @RequestParam("status") DeliveryStatus status) {
+        return ResponseEntity.ok(deliveryService.changeStatus(deliveryId, status));
+    }
+}
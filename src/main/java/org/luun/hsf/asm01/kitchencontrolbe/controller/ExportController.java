@@ -0,0 +1,84 @@
+package org.luun.hsf.asm01.kitchencontrolbe.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.InventoryTransactionFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.export.ExportFormat;
+import org.luun.hsf.asm01.kitchencontrolbe.export.ExportTask;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+@Tag(name = "Exports API", description = "Stream full order and inventory transaction history as CSV or NDJSON")
+public class ExportController {
+
+    private final IExportService exportService;
+
+    @Operation(summary = "Export order lines", description = "One row per order detail, ordered by orderId. includeArchived=true also exports archived orders (their order_detail_id is empty). gzip=true compresses on the fly (Content-Encoding: gzip)")
+    @GetMapping("/orders")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @ModelAttribute OrderFilterRequest filter,
+            @RequestParam(value = "format", defaultValue = "CSV") ExportFormat format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            HttpServletRequest request) {
+        return stream("orders", format, gzip, exportService.exportOrderLines(filter, format), request);
+    }
+
+    @Operation(summary = "Export inventory transactions", description = "One row per inventory transaction, ordered by transactionId. gzip=true compresses on the fly (Content-Encoding: gzip)")
+    @GetMapping("/inventory-transactions")
+    public ResponseEntity<StreamingResponseBody> exportInventoryTransactions(
+            @ModelAttribute InventoryTransactionFilterRequest filter,
+            @RequestParam(value = "format", defaultValue = "CSV") ExportFormat format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            HttpServletRequest request) {
+        return stream("inventory-transactions", format, gzip, exportService.exportInventoryTransactions(filter, format), request);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, ExportFormat format, boolean gzip, ExportTask task,
+                                                         HttpServletRequest request) {
+        //Body có thể không bao giờ chạy (timeout, lỗi, client ngắt trước): trả chỗ export khi request async kết thúc
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(task, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> callable) {
+                task.cancel();
+            }
+        });
+        StreamingResponseBody body = out -> {
+            if (!gzip) {
+                task.writeTo(out);
+                return;
+            }
+            //syncFlush để mỗi lần flush của writer đẩy được dữ liệu đã nén ra client
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 8192, true);
+            task.writeTo(compressed);
+            compressed.finish();
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "-" + LocalDate.now() + "." + format.extension())
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
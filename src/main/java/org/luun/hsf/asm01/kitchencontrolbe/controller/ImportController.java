@@ -0,0 +1,54 @@
+package org.luun.hsf.asm01.kitchencontrolbe.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ImportJobDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.ImportKind;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IImportService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/imports")
+@RequiredArgsConstructor
+@Tag(name = "Imports API", description = "Bulk CSV import of products, recipes and stock receipts")
+public class ImportController {
+
+    private final IImportService importService;
+
+    @Operation(summary = "Start a CSV import",
+            description = "PRODUCTS: product_name,product_type,unit,shelf_life_days. "
+                    + "RECIPES: product_name,recipe_name,yield_quantity,description,raw_material_name,quantity (one line per ingredient, lines of a recipe contiguous). "
+                    + "STOCK_RECEIPTS: product_name,quantity,production_date,expiry_date (userId required). "
+                    + "Returns the QUEUED job; poll GET /api/imports/{id} for progress")
+    @PostMapping(value = "/{kind}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDTO> startImport(
+            @PathVariable("kind") ImportKind kind,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "userId", required = false) Long userId) {
+        try (InputStream content = file.getInputStream()) {
+            return ResponseEntity.accepted().body(importService.startImport(kind, file.getOriginalFilename(), content, userId));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read uploaded file: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get import progress", description = "Bytes and rows read, rows imported/rejected, rows/s and the first rejected lines")
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobDTO> getJob(@PathVariable("id") long jobId) {
+        return ResponseEntity.ok(importService.getJob(jobId));
+    }
+
+    @Operation(summary = "List recent imports", description = "Newest first; only the most recent jobs are kept in memory")
+    @GetMapping
+    public ResponseEntity<List<ImportJobDTO>> getJobs() {
+        return ResponseEntity.ok(importService.getJobs());
+    }
+}
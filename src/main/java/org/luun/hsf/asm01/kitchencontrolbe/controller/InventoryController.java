@@ -0,0 +1,89 @@
+package org.luun.hsf.asm01.kitchencontrolbe.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.AllocationResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ExpiryStatsDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ExpirySweepResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.StockBalanceDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.StockConsistencyDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.StockSnapshotResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IExpiryService;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IInventoryAllocationService;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IStockLedgerService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/inventory")
+@RequiredArgsConstructor
+@Tag(name = "Inventory API", description = "API for stock allocation and inventory queries")
+public class InventoryController {
+
+    private final IInventoryAllocationService allocationService;
+    private final IStockLedgerService stockLedgerService;
+    private final IExpiryService expiryService;
+
+    @Operation(summary = "Allocate stock to an order", description = "Consume inventory first-expiry-first-out for every line of a WAITTING order, planned or not, and move it to PROCESSING")
+    @ApiResponses( value = {
+            @ApiResponse(responseCode = "200", description = "Stock allocated"),
+            @ApiResponse(responseCode = "400", description = "Order not WAITTING or insufficient stock")
+        }
+    )
+    @PostMapping("/allocations/orders/{orderId}")
+    public ResponseEntity<AllocationResultDTO> allocateOrder(@PathVariable("orderId") int orderId,
+                                                             @RequestParam("userId") long userId) {
+        return ResponseEntity.ok(allocationService.allocateOrder(orderId, userId));
+    }
+
+    @Operation(summary = "Stock on hand of a product", description = "Running balance of the IMPORT/EXPORT ledger, served from memory")
+    @GetMapping("/stock/{productId}")
+    public ResponseEntity<StockBalanceDTO> getStock(@PathVariable("productId") long productId) {
+        return ResponseEntity.ok(StockBalanceDTO.builder()
+                .productId(productId)
+                .quantity(stockLedgerService.getStock(productId))
+                .build());
+    }
+
+    @Operation(summary = "Stock on hand of every product", description = "Running balances of all products in the ledger, served from memory")
+    @GetMapping("/stock")
+    public ResponseEntity<List<StockBalanceDTO>> getAllStock() {
+        return ResponseEntity.ok(stockLedgerService.getAllStock());
+    }
+
+    @Operation(summary = "Take a stock snapshot", description = "Persist per-product balances so startup only replays newer transactions")
+    @PostMapping("/stock/snapshots")
+    public ResponseEntity<StockSnapshotResultDTO> takeSnapshot() {
+        return ResponseEntity.ok(stockLedgerService.takeSnapshot());
+    }
+
+    @Operation(summary = "Check stock balances", description = "Compare the in-memory balances with a full sum of the transaction ledger")
+    @GetMapping("/stock/consistency")
+    public ResponseEntity<StockConsistencyDTO> checkConsistency() {
+        return ResponseEntity.ok(stockLedgerService.checkConsistency());
+    }
+
+    @Operation(summary = "Reload stock balances", description = "Rebuild the in-memory balances from the latest snapshot and the ledger after it")
+    @PostMapping("/stock/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        stockLedgerService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Expire due batches", description = "Mark batches past their expiry date EXPIRED and write off their remaining stock")
+    @PostMapping("/expiry/sweep")
+    public ResponseEntity<ExpirySweepResultDTO> sweepExpired(@RequestParam("userId") long userId) {
+        return ResponseEntity.ok(expiryService.sweepExpired(userId));
+    }
+
+    @Operation(summary = "Expiry sweeper statistics", description = "Queue size, lag of the oldest due batch and rows processed")
+    @GetMapping("/expiry/stats")
+    public ResponseEntity<ExpiryStatsDTO> getExpiryStats() {
+        return ResponseEntity.ok(expiryService.stats());
+    }
+}
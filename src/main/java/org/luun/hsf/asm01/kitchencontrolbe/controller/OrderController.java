@@ -4,51 +4,177 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
 import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderStatusTransitionRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.BatchOrderResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.CursorPageResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderArchiveResultDTO;
 import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderStatusTransitionResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderViewRebuildResultDTO;
 import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderService;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderWatchService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
-@Tag(name = "Orders API", description = "API for managing orders from stores")
+@Tag(name = "Orders API", description = "API for managing orders from stores. Responses are JSON by default, or Smile (application/x-jackson-smile) and CBOR (application/cbor) when asked for in the Accept header")
 public class OrderController {
 
     private final IOrderService orderService;
+    private final IOrderWatchService orderWatchService;
+    private final ObjectMapper objectMapper;
 
-    @Operation(summary = "Create a new order", description = "Create a new order from stores, including order details")
+    @Operation(summary = "Create a new order", description = "Create a new order from stores, including order details. Retries with the same Idempotency-Key header return the order created by the first call; reusing a key with a different body returns 422")
     @ApiResponses( value = {
             @ApiResponse(responseCode = "201", description = "Order created successfully"),
             @ApiResponse(responseCode = "400", description = "Bad request")
         }
     )
     @PostMapping
-    public ResponseEntity<OrderResponseDTO> createOrder(@RequestBody OrderRequestDTO request) {
-        OrderResponseDTO newOrder = orderService.createOrder(request);
+    public ResponseEntity<OrderResponseDTO> createOrder(@RequestBody OrderRequestDTO request,
+                                                        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        OrderResponseDTO newOrder = orderService.createOrder(request, idempotencyKey);
         return new ResponseEntity<>(newOrder, HttpStatus.CREATED);
     }
     
+    @Operation(summary = "Create orders in bulk", description = "Create many orders in one call using batched inserts. Returns one result per submitted order, in the same order")
+    @ApiResponses( value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, check success of each result"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+        }
+    )
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchOrderResultDTO>> createOrders(@RequestBody List<OrderRequestDTO> requests) {
+        return ResponseEntity.ok(orderService.createOrders(requests));
+    }
+
+    @Operation(summary = "Get an order", description = "The ETag is the order version. If-None-Match with the current ETag returns 304 without loading the order. includeArchived=true also looks the order up in orders_archive")
     @GetMapping("/{id}")
-    public ResponseEntity<OrderResponseDTO> getOrderById(@PathVariable("id") int orderId) {
-        OrderResponseDTO order = orderService.getOrderById(orderId);
-        return ResponseEntity.ok(order);
+    public ResponseEntity<OrderResponseDTO> getOrderById(@PathVariable("id") int orderId,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                         @RequestParam(value = "includeArchived", defaultValue = "false") boolean includeArchived) {
+        if (ifNoneMatch != null) {
+            Long version = orderService.getOrderVersion(orderId);
+            if (version != null && etagMatches(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(version)).varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
+        OrderResponseDTO order = orderService.getOrderById(orderId, includeArchived);
+        //Cùng ETag cho mọi định dạng: cache phải phân biệt theo Accept
+        return ResponseEntity.ok().eTag(etag(order.getVersion())).varyBy(HttpHeaders.ACCEPT).body(order);
+    }
+
+    @Operation(summary = "Wait for an order to change", description = "Long-poll: answers 200 with the order as soon as its version differs from the If-None-Match ETag, or 304 after timeoutSeconds")
+    @GetMapping("/{id}/watch")
+    public CompletableFuture<ResponseEntity<OrderResponseDTO>> watchOrder(
+            @PathVariable("id") int orderId,
+            @RequestHeader(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+            @RequestParam(value = "timeoutSeconds", defaultValue = "30") int timeoutSeconds) {
+        long knownVersion = parseETag(ifNoneMatch);
+        return orderWatchService.watchOrder(orderId, knownVersion, Duration.ofSeconds(timeoutSeconds))
+                .thenApply(order -> order == null
+                        ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(knownVersion)).varyBy(HttpHeaders.ACCEPT).<OrderResponseDTO>build()
+                        : ResponseEntity.ok().eTag(etag(order.getVersion())).varyBy(HttpHeaders.ACCEPT).body(order));
     }
 
+    @Operation(summary = "List orders", description = "Keyset-paginated order listing, newest first. Pass nextCursor back as cursor to get the next page. includeArchived=true merges in orders moved to orders_archive")
     @GetMapping
-    public ResponseEntity<List<OrderResponseDTO>> getAllOrders() {
-        List<OrderResponseDTO> orders = orderService.getAllOrders();
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<CursorPageResponseDTO<OrderResponseDTO>> getOrders(
+            @ModelAttribute OrderFilterRequest filter,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
+        return ResponseEntity.ok(orderService.getOrders(filter, cursor, size));
+    }
+
+    @Operation(summary = "Stream orders as NDJSON", description = "Streams every matching order, one JSON object per line, with constant server memory")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOrders(@ModelAttribute OrderFilterRequest filter) {
+        StreamingResponseBody body = out -> orderService.streamOrders(filter, order -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(order));
+                out.write('\n');
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
+    @Operation(summary = "Delete an order", description = "Soft delete: the order disappears from every query and its demand is taken out of the reports; the row stays until the archiver moves it to orders_archive")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteOrder(@PathVariable("id") int orderId) {
         orderService.deleteOrder(orderId);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(summary = "Change the status of many orders", description = "Moves every order in scope (orderIds and/or planId, storeId, fromDate, toDate) that is currently in status from to status to with one conditional UPDATE. Allowed: WAITTING -> PROCESSING -> DONE, PROCESSING or DONE -> DAMAGED. Orders in scope but in another status are counted as rejected")
+    @ApiResponses( value = {
+            @ApiResponse(responseCode = "200", description = "Transition applied, check applied and rejected counts"),
+            @ApiResponse(responseCode = "400", description = "Transition not allowed or no scope given")
+        }
+    )
+    @PostMapping("/status-transitions")
+    public ResponseEntity<OrderStatusTransitionResultDTO> transitionStatus(@RequestBody OrderStatusTransitionRequest request) {
+        return ResponseEntity.ok(orderService.transitionStatus(request));
+    }
+
+    @Operation(summary = "Rebuild the order read view", description = "Rewrites order_view, the one-row-per-order copy that serves GET /api/orders and /api/orders/{id}, from orders and order_details in chunks, then removes rows of orders that no longer exist")
+    @PostMapping("/view/rebuild")
+    public ResponseEntity<OrderViewRebuildResultDTO> rebuildOrderView() {
+        return ResponseEntity.ok(orderService.rebuildOrderView());
+    }
+
+    @Operation(summary = "Archive old orders", description = "Moves orders older than kitchen.orders.archive.min-age that are DONE, DAMAGED or deleted from orders and order_details to orders_archive in chunks. Also runs on kitchen.orders.archive.cron")
+    @PostMapping("/archive")
+    public ResponseEntity<OrderArchiveResultDTO> archiveOrders() {
+        return ResponseEntity.ok(orderService.archiveOrders());
+    }
+
+    private static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    //If-None-Match có thể là danh sách, ETag yếu (W/"3") hoặc *
+    private static boolean etagMatches(String ifNoneMatch, long version) {
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.equals("*") || value.equals(etag(version)) || value.equals("W/" + etag(version))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long parseETag(String ifNoneMatch) {
+        String value = ifNoneMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("If-None-Match must be the ETag returned by GET /api/orders/{id}");
+        }
+    }
 }
@@ -0,0 +1,30 @@
+package org.luun.hsf.asm01.kitchencontrolbe.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.PlanAggregationResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IProductionPlanService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/production-plans")
+@RequiredArgsConstructor
+@Tag(name = "Production Plans API", description = "Roll waiting orders into production plans")
+public class ProductionPlanController {
+
+    private final IProductionPlanService productionPlanService;
+
+    @Operation(summary = "Aggregate waiting orders", description = "Create one production plan per day in [from, to) from WAITTING orders that have no plan yet. Orders stay WAITTING until their stock is allocated")
+    @PostMapping("/aggregate")
+    public ResponseEntity<PlanAggregationResultDTO> aggregate(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam("userId") long userId) {
+        return ResponseEntity.ok(productionPlanService.aggregateWaitingOrders(from, to, userId));
+    }
+}
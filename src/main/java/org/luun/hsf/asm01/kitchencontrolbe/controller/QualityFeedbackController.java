@@ -0,0 +1,54 @@
+package org.luun.hsf.asm01.kitchencontrolbe.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.FeedbackRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.FeedbackResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.RatingStatsDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IQualityFeedbackService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/feedbacks")
+@RequiredArgsConstructor
+@Tag(name = "Quality Feedback API", description = "Order ratings and per-store / per-product rating statistics")
+public class QualityFeedbackController {
+
+    private final IQualityFeedbackService feedbackService;
+
+    @Operation(summary = "Rate an order", description = "One feedback per order, rating 1 -> 5; the store is taken from the order")
+    @PostMapping
+    public ResponseEntity<FeedbackResponseDTO> createFeedback(@RequestBody FeedbackRequest request) {
+        return ResponseEntity.ok(feedbackService.createFeedback(request));
+    }
+
+    @Operation(summary = "Rating statistics of every store", description = "Served from in-memory counters. days = 0 for all time, 1 -> 30 for the last days including today")
+    @GetMapping("/stats/stores")
+    public ResponseEntity<List<RatingStatsDTO>> getStoreStats(@RequestParam(value = "days", defaultValue = "0") int days) {
+        return ResponseEntity.ok(feedbackService.getStoreStats(days));
+    }
+
+    @Operation(summary = "Rating statistics of one store")
+    @GetMapping("/stats/stores/{storeId}")
+    public ResponseEntity<RatingStatsDTO> getStoreStats(@PathVariable("storeId") int storeId,
+                                                        @RequestParam(value = "days", defaultValue = "0") int days) {
+        return ResponseEntity.ok(feedbackService.getStoreStats(storeId, days));
+    }
+
+    @Operation(summary = "Rating statistics of every product", description = "A feedback counts once for every product of the rated order")
+    @GetMapping("/stats/products")
+    public ResponseEntity<List<RatingStatsDTO>> getProductStats(@RequestParam(value = "days", defaultValue = "0") int days) {
+        return ResponseEntity.ok(feedbackService.getProductStats(days));
+    }
+
+    @Operation(summary = "Rebuild rating statistics", description = "Reload the in-memory counters from quality_feedbacks, as done at startup")
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        feedbackService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
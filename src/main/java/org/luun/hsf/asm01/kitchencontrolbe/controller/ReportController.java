@@ -0,0 +1,62 @@
+package org.luun.hsf.asm01.kitchencontrolbe.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.ReportRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.AggregateRebuildResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ReportResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IReportService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@Tag(name = "Reports API", description = "Reports generated from incrementally maintained daily aggregates")
+public class ReportController {
+
+    private final IReportService reportService;
+
+    @Operation(summary = "Request a report", description = "Create a PENDING report; the CSV file is generated in the background from the daily aggregate tables")
+    @PostMapping
+    public ResponseEntity<ReportResponseDTO> requestReport(@RequestBody ReportRequest request) {
+        return ResponseEntity.accepted().body(reportService.requestReport(request));
+    }
+
+    @Operation(summary = "Get report status")
+    @GetMapping("/{id}")
+    public ResponseEntity<ReportResponseDTO> getReport(@PathVariable("id") long reportId) {
+        return ResponseEntity.ok(reportService.getReport(reportId));
+    }
+
+    @Operation(summary = "Download a report", description = "Stream the CSV file of a DONE report")
+    @GetMapping("/{id}/file")
+    public ResponseEntity<Resource> downloadReport(@PathVariable("id") long reportId) {
+        Path file = reportService.getReportFile(reportId);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(file.getFileName().toString())
+                        .build()
+                        .toString())
+                .body(new FileSystemResource(file));
+    }
+
+    @Operation(summary = "Rebuild report aggregates", description = "Recompute the daily aggregate rows of [from, to) from orders and log batches, for backfills and repairs")
+    @PostMapping("/aggregates/rebuild")
+    public ResponseEntity<AggregateRebuildResultDTO> rebuildAggregates(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(reportService.rebuildAggregates(from, to));
+    }
+}
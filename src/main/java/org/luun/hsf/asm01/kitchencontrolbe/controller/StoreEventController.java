@@ -0,0 +1,34 @@
+package org.luun.hsf.asm01.kitchencontrolbe.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IStoreEventService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/stores")
+@RequiredArgsConstructor
+@Tag(name = "Store Events API", description = "Push order and delivery status changes to stores")
+public class StoreEventController {
+
+    private final IStoreEventService storeEventService;
+
+    @Operation(summary = "Subscribe to a store's status changes",
+            description = "Server-Sent Events: 'order-status' and 'delivery-status' events carry a StoreEventDTO, "
+                    + "comments are heartbeats. A client that falls too far behind is disconnected and should "
+                    + "reconnect and refetch. Order events carry their eventId as the SSE id; a reconnecting client "
+                    + "sends it back in Last-Event-ID and is not sent that event again. Events published while "
+                    + "disconnected are not replayed, refetch after reconnecting")
+    @GetMapping(value = "/{storeId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@PathVariable("storeId") int storeId,
+                                @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return storeEventService.subscribe(storeId, lastEventId);
+    }
+}
@@ -0,0 +1,14 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BomDemandRequest {
+    private List<Integer> orderIds;
+}
@@ -0,0 +1,24 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryPlanRequest {
+    private LocalDate date;
+    private List<ShipperCapacity> shippers;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ShipperCapacity {
+        private Long shipperId;
+        private int capacity; // Max orders per delivery run
+    }
+}
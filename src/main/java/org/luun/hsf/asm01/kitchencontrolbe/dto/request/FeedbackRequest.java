@@ -0,0 +1,14 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackRequest {
+    private Integer orderId;
+    private Integer rating; // 1 -> 5
+    private String comment;
+}
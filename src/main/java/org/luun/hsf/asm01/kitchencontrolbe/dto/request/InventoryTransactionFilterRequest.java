@@ -0,0 +1,24 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.TransactionType;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+//Các điều kiện lọc đều optional, null nghĩa là không lọc theo trường đó
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryTransactionFilterRequest {
+    private Long productId;
+    private TransactionType type;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime fromDate;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime toDate;
+}
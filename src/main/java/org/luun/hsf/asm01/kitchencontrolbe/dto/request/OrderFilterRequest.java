@@ -0,0 +1,27 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+//Các điều kiện lọc đều optional, null nghĩa là không lọc theo trường đó
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderFilterRequest {
+    private Integer storeId;
+    private OrderStatus status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime fromDate;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime toDate;
+
+    //Đọc thêm orders_archive (order cũ đã được OrderArchiver chuyển đi), mặc định chỉ đọc order còn trong orders
+    private boolean includeArchived;
+}
@@ -0,0 +1,23 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+//Chuyển các order đang ở status from sang to; phạm vi là orderIds và/hoặc các điều kiện lọc (null = không lọc)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusTransitionRequest {
+    private OrderStatus from;
+    private OrderStatus to;
+    private List<Integer> orderIds;
+    private Long planId;
+    private Integer storeId;
+    private LocalDateTime fromDate;
+    private LocalDateTime toDate;
+}
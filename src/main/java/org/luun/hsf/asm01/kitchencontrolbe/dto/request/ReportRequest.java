@@ -0,0 +1,19 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ReportType;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportRequest {
+    private ReportType reportType;
+    private LocalDate fromDate; // Inclusive
+    private LocalDate toDate; // Exclusive
+    private Integer storeId; // Only for PRODUCT_DEMAND, null = all stores
+    private Long userId;
+}
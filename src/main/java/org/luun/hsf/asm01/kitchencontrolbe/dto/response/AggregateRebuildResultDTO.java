@@ -0,0 +1,21 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AggregateRebuildResultDTO {
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private int productDemandRows;
+    private int orderStatusRows;
+    private int productionRows;
+    private long elapsedMillis;
+}
@@ -0,0 +1,30 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AllocationResultDTO {
+    private int orderId;
+    private OrderStatus status;
+    private List<AllocationLine> allocations;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AllocationLine {
+        private int productId;
+        private Long inventoryId;
+        private Long batchId;
+        private float quantity;
+    }
+}
@@ -0,0 +1,17 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderResultDTO {
+    private int index;              // Position of the order in the submitted list
+    private boolean success;
+    private OrderResponseDTO order; // Null when success = false
+    private String error;           // Null when success = true
+}
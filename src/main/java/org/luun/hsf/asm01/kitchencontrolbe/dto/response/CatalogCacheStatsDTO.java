@@ -0,0 +1,19 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogCacheStatsDTO {
+    private int productEntries;
+    private long productHits;
+    private long productMisses;
+    private int storeEntries;
+    private long storeHits;
+    private long storeMisses;
+}
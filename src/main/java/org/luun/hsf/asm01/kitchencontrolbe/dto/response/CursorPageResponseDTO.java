@@ -0,0 +1,19 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponseDTO<T> {
+    private List<T> items;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor; // Pass back as ?cursor= to fetch the next page, null on the last page
+}
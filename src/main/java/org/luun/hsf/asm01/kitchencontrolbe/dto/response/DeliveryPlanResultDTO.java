@@ -0,0 +1,21 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryPlanResultDTO {
+    private LocalDate date;
+    private int deliveryCount;
+    private int orderCount;
+    private long elapsedMillis;
+    private List<DeliveryResponseDTO> deliveries;
+}
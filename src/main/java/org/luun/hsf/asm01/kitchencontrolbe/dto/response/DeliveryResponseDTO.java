@@ -0,0 +1,24 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.DeliveryStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryResponseDTO {
+    private Long deliveryId;
+    private LocalDate deliveryDate;
+    private DeliveryStatus status;
+    private Long shipperId;
+    private Integer storeId;
+    private int orderCount;
+    private List<Integer> orderIds;
+}
@@ -0,0 +1,27 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpiryStatsDTO {
+    private int queued;
+    private LocalDate nextExpiryDate;
+    private LocalDate loadedThrough;
+    private long lagSeconds; // Thời gian từ lúc lô cũ nhất trong queue hết hạn mà chưa được sweep
+    private long sweeps;
+    private long batchesExpired;
+    private long inventoriesWrittenOff;
+    private int parked; // Số lô đang bị park vì lỗi liên tục
+    private LocalDateTime lastSweepAt;
+    private long lastSweepMillis;
+    private int lastSweepBatches;
+}
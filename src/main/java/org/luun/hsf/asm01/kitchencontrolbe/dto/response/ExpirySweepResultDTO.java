@@ -0,0 +1,20 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpirySweepResultDTO {
+    private int batchesExpired;
+    private int inventoriesWrittenOff;
+    private double quantityWrittenOff;
+    private int chunks;
+    private int batchesFailed; // Lô bị lỗi trong sweep này, được thử lại ở sweep sau
+    private int batchesParked; // Lô lỗi max-attempts lần, không được thử lại nữa
+    private long elapsedMillis;
+}
@@ -0,0 +1,21 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackResponseDTO {
+    private Long feedbackId;
+    private int orderId;
+    private int storeId;
+    private int rating;
+    private String comment;
+    private LocalDateTime createdAt;
+}
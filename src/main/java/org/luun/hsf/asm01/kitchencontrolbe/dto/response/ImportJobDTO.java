@@ -0,0 +1,45 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.ImportKind;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.ImportStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDTO {
+    private Long jobId;
+    private ImportKind kind;
+    private ImportStatus status;
+    private String fileName;
+    private Long userId;
+    private long totalBytes;
+    private long bytesRead;
+    //Tiến độ theo số byte đã đọc, 0 -> 100
+    private double percent;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    private double rowsPerSecond;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+    //Chỉ giữ max-errors lỗi đầu tiên, rowsRejected là tổng số
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
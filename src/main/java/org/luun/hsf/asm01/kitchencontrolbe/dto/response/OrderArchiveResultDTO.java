@@ -0,0 +1,20 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderArchiveResultDTO {
+    //Order đặt trước thời điểm này mới được archive
+    private LocalDateTime cutoff;
+    private int ordersArchived;
+    private int chunks;
+    private long elapsedMillis;
+}
@@ -20,6 +20,8 @@ public class OrderResponseDTO {
     private Long planId;      // Added to fix the build error
     private LocalDateTime orderDate;
     private OrderStatus status;
+    //Giống ETag của GET /api/orders/{id}
+    private long version;
     private List<OrderDetailResponse> orderDetails;
 
     @Data
@@ -0,0 +1,26 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusTransitionResultDTO {
+    private OrderStatus from;
+    private OrderStatus to;
+    //Số order trong phạm vi của request
+    private long matched;
+    private int applied;
+    //Order trong phạm vi nhưng không ở status from (hoặc không tồn tại)
+    private long rejected;
+    //Chỉ điền khi request truyền orderIds
+    private List<Integer> rejectedOrderIds;
+    private long elapsedMillis;
+}
@@ -0,0 +1,16 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderViewRebuildResultDTO {
+    private int rowsWritten;
+    private int orphansRemoved;
+    private long elapsedMillis;
+}
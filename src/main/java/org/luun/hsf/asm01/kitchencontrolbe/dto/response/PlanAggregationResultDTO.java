@@ -0,0 +1,44 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanAggregationResultDTO {
+    private LocalDate fromDate;
+    private LocalDate toDate;     // Exclusive
+    private int orderCount;
+    private long orderLines;
+    private long elapsedMillis;
+    private List<PlanSummary> plans;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PlanSummary {
+        private Long planId;
+        private Integer kitchenId;
+        private LocalDate planDate;
+        private int orderCount;
+        private List<ProductQuantity> products;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProductQuantity {
+        private int productId;
+        private String productName;
+        private double quantity;
+    }
+}
@@ -0,0 +1,23 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingStatsDTO {
+    //storeId hoặc productId tùy API
+    private int id;
+    private String name;
+    //Số ngày của window, 0 = toàn bộ
+    private int days;
+    private long count;
+    private long sum;
+    private double average;
+    //histogram[i] = số feedback có rating i + 1
+    private long[] histogram;
+}
@@ -0,0 +1,30 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ReportStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ReportType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportResponseDTO {
+    private Long reportId;
+    private ReportType reportType;
+    private ReportStatus status;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private Integer storeId;
+    private Long userId;
+    private LocalDateTime createdDate;
+    private LocalDateTime completedDate;
+    private Long rowCount;
+    private Long fileSize;
+    private String error;
+}
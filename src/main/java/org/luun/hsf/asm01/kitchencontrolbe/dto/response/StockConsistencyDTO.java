@@ -0,0 +1,29 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockConsistencyDTO {
+    private boolean consistent;
+    private int checkedProducts;
+    private long elapsedMillis;
+    private List<Mismatch> mismatches;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Mismatch {
+        private long productId;
+        private double inMemory;
+        private double ledger;
+    }
+}
@@ -0,0 +1,17 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSnapshotResultDTO {
+    private boolean created; // false khi không có transaction mới từ snapshot trước
+    private long lastTransactionId;
+    private int productCount;
+    private long elapsedMillis;
+}
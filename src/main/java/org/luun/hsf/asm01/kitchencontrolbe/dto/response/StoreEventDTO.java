@@ -0,0 +1,26 @@
+package org.luun.hsf.asm01.kitchencontrolbe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.feed.StoreEventType;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoreEventDTO {
+    private StoreEventType type;
+    private int storeId;
+    //ORDER_STATUS: id của event trong order_outbox, cũng là id của event SSE; hub không gửi lại id đã gửi
+    private Long eventId;
+    private Integer orderId;
+    private Long deliveryId;
+    //OrderStatus hoặc DeliveryStatus tùy type, null với order vừa tạo
+    private String previousStatus;
+    private String status;
+    private LocalDateTime occurredAt;
+}
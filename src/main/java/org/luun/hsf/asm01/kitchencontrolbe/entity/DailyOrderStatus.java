@@ -0,0 +1,31 @@
+package org.luun.hsf.asm01.kitchencontrolbe.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+
+import java.time.LocalDate;
+
+//Số order của 1 ngày (theo orderDate) đang ở mỗi status, mỗi event chuyển 1 đơn vị từ previousStatus sang status
+@Entity
+@Table(name = "daily_order_status", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_order_status", columnNames = {"report_date", "status"})
+})
+@Data
+public class DailyOrderStatus {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_order_status_seq")
+    @SequenceGenerator(name = "daily_order_status_seq", sequenceName = "daily_order_status_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "report_date", nullable = false)
+    private LocalDate reportDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+}
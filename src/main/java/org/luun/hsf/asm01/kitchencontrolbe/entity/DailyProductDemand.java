@@ -0,0 +1,35 @@
+package org.luun.hsf.asm01.kitchencontrolbe.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+//Tổng số lượng đặt của 1 product cho 1 store trong 1 ngày (theo orderDate), cộng dồn từ event CREATED
+@Entity
+@Table(name = "daily_product_demand", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_product_demand", columnNames = {"report_date", "store_id", "product_id"})
+})
+@Data
+public class DailyProductDemand {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_product_demand_seq")
+    @SequenceGenerator(name = "daily_product_demand_seq", sequenceName = "daily_product_demand_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "report_date", nullable = false)
+    private LocalDate reportDate;
+
+    @Column(name = "store_id", nullable = false)
+    private int storeId;
+
+    @Column(name = "product_id", nullable = false)
+    private int productId;
+
+    @Column(nullable = false)
+    private double quantity;
+
+    @Column(name = "order_lines", nullable = false)
+    private long orderLines;
+}
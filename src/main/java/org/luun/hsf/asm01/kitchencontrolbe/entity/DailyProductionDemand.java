@@ -0,0 +1,32 @@
+package org.luun.hsf.asm01.kitchencontrolbe.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+//Sản xuất (LogBatch PRODUCTION theo productionDate) so với nhu cầu (order theo orderDate) của 1 product trong 1 ngày
+@Entity
+@Table(name = "daily_production_demand", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_production_demand", columnNames = {"report_date", "product_id"})
+})
+@Data
+public class DailyProductionDemand {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_production_demand_seq")
+    @SequenceGenerator(name = "daily_production_demand_seq", sequenceName = "daily_production_demand_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "report_date", nullable = false)
+    private LocalDate reportDate;
+
+    @Column(name = "product_id", nullable = false)
+    private int productId;
+
+    @Column(nullable = false)
+    private double demand;
+
+    @Column(nullable = false)
+    private double produced;
+}
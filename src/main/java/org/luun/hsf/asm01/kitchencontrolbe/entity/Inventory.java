@@ -5,11 +5,15 @@ import lombok.Data;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "inventories")
+@Table(name = "inventories", indexes = {
+        @Index(name = "idx_inventories_product_expiry", columnList = "product_id, expiry_date")
+})
 @Data
 public class Inventory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //Sequence pooled để import CSV batch được các câu INSERT
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventories_seq")
+    @SequenceGenerator(name = "inventories_seq", sequenceName = "inventories_seq", allocationSize = 50)
     @Column(name = "inventory_id")
     private Long inventoryId;
 
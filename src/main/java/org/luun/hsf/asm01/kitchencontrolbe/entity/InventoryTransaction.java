@@ -3,12 +3,14 @@ package org.luun.hsf.asm01.kitchencontrolbe.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.TransactionType;
+import org.luun.hsf.asm01.kitchencontrolbe.ledger.StockLedgerListener;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "inventory_transactions")
 @Data
+@EntityListeners(StockLedgerListener.class)
 public class InventoryTransaction {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -4,17 +4,24 @@ import jakarta.persistence.*;
 import lombok.Data;
 import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogStatus;
 import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogType;
+import org.luun.hsf.asm01.kitchencontrolbe.expiry.ExpiryQueueListener;
+import org.luun.hsf.asm01.kitchencontrolbe.report.ProductionReportListener;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "log_batches")
+@Table(name = "log_batches", indexes = {
+        @Index(name = "idx_log_batches_expiry_id", columnList = "expiry_date, batch_id")
+})
 @Data
+@EntityListeners({ExpiryQueueListener.class, ProductionReportListener.class})
 public class LogBatch {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //Sequence pooled để import CSV batch được các câu INSERT
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "log_batches_seq")
+    @SequenceGenerator(name = "log_batches_seq", sequenceName = "log_batches_seq", allocationSize = 50)
     @Column(name = "batch_id")
     private Long batchId;
 
@@ -2,18 +2,27 @@ package org.luun.hsf.asm01.kitchencontrolbe.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_order_date_id", columnList = "order_date, order_id"),
+        @Index(name = "idx_orders_store_date", columnList = "store_id, order_date")
+})
+//Order đã xóa mềm không hiện ra trong mọi query JPA; các query cần thấy chúng (report, archive) dùng SQL native
+@SQLRestriction("deleted_at is null")
 @Data
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //Dùng sequence (pooled, allocationSize = 50) thay cho IDENTITY để Hibernate batch được các câu INSERT
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     @Column(name = "order_id")
     private int orderId;
 
@@ -35,6 +44,20 @@ public class Order {
     @Column(name = "status", nullable = false)
     private OrderStatus status;
 
+    //Idempotency-Key của request tạo order, unique để 2 lần retry chạy song song không tạo 2 order
+    @Column(name = "idempotency_key", unique = true, length = 100)
+    private String idempotencyKey;
+
+    //Tăng mỗi lần order đổi (kể cả các câu UPDATE hàng loạt), dùng làm ETag của GET /api/orders/{id}
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    //Xóa mềm: dòng và details vẫn còn tới khi OrderArchiver chuyển sang orders_archive
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderDetail> orderDetails;
 }
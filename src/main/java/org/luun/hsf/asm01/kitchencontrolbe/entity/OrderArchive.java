@@ -0,0 +1,38 @@
+package org.luun.hsf.asm01.kitchencontrolbe.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.LocalDateTime;
+
+//Order cũ đã được OrderArchiver chuyển khỏi orders + order_details: 1 dòng/order thay cho 1 + N dòng
+@Entity
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_date_id", columnList = "order_date, order_id"),
+        @Index(name = "idx_orders_archive_store_date", columnList = "store_id, order_date")
+})
+//Giống orders: order đã xóa mềm vẫn được chuyển sang archive nhưng không hiện ra trong các query
+@SQLRestriction("deleted_at is null")
+@Getter
+@Setter
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class OrderArchive extends OrderSnapshot {
+
+    @Column(name = "delivery_id")
+    private Long deliveryId;
+
+    //Khác null nếu order đã bị xóa mềm trước khi archive
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
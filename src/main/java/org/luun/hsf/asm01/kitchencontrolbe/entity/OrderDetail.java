@@ -4,12 +4,16 @@ import jakarta.persistence.*;
 import lombok.Data;
 
 @Entity
-@Table(name = "order_details")
+//Index order_id cho việc load details theo order và export đi theo thứ tự orderId
+@Table(name = "order_details", indexes = {
+        @Index(name = "idx_order_details_order_id", columnList = "order_id, order_detail_id")
+})
 @Data
 public class OrderDetail {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_details_seq")
+    @SequenceGenerator(name = "order_details_seq", sequenceName = "order_details_seq", allocationSize = 50)
     @Column(name = "order_detail_id")
     private int orderDetailId;
 
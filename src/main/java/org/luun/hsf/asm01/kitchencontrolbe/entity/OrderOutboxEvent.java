@@ -0,0 +1,60 @@
+package org.luun.hsf.asm01.kitchencontrolbe.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderEventType;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+//Outbox của order: ghi cùng transaction với thay đổi order, OutboxDispatcher đọc theo event_id và publish sau khi commit
+//Thứ tự theo event_id chỉ đúng trong 1 instance (mỗi instance giữ 1 khối id của sequence pooled)
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_order_outbox_published_id", columnList = "published_at, event_id")
+})
+@Data
+public class OrderOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "order_id", nullable = false)
+    private int orderId;
+
+    //Ngày của orderDate, để subscriber cộng dồn theo ngày mà không cần đọc lại order
+    @Column(name = "order_day", nullable = false)
+    private LocalDate orderDay;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private OrderEventType eventType;
+
+    //Status trước sự kiện, null với CREATED
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status")
+    private OrderStatus previousStatus;
+
+    //Status của order sau sự kiện, null với DELETED
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private OrderStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    //null = chưa publish
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    //Khác null = lỗi quá max-attempts lần, dispatcher không đọc lại nữa (xóa cột này để thử lại)
+    @Column(name = "parked_at")
+    private LocalDateTime parkedAt;
+}
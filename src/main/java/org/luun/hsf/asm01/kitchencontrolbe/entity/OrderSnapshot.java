@@ -0,0 +1,43 @@
+package org.luun.hsf.asm01.kitchencontrolbe.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import lombok.Data;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+//Các cột chung của order_view và orders_archive: 1 dòng/order, details mã hóa trong cột lines
+@MappedSuperclass
+@Data
+public abstract class OrderSnapshot {
+
+    //Cùng id với orders, không tự sinh
+    @Id
+    @Column(name = "order_id")
+    private int orderId;
+
+    @Column(name = "store_id", nullable = false)
+    private int storeId;
+
+    @Column(name = "plan_id")
+    private Long planId;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private OrderStatus status;
+
+    //Bằng orders.version lúc chép
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    //"productId:quantity;productId:quantity..." theo thứ tự của Order.orderDetails, xem OrderLinesCodec
+    @Column(name = "lines", nullable = false, columnDefinition = "text")
+    private String lines;
+}
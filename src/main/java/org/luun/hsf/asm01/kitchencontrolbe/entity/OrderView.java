@@ -0,0 +1,14 @@
+package org.luun.hsf.asm01.kitchencontrolbe.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+//Bản sao phi chuẩn hóa của các order còn hoạt động cho các API đọc, được OrderViewProjection giữ khớp với orders
+@Entity
+@Table(name = "order_view", indexes = {
+        @Index(name = "idx_order_view_date_id", columnList = "order_date, order_id"),
+        @Index(name = "idx_order_view_store_date", columnList = "store_id, order_date")
+})
+public class OrderView extends OrderSnapshot {
+}
@@ -0,0 +1,23 @@
+package org.luun.hsf.asm01.kitchencontrolbe.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+//Quyền dispatch outbox: chỉ instance đang giữ lease (owner, chưa quá expires_at) được đọc và publish order_outbox
+@Entity
+@Table(name = "outbox_lease")
+@Data
+public class OutboxLease {
+
+    @Id
+    @Column(name = "lease_name", length = 64)
+    private String leaseName;
+
+    @Column(name = "owner", nullable = false, length = 64)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
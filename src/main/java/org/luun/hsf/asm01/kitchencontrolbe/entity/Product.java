@@ -2,15 +2,19 @@ package org.luun.hsf.asm01.kitchencontrolbe.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.CatalogCacheListener;
 import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ProductType;
 
 @Entity
 @Table(name = "products")
 @Data
+@EntityListeners(CatalogCacheListener.class)
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //Sequence pooled để import CSV batch được các câu INSERT
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     @Column(name = "product_id")
     private Long productId;
 
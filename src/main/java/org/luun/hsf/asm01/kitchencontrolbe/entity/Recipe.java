@@ -2,16 +2,20 @@ package org.luun.hsf.asm01.kitchencontrolbe.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.RecipeChangeListener;
 
 import java.util.List;
 
 @Entity
 @Table(name = "recipes")
 @Data
+@EntityListeners(RecipeChangeListener.class)
 public class Recipe {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //Sequence pooled để import CSV batch được các câu INSERT
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipes_seq")
+    @SequenceGenerator(name = "recipes_seq", sequenceName = "recipes_seq", allocationSize = 50)
     @Column(name = "recipe_id")
     private Long recipeId;
 
@@ -2,13 +2,17 @@ package org.luun.hsf.asm01.kitchencontrolbe.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.RecipeChangeListener;
 
 @Entity
 @Table(name = "recipe_details")
 @Data
+@EntityListeners(RecipeChangeListener.class)
 public class RecipeDetail {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //Sequence pooled để import CSV batch được các câu INSERT
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_details_seq")
+    @SequenceGenerator(name = "recipe_details_seq", sequenceName = "recipe_details_seq", allocationSize = 50)
     @Column(name = "recipe_detail_id")
     private Long recipeDetailId;
 
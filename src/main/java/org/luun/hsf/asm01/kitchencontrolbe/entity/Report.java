@@ -2,6 +2,10 @@ package org.luun.hsf.asm01.kitchencontrolbe.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ReportStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ReportType;
+
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
@@ -13,8 +17,9 @@ public class Report {
     @Column(name = "report_id")
     private Long reportId;
 
+    @Enumerated(EnumType.STRING)
     @Column(name = "report_type")
-    private String reportType;
+    private ReportType reportType;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -22,4 +27,40 @@ public class Report {
 
     @Column(name = "created_date")
     private LocalDateTime createdDate;
+
+    @Enumerated(EnumType.STRING)
+    private ReportStatus status;
+
+    //Khoảng ngày [fromDate, toDate) của report, storeId null = mọi store
+    @Column(name = "from_date")
+    private LocalDate fromDate;
+
+    @Column(name = "to_date")
+    private LocalDate toDate;
+
+    @Column(name = "store_id")
+    private Integer storeId;
+
+    //File kết quả (CSV) nằm trong kitchen.reports.dir
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "row_count")
+    private Long rowCount;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "completed_date")
+    private LocalDateTime completedDate;
+
+    @Column(length = 500)
+    private String error;
+
+    //Instance đang giữ report PENDING/RUNNING, instance đó cập nhật heartbeatAt định kỳ tới khi report xong
+    @Column(name = "owner", length = 64)
+    private String owner;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
 }
@@ -0,0 +1,23 @@
+package org.luun.hsf.asm01.kitchencontrolbe.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+//Outbox event đã được cộng vào các bảng daily_*, ghi cùng transaction để event giao lại lần 2 bị bỏ qua
+@Entity
+@Table(name = "report_applied_events")
+@Data
+public class ReportAppliedEvent {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+}
@@ -0,0 +1,28 @@
+package org.luun.hsf.asm01.kitchencontrolbe.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+//File CSV của report lưu thành từng khúc trong database để instance nào cũng tải được, file trong reports.dir chỉ là bản cache
+@Entity
+@Table(name = "report_file_chunks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_report_file_chunks_report_index", columnNames = {"report_id", "chunk_index"})
+})
+@Data
+public class ReportFileChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "chunk_id")
+    private Long chunkId;
+
+    @Column(name = "report_id", nullable = false)
+    private Long reportId;
+
+    //Khúc thứ mấy của file, bắt đầu từ 0
+    @Column(name = "chunk_index", nullable = false)
+    private int chunkIndex;
+
+    @Column(name = "data", nullable = false, columnDefinition = "bytea")
+    private byte[] data;
+}
@@ -2,10 +2,12 @@ package org.luun.hsf.asm01.kitchencontrolbe.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.CatalogCacheListener;
 
 @Entity
 @Table(name = "stores")
 @Data
+@EntityListeners(CatalogCacheListener.class)
 public class Store {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -3,5 +3,10 @@ package org.luun.hsf.asm01.kitchencontrolbe.entity.enums;
 public enum DeliveryStatus {
     WAITTING,
     PROCESSING,
-    DONE
+    DONE;
+
+    //Chỉ được đi tiếp 1 bước: WAITTING -> PROCESSING -> DONE
+    public boolean canTransitionTo(DeliveryStatus next) {
+        return next.ordinal() == ordinal() + 1;
+    }
 }
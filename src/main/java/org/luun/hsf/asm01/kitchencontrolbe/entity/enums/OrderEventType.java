@@ -0,0 +1,7 @@
+package org.luun.hsf.asm01.kitchencontrolbe.entity.enums;
+
+public enum OrderEventType {
+    CREATED,
+    STATUS_CHANGED,
+    DELETED
+}
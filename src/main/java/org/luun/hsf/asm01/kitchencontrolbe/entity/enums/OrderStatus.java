@@ -4,5 +4,15 @@ public enum OrderStatus {
     WAITTING,
     PROCESSING,
     DONE,
-    DAMAGED
+    DAMAGED;
+
+    //WAITTING -> PROCESSING -> DONE, hỏng lúc đang làm hoặc sau khi xong thì sang DAMAGED
+    public boolean canTransitionTo(OrderStatus next) {
+        return switch (this) {
+            case WAITTING -> next == PROCESSING;
+            case PROCESSING -> next == DONE || next == DAMAGED;
+            case DONE -> next == DAMAGED;
+            case DAMAGED -> false;
+        };
+    }
 }
@@ -0,0 +1,8 @@
+package org.luun.hsf.asm01.kitchencontrolbe.entity.enums;
+
+public enum ReportStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+}
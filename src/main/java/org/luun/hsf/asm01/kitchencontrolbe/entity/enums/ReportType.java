@@ -0,0 +1,7 @@
+package org.luun.hsf.asm01.kitchencontrolbe.entity.enums;
+
+public enum ReportType {
+    PRODUCT_DEMAND,
+    ORDER_STATUS,
+    PRODUCTION_VS_DEMAND
+}
@@ -17,4 +17,13 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.badRequest().body(apiResponse);
     }
+
+    @ExceptionHandler
+    ResponseEntity<ApiResponse> handleIdempotencyKeyReused(IdempotencyKeyReusedException e) {
+        ApiResponse apiResponse = new ApiResponse();
+        apiResponse.setCode(422);
+        apiResponse.setMessage(e.getMessage());
+
+        return ResponseEntity.unprocessableEntity().body(apiResponse);
+    }
 }
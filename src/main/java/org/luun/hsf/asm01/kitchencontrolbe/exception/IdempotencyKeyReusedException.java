@@ -0,0 +1,9 @@
+package org.luun.hsf.asm01.kitchencontrolbe.exception;
+
+//Idempotency-Key đã dùng cho 1 order có nội dung khác, trả về 422 thay vì trả lại order cũ
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        super("Idempotency-Key " + idempotencyKey + " was already used for a different order");
+    }
+}
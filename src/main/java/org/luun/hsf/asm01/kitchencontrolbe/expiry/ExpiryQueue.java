@@ -0,0 +1,148 @@
+package org.luun.hsf.asm01.kitchencontrolbe.expiry;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.LogBatchRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Min-heap các lô sắp hết hạn theo (expiryDate, batchId), nạp theo trang keyset tới hôm nay + horizon-days
+//Mọi lô active tới cursor đều đã nằm trong heap hoặc đã xử lý; lô commit sau mà không quá cursor do
+//ExpiryQueueListener offer, lô sau cursor đợi lần nạp tiếp theo
+@Component
+public class ExpiryQueue {
+
+    static final List<LogStatus> ACTIVE = List.of(LogStatus.PROCESSING, LogStatus.DONE);
+
+    private static final LocalDate START = LocalDate.of(1, 1, 1);
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::expiryDate)
+            .thenComparingLong(Entry::batchId);
+
+    private final LogBatchRepository logBatchRepository;
+    private final int horizonDays;
+    private final int maxQueued;
+    private final int pageSize;
+
+    //ReentrantLock thay cho synchronized: refill query DB khi giữ lock, synchronized sẽ pin virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+    //Được bảo vệ bởi lock
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>(ORDER);
+    private Entry cursor = new Entry(START, 0);
+
+    public ExpiryQueue(LogBatchRepository logBatchRepository,
+                       @Value("${kitchen.expiry.horizon-days:7}") int horizonDays,
+                       @Value("${kitchen.expiry.max-queued:100000}") int maxQueued,
+                       @Value("${kitchen.expiry.page-size:1000}") int pageSize) {
+        this.logBatchRepository = logBatchRepository;
+        this.horizonDays = horizonDays;
+        this.maxQueued = maxQueued;
+        this.pageSize = pageSize;
+    }
+
+    public record Entry(LocalDate expiryDate, long batchId) {
+    }
+
+    //Giữ lock trong lúc query: listener của batch vừa commit sẽ chờ rồi so với cursor mới
+    public int refill(LocalDate today) {
+        lock.lock();
+        try {
+            LocalDate until = today.plusDays(horizonDays);
+            int loaded = 0;
+            while (heap.size() < maxQueued && !loadedThrough(until)) {
+                int limit = Math.min(pageSize, maxQueued - heap.size());
+                List<Object[]> rows = logBatchRepository.findExpiringAfter(ACTIVE, cursor.expiryDate(), cursor.batchId(),
+                        until, PageRequest.of(0, limit));
+                for (Object[] row : rows) {
+                    heap.add(new Entry((LocalDate) row[1], ((Number) row[0]).longValue()));
+                }
+                loaded += rows.size();
+                if (rows.size() < limit) {
+                    //Đã đọc hết tới until
+                    cursor = new Entry(until, Long.MAX_VALUE);
+                } else {
+                    Object[] last = rows.get(rows.size() - 1);
+                    cursor = new Entry((LocalDate) last[1], ((Number) last[0]).longValue());
+                }
+            }
+            return loaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void offer(long batchId, LocalDate expiryDate) {
+        lock.lock();
+        try {
+            Entry entry = new Entry(expiryDate, batchId);
+            if (ORDER.compare(entry, cursor) <= 0) {
+                heap.add(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Lấy tối đa max batch có expiryDate < today (hết hạn từ đầu ngày sau expiryDate)
+    public List<Entry> pollDue(LocalDate today, int max) {
+        lock.lock();
+        try {
+            List<Entry> due = new ArrayList<>(Math.min(max, heap.size()));
+            while (due.size() < max && !heap.isEmpty() && heap.peek().expiryDate().isBefore(today)) {
+                due.add(heap.poll());
+            }
+            return due;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Trả lại các entry của 1 chunk bị rollback để lần sweep sau xử lý lại
+    public void requeue(Collection<Entry> entries) {
+        lock.lock();
+        try {
+            heap.addAll(entries);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Entry peek() {
+        lock.lock();
+        try {
+            return heap.peek();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return heap.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public LocalDate cursorDate() {
+        lock.lock();
+        try {
+            return cursor.expiryDate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean loadedThrough(LocalDate until) {
+        int c = cursor.expiryDate().compareTo(until);
+        return c > 0 || c == 0 && cursor.batchId() == Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,31 @@
+package org.luun.hsf.asm01.kitchencontrolbe.expiry;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.LogBatch;
+import org.luun.hsf.asm01.kitchencontrolbe.util.AfterCommit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+//Entity listener của LogBatch: commit xong thì đưa lô vào ExpiryQueue nếu phần bảng đó đã được đọc
+//Dùng ObjectProvider vì entityManagerFactory tạo listener trước khi ExpiryQueue (cần repository) sẵn sàng
+@Component
+@RequiredArgsConstructor
+public class ExpiryQueueListener {
+
+    private final ObjectProvider<ExpiryQueue> expiryQueue;
+
+    @PostPersist
+    @PostUpdate
+    public void onChange(LogBatch batch) {
+        if (batch.getBatchId() == null || batch.getExpiryDate() == null || !ExpiryQueue.ACTIVE.contains(batch.getStatus())) {
+            return;
+        }
+        long batchId = batch.getBatchId();
+        LocalDate expiryDate = batch.getExpiryDate();
+        AfterCommit.run(() -> expiryQueue.getObject().offer(batchId, expiryDate));
+    }
+}
@@ -0,0 +1,14 @@
+package org.luun.hsf.asm01.kitchencontrolbe.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+//1 export đã giữ chỗ, chạy query và ghi toàn bộ dòng vào out khi được gọi, trả về số dòng đã ghi
+public interface ExportTask {
+
+    //Chạy được tối đa 1 lần, trả chỗ khi xong, ném lỗi nếu task đã chạy hoặc đã bị hủy
+    long writeTo(OutputStream out) throws IOException;
+
+    //Trả chỗ nếu task chưa bắt đầu chạy (request timeout, client ngắt trước khi body chạy), không làm gì nếu đã chạy
+    void cancel();
+}
@@ -0,0 +1,65 @@
+package org.luun.hsf.asm01.kitchencontrolbe.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+//1 JSON object mỗi dòng, tên field là tên cột; ghi bằng JsonGenerator nên không tạo Map/DTO cho từng dòng
+class NdjsonRowWriter implements RowWriter {
+
+    private final SerializedString[] fields;
+    private final JsonGenerator generator;
+    private boolean empty = true;
+
+    NdjsonRowWriter(String[] columns, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.fields = new SerializedString[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            fields[i] = new SerializedString(columns[i]);
+        }
+        //Dùng codec của ObjectMapper để LocalDateTime/enum được ghi giống các API JSON khác
+        this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(new SerializedString("\n"));
+    }
+
+    @Override
+    public void writeRow(Object[] row) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < row.length; i++) {
+            generator.writeFieldName(fields[i]);
+            Object value = row[i];
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Integer v) {
+                generator.writeNumber(v);
+            } else if (value instanceof Long v) {
+                generator.writeNumber(v);
+            } else if (value instanceof Float v) {
+                generator.writeNumber(v);
+            } else if (value instanceof String v) {
+                generator.writeString(v);
+            } else {
+                generator.writeObject(value);
+            }
+        }
+        generator.writeEndObject();
+        empty = false;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (!empty) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+}
@@ -0,0 +1,70 @@
+package org.luun.hsf.asm01.kitchencontrolbe.export;
+
+import org.luun.hsf.asm01.kitchencontrolbe.projection.OrderLinesCodec;
+
+import java.util.ArrayDeque;
+
+//Gộp dòng của orders và orders_archive theo orderId; mỗi order chỉ nằm ở 1 trong 2 bảng
+//Dòng archive được tách từ cột lines, không còn order_detail_id nên cột đó để trống
+public final class OrderLinesWithArchive implements RowCursor {
+
+    private final RowCursor live;
+    private final RowCursor archived;
+    private final ArrayDeque<Object[]> archivedLines = new ArrayDeque<>();
+    private Object[] nextLive;
+    private Object[] nextArchived;
+    private Object[] current;
+
+    //live theo ExportRepository.ORDER_LINE_COLUMNS, archived là dòng của scrollArchivedOrders, cả 2 theo thứ tự orderId
+    public OrderLinesWithArchive(RowCursor live, RowCursor archived) {
+        this.live = live;
+        this.archived = archived;
+        this.nextLive = advance(live);
+        this.nextArchived = advance(archived);
+    }
+
+    @Override
+    public boolean next() {
+        while (archivedLines.isEmpty()) {
+            if (nextLive == null && nextArchived == null) {
+                return false;
+            }
+            if (nextArchived == null || (nextLive != null && orderId(nextLive) < orderId(nextArchived))) {
+                current = nextLive;
+                nextLive = advance(live);
+                return true;
+            }
+            expand(nextArchived);
+            nextArchived = advance(archived);
+        }
+        current = archivedLines.poll();
+        return true;
+    }
+
+    @Override
+    public Object[] get() {
+        return current;
+    }
+
+    @Override
+    public void close() {
+        try {
+            live.close();
+        } finally {
+            archived.close();
+        }
+    }
+
+    private void expand(Object[] order) {
+        OrderLinesCodec.forEachLine((String) order[6], (productId, quantity) -> archivedLines.add(new Object[]{
+                order[0], order[1], order[2], order[3], order[4], order[5], null, productId, quantity}));
+    }
+
+    private static Object[] advance(RowCursor cursor) {
+        return cursor.next() ? cursor.get() : null;
+    }
+
+    private static int orderId(Object[] row) {
+        return ((Number) row[0]).intValue();
+    }
+}
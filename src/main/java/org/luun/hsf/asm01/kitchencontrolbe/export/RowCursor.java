@@ -0,0 +1,33 @@
+package org.luun.hsf.asm01.kitchencontrolbe.export;
+
+import org.hibernate.ScrollableResults;
+
+//Cursor forward-only trên các dòng export (1 Object mỗi cột), phải close để trả result set
+public interface RowCursor extends AutoCloseable {
+
+    boolean next();
+
+    Object[] get();
+
+    @Override
+    void close();
+
+    static RowCursor of(ScrollableResults<Object[]> results) {
+        return new RowCursor() {
+            @Override
+            public boolean next() {
+                return results.next();
+            }
+
+            @Override
+            public Object[] get() {
+                return results.get();
+            }
+
+            @Override
+            public void close() {
+                results.close();
+            }
+        };
+    }
+}
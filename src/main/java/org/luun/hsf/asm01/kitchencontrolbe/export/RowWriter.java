@@ -0,0 +1,27 @@
+package org.luun.hsf.asm01.kitchencontrolbe.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes flat rows (one Object per column) to an export stream. Implementations buffer internally;
+ * {@link #flush()} pushes buffered rows to the client and {@link #finish()} must be called once at the end.
+ */
+public interface RowWriter {
+
+    void writeRow(Object[] row) throws IOException;
+
+    void flush() throws IOException;
+
+    void finish() throws IOException;
+
+    static RowWriter create(ExportFormat format, String[] columns, OutputStream out, ObjectMapper objectMapper)
+            throws IOException {
+        return switch (format) {
+            case CSV -> new CsvRowWriter(columns, out);
+            case NDJSON -> new NdjsonRowWriter(columns, out, objectMapper);
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package org.luun.hsf.asm01.kitchencontrolbe.feed;
+
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.StoreEventDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderEventType;
+import org.luun.hsf.asm01.kitchencontrolbe.outbox.OrderEvent;
+import org.luun.hsf.asm01.kitchencontrolbe.outbox.OrderEventSubscriber;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Forwards order outbox events (creation, status changes and deletion) to the subscribers of the
+ * order's store. Outbox delivery is at-least-once; {@link StoreEventHub} drops eventIds it has already published. Deleted orders
+ * are soft deleted, so their store is still read from the orders row; orders already archived by the
+ * time the event is dispatched are skipped.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStatusFeed implements OrderEventSubscriber {
+
+    private final StoreEventHub storeEvents;
+    private final OrderRepository orderRepository;
+
+    @Override
+    public void onEvent(OrderEvent event) {
+        if (!storeEvents.hasSubscribers()) {
+            return;
+        }
+        boolean deleted = event.type() == OrderEventType.DELETED;
+        (deleted ? orderRepository.findStoreIdIncludingDeleted(event.orderId())
+                : orderRepository.findStoreIdByOrderId(event.orderId())).ifPresent(storeId ->
+                storeEvents.publish(StoreEventDTO.builder()
+                        .type(deleted ? StoreEventType.ORDER_DELETED : StoreEventType.ORDER_STATUS)
+                        .storeId(storeId)
+                        .eventId(event.eventId())
+                        .orderId(event.orderId())
+                        .previousStatus(event.previousStatus() == null ? null : event.previousStatus().name())
+                        .status(event.status() == null ? null : event.status().name())
+                        .occurredAt(event.occurredAt())
+                        .build()));
+    }
+}
@@ -0,0 +1,33 @@
+package org.luun.hsf.asm01.kitchencontrolbe.feed;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+public class SseStoreEventSink implements StoreEventSink {
+
+    private final SseEmitter emitter;
+
+    public SseStoreEventSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(StoreEvent event) throws IOException {
+        if (event.isHeartbeat()) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        } else {
+            //data đã là JSON, StringHttpMessageConverter ghi nguyên chuỗi
+            SseEmitter.SseEventBuilder builder = SseEmitter.event().name(event.name()).data(event.data());
+            if (event.id() != null) {
+                builder.id(event.id().toString());
+            }
+            emitter.send(builder);
+        }
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
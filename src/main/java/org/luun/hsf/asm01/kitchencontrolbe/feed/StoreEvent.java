@@ -0,0 +1,16 @@
+package org.luun.hsf.asm01.kitchencontrolbe.feed;
+
+/**
+ * An event as queued for subscribers: the payload is serialized once when published and the same
+ * instance is shared by every subscriber of the store. id is the outbox eventId, sent as the SSE id
+ * so a reconnecting client reports it back in Last-Event-ID; delivery events have none.
+ */
+public record StoreEvent(Long id, String name, String data) {
+
+    //Không phải event thật, sink gửi comment để giữ kết nối qua proxy và phát hiện client đã ngắt
+    static final StoreEvent HEARTBEAT = new StoreEvent(null, null, null);
+
+    public boolean isHeartbeat() {
+        return this == HEARTBEAT;
+    }
+}
@@ -0,0 +1,171 @@
+package org.luun.hsf.asm01.kitchencontrolbe.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.StoreEventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process pub/sub of order and delivery status changes, keyed by storeId. Publishing serializes
+ * the event once and only enqueues it into each subscriber's bounded buffer, so it never blocks on
+ * a client; a small sender pool writes the buffers out. A subscriber whose buffer is full is
+ * dropped (its stream is completed, the client reconnects and refetches), so memory per subscriber
+ * is bounded by buffer-size events and the number of subscribers by max-subscribers.
+ * A sender stuck on a client that stopped reading is released by the container's write timeout;
+ * by then the subscriber has already been dropped.
+ * Outbox delivery is at-least-once, so each store keeps a {@link StoreEventWatermark} and an
+ * eventId it has already published is not sent again.
+ */
+@Component
+public class StoreEventHub {
+
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<Integer, Set<StoreSubscription>> byStore = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, StoreEventWatermark> watermarks = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final int dedupeWindow;
+    private final ExecutorService senders;
+    private final Counter published;
+    private final Counter duplicates;
+    private final Counter droppedSlow;
+    private final Counter droppedError;
+
+    public StoreEventHub(ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${kitchen.store-events.max-subscribers:10000}") int maxSubscribers,
+                         @Value("${kitchen.store-events.buffer-size:64}") int bufferSize,
+                         @Value("${kitchen.store-events.sender-threads:4}") int senderThreads,
+                         @Value("${kitchen.store-events.dedupe-window:1024}") int dedupeWindow) {
+        this.objectMapper = objectMapper;
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.dedupeWindow = dedupeWindow;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "store-events-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("kitchen.store-events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open store event streams")
+                .register(meterRegistry);
+        this.published = Counter.builder("kitchen.store-events.published")
+                .description("Events published to at least one subscriber")
+                .register(meterRegistry);
+        this.duplicates = Counter.builder("kitchen.store-events.duplicates")
+                .description("Redelivered events not sent again")
+                .register(meterRegistry);
+        this.droppedSlow = Counter.builder("kitchen.store-events.dropped")
+                .tag("reason", "slow")
+                .register(meterRegistry);
+        this.droppedError = Counter.builder("kitchen.store-events.dropped")
+                .tag("reason", "error")
+                .register(meterRegistry);
+    }
+
+    public StoreSubscription subscribe(int storeId, StoreEventSink sink) {
+        return subscribe(storeId, sink, null);
+    }
+
+    //lastEventId: Last-Event-ID của client kết nối lại, event có đúng id này không gửi lại cho subscriber này
+    public StoreSubscription subscribe(int storeId, StoreEventSink sink, Long lastEventId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RuntimeException("Too many event stream subscribers, retry later");
+        }
+        StoreSubscription subscription = new StoreSubscription(this, storeId, sink, bufferSize, lastEventId);
+        //Thêm/bỏ trong compute để set rỗng bị xóa không nuốt mất subscriber vừa thêm
+        byStore.compute(storeId, (id, subscriptions) -> {
+            Set<StoreSubscription> result = subscriptions == null ? ConcurrentHashMap.newKeySet() : subscriptions;
+            result.add(subscription);
+            return result;
+        });
+        return subscription;
+    }
+
+    //Để publisher bỏ qua việc tra storeId khi không có ai nghe
+    public boolean hasSubscribers() {
+        return subscriberCount.get() > 0;
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    int subscriberCount(int storeId) {
+        Set<StoreSubscription> subscriptions = byStore.get(storeId);
+        return subscriptions == null ? 0 : subscriptions.size();
+    }
+
+    public void publish(StoreEventDTO event) {
+        Set<StoreSubscription> subscriptions = byStore.get(event.getStoreId());
+        if (subscriptions == null || subscriptions.isEmpty()) {
+            return;
+        }
+        if (event.getEventId() != null && !watermarks.computeIfAbsent(event.getStoreId(),
+                id -> new StoreEventWatermark(dedupeWindow)).advance(event.getEventId())) {
+            duplicates.increment();
+            return;
+        }
+        StoreEvent queued;
+        try {
+            queued = new StoreEvent(event.getEventId(), event.getType().eventName(), objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize store event: " + e.getMessage(), e);
+        }
+        for (StoreSubscription subscription : subscriptions) {
+            subscription.offer(queued);
+        }
+        published.increment();
+    }
+
+    //Job heartbeat gọi định kỳ, chỉ xếp comment vào buffer còn trống
+    public void sendHeartbeats() {
+        for (Set<StoreSubscription> subscriptions : byStore.values()) {
+            for (StoreSubscription subscription : subscriptions) {
+                subscription.heartbeat();
+            }
+        }
+    }
+
+    //reason: "slow" (buffer đầy), "error" (gửi lỗi), null (client tự ngắt hoặc hết timeout)
+    void remove(StoreSubscription subscription, String reason) {
+        if (!subscription.markClosed()) {
+            return;
+        }
+        byStore.computeIfPresent(subscription.storeId(), (id, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+        subscriberCount.decrementAndGet();
+        if ("slow".equals(reason)) {
+            droppedSlow.increment();
+        } else if ("error".equals(reason)) {
+            droppedError.increment();
+        }
+        subscription.closeWhenIdle();
+    }
+
+    void execute(Runnable task) {
+        senders.execute(task);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdown();
+    }
+}
@@ -0,0 +1,14 @@
+package org.luun.hsf.asm01.kitchencontrolbe.feed;
+
+import java.io.IOException;
+
+/**
+ * Connection of one subscriber. Called only from {@link StoreEventHub}'s sender threads and never
+ * concurrently for the same subscriber; a send that throws ends the subscription.
+ */
+public interface StoreEventSink {
+
+    void send(StoreEvent event) throws IOException;
+
+    void close();
+}
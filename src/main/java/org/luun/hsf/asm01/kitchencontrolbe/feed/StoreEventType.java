@@ -0,0 +1,12 @@
+package org.luun.hsf.asm01.kitchencontrolbe.feed;
+
+public enum StoreEventType {
+    ORDER_STATUS,
+    ORDER_DELETED,
+    DELIVERY_STATUS;
+
+    //Tên event SSE: order-status, order-deleted, delivery-status
+    public String eventName() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,31 @@
+package org.luun.hsf.asm01.kitchencontrolbe.feed;
+
+import java.util.TreeSet;
+
+/**
+ * Event ids already published for one store. Outbox lanes run in parallel and failed events are
+ * retried in a later poll, so ids of a store do not arrive in order and a plain "highest id seen"
+ * would drop events that were simply late. The last window ids are kept exactly; the watermark is
+ * the highest id pushed out of that window, and anything at or below it counts as a redelivery.
+ */
+final class StoreEventWatermark {
+
+    private final int window;
+    private final TreeSet<Long> recent = new TreeSet<>();
+    private long watermark = Long.MIN_VALUE;
+
+    StoreEventWatermark(int window) {
+        this.window = window;
+    }
+
+    //false nếu eventId đã publish rồi (hoặc cũ hơn watermark), khi đó không gửi lại
+    synchronized boolean advance(long eventId) {
+        if (eventId <= watermark || !recent.add(eventId)) {
+            return false;
+        }
+        while (recent.size() > window) {
+            watermark = recent.pollFirst();
+        }
+        return true;
+    }
+}
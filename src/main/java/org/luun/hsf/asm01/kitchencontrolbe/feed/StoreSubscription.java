@@ -0,0 +1,95 @@
+package org.luun.hsf.asm01.kitchencontrolbe.feed;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One subscriber of a store: a bounded buffer drained by at most one sender task at a time, so
+ * events reach the sink in publish order. Publishing only enqueues; when the buffer is full the
+ * subscriber is dropped instead of making the publisher wait or the buffer grow.
+ */
+public final class StoreSubscription {
+
+    private final StoreEventHub hub;
+    private final int storeId;
+    private final StoreEventSink sink;
+    private final ArrayBlockingQueue<StoreEvent> buffer;
+    //Last-Event-ID client gửi khi kết nối lại: chỉ bỏ đúng event đó nếu được giao lại
+    //Không coi là mốc cao nhất vì id của 1 store không tới theo thứ tự (xem StoreEventWatermark)
+    private final Long lastEventId;
+    //true khi đã có task drain được submit hoặc đang chạy
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    StoreSubscription(StoreEventHub hub, int storeId, StoreEventSink sink, int bufferSize, Long lastEventId) {
+        this.hub = hub;
+        this.storeId = storeId;
+        this.sink = sink;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.lastEventId = lastEventId;
+    }
+
+    public int storeId() {
+        return storeId;
+    }
+
+    //Client đã ngắt hoặc hết timeout: chỉ gỡ khỏi hub, kết nối đã đóng sẵn
+    public void cancel() {
+        hub.remove(this, null);
+    }
+
+    void offer(StoreEvent event) {
+        if (closed.get() || event.id() != null && event.id().equals(lastEventId)) {
+            return;
+        }
+        if (!buffer.offer(event)) {
+            hub.remove(this, "slow");
+            return;
+        }
+        if (draining.compareAndSet(false, true)) {
+            hub.execute(this::drain);
+        }
+    }
+
+    void heartbeat() {
+        //Còn event chờ gửi thì kết nối cũng không bị bỏ trống, không cần heartbeat
+        if (buffer.isEmpty()) {
+            offer(StoreEvent.HEARTBEAT);
+        }
+    }
+
+    boolean markClosed() {
+        return closed.compareAndSet(false, true);
+    }
+
+    //Gọi sau markClosed: đóng sink ngay nếu không có task drain, ngược lại task drain sẽ đóng khi thấy closed
+    void closeWhenIdle() {
+        if (draining.compareAndSet(false, true)) {
+            hub.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            StoreEvent event;
+            while (!closed.get() && (event = buffer.poll()) != null) {
+                try {
+                    sink.send(event);
+                } catch (IOException | RuntimeException e) {
+                    hub.remove(this, "error");
+                }
+            }
+            if (closed.get()) {
+                buffer.clear();
+                sink.close();
+                return;
+            }
+            draining.set(false);
+            //offer có thể vừa thêm event sau lần poll cuối trong lúc draining vẫn là true
+            if (buffer.isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+}
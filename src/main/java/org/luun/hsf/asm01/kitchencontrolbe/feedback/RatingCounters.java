@@ -0,0 +1,62 @@
+package org.luun.hsf.asm01.kitchencontrolbe.feedback;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Rating counters of one store or product, all primitive: an all-time histogram plus a ring of
+ * {@link #DAYS} day buckets, each holding that day's histogram. Count, sum and average are derived
+ * from a histogram, and a window of up to {@link #DAYS} days costs one pass over the ring, whatever
+ * the number of feedback rows. Not thread-safe; the owner guards it with its lock.
+ */
+public final class RatingCounters {
+
+    public static final int MAX_RATING = 5;
+    public static final int DAYS = 30;
+
+    private final long[] total = new long[MAX_RATING];
+    //Ngày (epochDay) của từng ô trong ring, ô được xóa khi 1 ngày mới hơn ghi vào
+    private final long[] bucketDay = new long[DAYS];
+    private final int[] buckets = new int[DAYS * MAX_RATING];
+
+    public RatingCounters() {
+        Arrays.fill(bucketDay, Long.MIN_VALUE);
+    }
+
+    public void addTotal(int rating, long count) {
+        total[rating - 1] += count;
+    }
+
+    public void addDay(LocalDate day, int rating, long count) {
+        long epochDay = day.toEpochDay();
+        int slot = (int) Math.floorMod(epochDay, DAYS);
+        if (bucketDay[slot] != epochDay) {
+            //Ô đang giữ 1 ngày mới hơn: ngày này đã nằm ngoài mọi window
+            if (bucketDay[slot] > epochDay) {
+                return;
+            }
+            bucketDay[slot] = epochDay;
+            Arrays.fill(buckets, slot * MAX_RATING, (slot + 1) * MAX_RATING, 0);
+        }
+        buckets[slot * MAX_RATING + rating - 1] += (int) count;
+    }
+
+    //Cộng histogram của [today - days + 1, today] vào histogram (index 0 = rating 1), days = 0 là toàn bộ
+    public void addTo(long[] histogram, LocalDate today, int days) {
+        if (days == 0) {
+            for (int r = 0; r < MAX_RATING; r++) {
+                histogram[r] += total[r];
+            }
+            return;
+        }
+        long last = today.toEpochDay();
+        long first = last - days + 1;
+        for (int slot = 0; slot < DAYS; slot++) {
+            if (bucketDay[slot] >= first && bucketDay[slot] <= last) {
+                for (int r = 0; r < MAX_RATING; r++) {
+                    histogram[r] += buckets[slot * MAX_RATING + r];
+                }
+            }
+        }
+    }
+}
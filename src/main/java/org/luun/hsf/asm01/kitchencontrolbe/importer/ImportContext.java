@@ -0,0 +1,61 @@
+package org.luun.hsf.asm01.kitchencontrolbe.importer;
+
+import jakarta.persistence.EntityManager;
+import lombok.Getter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * State shared by the chunk writes of one import job. Only the job thread uses it, chunk after chunk,
+ * so the sets of names created so far need no locking.
+ */
+public class ImportContext {
+
+    @Getter
+    private final ImportJob job;
+    @Getter
+    private final ImportLookups lookups;
+    @Getter
+    private final EntityManager entityManager;
+    private final int flushEvery;
+    private int pending;
+
+    //Tên sản phẩm / công thức đã tạo trong job này, để bắt dòng trùng nằm ở chunk khác
+    private final Set<String> createdProducts = new HashSet<>();
+    private final Set<String> createdRecipes = new HashSet<>();
+
+    public ImportContext(ImportJob job, ImportLookups lookups, EntityManager entityManager, int flushEvery) {
+        this.job = job;
+        this.lookups = lookups;
+        this.entityManager = entityManager;
+        this.flushEvery = flushEvery;
+    }
+
+    //Flush + clear mỗi flush-every entity để persistence context không phình theo kích thước chunk
+    public void persist(Object entity) {
+        entityManager.persist(entity);
+        if (++pending >= flushEvery) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        entityManager.flush();
+        entityManager.clear();
+        pending = 0;
+    }
+
+    public void reject(long line, String message) {
+        job.reject(line, message);
+    }
+
+    //false nếu tên đã được tạo trước đó trong cùng job
+    public boolean claimProduct(String name) {
+        return createdProducts.add(ImportLookups.normalize(name));
+    }
+
+    public boolean claimRecipe(long productId, String recipeName) {
+        return createdRecipes.add(ImportLookups.recipeKey(productId, recipeName));
+    }
+}
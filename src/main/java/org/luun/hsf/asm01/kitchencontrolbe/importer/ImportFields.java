@@ -0,0 +1,83 @@
+package org.luun.hsf.asm01.kitchencontrolbe.importer;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+
+//Đọc và kiểm tra từng cột của 1 dòng CSV, lỗi thì ném ImportRowException kèm tên cột
+final class ImportFields {
+
+    private ImportFields() {
+    }
+
+    static void checkWidth(String[] fields, List<String> columns) {
+        if (fields.length != columns.size()) {
+            throw new ImportRowException("Expected " + columns.size() + " columns but got " + fields.length);
+        }
+    }
+
+    static String text(String[] fields, int index, String column) {
+        String value = fields[index].trim();
+        if (value.isEmpty()) {
+            throw new ImportRowException(column + " is required");
+        }
+        if (value.length() > 255) {
+            throw new ImportRowException(column + " is longer than 255 characters");
+        }
+        return value;
+    }
+
+    static String optionalText(String[] fields, int index, String column) {
+        return fields[index].isBlank() ? null : text(fields, index, column);
+    }
+
+    static float positive(String[] fields, int index, String column) {
+        float value;
+        try {
+            value = Float.parseFloat(text(fields, index, column));
+        } catch (NumberFormatException e) {
+            throw new ImportRowException(column + " is not a number: " + fields[index]);
+        }
+        if (!(value > 0) || Float.isInfinite(value)) {
+            throw new ImportRowException(column + " must be greater than 0");
+        }
+        return value;
+    }
+
+    static Integer optionalNonNegativeInt(String[] fields, int index, String column) {
+        if (fields[index].isBlank()) {
+            return null;
+        }
+        int value;
+        try {
+            value = Integer.parseInt(fields[index].trim());
+        } catch (NumberFormatException e) {
+            throw new ImportRowException(column + " is not an integer: " + fields[index]);
+        }
+        if (value < 0) {
+            throw new ImportRowException(column + " must not be negative");
+        }
+        return value;
+    }
+
+    static LocalDate optionalDate(String[] fields, int index, String column) {
+        if (fields[index].isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(fields[index].trim());
+        } catch (DateTimeParseException e) {
+            throw new ImportRowException(column + " is not an ISO date (yyyy-MM-dd): " + fields[index]);
+        }
+    }
+
+    static <E extends Enum<E>> E enumValue(String[] fields, int index, String column, Class<E> type) {
+        String value = text(fields, index, column);
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ImportRowException(column + " must be one of " + List.of(type.getEnumConstants()) + ": " + value);
+        }
+    }
+}
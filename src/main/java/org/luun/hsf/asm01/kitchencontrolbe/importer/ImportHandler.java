@@ -0,0 +1,27 @@
+package org.luun.hsf.asm01.kitchencontrolbe.importer;
+
+import java.util.List;
+
+/**
+ * Parses and writes one {@link ImportKind}. {@link #parse} runs on the validator pool, several chunks at
+ * a time, and may only read the lookups; {@link #write} runs on the job thread inside the chunk's
+ * transaction, in file order.
+ */
+public interface ImportHandler<T> {
+
+    ImportKind kind();
+
+    //Header bắt buộc của file, đúng thứ tự
+    List<String> columns();
+
+    //Các dòng cùng key phải liền nhau trong file và luôn nằm chung 1 chunk (vd các nguyên liệu của 1 công thức)
+    default String groupKey(String[] fields) {
+        return null;
+    }
+
+    //Lỗi dữ liệu thì ném ImportRowException
+    T parse(String[] fields, ImportLookups lookups);
+
+    //Chỉ nhận các dòng hợp lệ, trả về số dòng đã ghi; dòng bị từ chối lúc ghi thì gọi context.reject
+    int write(List<ImportRow<T>> rows, ImportContext context);
+}
@@ -0,0 +1,116 @@
+package org.luun.hsf.asm01.kitchencontrolbe.importer;
+
+import lombok.Getter;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ImportJobDTO;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one import, kept in memory only. The job thread updates it while the progress API
+ * reads it, hence the atomics and volatile fields.
+ */
+public class ImportJob {
+
+    @Getter
+    private final long jobId;
+    @Getter
+    private final ImportKind kind;
+    @Getter
+    private final String fileName;
+    @Getter
+    private final Long userId;
+    private final long totalBytes;
+    private final int maxErrors;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    @Getter
+    private volatile ImportStatus status = ImportStatus.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+    private volatile long startNanos;
+    private volatile long finishNanos;
+
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final List<ImportJobDTO.RowError> errors = new CopyOnWriteArrayList<>();
+
+    public ImportJob(long jobId, ImportKind kind, String fileName, Long userId, long totalBytes, int maxErrors) {
+        this.jobId = jobId;
+        this.kind = kind;
+        this.fileName = fileName;
+        this.userId = userId;
+        this.totalBytes = totalBytes;
+        this.maxErrors = maxErrors;
+    }
+
+    public void start() {
+        startNanos = System.nanoTime();
+        startedAt = LocalDateTime.now();
+        status = ImportStatus.RUNNING;
+    }
+
+    public void finish() {
+        finishNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+        status = ImportStatus.DONE;
+    }
+
+    public void fail(String message) {
+        finishNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+        error = message;
+        status = ImportStatus.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == ImportStatus.DONE || status == ImportStatus.FAILED;
+    }
+
+    public void progress(long bytes, long rows) {
+        bytesRead.set(bytes);
+        rowsRead.set(rows);
+    }
+
+    public void imported(int rows) {
+        rowsImported.addAndGet(rows);
+    }
+
+    public void reject(long line, String message) {
+        if (rowsRejected.incrementAndGet() <= maxErrors) {
+            errors.add(new ImportJobDTO.RowError(line, message));
+        }
+    }
+
+    public ImportJobDTO toDTO() {
+        long bytes = bytesRead.get();
+        long imported = rowsImported.get();
+        double seconds = startNanos == 0 ? 0
+                : Duration.ofNanos((finishNanos != 0 ? finishNanos : System.nanoTime()) - startNanos).toMillis() / 1000.0;
+        return ImportJobDTO.builder()
+                .jobId(jobId)
+                .kind(kind)
+                .status(status)
+                .fileName(fileName)
+                .userId(userId)
+                .totalBytes(totalBytes)
+                .bytesRead(bytes)
+                .percent(totalBytes == 0 ? 0 : Math.min(100.0, bytes * 100.0 / totalBytes))
+                .rowsRead(rowsRead.get())
+                .rowsImported(imported)
+                .rowsRejected(rowsRejected.get())
+                .rowsPerSecond(seconds == 0 ? 0 : imported / seconds)
+                .createdAt(createdAt)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .error(error)
+                .errors(List.copyOf(errors))
+                .build();
+    }
+}
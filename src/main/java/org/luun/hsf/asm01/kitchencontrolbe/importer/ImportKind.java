@@ -0,0 +1,8 @@
+package org.luun.hsf.asm01.kitchencontrolbe.importer;
+
+//Loại file CSV import được, mỗi loại có 1 ImportHandler
+public enum ImportKind {
+    PRODUCTS,
+    RECIPES,
+    STOCK_RECEIPTS
+}
@@ -0,0 +1,68 @@
+package org.luun.hsf.asm01.kitchencontrolbe.importer;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ProductType;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Name -> id maps loaded once per import job, so validating a row never queries the database.
+ * Read concurrently by the validator threads and never modified after construction; rows created by the
+ * job itself are tracked by {@link ImportContext}.
+ */
+public final class ImportLookups {
+
+    public record ProductInfo(long productId, ProductType productType, Integer shelfLifeDays) {
+    }
+
+    //Tên trùng nhau trong DB được ghi là AMBIGUOUS, dòng tham chiếu tới tên đó bị từ chối
+    private static final ProductInfo AMBIGUOUS = new ProductInfo(-1, null, null);
+
+    private final Map<String, ProductInfo> productsByName;
+    private final Set<String> recipeKeys;
+
+    //products mỗi dòng: [productId, productName, productType, shelfLifeDays]; recipes mỗi dòng: [productId, recipeName]
+    public ImportLookups(List<Object[]> products, List<Object[]> recipes) {
+        this.productsByName = new HashMap<>(products.size() * 2);
+        for (Object[] row : products) {
+            ProductInfo info = new ProductInfo(((Number) row[0]).longValue(), (ProductType) row[2], (Integer) row[3]);
+            productsByName.merge(normalize((String) row[1]), info, (a, b) -> AMBIGUOUS);
+        }
+        this.recipeKeys = new HashSet<>(recipes.size() * 2);
+        for (Object[] row : recipes) {
+            recipeKeys.add(recipeKey(((Number) row[0]).longValue(), (String) row[1]));
+        }
+    }
+
+    public boolean hasProduct(String name) {
+        return productsByName.containsKey(normalize(name));
+    }
+
+    public ProductInfo product(String name) {
+        ProductInfo info = productsByName.get(normalize(name));
+        if (info == null) {
+            throw new ImportRowException("Unknown product: " + name);
+        }
+        if (info == AMBIGUOUS) {
+            throw new ImportRowException("Product name is not unique: " + name);
+        }
+        return info;
+    }
+
+    public boolean hasRecipe(long productId, String recipeName) {
+        return recipeKeys.contains(recipeKey(productId, recipeName));
+    }
+
+    //So khớp tên không phân biệt hoa thường và khoảng trắng 2 đầu
+    public static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static String recipeKey(long productId, String recipeName) {
+        return productId + "|" + normalize(recipeName);
+    }
+}
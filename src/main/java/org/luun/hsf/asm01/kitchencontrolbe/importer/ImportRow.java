@@ -0,0 +1,9 @@
+package org.luun.hsf.asm01.kitchencontrolbe.importer;
+
+//1 dòng CSV sau khi validate: value != null nếu hợp lệ, ngược lại error là lý do bị từ chối
+public record ImportRow<T>(long line, String groupKey, T value, String error) {
+
+    public boolean valid() {
+        return error == null;
+    }
+}
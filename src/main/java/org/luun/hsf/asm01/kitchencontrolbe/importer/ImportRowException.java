@@ -0,0 +1,9 @@
+package org.luun.hsf.asm01.kitchencontrolbe.importer;
+
+//Lỗi dữ liệu của 1 dòng CSV: dòng bị từ chối, job vẫn chạy tiếp
+public class ImportRowException extends RuntimeException {
+
+    public ImportRowException(String message) {
+        super(message);
+    }
+}
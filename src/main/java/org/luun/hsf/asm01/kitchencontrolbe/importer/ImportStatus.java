@@ -0,0 +1,8 @@
+package org.luun.hsf.asm01.kitchencontrolbe.importer;
+
+public enum ImportStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,54 @@
+package org.luun.hsf.asm01.kitchencontrolbe.importer;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Product;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ProductType;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+//products.csv: product_name,product_type,unit,shelf_life_days
+@Component
+public class ProductImportHandler implements ImportHandler<Product> {
+
+    private static final List<String> COLUMNS = List.of("product_name", "product_type", "unit", "shelf_life_days");
+
+    @Override
+    public ImportKind kind() {
+        return ImportKind.PRODUCTS;
+    }
+
+    @Override
+    public List<String> columns() {
+        return COLUMNS;
+    }
+
+    @Override
+    public Product parse(String[] fields, ImportLookups lookups) {
+        ImportFields.checkWidth(fields, COLUMNS);
+        String name = ImportFields.text(fields, 0, "product_name");
+        if (lookups.hasProduct(name)) {
+            throw new ImportRowException("Product already exists: " + name);
+        }
+        Product product = new Product();
+        product.setProductName(name);
+        product.setProductType(ImportFields.enumValue(fields, 1, "product_type", ProductType.class));
+        product.setUnit(ImportFields.text(fields, 2, "unit"));
+        product.setShelfLifeDays(ImportFields.optionalNonNegativeInt(fields, 3, "shelf_life_days"));
+        return product;
+    }
+
+    @Override
+    public int write(List<ImportRow<Product>> rows, ImportContext context) {
+        int written = 0;
+        for (ImportRow<Product> row : rows) {
+            Product product = row.value();
+            if (!context.claimProduct(product.getProductName())) {
+                context.reject(row.line(), "Duplicate product in file: " + product.getProductName());
+                continue;
+            }
+            context.persist(product);
+            written++;
+        }
+        return written;
+    }
+}
@@ -0,0 +1,115 @@
+package org.luun.hsf.asm01.kitchencontrolbe.importer;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Product;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Recipe;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.RecipeDetail;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ProductType;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * recipes.csv: product_name,recipe_name,yield_quantity,description,raw_material_name,quantity.
+ * One line per RecipeDetail; the lines of one recipe must be contiguous and repeat the recipe columns.
+ * A recipe is imported whole or not at all.
+ */
+@Component
+public class RecipeImportHandler implements ImportHandler<RecipeImportHandler.RecipeLine> {
+
+    private static final List<String> COLUMNS = List.of(
+            "product_name", "recipe_name", "yield_quantity", "description", "raw_material_name", "quantity");
+
+    public record RecipeLine(long productId, String recipeName, float yieldQuantity, String description,
+                             long rawMaterialId, float quantity) {
+    }
+
+    @Override
+    public ImportKind kind() {
+        return ImportKind.RECIPES;
+    }
+
+    @Override
+    public List<String> columns() {
+        return COLUMNS;
+    }
+
+    @Override
+    public String groupKey(String[] fields) {
+        return fields.length < 2 ? null : ImportLookups.normalize(fields[0]) + "|" + ImportLookups.normalize(fields[1]);
+    }
+
+    @Override
+    public RecipeLine parse(String[] fields, ImportLookups lookups) {
+        ImportFields.checkWidth(fields, COLUMNS);
+        ImportLookups.ProductInfo product = lookups.product(ImportFields.text(fields, 0, "product_name"));
+        if (product.productType() == ProductType.RAW_MATERIAL) {
+            throw new ImportRowException("A RAW_MATERIAL product cannot have a recipe: " + fields[0].trim());
+        }
+        String recipeName = ImportFields.text(fields, 1, "recipe_name");
+        if (lookups.hasRecipe(product.productId(), recipeName)) {
+            throw new ImportRowException("Recipe already exists: " + recipeName);
+        }
+        ImportLookups.ProductInfo rawMaterial = lookups.product(ImportFields.text(fields, 4, "raw_material_name"));
+        if (rawMaterial.productId() == product.productId()) {
+            throw new ImportRowException("A recipe cannot use its own product as raw material");
+        }
+        return new RecipeLine(product.productId(), recipeName,
+                ImportFields.positive(fields, 2, "yield_quantity"),
+                ImportFields.optionalText(fields, 3, "description"),
+                rawMaterial.productId(),
+                ImportFields.positive(fields, 5, "quantity"));
+    }
+
+    @Override
+    public int write(List<ImportRow<RecipeLine>> rows, ImportContext context) {
+        int written = 0;
+        int start = 0;
+        while (start < rows.size()) {
+            int end = start + 1;
+            while (end < rows.size() && Objects.equals(rows.get(end).groupKey(), rows.get(start).groupKey())) {
+                end++;
+            }
+            written += writeRecipe(rows.subList(start, end), context);
+            start = end;
+        }
+        return written;
+    }
+
+    private int writeRecipe(List<ImportRow<RecipeLine>> lines, ImportContext context) {
+        RecipeLine first = lines.get(0).value();
+        for (ImportRow<RecipeLine> line : lines) {
+            RecipeLine value = line.value();
+            if (value.yieldQuantity() != first.yieldQuantity() || !Objects.equals(value.description(), first.description())) {
+                rejectAll(lines, context, "Lines of recipe " + first.recipeName()
+                        + " disagree on yield_quantity/description (line " + line.line() + ")");
+                return 0;
+            }
+        }
+        if (!context.claimRecipe(first.productId(), first.recipeName())) {
+            rejectAll(lines, context, "Duplicate recipe in file, its lines must be contiguous: " + first.recipeName());
+            return 0;
+        }
+
+        Recipe recipe = new Recipe();
+        recipe.setRecipeName(first.recipeName());
+        recipe.setYieldQuantity(first.yieldQuantity());
+        recipe.setDescription(first.description());
+        recipe.setProduct(context.getEntityManager().getReference(Product.class, first.productId()));
+        context.persist(recipe);
+        for (ImportRow<RecipeLine> line : lines) {
+            RecipeDetail detail = new RecipeDetail();
+            detail.setRecipe(recipe);
+            detail.setRawMaterial(context.getEntityManager().getReference(Product.class, line.value().rawMaterialId()));
+            detail.setQuantity(line.value().quantity());
+            context.persist(detail);
+        }
+        return lines.size();
+    }
+
+    private static void rejectAll(List<ImportRow<RecipeLine>> lines, ImportContext context, String message) {
+        for (ImportRow<RecipeLine> line : lines) {
+            context.reject(line.line(), message);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.luun.hsf.asm01.kitchencontrolbe.importer;
+
+import jakarta.persistence.EntityManager;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Inventory;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.InventoryTransaction;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.LogBatch;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Product;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.User;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogType;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.TransactionType;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * stock_receipts.csv: product_name,quantity,production_date,expiry_date.
+ * Each line becomes a PURCHASE LogBatch, its Inventory row and an IMPORT InventoryTransaction, the same
+ * three rows a manual stock receipt creates, so the stock ledger and expiry queue stay consistent.
+ * expiry_date may be empty when the product has a shelf life.
+ */
+@Component
+public class StockReceiptImportHandler implements ImportHandler<StockReceiptImportHandler.Receipt> {
+
+    private static final List<String> COLUMNS = List.of("product_name", "quantity", "production_date", "expiry_date");
+
+    public record Receipt(long productId, float quantity, LocalDate productionDate, LocalDate expiryDate) {
+    }
+
+    @Override
+    public ImportKind kind() {
+        return ImportKind.STOCK_RECEIPTS;
+    }
+
+    @Override
+    public List<String> columns() {
+        return COLUMNS;
+    }
+
+    @Override
+    public Receipt parse(String[] fields, ImportLookups lookups) {
+        ImportFields.checkWidth(fields, COLUMNS);
+        ImportLookups.ProductInfo product = lookups.product(ImportFields.text(fields, 0, "product_name"));
+        float quantity = ImportFields.positive(fields, 1, "quantity");
+        LocalDate productionDate = ImportFields.optionalDate(fields, 2, "production_date");
+        if (productionDate == null) {
+            throw new ImportRowException("production_date is required");
+        }
+        LocalDate expiryDate = ImportFields.optionalDate(fields, 3, "expiry_date");
+        if (expiryDate == null) {
+            if (product.shelfLifeDays() == null) {
+                throw new ImportRowException("expiry_date is required, product has no shelf life");
+            }
+            expiryDate = productionDate.plusDays(product.shelfLifeDays());
+        }
+        if (expiryDate.isBefore(productionDate)) {
+            throw new ImportRowException("expiry_date is before production_date");
+        }
+        return new Receipt(product.productId(), quantity, productionDate, expiryDate);
+    }
+
+    @Override
+    public int write(List<ImportRow<Receipt>> rows, ImportContext context) {
+        EntityManager entityManager = context.getEntityManager();
+        LocalDateTime now = LocalDateTime.now();
+        //LogBatch và Inventory dùng sequence nên được batch; InventoryTransaction dùng IDENTITY (sổ cái tồn kho),
+        //INSERT của nó chạy ngay khi persist nên ghi sau cùng, nếu không Hibernate phải flush lô đang chờ trước mỗi dòng
+        List<long[]> ledger = new ArrayList<>(rows.size());
+        for (ImportRow<Receipt> row : rows) {
+            Receipt receipt = row.value();
+            Product product = entityManager.getReference(Product.class, receipt.productId());
+            LogBatch batch = new LogBatch();
+            batch.setProduct(product);
+            batch.setQuantity(receipt.quantity());
+            batch.setProductionDate(receipt.productionDate());
+            batch.setExpiryDate(receipt.expiryDate());
+            batch.setStatus(LogStatus.DONE);
+            batch.setType(LogType.PURCHASE);
+            batch.setCreatedAt(now);
+            context.persist(batch);
+
+            Inventory inventory = new Inventory();
+            inventory.setProduct(product);
+            inventory.setBatch(batch);
+            inventory.setQuantity(receipt.quantity());
+            inventory.setExpiryDate(receipt.expiryDate());
+            context.persist(inventory);
+            ledger.add(new long[]{receipt.productId(), batch.getBatchId()});
+        }
+        context.flush();
+
+        String note = "CSV import #" + context.getJob().getJobId();
+        User createdBy = entityManager.getReference(User.class, context.getJob().getUserId());
+        for (int i = 0; i < rows.size(); i++) {
+            InventoryTransaction transaction = new InventoryTransaction();
+            transaction.setProduct(entityManager.getReference(Product.class, ledger.get(i)[0]));
+            transaction.setBatch(entityManager.getReference(LogBatch.class, ledger.get(i)[1]));
+            transaction.setCreatedBy(createdBy);
+            transaction.setType(TransactionType.IMPORT);
+            transaction.setQuantity(rows.get(i).value().quantity());
+            transaction.setNote(note);
+            transaction.setCreatedAt(now);
+            context.persist(transaction);
+        }
+        return rows.size();
+    }
+}
@@ -0,0 +1,23 @@
+package org.luun.hsf.asm01.kitchencontrolbe.job;
+
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IExpiryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+//Chạy theo kitchen.expiry.cron, chỉ xử lý các lô tới hạn trong ExpiryQueue nên chạy thường xuyên vẫn rẻ
+@Component
+@RequiredArgsConstructor
+public class ExpirySweepJob {
+
+    private final IExpiryService expiryService;
+
+    @Value("${kitchen.system-user-id:1}")
+    private long systemUserId;
+
+    @Scheduled(cron = "${kitchen.expiry.cron:0 */15 * * * *}")
+    public void sweep() {
+        expiryService.sweepExpired(systemUserId);
+    }
+}
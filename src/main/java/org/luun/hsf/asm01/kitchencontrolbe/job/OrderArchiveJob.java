@@ -0,0 +1,19 @@
+package org.luun.hsf.asm01.kitchencontrolbe.job;
+
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.archive.OrderArchiver;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+//Chuyển order cũ sang orders_archive theo kitchen.orders.archive.cron, vào giờ ít tải
+@Component
+@RequiredArgsConstructor
+public class OrderArchiveJob {
+
+    private final OrderArchiver orderArchiver;
+
+    @Scheduled(cron = "${kitchen.orders.archive.cron:0 30 2 * * *}")
+    public void archive() {
+        orderArchiver.archive();
+    }
+}
@@ -0,0 +1,39 @@
+package org.luun.hsf.asm01.kitchencontrolbe.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.luun.hsf.asm01.kitchencontrolbe.outbox.OutboxDispatcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+//Poll order_outbox mỗi poll-interval-ms (tính từ lúc lượt trước xong) nếu poll-enabled, và dọn event đã publish theo cleanup-cron
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxDispatchJob {
+
+    private final OutboxDispatcher outboxDispatcher;
+
+    @Value("${kitchen.outbox.retention:P1D}")
+    private Duration retention;
+
+    //fixedDelay không tắt được bằng "-" như cron nên dùng cờ riêng
+    @Value("${kitchen.outbox.poll-enabled:true}")
+    private boolean pollEnabled;
+
+    @Scheduled(fixedDelayString = "${kitchen.outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        if (pollEnabled) {
+            outboxDispatcher.dispatchPending();
+        }
+    }
+
+    @Scheduled(cron = "${kitchen.outbox.cleanup-cron:0 30 3 * * *}")
+    public void purge() {
+        int deleted = outboxDispatcher.purgePublished(retention);
+        log.info("Purged {} published outbox events older than {}", deleted, retention);
+    }
+}
@@ -0,0 +1,26 @@
+package org.luun.hsf.asm01.kitchencontrolbe.job;
+
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IProductionPlanService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+//Chạy theo kitchen.planning.cron (mặc định "-" = tắt), gom order WAITTING chưa có plan của hôm nay
+@Component
+@RequiredArgsConstructor
+public class ProductionPlanJob {
+
+    private final IProductionPlanService productionPlanService;
+
+    @Value("${kitchen.system-user-id:1}")
+    private long systemUserId;
+
+    @Scheduled(cron = "${kitchen.planning.cron:-}")
+    public void aggregateToday() {
+        LocalDate today = LocalDate.now();
+        productionPlanService.aggregateWaitingOrders(today, today.plusDays(1), systemUserId);
+    }
+}
@@ -0,0 +1,37 @@
+package org.luun.hsf.asm01.kitchencontrolbe.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.luun.hsf.asm01.kitchencontrolbe.report.ReportAggregator;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IReportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+//Dọn report_applied_events theo kitchen.reports.cleanup-cron, các event cũ hơn applied-retention không còn bị giao lại
+//Heartbeat các report chưa xong của instance này và đánh FAILED report mà instance giữ nó đã dừng
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportMaintenanceJob {
+
+    private final ReportAggregator reportAggregator;
+    private final IReportService reportService;
+
+    @Value("${kitchen.reports.applied-retention:P7D}")
+    private Duration appliedRetention;
+
+    @Scheduled(cron = "${kitchen.reports.cleanup-cron:0 45 3 * * *}")
+    public void purgeAppliedEvents() {
+        int deleted = reportAggregator.purgeAppliedEvents(appliedRetention);
+        log.info("Purged {} applied report events older than {}", deleted, appliedRetention);
+    }
+
+    @Scheduled(fixedDelayString = "${kitchen.reports.heartbeat-ms:30000}")
+    public void heartbeat() {
+        reportService.heartbeatReports();
+        reportService.failStaleReports();
+    }
+}
@@ -0,0 +1,31 @@
+package org.luun.hsf.asm01.kitchencontrolbe.job;
+
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IStockLedgerService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+//Chạy theo kitchen.stock.snapshot-cron, lưu số dư tồn kho để lúc khởi động chỉ replay phần ledger sau snapshot
+//Mỗi catch-up-ms đọc lại ledger sau snapshot để số dư không lệch khi instance khác (hoặc SQL tay) thêm transaction
+@Component
+@RequiredArgsConstructor
+public class StockSnapshotJob {
+
+    private final IStockLedgerService stockLedgerService;
+
+    @Value("${kitchen.stock.catch-up-enabled:true}")
+    private boolean catchUpEnabled;
+
+    @Scheduled(cron = "${kitchen.stock.snapshot-cron:0 0 * * * *}")
+    public void snapshot() {
+        stockLedgerService.takeSnapshot();
+    }
+
+    @Scheduled(fixedDelayString = "${kitchen.stock.catch-up-ms:10000}")
+    public void catchUp() {
+        if (catchUpEnabled) {
+            stockLedgerService.catchUp();
+        }
+    }
+}
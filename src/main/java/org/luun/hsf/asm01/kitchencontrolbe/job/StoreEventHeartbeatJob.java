@@ -0,0 +1,19 @@
+package org.luun.hsf.asm01.kitchencontrolbe.job;
+
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.feed.StoreEventHub;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+//Heartbeat cho các stream SSE đang mở: giữ kết nối qua proxy và phát hiện client đã ngắt
+@Component
+@RequiredArgsConstructor
+public class StoreEventHeartbeatJob {
+
+    private final StoreEventHub storeEvents;
+
+    @Scheduled(fixedDelayString = "${kitchen.store-events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        storeEvents.sendHeartbeats();
+    }
+}
@@ -0,0 +1,32 @@
+package org.luun.hsf.asm01.kitchencontrolbe.ledger;
+
+import jakarta.persistence.PostPersist;
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.InventoryTransaction;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.TransactionType;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IStockLedgerService;
+import org.luun.hsf.asm01.kitchencontrolbe.util.AfterCommit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+//Entity listener của InventoryTransaction: commit xong thì cộng/trừ vào số dư trong bộ nhớ
+//Dùng ObjectProvider vì entityManagerFactory tạo listener trước khi service (cần repository) sẵn sàng
+@Component
+@RequiredArgsConstructor
+public class StockLedgerListener {
+
+    private final ObjectProvider<IStockLedgerService> stockLedgerService;
+
+    @PostPersist
+    public void onPersist(InventoryTransaction transaction) {
+        if (transaction.getQuantity() == null || transaction.getProduct() == null) {
+            return;
+        }
+        long transactionId = transaction.getTransactionId();
+        long productId = transaction.getProduct().getProductId();
+        double delta = transaction.getType() == TransactionType.IMPORT
+                ? transaction.getQuantity()
+                : -transaction.getQuantity();
+        AfterCommit.run(() -> stockLedgerService.getObject().applyTransaction(transactionId, productId, delta));
+    }
+}
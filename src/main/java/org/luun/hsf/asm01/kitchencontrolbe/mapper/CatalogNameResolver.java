@@ -0,0 +1,24 @@
+package org.luun.hsf.asm01.kitchencontrolbe.mapper;
+
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.CatalogCache;
+import org.mapstruct.Named;
+import org.springframework.stereotype.Component;
+
+//Được OrderMapper dùng để điền storeName / productName từ CatalogCache
+@Component
+@RequiredArgsConstructor
+public class CatalogNameResolver {
+
+    private final CatalogCache catalogCache;
+
+    @Named("storeName")
+    public String storeName(int storeId) {
+        return catalogCache.storeName(storeId);
+    }
+
+    @Named("productName")
+    public String productName(int productId) {
+        return catalogCache.productName(productId);
+    }
+}
@@ -4,10 +4,12 @@ import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
 import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
 import org.luun.hsf.asm01.kitchencontrolbe.entity.Order;
 import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderDetail;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderSnapshot;
+import org.luun.hsf.asm01.kitchencontrolbe.projection.OrderLinesCodec;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = {CatalogNameResolver.class, OrderLinesCodec.class})
 public interface OrderMapper {
 
     @Mapping(target = "orderId", ignore = true)
@@ -15,6 +17,9 @@ public interface OrderMapper {
     @Mapping(target = "plan", ignore = true)
     @Mapping(target = "orderDate", ignore = true)
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "idempotencyKey", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     @Mapping(target = "orderDetails", source = "orderDetails")
     Order toEntity(OrderRequestDTO request);
 
@@ -23,7 +28,14 @@ public interface OrderMapper {
     OrderDetail toOrderDetailEntity(OrderRequestDTO.OrderDetailRequest request);
 
     @Mapping(target = "planId", source = "plan.planId")
+    @Mapping(target = "storeName", source = "storeId", qualifiedByName = "storeName")
     OrderResponseDTO toResponseDTO(Order order);
 
+    @Mapping(target = "productName", source = "productId", qualifiedByName = "productName")
     OrderResponseDTO.OrderDetailResponse toOrderDetailResponse(OrderDetail orderDetail);
+
+    //Đọc từ order_view hoặc orders_archive: details giải mã từ cột lines, không cần load order_details
+    @Mapping(target = "storeName", source = "storeId", qualifiedByName = "storeName")
+    @Mapping(target = "orderDetails", source = "lines", qualifiedByName = "orderLines")
+    OrderResponseDTO toResponseDTO(OrderSnapshot snapshot);
 }
@@ -0,0 +1,28 @@
+package org.luun.hsf.asm01.kitchencontrolbe.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+//StatementInspector của Hibernate: đếm số câu SQL được prepare trên thread đang xử lý request
+public final class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
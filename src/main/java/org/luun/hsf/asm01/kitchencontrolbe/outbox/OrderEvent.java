@@ -0,0 +1,27 @@
+package org.luun.hsf.asm01.kitchencontrolbe.outbox;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderOutboxEvent;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderEventType;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Order lifecycle event delivered to {@link OrderEventSubscriber}s. {@code previousStatus} is null for
+ * {@link OrderEventType#CREATED} and {@code status} (the status after the change) is null for
+ * {@link OrderEventType#DELETED}.
+ */
+public record OrderEvent(long eventId,
+                         int orderId,
+                         LocalDate orderDay,
+                         OrderEventType type,
+                         OrderStatus previousStatus,
+                         OrderStatus status,
+                         LocalDateTime occurredAt) {
+
+    static OrderEvent from(OrderOutboxEvent row) {
+        return new OrderEvent(row.getEventId(), row.getOrderId(), row.getOrderDay(), row.getEventType(),
+                row.getPreviousStatus(), row.getStatus(), row.getCreatedAt());
+    }
+}
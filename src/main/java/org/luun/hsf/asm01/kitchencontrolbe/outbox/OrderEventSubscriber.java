@@ -0,0 +1,12 @@
+package org.luun.hsf.asm01.kitchencontrolbe.outbox;
+
+/**
+ * In-process consumer of order events, picked up by {@link OutboxDispatcher} from every bean implementing it.
+ * Delivery is at-least-once: an event is redelivered to all subscribers if any of them throws, so handlers
+ * must be idempotent (e.g. keyed by {@link OrderEvent#eventId()}). Events of one order arrive in the order
+ * they were written; events of different orders may be handled concurrently.
+ */
+public interface OrderEventSubscriber {
+
+    void onEvent(OrderEvent event);
+}
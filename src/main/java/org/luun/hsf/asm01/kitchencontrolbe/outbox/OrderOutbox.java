@@ -0,0 +1,49 @@
+package org.luun.hsf.asm01.kitchencontrolbe.outbox;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderOutboxEvent;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderEventType;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+//Ghi event vào order_outbox trong transaction hiện tại: rollback thì event cũng mất, request không chờ subscriber nào
+@Component
+@RequiredArgsConstructor
+public class OrderOutbox {
+
+    private final EntityManager entityManager;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(int orderId, LocalDate orderDay, OrderEventType type, OrderStatus from, OrderStatus to) {
+        entityManager.persist(newEvent(orderId, orderDay, type, from, to, LocalDateTime.now()));
+    }
+
+    //Sequence pooled nên các INSERT được batch theo hibernate.jdbc.batch_size
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Collection<Integer> orderIds, LocalDate orderDay, OrderEventType type,
+                          OrderStatus from, OrderStatus to) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Integer orderId : orderIds) {
+            entityManager.persist(newEvent(orderId, orderDay, type, from, to, now));
+        }
+    }
+
+    private OrderOutboxEvent newEvent(int orderId, LocalDate orderDay, OrderEventType type,
+                                      OrderStatus from, OrderStatus to, LocalDateTime createdAt) {
+        OrderOutboxEvent event = new OrderOutboxEvent();
+        event.setOrderId(orderId);
+        event.setOrderDay(orderDay);
+        event.setEventType(type);
+        event.setPreviousStatus(from);
+        event.setStatus(to);
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+}
@@ -0,0 +1,284 @@
+package org.luun.hsf.asm01.kitchencontrolbe.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderOutboxEvent;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderOutboxRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OutboxLeaseRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes pending order_outbox rows to every {@link OrderEventSubscriber}.
+ * Each batch is split into lanes by orderId, lanes run in parallel and events inside a lane run in
+ * event_id order, so one order's events never overtake each other. The next batch is read only after
+ * the current one finished, which bounds the events in flight to batch-size: slow subscribers make the
+ * backlog grow in the table (visible as kitchen.outbox.pending / kitchen.outbox.lag), not in memory.
+ * Rows are marked published only after all subscribers succeeded; a failure leaves the event and the
+ * later events of the same order pending for the next poll. An event that failed max-attempts times is
+ * parked (parked_at set, counted in kitchen.outbox.parked) so it stops blocking its order and stops being
+ * redelivered to the subscribers that already handled it; the later events of that order go on without it.
+ * Only the instance holding the outbox_lease row dispatches, so with several instances each event is still
+ * delivered once and in order; the lease is renewed before every batch and released after the poll.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private static final String LEASE_NAME = "order-outbox";
+
+    private final OrderOutboxRepository outboxRepository;
+    private final OutboxLeaseRepository leaseRepository;
+    private final ObjectProvider<OrderEventSubscriber> subscribers;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final int maxAttempts;
+    private final ExecutorService lanes;
+    private final int laneCount;
+    private final Duration leaseTtl;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    //Job và API dùng chung trong 1 instance, giữa các instance thì dùng outbox_lease
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicLong parkedCount = new AtomicLong();
+    private final Counter published;
+    private final Counter failed;
+    private final Counter parked;
+    private final Timer deliveryLatency;
+
+    public OutboxDispatcher(OrderOutboxRepository outboxRepository,
+                            OutboxLeaseRepository leaseRepository,
+                            ObjectProvider<OrderEventSubscriber> subscribers,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${kitchen.outbox.batch-size:500}") int batchSize,
+                            @Value("${kitchen.outbox.max-batches-per-poll:20}") int maxBatchesPerPoll,
+                            @Value("${kitchen.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${kitchen.outbox.lanes:4}") int laneCount,
+                            @Value("${kitchen.outbox.lease-ttl:PT1M}") Duration leaseTtl) {
+        this.outboxRepository = outboxRepository;
+        this.leaseRepository = leaseRepository;
+        this.subscribers = subscribers;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.maxAttempts = maxAttempts;
+        this.laneCount = laneCount;
+        this.leaseTtl = leaseTtl;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.lanes = Executors.newFixedThreadPool(laneCount, runnable -> {
+            Thread thread = new Thread(runnable, "outbox-lane-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("kitchen.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events not yet published, as of the last poll")
+                .register(meterRegistry);
+        Gauge.builder("kitchen.outbox.lag", lagMillis, value -> value.get() / 1000.0)
+                .description("Age of the oldest unpublished outbox event, as of the last poll")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("kitchen.outbox.parked", parkedCount, AtomicLong::get)
+                .description("Outbox events parked after max-attempts failures, as of the last poll")
+                .register(meterRegistry);
+        this.published = Counter.builder("kitchen.outbox.events")
+                .tag("result", "published")
+                .register(meterRegistry);
+        this.failed = Counter.builder("kitchen.outbox.events")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.parked = Counter.builder("kitchen.outbox.events")
+                .tag("result", "parked")
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("kitchen.outbox.delivery.latency")
+                .description("Time from writing an outbox event to all subscribers handling it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    //Publish tối đa max-batches-per-poll lô, trả về số event đã publish (0 khi instance khác đang giữ lease)
+    public int dispatchPending() {
+        dispatchLock.lock();
+        boolean leased = false;
+        try {
+            int delivered = 0;
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                //Gia hạn trước mỗi lô, mất lease thì dừng để instance mới giữ lease đọc tiếp từ event chưa publish
+                if (!acquireLease()) {
+                    break;
+                }
+                leased = true;
+                List<OrderOutboxEvent> batch = outboxRepository.findPending(PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                Set<Long> failedIds = ConcurrentHashMap.newKeySet();
+                List<Long> succeeded = deliver(batch, failedIds);
+                //Chỉ event tự lỗi mới tính attempts, event đứng sau nó trong cùng order chỉ được để lại pending
+                List<Long> retried = new ArrayList<>(failedIds.size());
+                List<Long> parkedIds = new ArrayList<>();
+                for (OrderOutboxEvent event : batch) {
+                    if (!failedIds.contains(event.getEventId())) {
+                        continue;
+                    }
+                    if (event.getAttempts() + 1 >= maxAttempts) {
+                        parkedIds.add(event.getEventId());
+                    } else {
+                        retried.add(event.getEventId());
+                    }
+                }
+                transactionTemplate.executeWithoutResult(status -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    if (!succeeded.isEmpty()) {
+                        outboxRepository.markPublished(succeeded, now);
+                    }
+                    if (!retried.isEmpty()) {
+                        outboxRepository.incrementAttempts(retried);
+                    }
+                    if (!parkedIds.isEmpty()) {
+                        outboxRepository.park(parkedIds, now);
+                    }
+                });
+                for (Long eventId : parkedIds) {
+                    parked.increment();
+                    log.error("Outbox event {} failed {} times, parked", eventId, maxAttempts);
+                }
+                delivered += succeeded.size();
+                //Còn event lỗi thì lô sau sẽ đọc lại đúng các event đó, để lần poll sau thử lại
+                if (succeeded.size() < batch.size() || batch.size() < batchSize) {
+                    break;
+                }
+            }
+            return delivered;
+        } finally {
+            if (leased) {
+                releaseLease();
+            }
+            refreshLag();
+            dispatchLock.unlock();
+        }
+    }
+
+    private boolean acquireLease() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(leaseTtl);
+        return Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                leaseRepository.acquire(LEASE_NAME, instanceId, expiresAt, now) == 1
+                        || leaseRepository.insertIfAbsent(LEASE_NAME, instanceId, expiresAt) == 1));
+    }
+
+    //Trả lease ngay sau lượt poll để instance khác không phải chờ hết lease-ttl
+    private void releaseLease() {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    leaseRepository.release(LEASE_NAME, instanceId, LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            log.warn("Could not release outbox lease: {}", e.getMessage());
+        }
+    }
+
+    private List<Long> deliver(List<OrderOutboxEvent> batch, Set<Long> failedIds) {
+        List<OrderEventSubscriber> targets = subscribers.orderedStream().toList();
+        List<List<OrderEvent>> byLane = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            byLane.add(new ArrayList<>());
+        }
+        for (OrderOutboxEvent row : batch) {
+            byLane.get(Math.floorMod(row.getOrderId(), laneCount)).add(OrderEvent.from(row));
+        }
+
+        List<Future<List<Long>>> futures = new ArrayList<>(laneCount);
+        for (List<OrderEvent> lane : byLane) {
+            if (!lane.isEmpty()) {
+                futures.add(lanes.submit(() -> deliverLane(lane, targets, failedIds)));
+            }
+        }
+        List<Long> succeeded = new ArrayList<>(batch.size());
+        for (Future<List<Long>> future : futures) {
+            try {
+                succeeded.addAll(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while dispatching outbox events", e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Outbox lane failed", e.getCause());
+            }
+        }
+        return succeeded;
+    }
+
+    private List<Long> deliverLane(List<OrderEvent> lane, List<OrderEventSubscriber> targets, Set<Long> failedIds) {
+        List<Long> succeeded = new ArrayList<>(lane.size());
+        //Order đã có event lỗi trong lô: bỏ qua các event sau của order đó để không publish sai thứ tự
+        Set<Integer> blocked = new HashSet<>();
+        for (OrderEvent event : lane) {
+            if (blocked.contains(event.orderId())) {
+                continue;
+            }
+            try {
+                for (OrderEventSubscriber subscriber : targets) {
+                    subscriber.onEvent(event);
+                }
+                succeeded.add(event.eventId());
+                published.increment();
+                deliveryLatency.record(Duration.between(event.occurredAt(), LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                blocked.add(event.orderId());
+                failedIds.add(event.eventId());
+                failed.increment();
+                log.warn("Outbox event {} ({} order {}) failed, will retry: {}",
+                        event.eventId(), event.type(), event.orderId(), e.getMessage());
+            }
+        }
+        return succeeded;
+    }
+
+    private void refreshLag() {
+        try {
+            pending.set(outboxRepository.countPending());
+            parkedCount.set(outboxRepository.countParked());
+            LocalDateTime oldest = outboxRepository.findOldestPendingCreatedAt();
+            lagMillis.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh outbox lag: {}", e.getMessage());
+        }
+    }
+
+    //Xóa event đã publish cũ hơn retention, trả về số dòng đã xóa
+    public int purgePublished(Duration retention) {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        return transactionTemplate.execute(status -> outboxRepository.deletePublishedBefore(before));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lanes.shutdown();
+    }
+}
@@ -0,0 +1,77 @@
+package org.luun.hsf.asm01.kitchencontrolbe.projection;
+
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.CatalogCache;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderDetail;
+import org.mapstruct.Named;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+//order_view.lines và orders_archive.lines: "productId:quantity" ngăn cách bởi ';', decode không cần JSON hay join
+//Tên product lấy từ CatalogCache nên đổi tên product không phải ghi lại view/archive
+@Component
+@RequiredArgsConstructor
+public class OrderLinesCodec {
+
+    private final CatalogCache catalogCache;
+
+    public static String encode(List<OrderDetail> details) {
+        StringBuilder lines = new StringBuilder(details.size() * 12);
+        for (OrderDetail detail : details) {
+            append(lines, detail.getProductId(), detail.getQuantity());
+        }
+        return lines.toString();
+    }
+
+    //Để encode từ các dòng order_details đọc bằng SQL mà không cần entity
+    public static void append(StringBuilder lines, int productId, float quantity) {
+        if (!lines.isEmpty()) {
+            lines.append(';');
+        }
+        lines.append(productId).append(':').append(quantity);
+    }
+
+    public static void forEachLine(String lines, LineConsumer consumer) {
+        int start = 0;
+        while (start < lines.length()) {
+            int colon = lines.indexOf(':', start);
+            int end = lines.indexOf(';', colon);
+            if (end < 0) {
+                end = lines.length();
+            }
+            consumer.accept(Integer.parseInt(lines, start, colon, 10), Float.parseFloat(lines.substring(colon + 1, end)));
+            start = end + 1;
+        }
+    }
+
+    //Để preload tên product của cả trang bằng 1 query trước khi decode
+    public static void collectProductIds(String lines, Collection<Integer> into) {
+        int start = 0;
+        while (start < lines.length()) {
+            int colon = lines.indexOf(':', start);
+            into.add(Integer.parseInt(lines, start, colon, 10));
+            int end = lines.indexOf(';', colon);
+            start = end < 0 ? lines.length() : end + 1;
+        }
+    }
+
+    @Named("orderLines")
+    public List<OrderResponseDTO.OrderDetailResponse> decode(String lines) {
+        List<OrderResponseDTO.OrderDetailResponse> details = new ArrayList<>();
+        forEachLine(lines, (productId, quantity) -> details.add(OrderResponseDTO.OrderDetailResponse.builder()
+                .productId(productId)
+                .productName(catalogCache.productName(productId))
+                .quantity(quantity)
+                .build()));
+        return details;
+    }
+
+    @FunctionalInterface
+    public interface LineConsumer {
+        void accept(int productId, float quantity);
+    }
+}
@@ -0,0 +1,138 @@
+package org.luun.hsf.asm01.kitchencontrolbe.projection;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderViewRebuildResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Order;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderView;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderViewRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+//Giữ order_view theo orders, gọi trong transaction của thay đổi order nên dòng view commit/rollback cùng order
+//rebuild() dựng lại toàn bộ view theo từng chunk
+@Slf4j
+@Component
+public class OrderViewProjection {
+
+    //Giới hạn số tham số của câu IN (...)
+    private static final int MAX_IN_LIST = 1000;
+
+    private final OrderViewRepository orderViewRepository;
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebuildChunkSize;
+
+    public OrderViewProjection(OrderViewRepository orderViewRepository,
+                               OrderRepository orderRepository,
+                               EntityManager entityManager,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${kitchen.orders.view.rebuild-chunk-size:500}") int rebuildChunkSize) {
+        this.orderViewRepository = orderViewRepository;
+        this.orderRepository = orderRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.rebuildChunkSize = rebuildChunkSize;
+    }
+
+    //View trống mà đã có order (lần deploy đầu tiên có order_view): dựng lại toàn bộ trước khi phục vụ đọc
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (orderViewRepository.count() == 0 && orderRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    //Order vừa persist vẫn nằm trong persistence context cùng details nên find không cần query
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void created(Collection<Integer> orderIds) {
+        for (Integer orderId : orderIds) {
+            Order order = entityManager.find(Order.class, orderId);
+            if (order != null) {
+                entityManager.persist(toView(order));
+            }
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void changed(Collection<Integer> orderIds) {
+        forChunks(orderIds, orderViewRepository::refreshFromOrders);
+    }
+
+    //Order vừa được gán plan: 1 câu UPDATE theo plan_id thay vì danh sách orderId
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void planned(Long planId) {
+        orderViewRepository.refreshFromOrdersOfPlan(planId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleted(Collection<Integer> orderIds) {
+        forChunks(orderIds, orderViewRepository::deleteByOrderIdIn);
+    }
+
+    public OrderViewRebuildResultDTO rebuild() {
+        long start = System.nanoTime();
+        int written = 0;
+        int after = 0;
+        while (true) {
+            List<Integer> ids = orderRepository.findIdsAfter(after, PageRequest.of(0, rebuildChunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            //Mỗi chunk 1 transaction; khóa các order trước khi đọc để không ghi đè thay đổi commit sau lúc đọc
+            written += transactionTemplate.execute(status -> {
+                orderRepository.lockByOrderIdIn(ids);
+                List<Order> orders = orderRepository.findAllWithDetailsByOrderIdIn(ids);
+                orderViewRepository.deleteByOrderIdIn(ids);
+                for (Order order : orders) {
+                    entityManager.persist(toView(order));
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return orders.size();
+            });
+            after = ids.get(ids.size() - 1);
+        }
+        int orphans = transactionTemplate.execute(status -> orderViewRepository.deleteOrphans());
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Order view rebuilt: {} rows written, {} orphans removed in {} ms", written, orphans, elapsedMillis);
+        return OrderViewRebuildResultDTO.builder()
+                .rowsWritten(written)
+                .orphansRemoved(orphans)
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    static OrderView toView(Order order) {
+        OrderView view = new OrderView();
+        view.setOrderId(order.getOrderId());
+        view.setStoreId(order.getStoreId());
+        view.setPlanId(order.getPlan() == null ? null : order.getPlan().getPlanId());
+        view.setOrderDate(order.getOrderDate());
+        view.setStatus(order.getStatus());
+        view.setVersion(order.getVersion());
+        view.setLines(OrderLinesCodec.encode(order.getOrderDetails() == null ? List.of() : order.getOrderDetails()));
+        return view;
+    }
+
+    private static void forChunks(Collection<Integer> orderIds, Consumer<List<Integer>> action) {
+        List<Integer> ids = new ArrayList<>(orderIds);
+        for (int from = 0; from < ids.size(); from += MAX_IN_LIST) {
+            action.accept(ids.subList(from, Math.min(from + MAX_IN_LIST, ids.size())));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.luun.hsf.asm01.kitchencontrolbe.report;
+
+import jakarta.persistence.PostPersist;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.LogBatch;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogType;
+import org.luun.hsf.asm01.kitchencontrolbe.util.AfterCommit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+//Entity listener của LogBatch: commit xong thì cộng lô PRODUCTION vào daily_production_demand
+//Lỗi ở đây chỉ log lại, transaction của lô đã commit; POST /api/reports/aggregates/rebuild sửa lại số liệu
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductionReportListener {
+
+    private final ObjectProvider<ReportAggregator> reportAggregator;
+
+    @PostPersist
+    public void onPersist(LogBatch batch) {
+        if (batch.getType() != LogType.PRODUCTION || batch.getQuantity() == null
+                || batch.getProductionDate() == null || batch.getProduct() == null) {
+            return;
+        }
+        int productId = batch.getProduct().getProductId().intValue();
+        LocalDate productionDate = batch.getProductionDate();
+        double quantity = batch.getQuantity();
+        AfterCommit.run(() -> {
+            try {
+                reportAggregator.getObject().applyProduction(productId, productionDate, quantity);
+            } catch (RuntimeException e) {
+                log.warn("Could not add production of product {} on {} to report aggregates: {}",
+                        productId, productionDate, e.getMessage());
+            }
+        });
+    }
+}
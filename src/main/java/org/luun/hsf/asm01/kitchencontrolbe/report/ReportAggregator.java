@@ -0,0 +1,335 @@
+package org.luun.hsf.asm01.kitchencontrolbe.report;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.AggregateRebuildResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.DailyOrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.DailyProductDemand;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.DailyProductionDemand;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderArchive;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.ReportAppliedEvent;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogType;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderEventType;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.outbox.OrderEvent;
+import org.luun.hsf.asm01.kitchencontrolbe.outbox.OrderEventSubscriber;
+import org.luun.hsf.asm01.kitchencontrolbe.projection.OrderLinesCodec;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.DailyOrderStatusRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.DailyProductDemandRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.DailyProductionDemandRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.LogBatchRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderArchiveRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderDetailRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderOutboxRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.ReportAppliedEventRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the daily_* reporting tables incrementally: every order outbox event adds its delta
+ * (status counts, and demand lines for CREATED) and every committed PRODUCTION LogBatch adds its
+ * quantity, so reports never GROUP BY over orders/order_details. Applied event ids are stored in the
+ * same transaction as the deltas, which makes redelivered events no-ops.
+ * Writers are not serialized in memory: lanes and instances apply events concurrently, and a writer that
+ * loses the race to insert a daily_* row or a report_applied_events id rolls back and runs again, finding
+ * the row (or the applied id) the other writer committed.
+ * Deleting an order moves it out of its status count and takes back its demand (orders are soft
+ * deleted, so their details are still there when the event is applied);
+ * {@link #rebuild} recomputes a day range from the source tables, including orders_archive, for
+ * backfills and repairs.
+ */
+@Slf4j
+@Component
+public class ReportAggregator implements OrderEventSubscriber {
+
+    private static final int FLUSH_EVERY = 500;
+    private static final int MAX_CONFLICT_RETRIES = 5;
+
+    private final DailyProductDemandRepository productDemandRepository;
+    private final DailyOrderStatusRepository orderStatusRepository;
+    private final DailyProductionDemandRepository productionDemandRepository;
+    private final ReportAppliedEventRepository appliedEventRepository;
+    private final OrderRepository orderRepository;
+    private final OrderDetailRepository orderDetailRepository;
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final LogBatchRepository logBatchRepository;
+    private final OrderOutboxRepository outboxRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    //applyProduction chạy trong afterCommit của transaction đã commit, REQUIRED sẽ nhập vào transaction đó
+    private final TransactionTemplate newTransaction;
+    //Rebuild đọc các GROUP BY và max event_id trên cùng 1 snapshot
+    private final TransactionTemplate snapshotTransaction;
+
+    public ReportAggregator(DailyProductDemandRepository productDemandRepository,
+                            DailyOrderStatusRepository orderStatusRepository,
+                            DailyProductionDemandRepository productionDemandRepository,
+                            ReportAppliedEventRepository appliedEventRepository,
+                            OrderRepository orderRepository,
+                            OrderDetailRepository orderDetailRepository,
+                            OrderArchiveRepository orderArchiveRepository,
+                            LogBatchRepository logBatchRepository,
+                            OrderOutboxRepository outboxRepository,
+                            EntityManager entityManager,
+                            TransactionTemplate transactionTemplate) {
+        this.productDemandRepository = productDemandRepository;
+        this.orderStatusRepository = orderStatusRepository;
+        this.productionDemandRepository = productionDemandRepository;
+        this.appliedEventRepository = appliedEventRepository;
+        this.orderRepository = orderRepository;
+        this.orderDetailRepository = orderDetailRepository;
+        this.orderArchiveRepository = orderArchiveRepository;
+        this.logBatchRepository = logBatchRepository;
+        this.outboxRepository = outboxRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.newTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Override
+    public void onEvent(OrderEvent event) {
+        retryOnConflict(transactionTemplate, () -> apply(event));
+    }
+
+    //Các dòng daily_* được tạo bằng UPDATE rồi INSERT nếu chưa có: writer khác chèn cùng key (hoặc cùng event_id)
+    //trước thì transaction này lỗi unique, chạy lại từ đầu sẽ UPDATE dòng đã có (hoặc thấy event đã áp dụng)
+    private void retryOnConflict(TransactionTemplate template, Runnable work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                template.executeWithoutResult(status -> work.run());
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_CONFLICT_RETRIES) {
+                    throw e;
+                }
+                log.debug("Report aggregate write conflicted, retrying ({}): {}", attempt, e.getMessage());
+            }
+        }
+    }
+
+    private void apply(OrderEvent event) {
+        if (appliedEventRepository.existsById(event.eventId())) {
+            return;
+        }
+        LocalDate day = event.orderDay();
+        if (event.previousStatus() != null) {
+            addStatus(day, event.previousStatus(), -1);
+        }
+        if (event.status() != null) {
+            addStatus(day, event.status(), 1);
+        }
+        if (event.type() == OrderEventType.CREATED || event.type() == OrderEventType.DELETED) {
+            //CREATED cộng, DELETED trừ nhu cầu của order. Order đã bị archive trước khi event tới thì không còn detail, chỉ đếm status
+            int sign = event.type() == OrderEventType.CREATED ? 1 : -1;
+            for (Object[] row : orderDetailRepository.sumDemandForOrder(event.orderId())) {
+                int storeId = ((Number) row[0]).intValue();
+                int productId = ((Number) row[1]).intValue();
+                double quantity = sign * ((Number) row[2]).doubleValue();
+                addDemand(day, storeId, productId, quantity, sign * ((Number) row[3]).longValue());
+                addProduction(day, productId, quantity, 0);
+            }
+        }
+        ReportAppliedEvent applied = new ReportAppliedEvent();
+        applied.setEventId(event.eventId());
+        applied.setAppliedAt(LocalDateTime.now());
+        entityManager.persist(applied);
+    }
+
+    //Gọi sau khi LogBatch PRODUCTION đã commit
+    public void applyProduction(int productId, LocalDate productionDate, double quantity) {
+        retryOnConflict(newTransaction, () -> addProduction(productionDate, productId, 0, quantity));
+    }
+
+    private void addStatus(LocalDate day, OrderStatus status, long delta) {
+        if (orderStatusRepository.add(day, status, delta) == 0) {
+            entityManager.persist(newStatus(day, status, delta));
+        }
+    }
+
+    private void addDemand(LocalDate day, int storeId, int productId, double quantity, long lines) {
+        if (productDemandRepository.add(day, storeId, productId, quantity, lines) == 0) {
+            entityManager.persist(newDemand(day, storeId, productId, quantity, lines));
+        }
+    }
+
+    private void addProduction(LocalDate day, int productId, double demand, double produced) {
+        if (productionDemandRepository.add(day, productId, demand, produced) == 0) {
+            entityManager.persist(newProduction(day, productId, demand, produced));
+        }
+    }
+
+    /**
+     * Recomputes the daily_* rows of [from, to) from orders, order_details, orders_archive and log_batches.
+     * Outbox events of those days that are still unpublished are already part of the result and are
+     * marked applied in the same transaction. The transaction runs at REPEATABLE READ and the marking is
+     * bounded by the max event_id read at its start, so an event committed while the rebuild runs is never
+     * marked without having been counted.
+     */
+    public AggregateRebuildResultDTO rebuild(LocalDate from, LocalDate to) {
+        long start = System.nanoTime();
+        AggregateRebuildResultDTO result = snapshotTransaction.execute(status -> rebuildRange(from, to));
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("Rebuilt report aggregates {} -> {}: {} demand, {} status, {} production rows in {} ms",
+                from, to, result.getProductDemandRows(), result.getOrderStatusRows(),
+                result.getProductionRows(), result.getElapsedMillis());
+        return result;
+    }
+
+    private AggregateRebuildResultDTO rebuildRange(LocalDate from, LocalDate to) {
+        //Câu đầu tiên của transaction: cố định snapshot, các event sau mốc này do dispatcher cộng như bình thường
+        long maxEventId = outboxRepository.findMaxEventId();
+        productDemandRepository.deleteRange(from, to);
+        orderStatusRepository.deleteRange(from, to);
+        productionDemandRepository.deleteRange(from, to);
+
+        LocalDateTime fromTime = from.atStartOfDay();
+        LocalDateTime toTime = to.atStartOfDay();
+        Map<DayProduct, double[]> production = new HashMap<>();
+        Map<DayStoreProduct, double[]> archivedDemand = new HashMap<>();
+        Map<DayStatus, long[]> archivedStatus = new HashMap<>();
+        sumArchive(fromTime, toTime, archivedDemand, archivedStatus, production);
+        int written = 0;
+
+        //Nhu cầu của order còn trong orders cộng với phần của order đã archive cùng key
+        int demandRows = 0;
+        for (Object[] row : orderDetailRepository.sumDemandByDay(fromTime, toTime)) {
+            LocalDate day = (LocalDate) row[0];
+            int storeId = ((Number) row[1]).intValue();
+            int productId = ((Number) row[2]).intValue();
+            double quantity = ((Number) row[3]).doubleValue();
+            long lines = ((Number) row[4]).longValue();
+            production.computeIfAbsent(new DayProduct(day, productId), key -> new double[2])[0] += quantity;
+            double[] archived = archivedDemand.remove(new DayStoreProduct(day, storeId, productId));
+            if (archived != null) {
+                quantity += archived[0];
+                lines += (long) archived[1];
+            }
+            entityManager.persist(newDemand(day, storeId, productId, quantity, lines));
+            demandRows++;
+            flushPeriodically(++written);
+        }
+        for (Map.Entry<DayStoreProduct, double[]> entry : archivedDemand.entrySet()) {
+            DayStoreProduct key = entry.getKey();
+            entityManager.persist(newDemand(key.day(), key.storeId(), key.productId(),
+                    entry.getValue()[0], (long) entry.getValue()[1]));
+            demandRows++;
+            flushPeriodically(++written);
+        }
+
+        int statusRows = 0;
+        for (Object[] row : orderRepository.countByDayAndStatus(fromTime, toTime)) {
+            LocalDate day = (LocalDate) row[0];
+            OrderStatus orderStatus = (OrderStatus) row[1];
+            long[] archived = archivedStatus.remove(new DayStatus(day, orderStatus));
+            entityManager.persist(newStatus(day, orderStatus, ((Number) row[2]).longValue() + (archived == null ? 0 : archived[0])));
+            statusRows++;
+            flushPeriodically(++written);
+        }
+        for (Map.Entry<DayStatus, long[]> entry : archivedStatus.entrySet()) {
+            entityManager.persist(newStatus(entry.getKey().day(), entry.getKey().status(), entry.getValue()[0]));
+            statusRows++;
+            flushPeriodically(++written);
+        }
+
+        for (Object[] row : logBatchRepository.sumQuantityByDay(LogType.PRODUCTION, from, to)) {
+            DayProduct key = new DayProduct((LocalDate) row[0], ((Number) row[1]).intValue());
+            production.computeIfAbsent(key, k -> new double[2])[1] += ((Number) row[2]).doubleValue();
+        }
+        for (Map.Entry<DayProduct, double[]> entry : production.entrySet()) {
+            DayProduct key = entry.getKey();
+            entityManager.persist(newProduction(key.day(), key.productId(), entry.getValue()[0], entry.getValue()[1]));
+            flushPeriodically(++written);
+        }
+
+        entityManager.flush();
+        appliedEventRepository.markPendingApplied(from, to, maxEventId, LocalDateTime.now());
+        return AggregateRebuildResultDTO.builder()
+                .fromDate(from)
+                .toDate(to)
+                .productDemandRows(demandRows)
+                .orderStatusRows(statusRows)
+                .productionRows(production.size())
+                .build();
+    }
+
+    //Cộng dồn các order đã archive trong [from, to) theo cùng key với các câu GROUP BY, order đã xóa mềm không được tính
+    private void sumArchive(LocalDateTime from, LocalDateTime to, Map<DayStoreProduct, double[]> demand,
+                            Map<DayStatus, long[]> status, Map<DayProduct, double[]> production) {
+        try (Stream<OrderArchive> archived = orderArchiveRepository.streamByOrderDate(from, to)) {
+            archived.forEach(order -> {
+                LocalDate day = order.getOrderDate().toLocalDate();
+                int storeId = order.getStoreId();
+                status.computeIfAbsent(new DayStatus(day, order.getStatus()), key -> new long[1])[0]++;
+                OrderLinesCodec.forEachLine(order.getLines(), (productId, quantity) -> {
+                    double[] lines = demand.computeIfAbsent(new DayStoreProduct(day, storeId, productId), key -> new double[2]);
+                    lines[0] += quantity;
+                    lines[1]++;
+                    production.computeIfAbsent(new DayProduct(day, productId), key -> new double[2])[0] += quantity;
+                });
+                entityManager.detach(order);
+            });
+        }
+    }
+
+    private void flushPeriodically(int written) {
+        if (written % FLUSH_EVERY == 0) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    //Xóa dấu event đã áp dụng cũ hơn retention (lâu hơn nhiều so với thời gian 1 event có thể bị giao lại)
+    public int purgeAppliedEvents(Duration retention) {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        return transactionTemplate.execute(status -> appliedEventRepository.deleteAppliedBefore(before));
+    }
+
+    private static DailyProductDemand newDemand(LocalDate day, int storeId, int productId, double quantity, long lines) {
+        DailyProductDemand row = new DailyProductDemand();
+        row.setReportDate(day);
+        row.setStoreId(storeId);
+        row.setProductId(productId);
+        row.setQuantity(quantity);
+        row.setOrderLines(lines);
+        return row;
+    }
+
+    private static DailyOrderStatus newStatus(LocalDate day, OrderStatus status, long count) {
+        DailyOrderStatus row = new DailyOrderStatus();
+        row.setReportDate(day);
+        row.setStatus(status);
+        row.setOrderCount(count);
+        return row;
+    }
+
+    private static DailyProductionDemand newProduction(LocalDate day, int productId, double demand, double produced) {
+        DailyProductionDemand row = new DailyProductionDemand();
+        row.setReportDate(day);
+        row.setProductId(productId);
+        row.setDemand(demand);
+        row.setProduced(produced);
+        return row;
+    }
+
+    private record DayProduct(LocalDate day, int productId) {
+    }
+
+    private record DayStoreProduct(LocalDate day, int storeId, int productId) {
+    }
+
+    private record DayStatus(LocalDate day, OrderStatus status) {
+    }
+}
@@ -0,0 +1,31 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.DailyOrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+@Repository
+public interface DailyOrderStatusRepository extends JpaRepository<DailyOrderStatus, Long> {
+
+    //Trả về 0 nếu chưa có dòng cho (ngày, status)
+    @Modifying
+    @Query("update DailyOrderStatus s set s.orderCount = s.orderCount + :delta " +
+            "where s.reportDate = :day and s.status = :status")
+    int add(@Param("day") LocalDate day, @Param("status") OrderStatus status, @Param("delta") long delta);
+
+    //Mỗi dòng: [reportDate, status, orderCount]
+    @Query("select s.reportDate, s.status, s.orderCount from DailyOrderStatus s " +
+            "where s.reportDate >= :from and s.reportDate < :to order by s.reportDate, s.status")
+    Stream<Object[]> streamRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("delete from DailyOrderStatus s where s.reportDate >= :from and s.reportDate < :to")
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
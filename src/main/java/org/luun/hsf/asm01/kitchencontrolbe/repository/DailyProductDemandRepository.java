@@ -0,0 +1,42 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.DailyProductDemand;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+@Repository
+public interface DailyProductDemandRepository extends JpaRepository<DailyProductDemand, Long> {
+
+    //Trả về 0 nếu chưa có dòng cho (ngày, store, product)
+    //Native: với JPQL Hibernate bọc tham số double trong cast(? as float(p)), H2 không parse được
+    @Modifying
+    @Query(value = "update daily_product_demand set quantity = quantity + :quantity, order_lines = order_lines + :lines " +
+            "where report_date = :day and store_id = :storeId and product_id = :productId", nativeQuery = true)
+    int add(@Param("day") LocalDate day,
+            @Param("storeId") int storeId,
+            @Param("productId") int productId,
+            @Param("quantity") double quantity,
+            @Param("lines") long lines);
+
+    //Mỗi dòng: [reportDate, storeId, productId, quantity, orderLines]
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select d.reportDate, d.storeId, d.productId, d.quantity, d.orderLines from DailyProductDemand d " +
+            "where d.reportDate >= :from and d.reportDate < :to and (:storeId is null or d.storeId = :storeId) " +
+            "order by d.reportDate, d.storeId, d.productId")
+    Stream<Object[]> streamRange(@Param("from") LocalDate from,
+                                 @Param("to") LocalDate to,
+                                 @Param("storeId") Integer storeId);
+
+    @Modifying
+    @Query("delete from DailyProductDemand d where d.reportDate >= :from and d.reportDate < :to")
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
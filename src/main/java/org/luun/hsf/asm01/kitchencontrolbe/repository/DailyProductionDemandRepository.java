@@ -0,0 +1,38 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.DailyProductionDemand;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+@Repository
+public interface DailyProductionDemandRepository extends JpaRepository<DailyProductionDemand, Long> {
+
+    //Trả về 0 nếu chưa có dòng cho (ngày, product)
+    //Native vì cùng lý do với DailyProductDemandRepository.add
+    @Modifying
+    @Query(value = "update daily_production_demand set demand = demand + :demand, produced = produced + :produced " +
+            "where report_date = :day and product_id = :productId", nativeQuery = true)
+    int add(@Param("day") LocalDate day,
+            @Param("productId") int productId,
+            @Param("demand") double demand,
+            @Param("produced") double produced);
+
+    //Mỗi dòng: [reportDate, productId, demand, produced]
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p.reportDate, p.productId, p.demand, p.produced from DailyProductionDemand p " +
+            "where p.reportDate >= :from and p.reportDate < :to order by p.reportDate, p.productId")
+    Stream<Object[]> streamRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("delete from DailyProductionDemand p where p.reportDate >= :from and p.reportDate < :to")
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
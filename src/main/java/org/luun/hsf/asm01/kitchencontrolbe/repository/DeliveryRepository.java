@@ -0,0 +1,19 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Delivery;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.DeliveryStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
+
+    @Modifying
+    @Query("update Delivery d set d.status = :to where d.deliveryId = :deliveryId and d.status = :from")
+    int updateStatusIfCurrent(@Param("deliveryId") Long deliveryId,
+                              @Param("from") DeliveryStatus from,
+                              @Param("to") DeliveryStatus to);
+}
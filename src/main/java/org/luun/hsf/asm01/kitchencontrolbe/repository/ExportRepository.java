@@ -0,0 +1,116 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.InventoryTransactionFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
+import org.springframework.stereotype.Repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Forward-only cursors over flat export rows. Only scalar columns are selected, so nothing enters the
+ * persistence context and memory does not grow with the number of rows. Must be called inside a
+ * transaction (PostgreSQL only honours the fetch size with autocommit off) and the result must be closed.
+ */
+@Repository
+public class ExportRepository {
+
+    public static final String[] ORDER_LINE_COLUMNS = {
+            "order_id", "store_id", "order_date", "status", "plan_id", "delivery_id",
+            "order_detail_id", "product_id", "quantity"
+    };
+
+    public static final String[] INVENTORY_TRANSACTION_COLUMNS = {
+            "transaction_id", "product_id", "type", "quantity", "batch_id", "created_by", "created_at", "note"
+    };
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    //Mỗi dòng theo ORDER_LINE_COLUMNS, 1 dòng cho mỗi order detail, theo thứ tự orderId
+    public ScrollableResults<Object[]> scrollOrderLines(OrderFilterRequest filter, int fetchSize) {
+        StringBuilder hql = new StringBuilder("select o.orderId, o.storeId, o.orderDate, o.status, p.planId, dl.deliveryId, " +
+                "d.orderDetailId, d.productId, d.quantity " +
+                "from OrderDetail d join d.order o left join o.plan p left join o.delivery dl where o.deletedAt is null");
+        Map<String, Object> params = new LinkedHashMap<>();
+        appendOrderFilter(hql, params, filter, "o");
+        hql.append(" order by o.orderId, d.orderDetailId");
+        return scroll(hql.toString(), params, fetchSize);
+    }
+
+    //Order đã archive (order đã xóa bị @SQLRestriction loại): orderId, storeId, orderDate, status, planId, deliveryId, lines
+    //theo thứ tự orderId, lines được tách thành từng dòng bằng OrderLinesCodec
+    public ScrollableResults<Object[]> scrollArchivedOrders(OrderFilterRequest filter, int fetchSize) {
+        StringBuilder hql = new StringBuilder("select a.orderId, a.storeId, a.orderDate, a.status, a.planId, a.deliveryId, a.lines " +
+                "from OrderArchive a where 1 = 1");
+        Map<String, Object> params = new LinkedHashMap<>();
+        appendOrderFilter(hql, params, filter, "a");
+        hql.append(" order by a.orderId");
+        return scroll(hql.toString(), params, fetchSize);
+    }
+
+    private static void appendOrderFilter(StringBuilder hql, Map<String, Object> params, OrderFilterRequest filter,
+                                          String alias) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.getStoreId() != null) {
+            hql.append(" and ").append(alias).append(".storeId = :storeId");
+            params.put("storeId", filter.getStoreId());
+        }
+        if (filter.getStatus() != null) {
+            hql.append(" and ").append(alias).append(".status = :status");
+            params.put("status", filter.getStatus());
+        }
+        if (filter.getFromDate() != null) {
+            hql.append(" and ").append(alias).append(".orderDate >= :fromDate");
+            params.put("fromDate", filter.getFromDate());
+        }
+        if (filter.getToDate() != null) {
+            hql.append(" and ").append(alias).append(".orderDate < :toDate");
+            params.put("toDate", filter.getToDate());
+        }
+    }
+
+    //Mỗi dòng theo INVENTORY_TRANSACTION_COLUMNS, theo thứ tự transactionId
+    public ScrollableResults<Object[]> scrollInventoryTransactions(InventoryTransactionFilterRequest filter, int fetchSize) {
+        StringBuilder hql = new StringBuilder("select t.transactionId, t.product.productId, t.type, t.quantity, b.batchId, " +
+                "t.createdBy.userId, t.createdAt, t.note " +
+                "from InventoryTransaction t left join t.batch b where 1 = 1");
+        Map<String, Object> params = new LinkedHashMap<>();
+        if (filter != null) {
+            if (filter.getProductId() != null) {
+                hql.append(" and t.product.productId = :productId");
+                params.put("productId", filter.getProductId());
+            }
+            if (filter.getType() != null) {
+                hql.append(" and t.type = :type");
+                params.put("type", filter.getType());
+            }
+            if (filter.getFromDate() != null) {
+                hql.append(" and t.createdAt >= :fromDate");
+                params.put("fromDate", filter.getFromDate());
+            }
+            if (filter.getToDate() != null) {
+                hql.append(" and t.createdAt < :toDate");
+                params.put("toDate", filter.getToDate());
+            }
+        }
+        hql.append(" order by t.transactionId");
+        return scroll(hql.toString(), params, fetchSize);
+    }
+
+    private ScrollableResults<Object[]> scroll(String hql, Map<String, Object> params, int fetchSize) {
+        Query<Object[]> query = entityManager.unwrap(Session.class).createQuery(hql, Object[].class);
+        params.forEach(query::setParameter);
+        return query.setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY);
+    }
+}
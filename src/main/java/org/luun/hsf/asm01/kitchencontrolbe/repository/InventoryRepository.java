@@ -0,0 +1,43 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import jakarta.persistence.LockModeType;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Inventory;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+
+    //Các lô còn hàng của 1 product theo thứ tự FEFO: hết hạn sớm nhất lấy trước, lô không có hạn dùng lấy sau cùng
+    //Mỗi dòng: [inventoryId, batchId, quantity]
+    @Query("select i.inventoryId, i.batch.batchId, i.quantity from Inventory i " +
+            "where i.product.productId = :productId and i.quantity > 0 " +
+            "and (i.expiryDate is null or i.expiryDate >= :today) " +
+            "order by i.expiryDate asc nulls last, i.inventoryId asc")
+    List<Object[]> findAvailableFefo(@Param("productId") Long productId, @Param("today") LocalDate today);
+
+    //Trừ kho có điều kiện: chỉ trừ khi còn đủ số lượng, trả về 0 nếu dòng đã bị request khác lấy mất
+    @Modifying
+    @Query("update Inventory i set i.quantity = i.quantity - :quantity " +
+            "where i.inventoryId = :inventoryId and i.quantity >= :quantity")
+    int decrementIfAvailable(@Param("inventoryId") Long inventoryId, @Param("quantity") float quantity);
+
+    @Query("select i.quantity from Inventory i where i.inventoryId = :inventoryId")
+    Float findQuantity(@Param("inventoryId") Long inventoryId);
+
+    //Khoá các dòng còn hàng của lô đã hết hạn để không bị trừ kho đồng thời trong lúc ghi sổ xuất huỷ
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Inventory i " +
+            "where i.batch.batchId in :batchIds and i.batch.status = :status and i.quantity > 0")
+    List<Inventory> findInStockForBatchesForUpdate(@Param("batchIds") Collection<Long> batchIds,
+                                                   @Param("status") LogStatus status);
+}
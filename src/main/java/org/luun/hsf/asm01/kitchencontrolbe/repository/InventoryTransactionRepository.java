@@ -0,0 +1,36 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.InventoryTransaction;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.TransactionType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InventoryTransactionRepository extends JpaRepository<InventoryTransaction, Long> {
+
+    @Query("select max(t.transactionId) from InventoryTransaction t")
+    Long findMaxTransactionId();
+
+    @Query("select max(t.transactionId) from InventoryTransaction t where t.createdAt <= :before")
+    Long findMaxTransactionIdCreatedBefore(@Param("before") LocalDateTime before);
+
+    //Biến động tồn kho theo product trong khoảng (afterId, upToId], mỗi dòng: [productId, sum(IMPORT) - sum(EXPORT)]
+    @Query("select t.product.productId, sum(case when t.type = :importType then t.quantity else -t.quantity end) " +
+            "from InventoryTransaction t " +
+            "where t.transactionId > :afterId and t.transactionId <= :upToId " +
+            "group by t.product.productId")
+    List<Object[]> sumNetQuantityByProduct(@Param("afterId") long afterId,
+                                           @Param("upToId") long upToId,
+                                           @Param("importType") TransactionType importType);
+
+    //Từng transaction có id > afterId, mỗi dòng: [transactionId, productId, quantity có dấu (EXPORT âm)]
+    @Query("select t.transactionId, t.product.productId, case when t.type = :importType then t.quantity else -t.quantity end " +
+            "from InventoryTransaction t where t.transactionId > :afterId and t.quantity is not null")
+    List<Object[]> findNetQuantitiesAfter(@Param("afterId") long afterId,
+                                          @Param("importType") TransactionType importType);
+}
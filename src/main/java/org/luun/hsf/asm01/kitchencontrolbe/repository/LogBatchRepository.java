@@ -0,0 +1,46 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.LogBatch;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LogBatchRepository extends JpaRepository<LogBatch, Long> {
+
+    //Keyset theo (expiryDate, batchId) trên idx_log_batches_expiry_id, mỗi dòng: [batchId, expiryDate]
+    @Query("select b.batchId, b.expiryDate from LogBatch b " +
+            "where b.status in :statuses and b.expiryDate <= :until " +
+            "and (b.expiryDate > :afterDate or (b.expiryDate = :afterDate and b.batchId > :afterId)) " +
+            "order by b.expiryDate, b.batchId")
+    List<Object[]> findExpiringAfter(@Param("statuses") Collection<LogStatus> statuses,
+                                     @Param("afterDate") LocalDate afterDate,
+                                     @Param("afterId") long afterId,
+                                     @Param("until") LocalDate until,
+                                     Pageable pageable);
+
+    @Modifying
+    @Query("update LogBatch b set b.status = :expired " +
+            "where b.batchId in :batchIds and b.status in :statuses and b.expiryDate < :today")
+    int markExpired(@Param("batchIds") Collection<Long> batchIds,
+                    @Param("statuses") Collection<LogStatus> statuses,
+                    @Param("expired") LogStatus expired,
+                    @Param("today") LocalDate today);
+
+    //Sản lượng theo ngày sản xuất, mỗi dòng: [productionDate, productId, sum(quantity)]
+    @Query("select b.productionDate, b.product.productId, sum(b.quantity) from LogBatch b " +
+            "where b.type = :type and b.productionDate >= :from and b.productionDate < :to " +
+            "group by b.productionDate, b.product.productId")
+    List<Object[]> sumQuantityByDay(@Param("type") LogType type,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+}
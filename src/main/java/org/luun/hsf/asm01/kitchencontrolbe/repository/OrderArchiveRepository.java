@@ -0,0 +1,18 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+@Repository
+public interface OrderArchiveRepository extends JpaRepository<OrderArchive, Integer>, OrderArchiveRepositoryCustom {
+
+    //Dùng khi rebuild report cho các ngày đã có order bị archive; phải close Stream sau khi dùng
+    @Query("select a from OrderArchive a where a.orderDate >= :from and a.orderDate < :to")
+    Stream<OrderArchive> streamByOrderDate(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,36 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderArchive;
+import org.luun.hsf.asm01.kitchencontrolbe.util.OrderCursor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+//Đọc archive giống OrderViewRepositoryCustom, và các câu SQL native của OrderArchiver (phải thấy cả order đã xóa mềm)
+public interface OrderArchiveRepositoryCustom {
+
+    //Keyset pagination: tối đa limit dòng nằm sau cursor (orderDate DESC, orderId DESC)
+    List<OrderArchive> findPage(OrderFilterRequest filter, OrderCursor after, int limit);
+
+    //Phải được gọi trong transaction và phải close Stream sau khi dùng
+    Stream<OrderArchive> stream(OrderFilterRequest filter, int fetchSize);
+
+    //Order đặt trước cutoff đã xong (DONE, DAMAGED) hoặc đã xóa mềm, cũ nhất trước.
+    //Order có quality feedback ở lại orders vì aggregate rating theo product được rebuild từ order_details
+    List<Integer> findArchivable(LocalDateTime cutoff, int limit);
+
+    //SELECT ... FOR UPDATE, trả về các id vẫn còn archive được
+    List<Integer> lockArchivable(Collection<Integer> orderIds);
+
+    //Mỗi dòng: [orderId, storeId, planId, deliveryId, orderDate, status, version, deletedAt]
+    List<Object[]> findOrderRows(Collection<Integer> orderIds);
+
+    //Mỗi dòng: [orderId, productId, quantity] theo thứ tự orderId, orderDetailId
+    List<Object[]> findDetailRows(Collection<Integer> orderIds);
+
+    //Xóa order_details rồi orders của các id, trả về số order đã xóa
+    int deleteOrders(Collection<Integer> orderIds);
+}
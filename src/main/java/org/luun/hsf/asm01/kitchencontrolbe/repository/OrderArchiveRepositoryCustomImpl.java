@@ -0,0 +1,94 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderArchive;
+import org.luun.hsf.asm01.kitchencontrolbe.util.OrderCursor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class OrderArchiveRepositoryCustomImpl implements OrderArchiveRepositoryCustom {
+
+    //Điều kiện archive, lặp lại trong lockArchivable vì order có thể đổi giữa 2 câu
+    private static final String ARCHIVABLE = "(o.deleted_at is not null or o.status in ('DONE', 'DAMAGED')) " +
+            "and not exists (select 1 from quality_feedbacks f where f.order_id = o.order_id)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderArchive> findPage(OrderFilterRequest filter, OrderCursor after, int limit) {
+        return entityManager.createQuery(buildQuery(filter, after))
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<OrderArchive> stream(OrderFilterRequest filter, int fetchSize) {
+        return entityManager.createQuery(buildQuery(filter, null))
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    private CriteriaQuery<OrderArchive> buildQuery(OrderFilterRequest filter, OrderCursor after) {
+        return OrderFilterPredicates.snapshotQuery(entityManager.getCriteriaBuilder(), OrderArchive.class, filter, after);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Integer> findArchivable(LocalDateTime cutoff, int limit) {
+        //Đi theo index (order_date, order_id)
+        List<Number> ids = entityManager.createNativeQuery("select o.order_id from orders o " +
+                        "where o.order_date < :cutoff and " + ARCHIVABLE + " order by o.order_date, o.order_id")
+                .setParameter("cutoff", cutoff)
+                .setMaxResults(limit)
+                .getResultList();
+        return ids.stream().map(Number::intValue).toList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Integer> lockArchivable(Collection<Integer> orderIds) {
+        List<Number> ids = entityManager.createNativeQuery("select o.order_id from orders o " +
+                        "where o.order_id in (:orderIds) and " + ARCHIVABLE + " order by o.order_id for update")
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+        return ids.stream().map(Number::intValue).toList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findOrderRows(Collection<Integer> orderIds) {
+        return entityManager.createNativeQuery("select o.order_id, o.store_id, o.plan_id, o.delivery_id, o.order_date, " +
+                        "o.status, o.version, o.deleted_at from orders o where o.order_id in (:orderIds) order by o.order_id")
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findDetailRows(Collection<Integer> orderIds) {
+        return entityManager.createNativeQuery("select d.order_id, d.product_id, d.quantity from order_details d " +
+                        "where d.order_id in (:orderIds) order by d.order_id, d.order_detail_id")
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+    }
+
+    @Override
+    public int deleteOrders(Collection<Integer> orderIds) {
+        entityManager.createNativeQuery("delete from order_details where order_id in (:orderIds)")
+                .setParameter("orderIds", orderIds)
+                .executeUpdate();
+        return entityManager.createNativeQuery("delete from orders where order_id in (:orderIds)")
+                .setParameter("orderIds", orderIds)
+                .executeUpdate();
+    }
+}
@@ -1,9 +1,49 @@
 package org.luun.hsf.asm01.kitchencontrolbe.repository;
 
 import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderDetail;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface OrderDetailRepository extends JpaRepository<OrderDetail, Integer> {
+
+    //Tổng số lượng theo product, mỗi dòng: [productId, sum(quantity)]
+    @Query("select d.productId, sum(d.quantity) from OrderDetail d " +
+            "where d.order.orderId in :orderIds group by d.productId")
+    List<Object[]> sumQuantityByProductForOrders(@Param("orderIds") Collection<Integer> orderIds);
+
+    @Query("select d.productId, sum(d.quantity) from OrderDetail d join d.order o " +
+            "where o.deletedAt is null and o.status = :status and o.orderDate >= :from and o.orderDate < :to group by d.productId")
+    List<Object[]> sumQuantityByProductForWindow(@Param("status") OrderStatus status,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
+
+    //Mỗi dòng: [productId, sum(quantity), count(*)]
+    @Query("select d.productId, sum(d.quantity), count(d) from OrderDetail d " +
+            "where d.order.plan.planId = :planId and d.order.deletedAt is null group by d.productId")
+    List<Object[]> sumQuantityByProductForPlan(@Param("planId") Long planId);
+
+    //Nhu cầu của 1 order, mỗi dòng: [storeId, productId, sum(quantity), count(*)].
+    //SQL native để đọc được cả order đã xóa mềm (event DELETED trừ lại nhu cầu của nó)
+    @Query(value = "select o.store_id, d.product_id, sum(d.quantity), count(*) from order_details d " +
+            "join orders o on o.order_id = d.order_id " +
+            "where o.order_id = :orderId group by o.store_id, d.product_id", nativeQuery = true)
+    List<Object[]> sumDemandForOrder(@Param("orderId") int orderId);
+
+    @Query("select distinct d.productId from OrderDetail d where d.order.orderId = :orderId")
+    List<Integer> findDistinctProductIdsByOrderId(@Param("orderId") int orderId);
+
+    //Nhu cầu theo ngày/store/product, mỗi dòng: [day, storeId, productId, sum(quantity), count(*)]
+    @Query("select cast(o.orderDate as LocalDate), o.storeId, d.productId, sum(d.quantity), count(d) " +
+            "from OrderDetail d join d.order o where o.deletedAt is null and o.orderDate >= :from and o.orderDate < :to " +
+            "group by cast(o.orderDate as LocalDate), o.storeId, d.productId")
+    List<Object[]> sumDemandByDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
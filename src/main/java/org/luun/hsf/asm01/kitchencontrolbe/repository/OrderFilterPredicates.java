@@ -0,0 +1,60 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.util.OrderCursor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Filter + keyset cursor dùng chung cho orders, order_view và orders_archive (đều có storeId, status, orderDate, orderId)
+final class OrderFilterPredicates {
+
+    private OrderFilterPredicates() {
+    }
+
+    static Predicate[] build(CriteriaBuilder cb, Root<?> root, OrderFilterRequest filter, OrderCursor after) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter != null) {
+            if (filter.getStoreId() != null) {
+                predicates.add(cb.equal(root.get("storeId"), filter.getStoreId()));
+            }
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+            }
+            if (filter.getFromDate() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("orderDate"), filter.getFromDate()));
+            }
+            if (filter.getToDate() != null) {
+                predicates.add(cb.lessThan(root.get("orderDate"), filter.getToDate()));
+            }
+        }
+        if (after != null) {
+            //(orderDate, orderId) < (cursor.orderDate, cursor.orderId)
+            predicates.add(cb.or(
+                    cb.lessThan(root.get("orderDate"), after.orderDate()),
+                    cb.and(
+                            cb.equal(root.get("orderDate"), after.orderDate()),
+                            cb.lessThan(root.get("orderId"), after.orderId()))));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    //orderDate DESC, orderId DESC
+    static List<Order> newestFirst(CriteriaBuilder cb, Root<?> root) {
+        return List.of(cb.desc(root.get("orderDate")), cb.desc(root.get("orderId")));
+    }
+
+    //Cả dòng order_view / orders_archive khớp filter, sau cursor, mới nhất trước
+    static <T> CriteriaQuery<T> snapshotQuery(CriteriaBuilder cb, Class<T> type, OrderFilterRequest filter, OrderCursor after) {
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        return query.select(root)
+                .where(build(cb, root, filter, after))
+                .orderBy(newestFirst(cb, root));
+    }
+}
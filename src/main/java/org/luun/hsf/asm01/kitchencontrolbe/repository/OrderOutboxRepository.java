@@ -0,0 +1,49 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    @Query("select e from OrderOutboxEvent e where e.publishedAt is null and e.parkedAt is null order by e.eventId")
+    List<OrderOutboxEvent> findPending(Pageable pageable);
+
+    @Query("select count(e) from OrderOutboxEvent e where e.publishedAt is null and e.parkedAt is null")
+    long countPending();
+
+    @Query("select min(e.createdAt) from OrderOutboxEvent e where e.publishedAt is null and e.parkedAt is null")
+    LocalDateTime findOldestPendingCreatedAt();
+
+    @Query("select coalesce(max(e.eventId), 0) from OrderOutboxEvent e")
+    long findMaxEventId();
+
+    @Query("select count(e) from OrderOutboxEvent e where e.parkedAt is not null")
+    long countParked();
+
+    @Modifying
+    @Query("update OrderOutboxEvent e set e.publishedAt = :publishedAt, e.attempts = e.attempts + 1 " +
+            "where e.eventId in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("update OrderOutboxEvent e set e.attempts = e.attempts + 1 where e.eventId in :ids")
+    int incrementAttempts(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update OrderOutboxEvent e set e.parkedAt = :parkedAt, e.attempts = e.attempts + 1 where e.eventId in :ids")
+    int park(@Param("ids") Collection<Long> ids, @Param("parkedAt") LocalDateTime parkedAt);
+
+    @Modifying
+    @Query("delete from OrderOutboxEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,9 +1,126 @@
 package org.luun.hsf.asm01.kitchencontrolbe.repository;
 
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Delivery;
 import org.luun.hsf.asm01.kitchencontrolbe.entity.Order;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.ProductionPlan;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Integer> {
+public interface OrderRepository extends JpaRepository<Order, Integer>, OrderRepositoryCustom {
+
+    @EntityGraph(attributePaths = "orderDetails")
+    Optional<Order> findWithDetailsByOrderId(int orderId);
+
+    @EntityGraph(attributePaths = "orderDetails")
+    Optional<Order> findWithDetailsByIdempotencyKey(String idempotencyKey);
+
+    //Load order + details trong 1 câu SQL (fetch join) thay vì 1+N câu khi mapper chạm vào orderDetails
+    @Query("select o from Order o left join fetch o.orderDetails where o.orderId in :ids")
+    List<Order> findAllWithDetailsByOrderIdIn(@Param("ids") Collection<Integer> ids);
+
+    //Chỉ đọc cột version, để trả 304 mà không load order
+    @Query("select o.version from Order o where o.orderId = :orderId")
+    Optional<Long> findVersionByOrderId(@Param("orderId") int orderId);
+
+    //Đổi status có kiểm tra status hiện tại, trả về 0 nếu order không còn ở status from
+    @Modifying
+    @Query("update Order o set o.status = :to, o.version = o.version + 1 " +
+            "where o.orderId = :orderId and o.status = :from and o.deletedAt is null")
+    int updateStatusIfCurrent(@Param("orderId") int orderId, @Param("from") OrderStatus from, @Param("to") OrderStatus to);
+
+    @Query("select distinct cast(o.orderDate as LocalDate) from Order o " +
+            "where o.status = :status and o.plan is null and o.deletedAt is null and o.orderDate >= :from and o.orderDate < :to")
+    List<LocalDate> findUnplannedOrderDays(@Param("status") OrderStatus status,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    //Gán plan cho tất cả order chưa có plan trong khoảng thời gian bằng 1 câu UPDATE, status giữ nguyên
+    @Modifying
+    @Query("update Order o set o.plan = :plan, o.version = o.version + 1 " +
+            "where o.status = :status and o.plan is null and o.deletedAt is null and o.orderDate >= :start and o.orderDate < :end")
+    int assignPlan(@Param("plan") ProductionPlan plan,
+                   @Param("status") OrderStatus status,
+                   @Param("start") LocalDateTime start,
+                   @Param("end") LocalDateTime end);
+
+    //Duyệt order của 1 plan theo orderId tăng dần, từng trang
+    @Query("select o.orderId from Order o where o.plan.planId = :planId and o.orderId > :after order by o.orderId")
+    List<Integer> findIdsByPlanIdAfter(@Param("planId") Long planId, @Param("after") int after, Pageable pageable);
+
+    //Mỗi dòng: [day, status, count(*)]
+    @Query("select cast(o.orderDate as LocalDate), o.status, count(o) from Order o " +
+            "where o.deletedAt is null and o.orderDate >= :from and o.orderDate < :to " +
+            "group by cast(o.orderDate as LocalDate), o.status")
+    List<Object[]> countByDayAndStatus(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    //Order chưa được giao theo từng store, mỗi dòng: [orderId, storeId]
+    @Query("select o.orderId, o.storeId from Order o " +
+            "where o.status = :status and o.delivery is null and o.deletedAt is null " +
+            "and o.orderDate >= :start and o.orderDate < :end order by o.storeId, o.orderId")
+    List<Object[]> findUnassignedForDelivery(@Param("status") OrderStatus status,
+                                             @Param("start") LocalDateTime start,
+                                             @Param("end") LocalDateTime end);
+
+    //Kiểm tra lại điều kiện của findUnassignedForDelivery: order vừa bị đổi status hoặc xóa mềm thì không gán
+    @Modifying
+    @Query("update Order o set o.delivery = :delivery, o.version = o.version + 1 " +
+            "where o.orderId in :orderIds and o.delivery is null and o.status = :status and o.deletedAt is null")
+    int assignDelivery(@Param("delivery") Delivery delivery,
+                       @Param("orderIds") Collection<Integer> orderIds,
+                       @Param("status") OrderStatus status);
+
+    @Query("select o.orderId from Order o where o.delivery.deliveryId = :deliveryId order by o.orderId")
+    List<Integer> findIdsByDeliveryId(@Param("deliveryId") Long deliveryId);
+
+    @Query("select o.storeId from Order o where o.orderId = :orderId")
+    Optional<Integer> findStoreIdByOrderId(@Param("orderId") int orderId);
+
+    //SQL native: thấy cả order đã xóa mềm
+    @Query(value = "select o.store_id from orders o where o.order_id = :orderId", nativeQuery = true)
+    Optional<Integer> findStoreIdIncludingDeleted(@Param("orderId") int orderId);
+
+    @Query("select distinct o.storeId from Order o where o.delivery.deliveryId = :deliveryId")
+    List<Integer> findStoreIdsByDeliveryId(@Param("deliveryId") Long deliveryId);
+
+    //Đổi status cho cả lô bằng 1 câu UPDATE, chỉ các order còn ở status from mới bị đổi
+    @Modifying
+    @Query("update Order o set o.status = :to, o.version = o.version + 1 " +
+            "where o.orderId in :orderIds and o.status = :from and o.deletedAt is null")
+    int updateStatusIfCurrent(@Param("orderIds") Collection<Integer> orderIds,
+                              @Param("from") OrderStatus from,
+                              @Param("to") OrderStatus to);
+
+    //Duyệt orders theo orderId tăng dần, dùng cho rebuild order_view
+    @Query("select o.orderId from Order o where o.orderId > :after order by o.orderId")
+    List<Integer> findIdsAfter(@Param("after") int after, Pageable pageable);
+
+    //Mỗi dòng: [orderDate, status]; List vì Optional<Object[]> bị Spring Data bọc thêm 1 lớp
+    @Query("select o.orderDate, o.status from Order o where o.orderId = :orderId")
+    List<Object[]> findDateAndStatusByOrderId(@Param("orderId") int orderId);
+
+    //Xóa mềm có kiểm tra status hiện tại như updateStatusIfCurrent, trả về 0 nếu order đã đổi hoặc đã bị xóa
+    @Modifying
+    @Query("update Order o set o.deletedAt = :now, o.version = o.version + 1 " +
+            "where o.orderId = :orderId and o.status = :status and o.deletedAt is null")
+    int softDelete(@Param("orderId") int orderId, @Param("status") OrderStatus status, @Param("now") LocalDateTime now);
+
+    //SELECT ... FOR UPDATE: các writer của những order này chờ tới khi transaction hiện tại commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.orderId in :orderIds")
+    List<Order> lockByOrderIdIn(@Param("orderIds") Collection<Integer> orderIds);
 }
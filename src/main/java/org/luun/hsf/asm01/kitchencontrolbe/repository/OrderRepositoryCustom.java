@@ -0,0 +1,24 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderStatusTransitionRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.util.OrderCursor;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+//Các query có điều kiện động. Listing chỉ trả về orderId, phần details được load theo lô bằng findAllWithDetailsByOrderIdIn
+public interface OrderRepositoryCustom {
+
+    //Keyset pagination: trả về tối đa limit orderId nằm sau cursor (orderDate DESC, orderId DESC)
+    List<Integer> findPageIds(OrderFilterRequest filter, OrderCursor after, int limit);
+
+    //Phải được gọi trong transaction và phải close Stream sau khi dùng
+    Stream<Integer> streamIds(OrderFilterRequest filter, int fetchSize);
+
+    //SELECT order_id, order_date ... FOR UPDATE tối đa limit order trong phạm vi của request đang ở status request.from
+    List<Object[]> lockForTransition(OrderStatusTransitionRequest request, int limit);
+
+    //Số order trong phạm vi của request, không xét status
+    long countInScope(OrderStatusTransitionRequest request);
+}
@@ -0,0 +1,88 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderStatusTransitionRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Order;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.util.OrderCursor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Integer> findPageIds(OrderFilterRequest filter, OrderCursor after, int limit) {
+        return entityManager.createQuery(buildQuery(filter, after))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Integer> streamIds(OrderFilterRequest filter, int fetchSize) {
+        return entityManager.createQuery(buildQuery(filter, null))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    private CriteriaQuery<Integer> buildQuery(OrderFilterRequest filter, OrderCursor after) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+        Root<Order> order = query.from(Order.class);
+
+        return query.select(order.get("orderId"))
+                .where(OrderFilterPredicates.build(cb, order, filter, after))
+                .orderBy(OrderFilterPredicates.newestFirst(cb, order));
+    }
+
+    @Override
+    public List<Object[]> lockForTransition(OrderStatusTransitionRequest request, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Order> order = query.from(Order.class);
+        //Chỉ chọn 2 cột cần dùng, không load entity vào persistence context
+        return entityManager.createQuery(query.multiselect(order.get("orderId"), order.get("orderDate"))
+                        .where(scope(cb, order, request, request.getFrom()))
+                        .orderBy(cb.asc(order.get("orderId"))))
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long countInScope(OrderStatusTransitionRequest request) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Order> order = query.from(Order.class);
+        return entityManager.createQuery(query.select(cb.count(order))
+                        .where(scope(cb, order, request, null)))
+                .getSingleResult();
+    }
+
+    private static Predicate[] scope(CriteriaBuilder cb, Root<Order> order, OrderStatusTransitionRequest request,
+                                     OrderStatus status) {
+        OrderFilterRequest filter = new OrderFilterRequest(request.getStoreId(), status,
+                request.getFromDate(), request.getToDate(), false);
+        List<Predicate> predicates = new ArrayList<>(Arrays.asList(OrderFilterPredicates.build(cb, order, filter, null)));
+        if (request.getOrderIds() != null && !request.getOrderIds().isEmpty()) {
+            predicates.add(order.get("orderId").in(request.getOrderIds()));
+        }
+        if (request.getPlanId() != null) {
+            predicates.add(cb.equal(order.get("plan").get("planId"), request.getPlanId()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+}
@@ -0,0 +1,42 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface OrderViewRepository extends JpaRepository<OrderView, Integer>, OrderViewRepositoryCustom {
+
+    //Chép lại các cột có thể đổi sau khi tạo (status, plan, version) từ orders bằng 1 câu UPDATE
+    @Modifying
+    @Query("update OrderView v set " +
+            "v.status = (select o.status from Order o where o.orderId = v.orderId), " +
+            "v.planId = (select o.plan.planId from Order o where o.orderId = v.orderId), " +
+            "v.version = (select o.version from Order o where o.orderId = v.orderId) " +
+            "where v.orderId in :orderIds")
+    int refreshFromOrders(@Param("orderIds") Collection<Integer> orderIds);
+
+    //Như refreshFromOrders cho mọi order của 1 plan, không cần đọc danh sách orderId
+    @Modifying
+    @Query("update OrderView v set " +
+            "v.status = (select o.status from Order o where o.orderId = v.orderId), " +
+            "v.planId = :planId, " +
+            "v.version = (select o.version from Order o where o.orderId = v.orderId) " +
+            "where v.orderId in (select o.orderId from Order o where o.plan.planId = :planId)")
+    int refreshFromOrdersOfPlan(@Param("planId") Long planId);
+
+    @Modifying
+    @Query("delete from OrderView v where v.orderId in :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Integer> orderIds);
+
+    //Dòng view mà order đã không còn hoặc đã bị xóa mềm
+    @Modifying
+    @Query("delete from OrderView v where not exists " +
+            "(select 1 from Order o where o.orderId = v.orderId and o.deletedAt is null)")
+    int deleteOrphans();
+}
@@ -0,0 +1,18 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderView;
+import org.luun.hsf.asm01.kitchencontrolbe.util.OrderCursor;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+//Cùng filter và thứ tự với OrderRepositoryCustom nhưng trả về luôn cả dòng order_view, không cần phase 2
+public interface OrderViewRepositoryCustom {
+
+    //Keyset pagination: tối đa limit dòng nằm sau cursor (orderDate DESC, orderId DESC)
+    List<OrderView> findPage(OrderFilterRequest filter, OrderCursor after, int limit);
+
+    //Phải được gọi trong transaction và phải close Stream sau khi dùng
+    Stream<OrderView> stream(OrderFilterRequest filter, int fetchSize);
+}
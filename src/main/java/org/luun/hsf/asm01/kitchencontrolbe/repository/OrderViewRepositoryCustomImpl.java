@@ -0,0 +1,38 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderView;
+import org.luun.hsf.asm01.kitchencontrolbe.util.OrderCursor;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class OrderViewRepositoryCustomImpl implements OrderViewRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderView> findPage(OrderFilterRequest filter, OrderCursor after, int limit) {
+        return entityManager.createQuery(buildQuery(filter, after))
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<OrderView> stream(OrderFilterRequest filter, int fetchSize) {
+        return entityManager.createQuery(buildQuery(filter, null))
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    private CriteriaQuery<OrderView> buildQuery(OrderFilterRequest filter, OrderCursor after) {
+        return OrderFilterPredicates.snapshotQuery(entityManager.getCriteriaBuilder(), OrderView.class, filter, after);
+    }
+}
@@ -0,0 +1,35 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OutboxLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OutboxLeaseRepository extends JpaRepository<OutboxLease, String> {
+
+    //Gia hạn lease của mình hoặc lấy lease đã hết hạn, trả về 0 khi instance khác đang giữ
+    @Modifying
+    @Query("update OutboxLease l set l.owner = :owner, l.expiresAt = :expiresAt " +
+            "where l.leaseName = :name and (l.owner = :owner or l.expiresAt < :now)")
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("expiresAt") LocalDateTime expiresAt,
+                @Param("now") LocalDateTime now);
+
+    //Lần đầu chưa có dòng lease: 2 instance cùng insert thì chỉ 1 instance được 1
+    @Modifying
+    @Query(value = "insert into outbox_lease (lease_name, owner, expires_at) values (:name, :owner, :expiresAt) " +
+            "on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name,
+                       @Param("owner") String owner,
+                       @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("update OutboxLease l set l.expiresAt = :now where l.leaseName = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,23 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Product;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    //Chỉ lấy (productId, productName), không load cả entity
+    @Query("select p.productId, p.productName from Product p where p.productId in :ids")
+    List<Object[]> findNamesByProductIdIn(@Param("ids") Collection<Long> ids);
+
+    //Bảng tra tên -> sản phẩm cho import CSV
+    //Mỗi dòng: [productId, productName, productType, shelfLifeDays]
+    @Query("select p.productId, p.productName, p.productType, p.shelfLifeDays from Product p")
+    List<Object[]> findImportLookup();
+}
@@ -0,0 +1,57 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.QualityFeedback;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface QualityFeedbackRepository extends JpaRepository<QualityFeedback, Long> {
+
+    boolean existsByOrderOrderId(int orderId);
+
+    @Query("select max(f.feedbackId) from QualityFeedback f")
+    Long findMaxFeedbackId();
+
+    //Feedback cuối cùng được tạo trước before, các feedback có id nhỏ hơn coi như đã commit
+    @Query("select max(f.feedbackId) from QualityFeedback f where f.createdAt < :before")
+    Long findMaxFeedbackIdCreatedBefore(@Param("before") LocalDateTime before);
+
+    //Từng feedback có id > afterId, mỗi dòng: [feedbackId, storeId, createdAt, rating]
+    @Query("select f.feedbackId, f.store.storeId, f.createdAt, f.rating from QualityFeedback f " +
+            "where f.feedbackId > :afterId and f.rating between 1 and 5 order by f.feedbackId")
+    List<Object[]> findRatingsAfter(@Param("afterId") long afterId);
+
+    //Mỗi dòng: [feedbackId, productId], mỗi product của order 1 lần
+    @Query("select distinct f.feedbackId, d.productId from QualityFeedback f join OrderDetail d on d.order = f.order " +
+            "where f.feedbackId > :afterId and f.rating between 1 and 5")
+    List<Object[]> findProductIdsAfter(@Param("afterId") long afterId);
+
+    //Mỗi dòng: [storeId, rating, count(*)]
+    @Query("select f.store.storeId, f.rating, count(f) from QualityFeedback f " +
+            "where f.feedbackId <= :upTo and f.rating between 1 and 5 group by f.store.storeId, f.rating")
+    List<Object[]> countByStoreAndRating(@Param("upTo") long upTo);
+
+    //Mỗi dòng: [storeId, day, rating, count(*)]
+    @Query("select f.store.storeId, cast(f.createdAt as LocalDate), f.rating, count(f) from QualityFeedback f " +
+            "where f.feedbackId <= :upTo and f.rating between 1 and 5 and f.createdAt >= :from " +
+            "group by f.store.storeId, cast(f.createdAt as LocalDate), f.rating")
+    List<Object[]> countByStoreDayAndRating(@Param("upTo") long upTo, @Param("from") LocalDateTime from);
+
+    //Feedback của order được tính cho mỗi product trong order 1 lần, mỗi dòng: [productId, rating, count]
+    @Query("select d.productId, f.rating, count(distinct f.feedbackId) from QualityFeedback f " +
+            "join OrderDetail d on d.order = f.order " +
+            "where f.feedbackId <= :upTo and f.rating between 1 and 5 group by d.productId, f.rating")
+    List<Object[]> countByProductAndRating(@Param("upTo") long upTo);
+
+    //Mỗi dòng: [productId, day, rating, count]
+    @Query("select d.productId, cast(f.createdAt as LocalDate), f.rating, count(distinct f.feedbackId) " +
+            "from QualityFeedback f join OrderDetail d on d.order = f.order " +
+            "where f.feedbackId <= :upTo and f.rating between 1 and 5 and f.createdAt >= :from " +
+            "group by d.productId, cast(f.createdAt as LocalDate), f.rating")
+    List<Object[]> countByProductDayAndRating(@Param("upTo") long upTo, @Param("from") LocalDateTime from);
+}
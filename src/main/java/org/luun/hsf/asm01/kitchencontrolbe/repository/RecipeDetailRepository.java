@@ -0,0 +1,18 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.RecipeDetail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RecipeDetailRepository extends JpaRepository<RecipeDetail, Long> {
+
+    //Toàn bộ đồ thị công thức trong 1 query
+    //Mỗi dòng: [recipeId, productId, yieldQuantity, rawMaterialId, quantity]
+    @Query("select r.recipeId, r.product.productId, r.yieldQuantity, d.rawMaterial.productId, d.quantity " +
+            "from RecipeDetail d join d.recipe r order by r.recipeId")
+    List<Object[]> findRecipeGraph();
+}
@@ -0,0 +1,17 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Recipe;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RecipeRepository extends JpaRepository<Recipe, Long> {
+
+    //Công thức đã có, để import CSV bỏ qua công thức trùng
+    //Mỗi dòng: [productId, recipeName]
+    @Query("select r.product.productId, r.recipeName from Recipe r")
+    List<Object[]> findImportLookup();
+}
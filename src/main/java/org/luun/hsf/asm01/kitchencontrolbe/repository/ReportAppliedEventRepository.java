@@ -0,0 +1,31 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.ReportAppliedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Repository
+public interface ReportAppliedEventRepository extends JpaRepository<ReportAppliedEvent, Long> {
+
+    //Sau khi rebuild [from, to) từ bảng gốc: các event chưa publish của những ngày đó đã nằm trong kết quả, đánh dấu để bỏ qua
+    //Chỉ tới maxEventId đọc trong cùng snapshot với rebuild, event commit sau đó chưa được tính
+    @Modifying
+    @Query("insert into ReportAppliedEvent (eventId, appliedAt) " +
+            "select e.eventId, :appliedAt from OrderOutboxEvent e " +
+            "where e.publishedAt is null and e.eventId <= :maxEventId and e.orderDay >= :from and e.orderDay < :to " +
+            "and not exists (select 1 from ReportAppliedEvent a where a.eventId = e.eventId)")
+    int markPendingApplied(@Param("from") LocalDate from,
+                           @Param("to") LocalDate to,
+                           @Param("maxEventId") long maxEventId,
+                           @Param("appliedAt") LocalDateTime appliedAt);
+
+    @Modifying
+    @Query("delete from ReportAppliedEvent a where a.appliedAt < :before")
+    int deleteAppliedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,17 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.ReportFileChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ReportFileChunkRepository extends JpaRepository<ReportFileChunk, Long> {
+
+    //Đọc từng khúc một để không giữ cả file trong bộ nhớ
+    @Query("select c.data from ReportFileChunk c where c.reportId = :reportId and c.chunkIndex = :chunkIndex")
+    Optional<byte[]> findData(@Param("reportId") Long reportId, @Param("chunkIndex") int chunkIndex);
+}
@@ -0,0 +1,32 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Report;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ReportStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface ReportRepository extends JpaRepository<Report, Long> {
+
+    @Modifying
+    @Query("update Report r set r.heartbeatAt = :now where r.owner = :owner and r.status in :statuses")
+    int heartbeat(@Param("owner") String owner,
+                  @Param("statuses") Collection<ReportStatus> statuses,
+                  @Param("now") LocalDateTime now);
+
+    //Report đang chờ/đang chạy mà instance giữ nó không còn heartbeat (đã dừng) sẽ không bao giờ xong
+    @Modifying
+    @Query("update Report r set r.status = :failed, r.error = :error, r.completedDate = :now " +
+            "where r.status in :statuses and (r.heartbeatAt is null or r.heartbeatAt < :staleBefore)")
+    int failStale(@Param("statuses") Collection<ReportStatus> statuses,
+                  @Param("staleBefore") LocalDateTime staleBefore,
+                  @Param("failed") ReportStatus failed,
+                  @Param("error") String error,
+                  @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,25 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+
+    @Query("select max(s.lastTransactionId) from StockSnapshot s")
+    Long findLatestTransactionId();
+
+    //Mỗi dòng: [productId, quantity]
+    @Query("select s.productId, s.quantity from StockSnapshot s where s.lastTransactionId = :lastTransactionId")
+    List<Object[]> findBalances(@Param("lastTransactionId") long lastTransactionId);
+
+    @Modifying
+    @Query("delete from StockSnapshot s where s.lastTransactionId < :lastTransactionId")
+    int deleteOlderThan(@Param("lastTransactionId") long lastTransactionId);
+}
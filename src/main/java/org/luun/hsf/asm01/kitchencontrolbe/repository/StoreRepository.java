@@ -0,0 +1,17 @@
+package org.luun.hsf.asm01.kitchencontrolbe.repository;
+
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StoreRepository extends JpaRepository<Store, Integer> {
+
+    @Query("select s.storeId, s.storeName from Store s where s.storeId in :ids")
+    List<Object[]> findNamesByStoreIdIn(@Param("ids") Collection<Integer> ids);
+}
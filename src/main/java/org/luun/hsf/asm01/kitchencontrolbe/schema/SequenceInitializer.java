@@ -0,0 +1,79 @@
+package org.luun.hsf.asm01.kitchencontrolbe.schema;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves the pooled id sequences of tables that used IDENTITY ids before past the ids already in
+ * those tables. ddl-auto=update creates each sequence starting at 1, so without this the first
+ * inserts after the upgrade would reuse existing primary keys. Runs before the web server starts
+ * and only ever moves a sequence forward, so it is safe on every startup and on several instances.
+ */
+@Slf4j
+@Component
+public class SequenceInitializer implements SmartInitializingSingleton {
+
+    //Phải bằng allocationSize của các @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final List<TableSequence> SEQUENCES = List.of(
+            //Order đã archive giữ nguyên order_id
+            new TableSequence("orders_seq", "order_id", List.of("orders", "orders_archive")),
+            new TableSequence("order_details_seq", "order_detail_id", List.of("order_details")),
+            new TableSequence("deliveries_seq", "delivery_id", List.of("deliveries")),
+            new TableSequence("products_seq", "product_id", List.of("products")),
+            new TableSequence("recipes_seq", "recipe_id", List.of("recipes")),
+            new TableSequence("recipe_details_seq", "recipe_detail_id", List.of("recipe_details")),
+            new TableSequence("log_batches_seq", "batch_id", List.of("log_batches")),
+            new TableSequence("inventories_seq", "inventory_id", List.of("inventories")));
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public SequenceInitializer(EntityManagerFactory entityManagerFactory,
+                               EntityManager entityManager,
+                               TransactionTemplate transactionTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        //DB test (H2) luôn được tạo mới nên sequence đã đúng
+        if (!(entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                instanceof PostgreSQLDialect)) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> SEQUENCES.forEach(this::moveForward));
+    }
+
+    //Chỉ setval khi sequence chưa vượt id lớn nhất, pooled optimizer dùng các id (giá trị - 50, giá trị]
+    private void moveForward(TableSequence sequence) {
+        StringBuilder maxId = new StringBuilder("greatest(0");
+        for (String table : sequence.tables()) {
+            maxId.append(", (select max(").append(sequence.idColumn()).append(") from ").append(table).append(")");
+        }
+        maxId.append(")");
+        List<?> moved = entityManager.createNativeQuery(
+                        "select setval('" + sequence.name() + "', m.max_id + " + ALLOCATION_SIZE + ") " +
+                                "from (select " + maxId + " as max_id) m, " + sequence.name() + " s " +
+                                "where m.max_id + " + ALLOCATION_SIZE + " > s.last_value")
+                .getResultList();
+        if (!moved.isEmpty()) {
+            log.info("Sequence {} moved to {} past the existing ids of {}", sequence.name(), moved.get(0), sequence.tables());
+        }
+    }
+
+    private record TableSequence(String name, String idColumn, List<String> tables) {
+    }
+}
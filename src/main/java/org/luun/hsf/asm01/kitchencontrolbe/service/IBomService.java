@@ -0,0 +1,18 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.MaterialDemandDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.util.LongDoubleMap;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface IBomService {
+    List<MaterialDemandDTO> explodeProduct(long productId, double quantity);
+    List<MaterialDemandDTO> demandForOrders(Collection<Integer> orderIds);
+    List<MaterialDemandDTO> demandForWindow(OrderStatus status, LocalDateTime from, LocalDateTime to);
+    //Raw-material demand cho 1 vector (productId -> số lượng), dùng chung cho các service planning
+    LongDoubleMap explode(LongDoubleMap productDemand);
+    void invalidate();
+}
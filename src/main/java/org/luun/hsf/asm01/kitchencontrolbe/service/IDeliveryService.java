@@ -0,0 +1,12 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.DeliveryPlanRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.DeliveryPlanResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.DeliveryResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.DeliveryStatus;
+
+public interface IDeliveryService {
+    DeliveryPlanResultDTO planDeliveries(DeliveryPlanRequest request);
+    DeliveryResponseDTO getDelivery(long deliveryId);
+    DeliveryResponseDTO changeStatus(long deliveryId, DeliveryStatus status);
+}
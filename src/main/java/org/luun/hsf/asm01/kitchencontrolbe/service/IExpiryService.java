@@ -0,0 +1,9 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ExpiryStatsDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ExpirySweepResultDTO;
+
+public interface IExpiryService {
+    ExpirySweepResultDTO sweepExpired(long createdByUserId);
+    ExpiryStatsDTO stats();
+}
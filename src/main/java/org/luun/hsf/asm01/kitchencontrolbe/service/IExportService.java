@@ -0,0 +1,12 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.InventoryTransactionFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.export.ExportFormat;
+import org.luun.hsf.asm01.kitchencontrolbe.export.ExportTask;
+
+public interface IExportService {
+    //Ném lỗi ngay nếu đã đủ số export chạy đồng thời, task phải được chạy hoặc cancel để trả chỗ
+    ExportTask exportOrderLines(OrderFilterRequest filter, ExportFormat format);
+    ExportTask exportInventoryTransactions(InventoryTransactionFilterRequest filter, ExportFormat format);
+}
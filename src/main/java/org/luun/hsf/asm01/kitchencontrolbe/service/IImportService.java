@@ -0,0 +1,14 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ImportJobDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.ImportKind;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface IImportService {
+    //Chép file vào thư mục tạm rồi trả về job QUEUED, việc import chạy nền
+    ImportJobDTO startImport(ImportKind kind, String fileName, InputStream content, Long userId);
+    ImportJobDTO getJob(long jobId);
+    List<ImportJobDTO> getJobs();
+}
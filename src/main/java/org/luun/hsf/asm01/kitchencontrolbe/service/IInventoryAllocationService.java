@@ -0,0 +1,7 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.AllocationResultDTO;
+
+public interface IInventoryAllocationService {
+    AllocationResultDTO allocateOrder(int orderId, long userId);
+}
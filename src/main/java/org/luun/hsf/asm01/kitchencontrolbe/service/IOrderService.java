@@ -1,12 +1,36 @@
 package org.luun.hsf.asm01.kitchencontrolbe.service;
 
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
 import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderStatusTransitionRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.BatchOrderResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderArchiveResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.CursorPageResponseDTO;
 import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderStatusTransitionResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderViewRebuildResultDTO;
+
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IOrderService {
     OrderResponseDTO createOrder(OrderRequestDTO request);
+    //Cùng idempotencyKey thì trả lại order đã tạo lần đầu thay vì tạo order mới; cùng key nhưng khác nội dung thì báo lỗi 422
+    OrderResponseDTO createOrder(OrderRequestDTO request, String idempotencyKey);
+    List<BatchOrderResultDTO> createOrders(List<OrderRequestDTO> requests);
     OrderResponseDTO getOrderById(int orderId);
-    List<OrderResponseDTO> getAllOrders();
+    //includeArchived: tìm thêm trong orders_archive nếu order không còn trong orders
+    OrderResponseDTO getOrderById(int orderId, boolean includeArchived);
+    //Version hiện tại từ OrderVersionCache, không load order; null nếu order không tồn tại
+    Long getOrderVersion(int orderId);
+    CursorPageResponseDTO<OrderResponseDTO> getOrders(OrderFilterRequest filter, String cursor, int size);
+    void streamOrders(OrderFilterRequest filter, Consumer<OrderResponseDTO> sink);
+    //Xóa mềm: order không còn hiện ra nhưng dòng vẫn giữ tới khi được archive
     void deleteOrder(int orderId);
+    //Đổi status của nhiều order cùng lúc, chỉ các order đang ở request.from được đổi
+    OrderStatusTransitionResultDTO transitionStatus(OrderStatusTransitionRequest request);
+    //Ghi lại toàn bộ order_view từ orders + order_details
+    OrderViewRebuildResultDTO rebuildOrderView();
+    //Chuyển order cũ đã xong hoặc đã xóa sang orders_archive, xem OrderArchiver
+    OrderArchiveResultDTO archiveOrders();
 }
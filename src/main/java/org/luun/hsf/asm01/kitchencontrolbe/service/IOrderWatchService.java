@@ -0,0 +1,11 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+public interface IOrderWatchService {
+    //Hoàn thành ngay nếu version đã khác knownVersion, ngược lại khi order đổi; null nếu hết timeout mà không đổi
+    CompletableFuture<OrderResponseDTO> watchOrder(int orderId, long knownVersion, Duration timeout);
+}
@@ -0,0 +1,10 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.PlanAggregationResultDTO;
+
+import java.time.LocalDate;
+
+public interface IProductionPlanService {
+    //Gom các order WAITTING chưa có plan trong [fromDate, toDate) thành 1 ProductionPlan mỗi ngày, status không đổi
+    PlanAggregationResultDTO aggregateWaitingOrders(LocalDate fromDate, LocalDate toDate, long createdByUserId);
+}
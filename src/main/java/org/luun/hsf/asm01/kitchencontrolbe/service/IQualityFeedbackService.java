@@ -0,0 +1,16 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.FeedbackRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.FeedbackResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.RatingStatsDTO;
+
+import java.util.List;
+
+public interface IQualityFeedbackService {
+    FeedbackResponseDTO createFeedback(FeedbackRequest request);
+    //days = 0: toàn bộ, 1 -> 30: các ngày gần nhất tính cả hôm nay
+    List<RatingStatsDTO> getStoreStats(int days);
+    RatingStatsDTO getStoreStats(int storeId, int days);
+    List<RatingStatsDTO> getProductStats(int days);
+    void rebuild();
+}
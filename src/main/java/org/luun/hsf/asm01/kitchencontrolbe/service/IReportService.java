@@ -0,0 +1,21 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.ReportRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.AggregateRebuildResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ReportResponseDTO;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+public interface IReportService {
+    //Tạo report PENDING, file được sinh ở background
+    ReportResponseDTO requestReport(ReportRequest request);
+    ReportResponseDTO getReport(long reportId);
+    //File CSV của report đã DONE
+    Path getReportFile(long reportId);
+    AggregateRebuildResultDTO rebuildAggregates(LocalDate from, LocalDate to);
+    //Gia hạn các report chưa xong của instance này
+    void heartbeatReports();
+    //Đánh FAILED các report chưa xong đã mất heartbeat quá heartbeat-timeout, trả về số report
+    int failStaleReports();
+}
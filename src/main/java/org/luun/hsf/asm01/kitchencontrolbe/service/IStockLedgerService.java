@@ -0,0 +1,19 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.StockBalanceDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.StockConsistencyDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.StockSnapshotResultDTO;
+
+import java.util.List;
+
+public interface IStockLedgerService {
+    double getStock(long productId);
+    List<StockBalanceDTO> getAllStock();
+    //Gọi sau khi transaction chứa InventoryTransaction đã commit
+    void applyTransaction(long transactionId, long productId, double delta);
+    //Cộng các transaction đã commit mà instance này chưa thấy (ghi ở instance khác hoặc bằng SQL), trả về số transaction đã cộng
+    int catchUp();
+    StockSnapshotResultDTO takeSnapshot();
+    StockConsistencyDTO checkConsistency();
+    void rebuild();
+}
@@ -0,0 +1,9 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface IStoreEventService {
+    //Stream SSE các thay đổi status order/delivery của store, ném lỗi nếu store không tồn tại hoặc đã đủ subscriber
+    //lastEventId: header Last-Event-ID khi client kết nối lại, có thể null
+    SseEmitter subscribe(int storeId, Long lastEventId);
+}
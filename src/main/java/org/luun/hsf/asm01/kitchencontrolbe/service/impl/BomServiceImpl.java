@@ -0,0 +1,237 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.CatalogCache;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.MaterialDemandDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderDetailRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.RecipeDetailRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IBomService;
+import org.luun.hsf.asm01.kitchencontrolbe.util.LongDoubleMap;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Bill-of-materials explosion. The whole recipe graph is loaded with one query, and the flattened
+ * per-unit raw-material vector of each product is memoized. Recipe changes drop the graph through
+ * {@link #invalidate()}, so the next call reloads it.
+ */
+@Service
+@RequiredArgsConstructor
+public class BomServiceImpl implements IBomService {
+
+    private final RecipeDetailRepository recipeDetailRepository;
+    private final OrderDetailRepository orderDetailRepository;
+    private final CatalogCache catalogCache;
+    private final ReentrantLock loadLock = new ReentrantLock();
+    //Giữ ngắn khi publish graph và khi invalidate, không giữ trong lúc query
+    private final ReentrantLock publishLock = new ReentrantLock();
+
+    private volatile BomGraph graph;
+    //Ghi dưới publishLock. Tăng mỗi lần invalidate: graph load bắt đầu trước đó (có thể thiếu thay đổi recipe) không được publish
+    private volatile long generation;
+
+    @Override
+    public List<MaterialDemandDTO> explodeProduct(long productId, double quantity) {
+        LongDoubleMap demand = new LongDoubleMap(1);
+        demand.put(productId, quantity);
+        return toDemandList(explode(demand));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MaterialDemandDTO> demandForOrders(Collection<Integer> orderIds) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new RuntimeException("orderIds must not be empty");
+        }
+        return toDemandList(explode(toDemand(orderDetailRepository.sumQuantityByProductForOrders(orderIds))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MaterialDemandDTO> demandForWindow(OrderStatus status, LocalDateTime from, LocalDateTime to) {
+        return toDemandList(explode(toDemand(orderDetailRepository.sumQuantityByProductForWindow(status, from, to))));
+    }
+
+    @Override
+    public LongDoubleMap explode(LongDoubleMap productDemand) {
+        BomGraph current = currentGraph();
+        LongDoubleMap materials = new LongDoubleMap(productDemand.size() * 4);
+        productDemand.forEach((productId, quantity) -> {
+            MaterialVector vector = current.flatten(productId);
+            for (int i = 0; i < vector.materialIds.length; i++) {
+                materials.add(vector.materialIds[i], vector.quantities[i] * quantity);
+            }
+        });
+        return materials;
+    }
+
+    @Override
+    public void invalidate() {
+        publishLock.lock();
+        try {
+            generation++;
+            graph = null;
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private BomGraph currentGraph() {
+        BomGraph current = graph;
+        if (current != null) {
+            return current;
+        }
+        loadLock.lock();
+        try {
+            current = graph;
+            if (current != null) {
+                return current;
+            }
+            long loadGeneration = generation;
+            BomGraph loaded = BomGraph.load(recipeDetailRepository.findRecipeGraph());
+            publishLock.lock();
+            try {
+                if (generation == loadGeneration) {
+                    graph = loaded;
+                }
+            } finally {
+                publishLock.unlock();
+            }
+            //Bị invalidate trong lúc load thì caller này vẫn dùng graph vừa đọc, caller sau load lại
+            return loaded;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private static LongDoubleMap toDemand(List<Object[]> rows) {
+        LongDoubleMap demand = new LongDoubleMap(rows.size());
+        for (Object[] row : rows) {
+            demand.add(((Number) row[0]).longValue(), ((Number) row[1]).doubleValue());
+        }
+        return demand;
+    }
+
+    private List<MaterialDemandDTO> toDemandList(LongDoubleMap materials) {
+        List<Integer> ids = new ArrayList<>(materials.size());
+        materials.forEach((id, quantity) -> ids.add((int) id));
+        catalogCache.preloadProducts(ids);
+
+        List<MaterialDemandDTO> result = new ArrayList<>(materials.size());
+        materials.forEach((id, quantity) -> result.add(MaterialDemandDTO.builder()
+                .productId(id)
+                .productName(catalogCache.productName((int) id))
+                .quantity(quantity)
+                .build()));
+        result.sort(Comparator.comparingLong(MaterialDemandDTO::getProductId));
+        return result;
+    }
+
+    private record MaterialVector(long[] materialIds, double[] quantities) {
+    }
+
+    //Snapshot bất biến của đồ thị công thức + memo các vector đã flatten của snapshot đó
+    private static final class BomGraph {
+
+        private final Map<Long, long[]> componentIds;
+        private final Map<Long, double[]> componentQuantities;
+        private final Map<Long, MaterialVector> flattened = new ConcurrentHashMap<>();
+
+        private BomGraph(Map<Long, long[]> componentIds, Map<Long, double[]> componentQuantities) {
+            this.componentIds = componentIds;
+            this.componentQuantities = componentQuantities;
+        }
+
+        static BomGraph load(List<Object[]> rows) {
+            //Product có nhiều recipe thì lấy recipe có id nhỏ nhất (rows đã sort theo recipeId)
+            Map<Long, Long> recipeOfProduct = new HashMap<>();
+            Map<Long, LongDoubleMap> components = new HashMap<>();
+            for (Object[] row : rows) {
+                long recipeId = ((Number) row[0]).longValue();
+                long productId = ((Number) row[1]).longValue();
+                if (recipeOfProduct.computeIfAbsent(productId, id -> recipeId) != recipeId) {
+                    continue;
+                }
+                double yield = row[2] == null || ((Number) row[2]).doubleValue() <= 0 ? 1d : ((Number) row[2]).doubleValue();
+                long materialId = ((Number) row[3]).longValue();
+                double quantity = ((Number) row[4]).doubleValue();
+                components.computeIfAbsent(productId, id -> new LongDoubleMap()).add(materialId, quantity / yield);
+            }
+
+            Map<Long, long[]> ids = new HashMap<>(components.size() * 2);
+            Map<Long, double[]> quantities = new HashMap<>(components.size() * 2);
+            components.forEach((productId, map) -> {
+                long[] materialIds = new long[map.size()];
+                double[] perUnit = new double[map.size()];
+                int[] i = {0};
+                map.forEach((materialId, quantity) -> {
+                    materialIds[i[0]] = materialId;
+                    perUnit[i[0]++] = quantity;
+                });
+                ids.put(productId, materialIds);
+                quantities.put(productId, perUnit);
+            });
+            return new BomGraph(ids, quantities);
+        }
+
+        MaterialVector flatten(long productId) {
+            MaterialVector cached = flattened.get(productId);
+            return cached != null ? cached : flatten(productId, new ArrayDeque<>());
+        }
+
+        private MaterialVector flatten(long productId, Deque<Long> path) {
+            MaterialVector cached = flattened.get(productId);
+            if (cached != null) {
+                return cached;
+            }
+            if (path.contains(productId)) {
+                path.addLast(productId);
+                throw new RuntimeException("Recipe cycle detected: " + path.stream()
+                        .map(String::valueOf).collect(Collectors.joining(" -> ")));
+            }
+
+            long[] ids = componentIds.get(productId);
+            MaterialVector vector;
+            if (ids == null) {
+                //Không có recipe: chính nó là nguyên liệu thô
+                vector = new MaterialVector(new long[]{productId}, new double[]{1d});
+            } else {
+                path.addLast(productId);
+                double[] perUnit = componentQuantities.get(productId);
+                LongDoubleMap raw = new LongDoubleMap(ids.length * 2);
+                for (int i = 0; i < ids.length; i++) {
+                    MaterialVector child = flatten(ids[i], path);
+                    for (int j = 0; j < child.materialIds.length; j++) {
+                        raw.add(child.materialIds[j], child.quantities[j] * perUnit[i]);
+                    }
+                }
+                path.removeLast();
+
+                long[] materialIds = new long[raw.size()];
+                double[] quantities = new double[raw.size()];
+                int[] k = {0};
+                raw.forEach((materialId, quantity) -> {
+                    materialIds[k[0]] = materialId;
+                    quantities[k[0]++] = quantity;
+                });
+                vector = new MaterialVector(materialIds, quantities);
+            }
+            flattened.put(productId, vector);
+            return vector;
+        }
+    }
+}
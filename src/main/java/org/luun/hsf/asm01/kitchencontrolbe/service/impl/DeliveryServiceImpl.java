@@ -0,0 +1,197 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service.impl;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.OrderVersionCache;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.DeliveryPlanRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.DeliveryPlanResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.DeliveryResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.StoreEventDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Delivery;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.User;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.DeliveryStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.feed.StoreEventHub;
+import org.luun.hsf.asm01.kitchencontrolbe.feed.StoreEventType;
+import org.luun.hsf.asm01.kitchencontrolbe.projection.OrderViewProjection;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.DeliveryRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IDeliveryService;
+import org.luun.hsf.asm01.kitchencontrolbe.util.AfterCommit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Groups the DONE orders of a day into delivery runs. Orders of one store stay together and are
+ * split into runs no larger than the shipper's capacity; shippers are used round-robin. Each run
+ * is attached to its orders with a single set-based UPDATE.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeliveryServiceImpl implements IDeliveryService {
+
+    private final OrderRepository orderRepository;
+    private final DeliveryRepository deliveryRepository;
+    private final OrderVersionCache orderVersions;
+    private final StoreEventHub storeEvents;
+    private final OrderViewProjection orderView;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public DeliveryPlanResultDTO planDeliveries(DeliveryPlanRequest request) {
+        if (request.getDate() == null) {
+            throw new RuntimeException("Delivery date is required");
+        }
+        if (request.getShippers() == null || request.getShippers().isEmpty()) {
+            throw new RuntimeException("At least one shipper is required");
+        }
+        for (DeliveryPlanRequest.ShipperCapacity shipper : request.getShippers()) {
+            if (shipper.getShipperId() == null || shipper.getCapacity() <= 0) {
+                throw new RuntimeException("Each shipper needs an id and a positive capacity");
+            }
+        }
+        long start = System.nanoTime();
+        LocalDate date = request.getDate();
+
+        //Chỉ lấy (orderId, storeId) đã sort theo store, không load entity Order
+        List<Object[]> rows = orderRepository.findUnassignedForDelivery(OrderStatus.DONE,
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        int[] orderIds = new int[rows.size()];
+        int[] storeIds = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            orderIds[i] = ((Number) rows.get(i)[0]).intValue();
+            storeIds[i] = ((Number) rows.get(i)[1]).intValue();
+        }
+
+        List<DeliveryPlanRequest.ShipperCapacity> shippers = request.getShippers();
+        List<Delivery> deliveries = new ArrayList<>();
+        List<int[]> runs = new ArrayList<>();
+        List<Integer> runStores = new ArrayList<>();
+        int nextShipper = 0;
+        int i = 0;
+        while (i < orderIds.length) {
+            int storeId = storeIds[i];
+            int storeEnd = i;
+            while (storeEnd < orderIds.length && storeIds[storeEnd] == storeId) {
+                storeEnd++;
+            }
+            while (i < storeEnd) {
+                DeliveryPlanRequest.ShipperCapacity shipper = shippers.get(nextShipper++ % shippers.size());
+                int runEnd = Math.min(storeEnd, i + shipper.getCapacity());
+                deliveries.add(newDelivery(date, shipper.getShipperId()));
+                runs.add(Arrays.copyOfRange(orderIds, i, runEnd));
+                runStores.add(storeId);
+                i = runEnd;
+            }
+        }
+
+        //Persist cả lô rồi flush 1 lần để các INSERT được batch
+        deliveries.forEach(entityManager::persist);
+        entityManager.flush();
+
+        int assigned = 0;
+        List<DeliveryResponseDTO> result = new ArrayList<>(deliveries.size());
+        for (int d = 0; d < deliveries.size(); d++) {
+            Delivery delivery = deliveries.get(d);
+            List<Integer> runOrderIds = Arrays.stream(runs.get(d)).boxed().toList();
+            int count = orderRepository.assignDelivery(delivery, runOrderIds, OrderStatus.DONE);
+            if (count < runOrderIds.size()) {
+                //Vài order vừa được gán cho chuyến khác, đổi status hoặc bị xóa: đọc lại các order thật sự thuộc chuyến này
+                runOrderIds = orderRepository.findIdsByDeliveryId(delivery.getDeliveryId());
+            }
+            assigned += count;
+            result.add(DeliveryResponseDTO.builder()
+                    .deliveryId(delivery.getDeliveryId())
+                    .deliveryDate(date)
+                    .status(delivery.getStatus())
+                    .shipperId(delivery.getShipper().getUserId())
+                    .storeId(runStores.get(d))
+                    .orderCount(count)
+                    .orderIds(runOrderIds)
+                    .build());
+        }
+
+        //Order có delivery mới thì version đổi: chép sang order_view, báo cho cache ETag và các client đang long-poll
+        List<Integer> planned = Arrays.stream(orderIds).boxed().toList();
+        orderView.changed(planned);
+        AfterCommit.run(() -> orderVersions.changed(planned));
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Delivery planning {}: {} deliveries, {} orders in {} ms", date, deliveries.size(), assigned, elapsedMillis);
+        return DeliveryPlanResultDTO.builder()
+                .date(date)
+                .deliveryCount(deliveries.size())
+                .orderCount(assigned)
+                .elapsedMillis(elapsedMillis)
+                .deliveries(result)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DeliveryResponseDTO getDelivery(long deliveryId) {
+        Delivery delivery = deliveryRepository.findById(deliveryId)
+                .orElseThrow(() -> new RuntimeException("Delivery not found with id: " + deliveryId));
+        List<Integer> orderIds = orderRepository.findIdsByDeliveryId(deliveryId);
+        return DeliveryResponseDTO.builder()
+                .deliveryId(delivery.getDeliveryId())
+                .deliveryDate(delivery.getDeliveryDate())
+                .status(delivery.getStatus())
+                .shipperId(delivery.getShipper() == null ? null : delivery.getShipper().getUserId())
+                .orderCount(orderIds.size())
+                .orderIds(orderIds)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public DeliveryResponseDTO changeStatus(long deliveryId, DeliveryStatus status) {
+        Delivery delivery = deliveryRepository.findById(deliveryId)
+                .orElseThrow(() -> new RuntimeException("Delivery not found with id: " + deliveryId));
+        DeliveryStatus current = delivery.getStatus();
+        if (current == null || !current.canTransitionTo(status)) {
+            throw new RuntimeException("Invalid delivery status transition: " + current + " -> " + status);
+        }
+        //UPDATE có điều kiện để 2 request đổi status cùng lúc không cùng thành công
+        if (deliveryRepository.updateStatusIfCurrent(deliveryId, current, status) == 0) {
+            throw new RuntimeException("Delivery " + deliveryId + " status was changed concurrently");
+        }
+        entityManager.refresh(delivery);
+        if (storeEvents.hasSubscribers()) {
+            publishStatusChange(deliveryId, current, status);
+        }
+        return getDelivery(deliveryId);
+    }
+
+    //Mỗi chuyến giao thuộc 1 store, gửi cho subscriber của (các) store có order trong chuyến sau khi commit
+    private void publishStatusChange(long deliveryId, DeliveryStatus from, DeliveryStatus to) {
+        List<Integer> storeIds = orderRepository.findStoreIdsByDeliveryId(deliveryId);
+        LocalDateTime now = LocalDateTime.now();
+        AfterCommit.run(() -> storeIds.forEach(storeId -> storeEvents.publish(StoreEventDTO.builder()
+                .type(StoreEventType.DELIVERY_STATUS)
+                .storeId(storeId)
+                .deliveryId(deliveryId)
+                .previousStatus(from.name())
+                .status(to.name())
+                .occurredAt(now)
+                .build())));
+    }
+
+    private Delivery newDelivery(LocalDate date, Long shipperId) {
+        Delivery delivery = new Delivery();
+        delivery.setDeliveryDate(date);
+        delivery.setStatus(DeliveryStatus.WAITTING);
+        delivery.setShipper(entityManager.getReference(User.class, shipperId));
+        delivery.setCreatedAt(LocalDateTime.now());
+        return delivery;
+    }
+}
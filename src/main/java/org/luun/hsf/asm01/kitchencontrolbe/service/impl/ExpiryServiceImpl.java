@@ -0,0 +1,224 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service.impl;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ExpiryStatsDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ExpirySweepResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Inventory;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.InventoryTransaction;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.User;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.TransactionType;
+import org.luun.hsf.asm01.kitchencontrolbe.expiry.ExpiryQueue;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.InventoryRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.LogBatchRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IExpiryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Marks LogBatches EXPIRED once their expiry date has passed and writes off the stock left in them.
+ * Only batches popped from {@link ExpiryQueue} are touched, so a sweep costs the number of due
+ * batches, not the size of log_batches. Each chunk is one transaction: a set-based status UPDATE,
+ * then one EXPORT InventoryTransaction per inventory row that still held stock. When a chunk fails
+ * its batches are retried one by one so a single bad batch does not hold back the others; a batch
+ * that keeps failing is retried on the next sweeps and parked after max-attempts failures.
+ */
+@Slf4j
+@Service
+public class ExpiryServiceImpl implements IExpiryService {
+
+    private final ExpiryQueue expiryQueue;
+    private final LogBatchRepository logBatchRepository;
+    private final InventoryRepository inventoryRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxAttempts;
+
+    //Chỉ 1 sweep chạy tại 1 thời điểm (job và API dùng chung)
+    private final ReentrantLock sweepLock = new ReentrantLock();
+    //batchId -> số lần lỗi liên tiếp, được bảo vệ bởi sweepLock
+    private final Map<Long, Integer> failures = new HashMap<>();
+    //Lô lỗi quá maxAttempts lần, không còn trong queue cho tới khi restart
+    private final Set<Long> parked = ConcurrentHashMap.newKeySet();
+    private final LongAdder sweeps = new LongAdder();
+    private final LongAdder batchesExpired = new LongAdder();
+    private final LongAdder inventoriesWrittenOff = new LongAdder();
+    private volatile LocalDateTime lastSweepAt;
+    private volatile long lastSweepMillis;
+    private volatile int lastSweepBatches;
+
+    public ExpiryServiceImpl(ExpiryQueue expiryQueue,
+                             LogBatchRepository logBatchRepository,
+                             InventoryRepository inventoryRepository,
+                             EntityManager entityManager,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${kitchen.expiry.chunk-size:500}") int chunkSize,
+                             @Value("${kitchen.expiry.max-attempts:5}") int maxAttempts) {
+        this.expiryQueue = expiryQueue;
+        this.logBatchRepository = logBatchRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public ExpirySweepResultDTO sweepExpired(long createdByUserId) {
+        if (!sweepLock.tryLock()) {
+            throw new RuntimeException("An expiry sweep is already running");
+        }
+        try {
+            long start = System.nanoTime();
+            LocalDate today = LocalDate.now();
+            ExpirySweepResultDTO result = new ExpirySweepResultDTO();
+            //Lô lỗi chỉ được trả lại queue khi sweep kết thúc, để sweep này không lấy lại chúng
+            List<ExpiryQueue.Entry> retryLater = new ArrayList<>();
+            try {
+                expiryQueue.refill(today);
+                List<ExpiryQueue.Entry> due;
+                while (!(due = expiryQueue.pollDue(today, chunkSize)).isEmpty()) {
+                    List<Long> batchIds = due.stream().map(ExpiryQueue.Entry::batchId).distinct().toList();
+                    ChunkResult chunk = tryChunk(batchIds, createdByUserId, today);
+                    if (chunk != null) {
+                        add(result, chunk, batchIds);
+                    } else {
+                        //Tách từng lô để tìm lô lỗi, các lô còn lại vẫn được xử lý
+                        for (Long batchId : batchIds) {
+                            ChunkResult single = batchIds.size() == 1 ? null : tryChunk(List.of(batchId), createdByUserId, today);
+                            if (single != null) {
+                                add(result, single, List.of(batchId));
+                            } else {
+                                failed(batchId, due, retryLater, result);
+                            }
+                        }
+                    }
+                    //Queue có thể đã cạn trong khi bảng vẫn còn lô tới hạn (bị giới hạn bởi max-queued)
+                    expiryQueue.refill(today);
+                }
+            } finally {
+                expiryQueue.requeue(retryLater);
+            }
+
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            result.setElapsedMillis(elapsedMillis);
+            sweeps.increment();
+            batchesExpired.add(result.getBatchesExpired());
+            inventoriesWrittenOff.add(result.getInventoriesWrittenOff());
+            lastSweepAt = LocalDateTime.now();
+            lastSweepMillis = elapsedMillis;
+            lastSweepBatches = result.getBatchesExpired();
+            if (result.getChunks() > 0 || result.getBatchesFailed() > 0) {
+                log.info("Expiry sweep: {} batches expired, {} inventories written off ({}) in {} chunks, {} failed, {} parked, {} ms",
+                        result.getBatchesExpired(), result.getInventoriesWrittenOff(), result.getQuantityWrittenOff(),
+                        result.getChunks(), result.getBatchesFailed(), result.getBatchesParked(), elapsedMillis);
+            }
+            return result;
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    //null nếu transaction của chunk bị lỗi (đã rollback)
+    private ChunkResult tryChunk(List<Long> batchIds, long createdByUserId, LocalDate today) {
+        try {
+            return transactionTemplate.execute(status -> expireChunk(batchIds, createdByUserId, today));
+        } catch (RuntimeException e) {
+            log.warn("Expiry chunk of {} batches failed: {}", batchIds.size(), e.toString());
+            return null;
+        }
+    }
+
+    private void add(ExpirySweepResultDTO result, ChunkResult chunk, List<Long> batchIds) {
+        result.setChunks(result.getChunks() + 1);
+        result.setBatchesExpired(result.getBatchesExpired() + chunk.expired());
+        result.setInventoriesWrittenOff(result.getInventoriesWrittenOff() + chunk.writtenOff());
+        result.setQuantityWrittenOff(result.getQuantityWrittenOff() + chunk.quantity());
+        batchIds.forEach(failures::remove);
+    }
+
+    private void failed(Long batchId, List<ExpiryQueue.Entry> due, List<ExpiryQueue.Entry> retryLater,
+                        ExpirySweepResultDTO result) {
+        int attempts = failures.merge(batchId, 1, Integer::sum);
+        result.setBatchesFailed(result.getBatchesFailed() + 1);
+        if (attempts >= maxAttempts) {
+            failures.remove(batchId);
+            parked.add(batchId);
+            result.setBatchesParked(result.getBatchesParked() + 1);
+            log.error("Expiry of batch {} failed {} times, parked until restart", batchId, attempts);
+            return;
+        }
+        for (ExpiryQueue.Entry entry : due) {
+            if (entry.batchId() == batchId) {
+                retryLater.add(entry);
+            }
+        }
+    }
+
+    private ChunkResult expireChunk(List<Long> batchIds, long createdByUserId, LocalDate today) {
+        int expired = logBatchRepository.markExpired(batchIds, List.of(LogStatus.PROCESSING, LogStatus.DONE),
+                LogStatus.EXPIRED, today);
+        User createdBy = entityManager.getReference(User.class, createdByUserId);
+        LocalDateTime now = LocalDateTime.now();
+        int writtenOff = 0;
+        double quantity = 0;
+        for (Inventory inventory : inventoryRepository.findInStockForBatchesForUpdate(batchIds, LogStatus.EXPIRED)) {
+            InventoryTransaction transaction = new InventoryTransaction();
+            transaction.setProduct(inventory.getProduct());
+            transaction.setBatch(inventory.getBatch());
+            transaction.setCreatedBy(createdBy);
+            transaction.setType(TransactionType.EXPORT);
+            transaction.setQuantity(inventory.getQuantity());
+            transaction.setNote("Expired batch #" + inventory.getBatch().getBatchId());
+            transaction.setCreatedAt(now);
+            entityManager.persist(transaction);
+            quantity += inventory.getQuantity();
+            //Entity đang được quản lý, flush lúc commit sẽ gom các UPDATE thành batch
+            inventory.setQuantity(0f);
+            writtenOff++;
+        }
+        return new ChunkResult(expired, writtenOff, quantity);
+    }
+
+    @Override
+    public ExpiryStatsDTO stats() {
+        ExpiryQueue.Entry next = expiryQueue.peek();
+        long lagSeconds = 0;
+        if (next != null) {
+            //Lô hết hạn từ đầu ngày sau expiryDate
+            Duration lag = Duration.between(next.expiryDate().plusDays(1).atStartOfDay(), LocalDateTime.now());
+            lagSeconds = Math.max(0, lag.getSeconds());
+        }
+        return ExpiryStatsDTO.builder()
+                .queued(expiryQueue.size())
+                .nextExpiryDate(next == null ? null : next.expiryDate())
+                .loadedThrough(expiryQueue.cursorDate())
+                .lagSeconds(lagSeconds)
+                .sweeps(sweeps.sum())
+                .batchesExpired(batchesExpired.sum())
+                .inventoriesWrittenOff(inventoriesWrittenOff.sum())
+                .parked(parked.size())
+                .lastSweepAt(lastSweepAt)
+                .lastSweepMillis(lastSweepMillis)
+                .lastSweepBatches(lastSweepBatches)
+                .build();
+    }
+
+    private record ChunkResult(int expired, int writtenOff, double quantity) {
+    }
+}
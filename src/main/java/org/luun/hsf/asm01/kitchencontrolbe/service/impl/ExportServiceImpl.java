@@ -0,0 +1,140 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.InventoryTransactionFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.export.ExportFormat;
+import org.luun.hsf.asm01.kitchencontrolbe.export.ExportTask;
+import org.luun.hsf.asm01.kitchencontrolbe.export.OrderLinesWithArchive;
+import org.luun.hsf.asm01.kitchencontrolbe.export.RowCursor;
+import org.luun.hsf.asm01.kitchencontrolbe.export.RowWriter;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.ExportRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IExportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Streams export rows from a forward-only cursor straight into the response. Rows are written as
+ * they arrive from the database (fetch-size rows at a time), the header and first row are flushed
+ * immediately, so memory is constant and the first byte does not wait for the query to finish.
+ * Each running export holds one JDBC connection, hence the max-concurrent limit. A slot is taken
+ * when the export is requested and given back when the task finishes or, if it never started, when
+ * it is cancelled.
+ */
+@Slf4j
+@Service
+public class ExportServiceImpl implements IExportService {
+
+    private final ExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Semaphore slots;
+    private final int fetchSize;
+    private final int flushRows;
+
+    public ExportServiceImpl(ExportRepository exportRepository,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${kitchen.exports.max-concurrent:4}") int maxConcurrent,
+                             @Value("${kitchen.exports.fetch-size:1000}") int fetchSize,
+                             @Value("${kitchen.exports.flush-rows:1000}") int flushRows) {
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.slots = new Semaphore(maxConcurrent);
+        this.fetchSize = fetchSize;
+        this.flushRows = flushRows;
+    }
+
+    @Override
+    public ExportTask exportOrderLines(OrderFilterRequest filter, ExportFormat format) {
+        return export("orders", format, ExportRepository.ORDER_LINE_COLUMNS, () -> {
+            RowCursor live = RowCursor.of(exportRepository.scrollOrderLines(filter, fetchSize));
+            if (filter == null || !filter.isIncludeArchived()) {
+                return live;
+            }
+            try {
+                return new OrderLinesWithArchive(live, RowCursor.of(exportRepository.scrollArchivedOrders(filter, fetchSize)));
+            } catch (RuntimeException e) {
+                live.close();
+                throw e;
+            }
+        });
+    }
+
+    @Override
+    public ExportTask exportInventoryTransactions(InventoryTransactionFilterRequest filter, ExportFormat format) {
+        return export("inventory-transactions", format, ExportRepository.INVENTORY_TRANSACTION_COLUMNS,
+                () -> RowCursor.of(exportRepository.scrollInventoryTransactions(filter, fetchSize)));
+    }
+
+    private ExportTask export(String name, ExportFormat format, String[] columns,
+                              Supplier<RowCursor> source) {
+        if (!slots.tryAcquire()) {
+            throw new RuntimeException("Too many exports are running, try again later");
+        }
+        //false khi task đã chạy hoặc đã bị hủy: chỗ chỉ được trả đúng 1 lần
+        AtomicBoolean pending = new AtomicBoolean(true);
+        return new ExportTask() {
+            @Override
+            public long writeTo(OutputStream out) throws IOException {
+                if (!pending.compareAndSet(true, false)) {
+                    throw new IllegalStateException("Export task was already run or cancelled");
+                }
+                try {
+                    long start = System.nanoTime();
+                    long rows = readOnlyTransaction.execute(status -> {
+                        try {
+                            return write(format, columns, source, out);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    log.info("Exported {} {} rows as {} in {} ms", rows, name, format, (System.nanoTime() - start) / 1_000_000);
+                    return rows;
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                } finally {
+                    slots.release();
+                }
+            }
+
+            @Override
+            public void cancel() {
+                if (pending.compareAndSet(true, false)) {
+                    slots.release();
+                }
+            }
+        };
+    }
+
+    private long write(ExportFormat format, String[] columns, Supplier<RowCursor> source,
+                       OutputStream out) throws IOException {
+        RowWriter writer = RowWriter.create(format, columns, out, objectMapper);
+        writer.flush();
+        long rows = 0;
+        try (RowCursor results = source.get()) {
+            while (results.next()) {
+                writer.writeRow(results.get());
+                rows++;
+                //Dòng đầu được đẩy đi ngay để client nhận dữ liệu sớm, sau đó flush theo lô
+                if (rows == 1 || rows % flushRows == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.finish();
+        return rows;
+    }
+}
@@ -0,0 +1,321 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ImportJobDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.CountingInputStream;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.CsvReader;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.ImportContext;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.ImportHandler;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.ImportJob;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.ImportKind;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.ImportLookups;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.ImportRow;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.ImportRowException;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.ProductRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.RecipeRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.UserRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IImportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk CSV import. The upload is copied to a temp file and a single job thread streams it through
+ * {@link CsvReader}; rows are cut into chunks that the validator pool parses in parallel against
+ * {@link ImportLookups}, at most max-in-flight chunks ahead of the writer. The job thread then writes the
+ * chunks in file order, one transaction per chunk, with batched inserts and periodic flush/clear.
+ * A chunk that fails to write fails the job; chunks committed before it stay imported.
+ */
+@Slf4j
+@Service
+public class ImportServiceImpl implements IImportService {
+
+    private final Map<ImportKind, ImportHandler<?>> handlers = new EnumMap<>(ImportKind.class);
+    private final ProductRepository productRepository;
+    private final RecipeRepository recipeRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Path importDir;
+    private final int chunkSize;
+    private final int flushEvery;
+    private final int maxInFlight;
+    private final int maxErrors;
+    private final int retainedJobs;
+
+    //1 job tại 1 thời điểm: kiểm tra trùng tên dựa trên lookup nạp lúc job bắt đầu
+    private final ExecutorService runner;
+    private final ExecutorService validators;
+    private final NavigableMap<Long, ImportJob> jobs = new ConcurrentSkipListMap<>();
+    private final AtomicLong jobIds = new AtomicLong();
+
+    public ImportServiceImpl(List<ImportHandler<?>> handlers,
+                             ProductRepository productRepository,
+                             RecipeRepository recipeRepository,
+                             UserRepository userRepository,
+                             EntityManager entityManager,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${kitchen.imports.dir:${java.io.tmpdir}/kitchen-imports}") Path importDir,
+                             @Value("${kitchen.imports.chunk-size:1000}") int chunkSize,
+                             @Value("${kitchen.imports.flush-every:500}") int flushEvery,
+                             @Value("${kitchen.imports.validator-threads:4}") int validatorThreads,
+                             @Value("${kitchen.imports.max-errors:100}") int maxErrors,
+                             @Value("${kitchen.imports.retained-jobs:50}") int retainedJobs) {
+        for (ImportHandler<?> handler : handlers) {
+            this.handlers.put(handler.kind(), handler);
+        }
+        this.productRepository = productRepository;
+        this.recipeRepository = recipeRepository;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.importDir = importDir;
+        this.chunkSize = chunkSize;
+        this.flushEvery = flushEvery;
+        this.maxInFlight = validatorThreads * 2;
+        this.maxErrors = maxErrors;
+        this.retainedJobs = retainedJobs;
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "import-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.validators = Executors.newFixedThreadPool(validatorThreads, runnable -> {
+            Thread thread = new Thread(runnable, "import-validator-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public ImportJobDTO startImport(ImportKind kind, String fileName, InputStream content, Long userId) {
+        ImportHandler<?> handler = handlers.get(kind);
+        if (handler == null) {
+            throw new RuntimeException("Unsupported import kind: " + kind);
+        }
+        if (kind == ImportKind.STOCK_RECEIPTS && (userId == null || !userRepository.existsById(userId))) {
+            throw new RuntimeException("A valid userId is required to import stock receipts");
+        }
+
+        long jobId = jobIds.incrementAndGet();
+        Path file = importDir.resolve("import-" + jobId + ".csv");
+        long size;
+        try {
+            Files.createDirectories(importDir);
+            size = Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store uploaded file", e);
+        }
+        ImportJob job = new ImportJob(jobId, kind, fileName, userId, size, maxErrors);
+        jobs.put(jobId, job);
+        evictFinishedJobs();
+        runner.submit(() -> run(job, handler, file));
+        return job.toDTO();
+    }
+
+    private void run(ImportJob job, ImportHandler<?> handler, Path file) {
+        job.start();
+        try {
+            importFile(job, handler, file);
+            job.finish();
+            ImportJobDTO result = job.toDTO();
+            log.info("Import {} ({}) done: {} rows imported, {} rejected, {} rows/s",
+                    job.getJobId(), job.getKind(), result.getRowsImported(), result.getRowsRejected(),
+                    Math.round(result.getRowsPerSecond()));
+        } catch (Exception e) {
+            log.warn("Import {} ({}) failed: {}", job.getJobId(), job.getKind(), e.getMessage());
+            job.fail(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private <T> void importFile(ImportJob job, ImportHandler<T> handler, Path file) throws IOException {
+        try (CountingInputStream counting = new CountingInputStream(Files.newInputStream(file));
+             CsvReader reader = new CsvReader(new InputStreamReader(counting, StandardCharsets.UTF_8))) {
+            checkHeader(handler, reader.next());
+            ImportLookups lookups = transactionTemplate.execute(status ->
+                    new ImportLookups(productRepository.findImportLookup(), recipeRepository.findImportLookup()));
+            ImportContext context = new ImportContext(job, lookups, entityManager, flushEvery);
+
+            //Hàng đợi chunk đang validate, giới hạn max-in-flight để reader không chạy quá xa writer
+            Deque<Future<List<ImportRow<T>>>> inFlight = new ArrayDeque<>();
+            List<RawRow> chunk = new ArrayList<>(chunkSize);
+            long rows = 0;
+            String[] fields;
+            while ((fields = reader.next()) != null) {
+                if (fields.length == 1 && fields[0].isBlank()) {
+                    continue;
+                }
+                String groupKey = handler.groupKey(fields);
+                //Không cắt chunk giữa 1 nhóm dòng
+                if (chunk.size() >= chunkSize && (groupKey == null || !groupKey.equals(chunk.get(chunk.size() - 1).groupKey()))) {
+                    inFlight.add(submit(handler, lookups, chunk));
+                    chunk = new ArrayList<>(chunkSize);
+                    if (inFlight.size() >= maxInFlight) {
+                        write(handler, context, await(inFlight.poll()));
+                    }
+                }
+                chunk.add(new RawRow(reader.lineNumber(), groupKey, fields));
+                job.progress(counting.count(), ++rows);
+            }
+            if (!chunk.isEmpty()) {
+                inFlight.add(submit(handler, lookups, chunk));
+            }
+            while (!inFlight.isEmpty()) {
+                write(handler, context, await(inFlight.poll()));
+            }
+            job.progress(counting.count(), rows);
+        }
+    }
+
+    private void checkHeader(ImportHandler<?> handler, String[] header) {
+        if (header == null) {
+            throw new RuntimeException("File is empty");
+        }
+        List<String> columns = new ArrayList<>(header.length);
+        for (String column : header) {
+            columns.add(column.trim());
+        }
+        //File lưu từ Excel thường có BOM ở đầu
+        if (!columns.isEmpty() && columns.get(0).startsWith("\uFEFF")) {
+            columns.set(0, columns.get(0).substring(1));
+        }
+        if (!columns.equals(handler.columns())) {
+            throw new RuntimeException("Expected header " + String.join(",", handler.columns())
+                    + " but got " + String.join(",", Arrays.asList(header)));
+        }
+    }
+
+    private <T> Future<List<ImportRow<T>>> submit(ImportHandler<T> handler, ImportLookups lookups, List<RawRow> chunk) {
+        return validators.submit(() -> {
+            List<ImportRow<T>> parsed = new ArrayList<>(chunk.size());
+            for (RawRow row : chunk) {
+                try {
+                    parsed.add(new ImportRow<>(row.line(), row.groupKey(), handler.parse(row.fields(), lookups), null));
+                } catch (ImportRowException e) {
+                    parsed.add(new ImportRow<>(row.line(), row.groupKey(), null, e.getMessage()));
+                }
+            }
+            return parsed;
+        });
+    }
+
+    private static <T> List<ImportRow<T>> await(Future<List<ImportRow<T>>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while validating import rows", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Import validation failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private <T> void write(ImportHandler<T> handler, ImportContext context, List<ImportRow<T>> rows) {
+        //1 dòng lỗi thì bỏ cả nhóm của nó, để không ghi 1 công thức thiếu nguyên liệu
+        Set<String> brokenGroups = new HashSet<>();
+        for (ImportRow<T> row : rows) {
+            if (!row.valid()) {
+                context.reject(row.line(), row.error());
+                if (row.groupKey() != null) {
+                    brokenGroups.add(row.groupKey());
+                }
+            }
+        }
+        List<ImportRow<T>> valid = new ArrayList<>(rows.size());
+        for (ImportRow<T> row : rows) {
+            if (!row.valid()) {
+                continue;
+            }
+            if (row.groupKey() != null && brokenGroups.contains(row.groupKey())) {
+                context.reject(row.line(), "Skipped because another line of the same group is invalid");
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+        int written = transactionTemplate.execute(status -> {
+            int count = handler.write(valid, context);
+            context.flush();
+            return count;
+        });
+        context.getJob().imported(written);
+    }
+
+    //Chỉ giữ retained-jobs job gần nhất, job đang chạy/đang chờ không bị xóa
+    private void evictFinishedJobs() {
+        int excess = jobs.size() - retainedJobs;
+        for (Map.Entry<Long, ImportJob> entry : jobs.entrySet()) {
+            if (excess <= 0) {
+                break;
+            }
+            if (entry.getValue().isFinished()) {
+                jobs.remove(entry.getKey());
+                excess--;
+            }
+        }
+    }
+
+    @Override
+    public ImportJobDTO getJob(long jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Import job not found with id: " + jobId);
+        }
+        return job.toDTO();
+    }
+
+    @Override
+    public List<ImportJobDTO> getJobs() {
+        List<ImportJobDTO> result = new ArrayList<>(jobs.size());
+        for (ImportJob job : jobs.descendingMap().values()) {
+            result.add(job.toDTO());
+        }
+        return result;
+    }
+
+    private record RawRow(long line, String groupKey, String[] fields) {
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+        validators.shutdownNow();
+    }
+}
@@ -0,0 +1,162 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service.impl;
+
+import jakarta.persistence.EntityManager;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.OrderVersionCache;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.AllocationResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.InventoryTransaction;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.LogBatch;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Order;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderDetail;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Product;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.User;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderEventType;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.TransactionType;
+import org.luun.hsf.asm01.kitchencontrolbe.outbox.OrderOutbox;
+import org.luun.hsf.asm01.kitchencontrolbe.projection.OrderViewProjection;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.InventoryRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IInventoryAllocationService;
+import org.luun.hsf.asm01.kitchencontrolbe.util.AfterCommit;
+import org.luun.hsf.asm01.kitchencontrolbe.util.StripedLocks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consumes stock for an order first-expiry-first-out.
+ * Within one instance, allocations for the same product are serialized on a lock stripe so they
+ * do not waste retries; across instances each row is decremented with a conditional UPDATE
+ * (quantity >= requested), which only locks that inventory row and can never oversell.
+ */
+@Service
+public class InventoryAllocationServiceImpl implements IInventoryAllocationService {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final OrderRepository orderRepository;
+    private final InventoryRepository inventoryRepository;
+    private final OrderOutbox orderOutbox;
+    private final OrderViewProjection orderView;
+    private final OrderVersionCache orderVersions;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final StripedLocks productLocks;
+
+    public InventoryAllocationServiceImpl(OrderRepository orderRepository,
+                                          InventoryRepository inventoryRepository,
+                                          OrderOutbox orderOutbox,
+                                          OrderViewProjection orderView,
+                                          OrderVersionCache orderVersions,
+                                          EntityManager entityManager,
+                                          TransactionTemplate transactionTemplate,
+                                          @Value("${kitchen.inventory.lock-stripes:64}") int lockStripes) {
+        this.orderRepository = orderRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.orderOutbox = orderOutbox;
+        this.orderView = orderView;
+        this.orderVersions = orderVersions;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.productLocks = new StripedLocks(lockStripes);
+    }
+
+    @Override
+    public AllocationResultDTO allocateOrder(int orderId, long userId) {
+        Order order = orderRepository.findWithDetailsByOrderId(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
+        if (order.getStatus() != OrderStatus.WAITTING) {
+            throw new RuntimeException("Only WAITTING orders can be allocated, order " + orderId + " is " + order.getStatus());
+        }
+
+        //Gộp các dòng cùng product, TreeMap để thứ tự xử lý ổn định
+        Map<Integer, Float> demand = new TreeMap<>();
+        for (OrderDetail detail : order.getOrderDetails()) {
+            demand.merge(detail.getProductId(), detail.getQuantity(), Float::sum);
+        }
+        long[] productIds = demand.keySet().stream().mapToLong(Integer::longValue).toArray();
+
+        //Giữ lock tới khi transaction commit để request sau thấy số lượng đã trừ
+        int[] stripes = productLocks.lockAll(productIds);
+        try {
+            List<AllocationResultDTO.AllocationLine> lines = transactionTemplate.execute(status -> {
+                if (orderRepository.updateStatusIfCurrent(orderId, OrderStatus.WAITTING, OrderStatus.PROCESSING) == 0) {
+                    throw new RuntimeException("Order " + orderId + " was allocated concurrently");
+                }
+                orderOutbox.record(orderId, order.getOrderDate().toLocalDate(),
+                        OrderEventType.STATUS_CHANGED, OrderStatus.WAITTING, OrderStatus.PROCESSING);
+                orderView.changed(List.of(orderId));
+                AfterCommit.run(() -> orderVersions.changed(List.of(orderId)));
+                User createdBy = entityManager.getReference(User.class, userId);
+                List<AllocationResultDTO.AllocationLine> result = new ArrayList<>();
+                for (Map.Entry<Integer, Float> entry : demand.entrySet()) {
+                    allocateProduct(orderId, entry.getKey(), entry.getValue(), createdBy, result);
+                }
+                return result;
+            });
+            return AllocationResultDTO.builder()
+                    .orderId(orderId)
+                    .status(OrderStatus.PROCESSING)
+                    .allocations(lines)
+                    .build();
+        } finally {
+            productLocks.unlockAll(stripes);
+        }
+    }
+
+    private void allocateProduct(int orderId, int productId, float needed, User createdBy,
+                                 List<AllocationResultDTO.AllocationLine> result) {
+        float remaining = needed;
+        LocalDate today = LocalDate.now();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && remaining > 0; attempt++) {
+            List<Object[]> candidates = inventoryRepository.findAvailableFefo((long) productId, today);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            for (Object[] row : candidates) {
+                if (remaining <= 0) {
+                    break;
+                }
+                Long inventoryId = (Long) row[0];
+                Long batchId = (Long) row[1];
+                float available = (Float) row[2];
+                float take = Math.min(available, remaining);
+                //Dòng này vừa bị instance khác trừ: bỏ qua, lần attempt sau sẽ đọc lại số lượng mới
+                if (inventoryRepository.decrementIfAvailable(inventoryId, take) == 0) {
+                    continue;
+                }
+                remaining -= take;
+                recordExport(orderId, productId, batchId, take, createdBy);
+                result.add(AllocationResultDTO.AllocationLine.builder()
+                        .productId(productId)
+                        .inventoryId(inventoryId)
+                        .batchId(batchId)
+                        .quantity(take)
+                        .build());
+            }
+        }
+        if (remaining > 0) {
+            throw new RuntimeException("Insufficient stock for product " + productId
+                    + ": missing " + remaining + " of " + needed);
+        }
+    }
+
+    private void recordExport(int orderId, int productId, Long batchId, float quantity, User createdBy) {
+        InventoryTransaction transaction = new InventoryTransaction();
+        transaction.setProduct(entityManager.getReference(Product.class, (long) productId));
+        transaction.setBatch(entityManager.getReference(LogBatch.class, batchId));
+        transaction.setCreatedBy(createdBy);
+        transaction.setType(TransactionType.EXPORT);
+        transaction.setQuantity(quantity);
+        transaction.setNote("Allocated to order #" + orderId);
+        transaction.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(transaction);
+    }
+}
@@ -1,34 +1,249 @@
 package org.luun.hsf.asm01.kitchencontrolbe.service.impl;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.archive.OrderArchiver;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.CatalogCache;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.IdempotencyCache;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.OrderVersionCache;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
 import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderStatusTransitionRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.BatchOrderResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.CursorPageResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderArchiveResultDTO;
 import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderStatusTransitionResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderViewRebuildResultDTO;
 import org.luun.hsf.asm01.kitchencontrolbe.entity.Order;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderArchive;
 import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderDetail;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderSnapshot;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderView;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderEventType;
 import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.exception.IdempotencyKeyReusedException;
 import org.luun.hsf.asm01.kitchencontrolbe.mapper.OrderMapper;
+import org.luun.hsf.asm01.kitchencontrolbe.outbox.OrderOutbox;
+import org.luun.hsf.asm01.kitchencontrolbe.projection.OrderLinesCodec;
+import org.luun.hsf.asm01.kitchencontrolbe.projection.OrderViewProjection;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderArchiveRepository;
 import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderViewRepository;
 import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderService;
+import org.luun.hsf.asm01.kitchencontrolbe.util.AfterCommit;
+import org.luun.hsf.asm01.kitchencontrolbe.util.OrderCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "kitchen.orders.service", description = "IOrderService calls", histogram = true)
 public class OrderServiceImpl implements IOrderService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_ORDERS = 5000;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+    //Giới hạn số tham số của câu IN (...) trong UPDATE đổi status
+    private static final int MAX_IN_LIST = 1000;
+    //Thứ tự của GET /api/orders, cũng là thứ tự dùng để gộp order_view với orders_archive
+    private static final Comparator<OrderSnapshot> NEWEST_FIRST = Comparator.comparing(OrderSnapshot::getOrderDate)
+            .thenComparingInt(OrderSnapshot::getOrderId)
+            .reversed();
+
     private final OrderRepository orderRepository;
+    private final OrderViewRepository orderViewRepository;
+    private final OrderViewProjection orderViewProjection;
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final OrderArchiver orderArchiver;
     private final OrderMapper orderMapper;
+    private final CatalogCache catalogCache;
+    private final IdempotencyCache idempotencyCache;
+    private final OrderVersionCache orderVersions;
+    private final OrderOutbox orderOutbox;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${kitchen.orders.stream-fetch-size:500}")
+    private int streamFetchSize;
+
+    @Value("${kitchen.orders.batch-chunk-size:500}")
+    private int batchChunkSize;
+
+    //Số order tối đa của 1 lần đổi status, theo id hay theo bộ lọc
+    @Value("${kitchen.orders.max-transition-orders:5000}")
+    private int maxTransitionOrders;
 
     @Override
     @Transactional
     public OrderResponseDTO createOrder(OrderRequestDTO request) {
+        Order savedOrder = orderRepository.save(buildOrder(request, LocalDateTime.now()));
+        orderOutbox.record(savedOrder.getOrderId(), savedOrder.getOrderDate().toLocalDate(),
+                OrderEventType.CREATED, null, savedOrder.getStatus());
+        orderViewProjection.created(List.of(savedOrder.getOrderId()));
+        return toResponse(savedOrder);
+    }
+
+    @Override
+    public OrderResponseDTO createOrder(OrderRequestDTO request, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return transactionTemplate.execute(status -> createOrder(request));
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency-Key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        OrderResponseDTO cached = idempotencyCache.get(idempotencyKey);
+        if (cached != null) {
+            return replay(request, idempotencyKey, cached);
+        }
+
+        //Key đã bị đẩy khỏi cache (hoặc sau khi restart): tìm lại order gốc trước khi ghi
+        OrderResponseDTO response = findByIdempotencyKey(idempotencyKey);
+        boolean created = response == null;
+        if (created) {
+            try {
+                response = transactionTemplate.execute(status -> {
+                    Order order = buildOrder(request, LocalDateTime.now());
+                    order.setIdempotencyKey(idempotencyKey);
+                    //Flush ngay để vi phạm unique key xảy ra trong transaction này
+                    Order saved = orderRepository.saveAndFlush(order);
+                    orderOutbox.record(saved.getOrderId(), saved.getOrderDate().toLocalDate(),
+                            OrderEventType.CREATED, null, saved.getStatus());
+                    orderViewProjection.created(List.of(saved.getOrderId()));
+                    return toResponse(saved);
+                });
+            } catch (DataIntegrityViolationException e) {
+                //1 request cùng key chạy song song đã commit trước
+                response = findByIdempotencyKey(idempotencyKey);
+                if (response == null) {
+                    throw e;
+                }
+                created = false;
+            }
+        }
+        idempotencyCache.put(idempotencyKey, response);
+        return created ? response : replay(request, idempotencyKey, response);
+    }
+
+    //Chỉ trả lại order cũ khi request retry giống hệt request đầu (cùng store và cùng các dòng, không tính thứ tự)
+    private static OrderResponseDTO replay(OrderRequestDTO request, String idempotencyKey, OrderResponseDTO original) {
+        List<String> requested = request == null || request.getOrderDetails() == null ? List.of()
+                : request.getOrderDetails().stream()
+                .map(detail -> detail == null ? "" : detail.getProductId() + ":" + detail.getQuantity())
+                .sorted()
+                .toList();
+        List<String> stored = original.getOrderDetails() == null ? List.of()
+                : original.getOrderDetails().stream()
+                .map(detail -> detail.getProductId() + ":" + detail.getQuantity())
+                .sorted()
+                .toList();
+        if (request == null || request.getStoreId() != original.getStoreId() || !requested.equals(stored)) {
+            throw new IdempotencyKeyReusedException(idempotencyKey);
+        }
+        return original;
+    }
+
+    private OrderResponseDTO findByIdempotencyKey(String idempotencyKey) {
+        return orderRepository.findWithDetailsByIdempotencyKey(idempotencyKey)
+                .map(this::toResponse)
+                .orElse(null);
+    }
+
+    @Override
+    public List<BatchOrderResultDTO> createOrders(List<OrderRequestDTO> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new RuntimeException("Order list must not be empty");
+        }
+        if (requests.size() > MAX_BATCH_ORDERS) {
+            throw new RuntimeException("At most " + MAX_BATCH_ORDERS + " orders can be submitted per batch");
+        }
+
+        BatchOrderResultDTO[] results = new BatchOrderResultDTO[requests.size()];
+        List<Integer> valid = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validate(requests.get(i));
+            if (error == null) {
+                valid.add(i);
+            } else {
+                results[i] = BatchOrderResultDTO.builder().index(i).success(false).error(error).build();
+            }
+        }
+
+        //Mỗi chunk 1 transaction: lỗi ở 1 chunk không làm rollback các chunk đã ghi thành công
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < valid.size(); from += batchChunkSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + batchChunkSize, valid.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<Order> orders = new ArrayList<>(chunk.size());
+                    for (Integer index : chunk) {
+                        Order order = buildOrder(requests.get(index), now);
+                        entityManager.persist(order);
+                        orders.add(order);
+                    }
+                    List<Integer> orderIds = orders.stream().map(Order::getOrderId).toList();
+                    orderOutbox.recordAll(orderIds, now.toLocalDate(), OrderEventType.CREATED, null, OrderStatus.WAITTING);
+                    orderViewProjection.created(orderIds);
+                    entityManager.flush();
+                    preloadCatalog(orders);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        results[chunk.get(i)] = BatchOrderResultDTO.builder()
+                                .index(chunk.get(i))
+                                .success(true)
+                                .order(orderMapper.toResponseDTO(orders.get(i)))
+                                .build();
+                    }
+                    entityManager.clear();
+                });
+            } catch (RuntimeException e) {
+                for (Integer index : chunk) {
+                    results[index] = BatchOrderResultDTO.builder().index(index).success(false).error(e.getMessage()).build();
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void preloadCatalog(Collection<Order> orders) {
+        Set<Integer> storeIds = new HashSet<>();
+        Set<Integer> productIds = new HashSet<>();
+        for (Order order : orders) {
+            storeIds.add(order.getStoreId());
+            for (OrderDetail detail : order.getOrderDetails()) {
+                productIds.add(detail.getProductId());
+            }
+        }
+        catalogCache.preloadStores(storeIds);
+        catalogCache.preloadProducts(productIds);
+    }
+
+    private Order buildOrder(OrderRequestDTO request, LocalDateTime orderDate) {
         Order order = new Order();
         order.setStoreId(request.getStoreId());
-        order.setOrderDate(LocalDateTime.now());
+        order.setOrderDate(orderDate);
         order.setStatus(OrderStatus.WAITTING); //Mặc định ban đầu là waitting
 
         List<OrderDetail> details = request.getOrderDetails().stream().map(detailDto -> {
@@ -38,27 +253,264 @@ public class OrderServiceImpl implements IOrderService {
         }).collect(Collectors.toList());
 
         order.setOrderDetails(details);
+        return order;
+    }
 
-        Order savedOrder = orderRepository.save(order);
-        return orderMapper.toResponseDTO(savedOrder);
+    private String validate(OrderRequestDTO request) {
+        if (request == null) {
+            return "Order must not be null";
+        }
+        if (request.getStoreId() <= 0) {
+            return "Invalid storeId: " + request.getStoreId();
+        }
+        if (request.getOrderDetails() == null || request.getOrderDetails().isEmpty()) {
+            return "Order must contain at least one detail";
+        }
+        for (OrderRequestDTO.OrderDetailRequest detail : request.getOrderDetails()) {
+            if (detail == null || detail.getProductId() <= 0 || detail.getQuantity() <= 0) {
+                return "Order details need a productId and a positive quantity";
+            }
+        }
+        return null;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderResponseDTO getOrderById(int orderId) {
-        Order order = orderRepository.findById(orderId)
+        return getOrderById(orderId, false);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderResponseDTO getOrderById(int orderId, boolean includeArchived) {
+        //1 dòng order_view; chỉ đọc orders + order_details khi dòng view chưa có (trước khi rebuild xong)
+        return orderViewRepository.findById(orderId)
+                .map(this::toResponse)
+                .or(() -> orderRepository.findWithDetailsByOrderId(orderId).map(this::toResponse))
+                .or(() -> includeArchived ? findArchived(orderId) : Optional.empty())
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
-        return orderMapper.toResponseDTO(order);
+    }
+
+    private Optional<OrderResponseDTO> findArchived(int orderId) {
+        //Tìm theo id không đi qua @SQLRestriction nên lọc order đã xóa ở đây
+        return orderArchiveRepository.findById(orderId)
+                .filter(archive -> archive.getDeletedAt() == null)
+                .map(this::toResponse);
+    }
+
+    @Override
+    public Long getOrderVersion(int orderId) {
+        return orderVersions.version(orderId);
     }
     
     @Override
-    public List<OrderResponseDTO> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(orderMapper::toResponseDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<OrderResponseDTO> getOrders(OrderFilterRequest filter, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        OrderCursor after = cursor == null || cursor.isBlank() ? null : OrderCursor.decode(cursor);
+
+        //Lấy dư 1 phần tử để biết còn trang sau hay không mà không cần COUNT(*)
+        List<OrderSnapshot> rows = new ArrayList<>(orderViewRepository.findPage(filter, after, limit + 1));
+        if (includeArchived(filter)) {
+            //Mỗi order chỉ nằm ở 1 trong 2 bảng, cùng thứ tự và cùng cursor: gộp 2 trang rồi cắt lại
+            rows.addAll(orderArchiveRepository.findPage(filter, after, limit + 1));
+            rows.sort(NEWEST_FIRST);
+        }
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+
+        List<OrderResponseDTO> items = toResponses(rows);
+        String nextCursor = null;
+        if (hasMore) {
+            OrderResponseDTO last = items.get(items.size() - 1);
+            nextCursor = new OrderCursor(last.getOrderDate(), last.getOrderId()).encode();
+        }
+
+        return CursorPageResponseDTO.<OrderResponseDTO>builder()
+                .items(items)
+                .size(items.size())
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamOrders(OrderFilterRequest filter, Consumer<OrderResponseDTO> sink) {
+        try (Stream<OrderView> views = orderViewRepository.stream(filter, streamFetchSize);
+             Stream<OrderArchive> archived = includeArchived(filter)
+                     ? orderArchiveRepository.stream(filter, streamFetchSize) : Stream.empty()) {
+            Iterator<OrderSnapshot> it = merge(views.iterator(), archived.iterator());
+            List<OrderSnapshot> chunk = new ArrayList<>(streamFetchSize);
+            while (it.hasNext()) {
+                chunk.add(it.next());
+                if (chunk.size() == streamFetchSize || !it.hasNext()) {
+                    toResponses(chunk).forEach(sink);
+                    chunk.clear();
+                    //Clear persistence context theo từng chunk để heap không tăng theo số dòng
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    private static boolean includeArchived(OrderFilterRequest filter) {
+        return filter != null && filter.isIncludeArchived();
+    }
+
+    //Gộp 2 luồng đã sắp xếp theo NEWEST_FIRST mà không đọc hết luồng nào vào bộ nhớ
+    private static Iterator<OrderSnapshot> merge(Iterator<? extends OrderSnapshot> first,
+                                                 Iterator<? extends OrderSnapshot> second) {
+        return new Iterator<>() {
+            private OrderSnapshot nextFirst = first.hasNext() ? first.next() : null;
+            private OrderSnapshot nextSecond = second.hasNext() ? second.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextFirst != null || nextSecond != null;
+            }
+
+            @Override
+            public OrderSnapshot next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                OrderSnapshot result;
+                if (nextSecond == null || (nextFirst != null && NEWEST_FIRST.compare(nextFirst, nextSecond) <= 0)) {
+                    result = nextFirst;
+                    nextFirst = first.hasNext() ? first.next() : null;
+                } else {
+                    result = nextSecond;
+                    nextSecond = second.hasNext() ? second.next() : null;
+                }
+                return result;
+            }
+        };
+    }
+
+    //1 order cũng nạp trước tên các dòng bằng 1 query, không để mapper load từng product khi cache lạnh
+    private OrderResponseDTO toResponse(Order order) {
+        preloadCatalog(List.of(order));
+        return orderMapper.toResponseDTO(order);
+    }
+
+    private OrderResponseDTO toResponse(OrderSnapshot row) {
+        return toResponses(List.of(row)).get(0);
+    }
+
+    //Mỗi order là 1 dòng order_view/orders_archive: chỉ cần nạp trước tên store/product của cả lô vào CatalogCache
+    private List<OrderResponseDTO> toResponses(List<? extends OrderSnapshot> rows) {
+        Set<Integer> storeIds = new HashSet<>();
+        Set<Integer> productIds = new HashSet<>();
+        for (OrderSnapshot row : rows) {
+            storeIds.add(row.getStoreId());
+            OrderLinesCodec.collectProductIds(row.getLines(), productIds);
+        }
+        catalogCache.preloadStores(storeIds);
+        catalogCache.preloadProducts(productIds);
+        List<OrderResponseDTO> result = new ArrayList<>(rows.size());
+        for (OrderSnapshot row : rows) {
+            result.add(orderMapper.toResponseDTO(row));
+        }
+        return result;
     }
 
     @Override
+    @Transactional
     public void deleteOrder(int orderId) {
-        orderRepository.deleteById(orderId);
+        //Xóa mềm: dòng orders + order_details còn lại cho report (event DELETED trừ nhu cầu) tới khi được archive
+        List<Object[]> rows = orderRepository.findDateAndStatusByOrderId(orderId);
+        if (rows.isEmpty()) {
+            return;
+        }
+        LocalDateTime orderDate = (LocalDateTime) rows.get(0)[0];
+        OrderStatus status = (OrderStatus) rows.get(0)[1];
+        //Status đổi giữa 2 câu thì event DELETED sẽ trừ sai status trong report
+        if (orderRepository.softDelete(orderId, status, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Order " + orderId + " was changed concurrently, retry the delete");
+        }
+        orderOutbox.record(orderId, orderDate.toLocalDate(), OrderEventType.DELETED, status, null);
+        orderViewProjection.deleted(List.of(orderId));
+        AfterCommit.run(() -> orderVersions.changed(List.of(orderId)));
+    }
+
+    @Override
+    public OrderViewRebuildResultDTO rebuildOrderView() {
+        return orderViewProjection.rebuild();
+    }
+
+    @Override
+    public OrderArchiveResultDTO archiveOrders() {
+        return orderArchiver.archive();
+    }
+
+    @Override
+    @Transactional
+    public OrderStatusTransitionResultDTO transitionStatus(OrderStatusTransitionRequest request) {
+        OrderStatus from = request.getFrom();
+        OrderStatus to = request.getTo();
+        if (from == null || to == null) {
+            throw new RuntimeException("Both from and to status are required");
+        }
+        if (!from.canTransitionTo(to)) {
+            throw new RuntimeException("Invalid order status transition: " + from + " -> " + to);
+        }
+        boolean byIds = request.getOrderIds() != null && !request.getOrderIds().isEmpty();
+        if (!byIds && request.getPlanId() == null && request.getStoreId() == null
+                && request.getFromDate() == null && request.getToDate() == null) {
+            throw new RuntimeException("Give orderIds or at least one of planId, storeId, fromDate, toDate");
+        }
+        if (byIds && request.getOrderIds().size() > maxTransitionOrders) {
+            throw new RuntimeException("At most " + maxTransitionOrders + " orders can be transitioned by id per call");
+        }
+        long start = System.nanoTime();
+
+        //Khóa các order đang ở status from: không order nào đổi status giữa lúc chọn và lúc UPDATE,
+        //nên tập id chọn được đúng bằng tập bị UPDATE và event outbox ghi đúng cho từng order
+        List<Object[]> locked = orderRepository.lockForTransition(request, maxTransitionOrders + 1);
+        if (locked.size() > maxTransitionOrders) {
+            //Rollback bỏ khóa, không đổi 1 phần của bộ lọc
+            throw new RuntimeException("More than " + maxTransitionOrders + " orders match the filter, narrow it or split by date");
+        }
+        Map<LocalDate, List<Integer>> idsByDay = new TreeMap<>();
+        List<Integer> ids = new ArrayList<>(locked.size());
+        for (Object[] row : locked) {
+            int orderId = (Integer) row[0];
+            ids.add(orderId);
+            idsByDay.computeIfAbsent(((LocalDateTime) row[1]).toLocalDate(), day -> new ArrayList<>()).add(orderId);
+        }
+
+        //UPDATE ... WHERE order_id IN (...) AND status = from, không load-sửa-save từng entity
+        int applied = 0;
+        for (int i = 0; i < ids.size(); i += MAX_IN_LIST) {
+            applied += orderRepository.updateStatusIfCurrent(ids.subList(i, Math.min(i + MAX_IN_LIST, ids.size())), from, to);
+        }
+        //outbox theo từng ngày của order: report và feed của store đi theo event này
+        idsByDay.forEach((day, dayIds) -> orderOutbox.recordAll(dayIds, day, OrderEventType.STATUS_CHANGED, from, to));
+        //order_view trong cùng transaction, cache ETag sau commit (không chờ dispatcher)
+        orderViewProjection.changed(ids);
+        AfterCommit.run(() -> orderVersions.changed(ids));
+
+        long matched;
+        List<Integer> rejectedOrderIds = null;
+        if (byIds) {
+            Set<Integer> rejected = new TreeSet<>(request.getOrderIds());
+            ids.forEach(rejected::remove);
+            rejectedOrderIds = new ArrayList<>(rejected);
+            matched = applied + rejected.size();
+        } else {
+            matched = orderRepository.countInScope(request);
+        }
+        return OrderStatusTransitionResultDTO.builder()
+                .from(from)
+                .to(to)
+                .matched(matched)
+                .applied(applied)
+                .rejected(matched - applied)
+                .rejectedOrderIds(rejectedOrderIds)
+                .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+                .build();
     }
 }
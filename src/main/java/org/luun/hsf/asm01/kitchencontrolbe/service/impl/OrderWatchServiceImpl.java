@@ -0,0 +1,97 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.OrderVersionCache;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderService;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderWatchService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-poll on a single order. A waiting request holds no thread and runs no query: it is a future
+ * parked in {@link OrderVersionCache} until a write to that order commits or the timeout fires.
+ * Only then is the order loaded, on a small pool and once for all requests woken by the same change,
+ * so after-commit callbacks of writers never run a query.
+ */
+@Service
+public class OrderWatchServiceImpl implements IOrderWatchService {
+
+    private final IOrderService orderService;
+    private final OrderVersionCache orderVersions;
+    private final Duration maxTimeout;
+    private final ExecutorService loaders;
+    private final ConcurrentHashMap<Integer, CompletableFuture<OrderResponseDTO>> loading = new ConcurrentHashMap<>();
+
+    public OrderWatchServiceImpl(IOrderService orderService,
+                                 OrderVersionCache orderVersions,
+                                 @Value("${kitchen.orders.watch.max-timeout:PT60S}") Duration maxTimeout,
+                                 @Value("${kitchen.orders.watch.threads:4}") int threads) {
+        this.orderService = orderService;
+        this.orderVersions = orderVersions;
+        this.maxTimeout = maxTimeout;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.loaders = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "order-watch-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<OrderResponseDTO> watchOrder(int orderId, long knownVersion, Duration timeout) {
+        //Đăng ký trước rồi mới đọc version, để thay đổi commit giữa 2 bước vẫn đánh thức được request này
+        CompletableFuture<Boolean> waiter = orderVersions.awaitChange(orderId);
+        Long current;
+        try {
+            current = orderVersions.version(orderId);
+        } catch (RuntimeException e) {
+            orderVersions.cancel(orderId, waiter);
+            throw e;
+        }
+        if (current == null || current != knownVersion) {
+            orderVersions.cancel(orderId, waiter);
+            //Order không tồn tại thì getOrderById ném lỗi not found như GET thường
+            return CompletableFuture.completedFuture(orderService.getOrderById(orderId));
+        }
+
+        long waitMillis = Math.max(1, Math.min(timeout.toMillis(), maxTimeout.toMillis()));
+        //Client ngắt kết nối không hủy được waiter, nó được dọn khi hết timeout
+        return waiter.completeOnTimeout(false, waitMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((changed, error) -> orderVersions.cancel(orderId, waiter))
+                .thenCompose(changed -> changed ? load(orderId) : CompletableFuture.completedFuture(null));
+    }
+
+    //Các request được cùng 1 thay đổi đánh thức dùng chung 1 lần load thay vì mỗi request 1 query
+    private CompletableFuture<OrderResponseDTO> load(int orderId) {
+        CompletableFuture<OrderResponseDTO> fresh = new CompletableFuture<>();
+        CompletableFuture<OrderResponseDTO> running = loading.putIfAbsent(orderId, fresh);
+        if (running != null) {
+            return running;
+        }
+        loaders.execute(() -> {
+            try {
+                OrderResponseDTO order = orderService.getOrderById(orderId);
+                loading.remove(orderId, fresh);
+                fresh.complete(order);
+            } catch (RuntimeException e) {
+                loading.remove(orderId, fresh);
+                fresh.completeExceptionally(e);
+            }
+        });
+        return fresh;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loaders.shutdown();
+    }
+}
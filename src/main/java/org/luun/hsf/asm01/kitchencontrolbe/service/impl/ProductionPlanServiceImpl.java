@@ -0,0 +1,132 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service.impl;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.CatalogCache;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.OrderVersionCache;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.PlanAggregationResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.ProductionPlan;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.User;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.projection.OrderViewProjection;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderDetailRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IProductionPlanService;
+import org.luun.hsf.asm01.kitchencontrolbe.util.AfterCommit;
+import org.luun.hsf.asm01.kitchencontrolbe.util.LongDoubleMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Rolls WAITTING orders into one ProductionPlan per kitchen and day. Orders are attached to
+ * their plan with one set-based UPDATE per day, and product totals are summed by the database
+ * per plan, so memory depends on the number of distinct products, not on order lines.
+ * Planning does not change the order status: a planned order stays WAITTING until its stock is
+ * allocated, which moves it to PROCESSING. An order is planned at most once.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductionPlanServiceImpl implements IProductionPlanService {
+
+    private static final int MAX_WINDOW_DAYS = 31;
+
+    private final OrderRepository orderRepository;
+    private final OrderDetailRepository orderDetailRepository;
+    private final CatalogCache catalogCache;
+    private final OrderViewProjection orderView;
+    private final OrderVersionCache orderVersions;
+    private final EntityManager entityManager;
+
+    @Value("${kitchen.planning.kitchen-id:1}")
+    private int kitchenId;
+
+    @Override
+    @Transactional
+    public PlanAggregationResultDTO aggregateWaitingOrders(LocalDate fromDate, LocalDate toDate, long createdByUserId) {
+        if (!fromDate.isBefore(toDate) || fromDate.plusDays(MAX_WINDOW_DAYS).isBefore(toDate)) {
+            throw new RuntimeException("Planning window must span 1 to " + MAX_WINDOW_DAYS + " days");
+        }
+        long start = System.nanoTime();
+        User createdBy = entityManager.getReference(User.class, createdByUserId);
+
+        List<LocalDate> days = orderRepository.findUnplannedOrderDays(OrderStatus.WAITTING,
+                fromDate.atStartOfDay(), toDate.atStartOfDay());
+        days.sort(Comparator.naturalOrder());
+
+        List<PlanAggregationResultDTO.PlanSummary> plans = new ArrayList<>(days.size());
+        int orderCount = 0;
+        long orderLines = 0;
+        for (LocalDate day : days) {
+            ProductionPlan plan = new ProductionPlan();
+            plan.setKitchenId(kitchenId);
+            plan.setCreatedBy(createdBy);
+            plan.setPlanDate(day);
+            plan.setStartDate(day);
+            plan.setEndDate(day);
+            plan.setStatus("PLANNED");
+            entityManager.persist(plan);
+
+            int assigned = orderRepository.assignPlan(plan, OrderStatus.WAITTING,
+                    day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            if (assigned == 0) {
+                //Các order của ngày này vừa bị xử lý ở nơi khác
+                entityManager.remove(plan);
+                continue;
+            }
+            //Order có plan mới thì version đổi: chép sang order_view, báo cho cache ETag và các client đang long-poll
+            Long planId = plan.getPlanId();
+            orderView.planned(planId);
+            AfterCommit.run(() -> orderVersions.changedByPlan(planId));
+
+            LongDoubleMap totals = new LongDoubleMap();
+            for (Object[] row : orderDetailRepository.sumQuantityByProductForPlan(plan.getPlanId())) {
+                totals.add(((Number) row[0]).longValue(), ((Number) row[1]).doubleValue());
+                orderLines += ((Number) row[2]).longValue();
+            }
+            plan.setNote(assigned + " orders, " + totals.size() + " products");
+            plans.add(PlanAggregationResultDTO.PlanSummary.builder()
+                    .planId(plan.getPlanId())
+                    .kitchenId(kitchenId)
+                    .planDate(day)
+                    .orderCount(assigned)
+                    .products(toProductQuantities(totals))
+                    .build());
+            orderCount += assigned;
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Production plan aggregation {} -> {}: {} plans, {} orders, {} order lines in {} ms",
+                fromDate, toDate, plans.size(), orderCount, orderLines, elapsedMillis);
+        return PlanAggregationResultDTO.builder()
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .orderCount(orderCount)
+                .orderLines(orderLines)
+                .elapsedMillis(elapsedMillis)
+                .plans(plans)
+                .build();
+    }
+
+    private List<PlanAggregationResultDTO.ProductQuantity> toProductQuantities(LongDoubleMap totals) {
+        List<Integer> ids = new ArrayList<>(totals.size());
+        totals.forEach((productId, quantity) -> ids.add((int) productId));
+        catalogCache.preloadProducts(ids);
+
+        List<PlanAggregationResultDTO.ProductQuantity> products = new ArrayList<>(totals.size());
+        totals.forEach((productId, quantity) -> products.add(PlanAggregationResultDTO.ProductQuantity.builder()
+                .productId((int) productId)
+                .productName(catalogCache.productName((int) productId))
+                .quantity(quantity)
+                .build()));
+        products.sort(Comparator.comparingInt(PlanAggregationResultDTO.ProductQuantity::getProductId));
+        return products;
+    }
+}
@@ -0,0 +1,334 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service.impl;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.CatalogCache;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.FeedbackRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.FeedbackResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.RatingStatsDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Order;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.QualityFeedback;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.feedback.RatingCounters;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderDetailRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.QualityFeedbackRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IQualityFeedbackService;
+import org.luun.hsf.asm01.kitchencontrolbe.util.AfterCommit;
+import org.luun.hsf.asm01.kitchencontrolbe.util.IntObjectMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Quality feedback with rating aggregates per store and per product kept in memory, so dashboards
+ * read O(stores) counters instead of scanning quality_feedbacks. A feedback counts for its store and
+ * once for every product of its order. Counters are rebuilt at startup with GROUP BY queries over
+ * the feedbacks older than the settle window; newer feedbacks are loaded one by one and, like the ones
+ * added after their commit, tracked by id until they settle so none is counted twice or skipped
+ * because a lower IDENTITY id committed late.
+ */
+@Slf4j
+@Service
+public class QualityFeedbackServiceImpl implements IQualityFeedbackService {
+
+    private final QualityFeedbackRepository feedbackRepository;
+    private final OrderRepository orderRepository;
+    private final OrderDetailRepository orderDetailRepository;
+    private final CatalogCache catalogCache;
+    private final EntityManager entityManager;
+    private final Duration settle;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    //Chỉ 1 rebuild tại 1 thời điểm, không chặn đọc/ghi counters trong lúc rebuild đọc DB
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    //Các field dưới được bảo vệ bởi lock
+    private IntObjectMap<RatingCounters> byStore = new IntObjectMap<>();
+    private IntObjectMap<RatingCounters> byProduct = new IntObjectMap<>();
+    //Feedback <= settledUpTo đã nằm trong counters theo khoảng id
+    private long settledUpTo;
+    //Feedback > settledUpTo đã nằm trong counters -> createdAt, theo thứ tự được cộng
+    private LinkedHashMap<Long, LocalDateTime> appliedIds = new LinkedHashMap<>();
+    //Khác null trong lúc rebuild đọc DB: commit xảy ra lúc đó được ghi lại để cộng vào counters mới
+    private List<AppliedFeedback> appliedDuringRebuild;
+
+    public QualityFeedbackServiceImpl(QualityFeedbackRepository feedbackRepository,
+                                      OrderRepository orderRepository,
+                                      OrderDetailRepository orderDetailRepository,
+                                      CatalogCache catalogCache,
+                                      EntityManager entityManager,
+                                      @Value("${kitchen.feedback.settle:PT2M}") Duration settle) {
+        this.feedbackRepository = feedbackRepository;
+        this.orderRepository = orderRepository;
+        this.orderDetailRepository = orderDetailRepository;
+        this.catalogCache = catalogCache;
+        this.entityManager = entityManager;
+        this.settle = settle;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    @Override
+    @Transactional
+    public FeedbackResponseDTO createFeedback(FeedbackRequest request) {
+        if (request.getOrderId() == null) {
+            throw new RuntimeException("Order id is required");
+        }
+        if (request.getRating() == null || request.getRating() < 1 || request.getRating() > RatingCounters.MAX_RATING) {
+            throw new RuntimeException("Rating must be between 1 and " + RatingCounters.MAX_RATING);
+        }
+        int orderId = request.getOrderId();
+        int storeId = orderRepository.findStoreIdByOrderId(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
+        //Cột order_id unique vẫn chặn 2 request chạy song song, kiểm tra trước để báo lỗi rõ ràng
+        if (feedbackRepository.existsByOrderOrderId(orderId)) {
+            throw new RuntimeException("Feedback already exists for order " + orderId);
+        }
+
+        QualityFeedback feedback = new QualityFeedback();
+        feedback.setOrder(entityManager.getReference(Order.class, orderId));
+        feedback.setStore(entityManager.getReference(Store.class, storeId));
+        feedback.setRating(request.getRating());
+        feedback.setComment(request.getComment());
+        feedback.setCreatedAt(LocalDateTime.now());
+        feedbackRepository.save(feedback);
+
+        AppliedFeedback applied = new AppliedFeedback(feedback.getFeedbackId(), storeId,
+                orderDetailRepository.findDistinctProductIdsByOrderId(orderId), feedback.getCreatedAt(), feedback.getRating());
+        AfterCommit.run(() -> applyFeedback(applied));
+
+        return FeedbackResponseDTO.builder()
+                .feedbackId(applied.feedbackId())
+                .orderId(orderId)
+                .storeId(storeId)
+                .rating(applied.rating())
+                .comment(feedback.getComment())
+                .createdAt(feedback.getCreatedAt())
+                .build();
+    }
+
+    @Override
+    public List<RatingStatsDTO> getStoreStats(int days) {
+        List<RatingStatsDTO> result = snapshot(true, days);
+        catalogCache.preloadStores(result.stream().map(RatingStatsDTO::getId).toList());
+        for (RatingStatsDTO stats : result) {
+            stats.setName(catalogCache.storeName(stats.getId()));
+        }
+        return result;
+    }
+
+    @Override
+    public RatingStatsDTO getStoreStats(int storeId, int days) {
+        checkDays(days);
+        LocalDate today = LocalDate.now();
+        RatingStatsDTO stats;
+        lock.readLock().lock();
+        try {
+            RatingCounters counters = byStore.get(storeId);
+            stats = toStats(storeId, counters == null ? new RatingCounters() : counters, today, days);
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.setName(catalogCache.storeName(storeId));
+        return stats;
+    }
+
+    @Override
+    public List<RatingStatsDTO> getProductStats(int days) {
+        List<RatingStatsDTO> result = snapshot(false, days);
+        catalogCache.preloadProducts(result.stream().map(RatingStatsDTO::getId).toList());
+        for (RatingStatsDTO stats : result) {
+            stats.setName(catalogCache.productName(stats.getId()));
+        }
+        return result;
+    }
+
+    @Override
+    public void rebuild() {
+        long start = System.nanoTime();
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                appliedDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            //Đọc DB không giữ lock: dashboard và feedback mới vẫn dùng counters cũ
+            Long settled = feedbackRepository.findMaxFeedbackIdCreatedBefore(LocalDateTime.now().minus(settle));
+            long upTo = settled == null ? 0 : settled;
+            LocalDateTime from = LocalDate.now().minusDays(RatingCounters.DAYS - 1).atStartOfDay();
+
+            IntObjectMap<RatingCounters> stores = new IntObjectMap<>();
+            IntObjectMap<RatingCounters> products = new IntObjectMap<>();
+            if (upTo > 0) {
+                for (Object[] row : feedbackRepository.countByStoreAndRating(upTo)) {
+                    counters(stores, row[0]).addTotal(((Number) row[1]).intValue(), ((Number) row[2]).longValue());
+                }
+                for (Object[] row : feedbackRepository.countByStoreDayAndRating(upTo, from)) {
+                    counters(stores, row[0]).addDay((LocalDate) row[1], ((Number) row[2]).intValue(), ((Number) row[3]).longValue());
+                }
+                for (Object[] row : feedbackRepository.countByProductAndRating(upTo)) {
+                    counters(products, row[0]).addTotal(((Number) row[1]).intValue(), ((Number) row[2]).longValue());
+                }
+                for (Object[] row : feedbackRepository.countByProductDayAndRating(upTo, from)) {
+                    counters(products, row[0]).addDay((LocalDate) row[1], ((Number) row[2]).intValue(), ((Number) row[3]).longValue());
+                }
+            }
+            //Feedback mới hơn settle được đọc từng cái kèm id
+            Map<Long, List<Integer>> productIds = new HashMap<>();
+            for (Object[] row : feedbackRepository.findProductIdsAfter(upTo)) {
+                productIds.computeIfAbsent(((Number) row[0]).longValue(), id -> new ArrayList<>()).add(((Number) row[1]).intValue());
+            }
+            LinkedHashMap<Long, LocalDateTime> applied = new LinkedHashMap<>();
+            for (Object[] row : feedbackRepository.findRatingsAfter(upTo)) {
+                long feedbackId = ((Number) row[0]).longValue();
+                LocalDateTime createdAt = (LocalDateTime) row[2];
+                add(stores, products, ((Number) row[1]).intValue(), productIds.getOrDefault(feedbackId, List.of()),
+                        createdAt.toLocalDate(), ((Number) row[3]).intValue());
+                applied.put(feedbackId, createdAt);
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (AppliedFeedback feedback : appliedDuringRebuild) {
+                    if (feedback.feedbackId() > upTo && applied.putIfAbsent(feedback.feedbackId(), feedback.createdAt()) == null) {
+                        add(stores, products, feedback.storeId(), feedback.productIds(), feedback.createdAt().toLocalDate(), feedback.rating());
+                    }
+                }
+                appliedDuringRebuild = null;
+                byStore = stores;
+                byProduct = products;
+                settledUpTo = upTo;
+                appliedIds = applied;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Feedback aggregates loaded up to feedback {} and {} recent feedbacks: {} stores, {} products in {} ms",
+                    upTo, applied.size(), stores.size(), products.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                appliedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuildLock.unlock();
+        }
+    }
+
+    //Gọi sau khi feedback đã commit
+    private void applyFeedback(AppliedFeedback feedback) {
+        lock.writeLock().lock();
+        try {
+            if (appliedDuringRebuild != null) {
+                appliedDuringRebuild.add(feedback);
+            }
+            //Feedback đã được tính khi load thì bỏ qua
+            if (feedback.feedbackId() > settledUpTo && appliedIds.putIfAbsent(feedback.feedbackId(), feedback.createdAt()) == null) {
+                add(byStore, byProduct, feedback.storeId(), feedback.productIds(), feedback.createdAt().toLocalDate(), feedback.rating());
+            }
+            forgetSettled();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //Feedback cũ hơn settle không còn cần giữ id, phải gọi trong write lock
+    private void forgetSettled() {
+        LocalDateTime before = LocalDateTime.now().minus(settle);
+        Iterator<Map.Entry<Long, LocalDateTime>> it = appliedIds.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, LocalDateTime> oldest = it.next();
+            if (!oldest.getValue().isBefore(before)) {
+                break;
+            }
+            settledUpTo = Math.max(settledUpTo, oldest.getKey());
+            it.remove();
+        }
+    }
+
+    private static void add(IntObjectMap<RatingCounters> stores, IntObjectMap<RatingCounters> products,
+                            int storeId, List<Integer> productIds, LocalDate day, int rating) {
+        RatingCounters store = counters(stores, storeId);
+        store.addTotal(rating, 1);
+        store.addDay(day, rating, 1);
+        for (Integer productId : productIds) {
+            RatingCounters product = counters(products, productId);
+            product.addTotal(rating, 1);
+            product.addDay(day, rating, 1);
+        }
+    }
+
+    //Map bị thay cả khi rebuild nên phải chọn bên trong read lock
+    private List<RatingStatsDTO> snapshot(boolean stores, int days) {
+        checkDays(days);
+        LocalDate today = LocalDate.now();
+        List<RatingStatsDTO> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            (stores ? byStore : byProduct).forEach((id, counters) -> result.add(toStats(id, counters, today, days)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparingInt(RatingStatsDTO::getId));
+        return result;
+    }
+
+    private static RatingStatsDTO toStats(int id, RatingCounters counters, LocalDate today, int days) {
+        long[] histogram = new long[RatingCounters.MAX_RATING];
+        counters.addTo(histogram, today, days);
+        long count = 0;
+        long sum = 0;
+        for (int r = 0; r < histogram.length; r++) {
+            count += histogram[r];
+            sum += histogram[r] * (r + 1);
+        }
+        return RatingStatsDTO.builder()
+                .id(id)
+                .days(days)
+                .count(count)
+                .sum(sum)
+                .average(count == 0 ? 0 : (double) sum / count)
+                .histogram(histogram)
+                .build();
+    }
+
+    private static RatingCounters counters(IntObjectMap<RatingCounters> map, Object id) {
+        int key = ((Number) id).intValue();
+        RatingCounters counters = map.get(key);
+        if (counters == null) {
+            counters = new RatingCounters();
+            map.put(key, counters);
+        }
+        return counters;
+    }
+
+    private static void checkDays(int days) {
+        if (days < 0 || days > RatingCounters.DAYS) {
+            throw new RuntimeException("days must be between 0 (all time) and " + RatingCounters.DAYS);
+        }
+    }
+
+    private record AppliedFeedback(long feedbackId, int storeId, List<Integer> productIds, LocalDateTime createdAt, int rating) {
+    }
+}
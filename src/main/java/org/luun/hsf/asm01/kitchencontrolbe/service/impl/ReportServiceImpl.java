@@ -0,0 +1,346 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.ReportRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.AggregateRebuildResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ReportResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Report;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.ReportFileChunk;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.User;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ReportStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ReportType;
+import org.luun.hsf.asm01.kitchencontrolbe.report.ReportAggregator;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.DailyOrderStatusRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.DailyProductDemandRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.DailyProductionDemandRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.ReportFileChunkRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.ReportRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IReportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Generates report files from the pre-aggregated daily_* tables. A request only inserts the Report row;
+ * a small worker pool streams the aggregate rows into a CSV file under kitchen.reports.dir, so neither the
+ * request nor the file size depends on how many orders the range covers. The finished file is also copied
+ * into report_file_chunks, so any instance can serve the download; kitchen.reports.dir is only a local copy.
+ */
+@Slf4j
+@Service
+public class ReportServiceImpl implements IReportService {
+
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final Set<ReportStatus> UNFINISHED = EnumSet.of(ReportStatus.PENDING, ReportStatus.RUNNING);
+    private static final int CHUNK_BYTES = 1 << 20;
+
+    private final ReportRepository reportRepository;
+    private final ReportFileChunkRepository chunkRepository;
+    private final DailyProductDemandRepository productDemandRepository;
+    private final DailyOrderStatusRepository orderStatusRepository;
+    private final DailyProductionDemandRepository productionDemandRepository;
+    private final ReportAggregator reportAggregator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Path reportDir;
+    private final ExecutorService workers;
+    //Mỗi lần chạy 1 id mới: report của lần chạy trước chỉ được đánh FAILED khi heartbeat của nó đã quá hạn
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Duration heartbeatTimeout;
+
+    public ReportServiceImpl(ReportRepository reportRepository,
+                             ReportFileChunkRepository chunkRepository,
+                             DailyProductDemandRepository productDemandRepository,
+                             DailyOrderStatusRepository orderStatusRepository,
+                             DailyProductionDemandRepository productionDemandRepository,
+                             ReportAggregator reportAggregator,
+                             EntityManager entityManager,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${kitchen.reports.dir:${java.io.tmpdir}/kitchen-reports}") Path reportDir,
+                             @Value("${kitchen.reports.workers:2}") int workerCount,
+                             @Value("${kitchen.reports.heartbeat-timeout:PT5M}") Duration heartbeatTimeout) {
+        this.reportRepository = reportRepository;
+        this.chunkRepository = chunkRepository;
+        this.productDemandRepository = productDemandRepository;
+        this.orderStatusRepository = orderStatusRepository;
+        this.productionDemandRepository = productionDemandRepository;
+        this.reportAggregator = reportAggregator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.reportDir = reportDir;
+        this.heartbeatTimeout = heartbeatTimeout;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "report-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    //Các instance khác có thể vẫn đang chạy report của mình nên chỉ đánh FAILED report đã mất heartbeat
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedReports() {
+        failStaleReports();
+    }
+
+    @Override
+    public void heartbeatReports() {
+        transactionTemplate.executeWithoutResult(status ->
+                reportRepository.heartbeat(instanceId, UNFINISHED, LocalDateTime.now()));
+    }
+
+    @Override
+    public int failStaleReports() {
+        LocalDateTime now = LocalDateTime.now();
+        int failed = transactionTemplate.execute(status -> reportRepository.failStale(UNFINISHED,
+                now.minus(heartbeatTimeout), ReportStatus.FAILED, "Interrupted: no heartbeat from its instance", now));
+        if (failed > 0) {
+            log.warn("Marked {} unfinished reports without heartbeat as FAILED", failed);
+        }
+        return failed;
+    }
+
+    @Override
+    public ReportResponseDTO requestReport(ReportRequest request) {
+        if (request.getReportType() == null || request.getUserId() == null) {
+            throw new RuntimeException("reportType and userId are required");
+        }
+        validateRange(request.getFromDate(), request.getToDate());
+        if (request.getStoreId() != null && request.getReportType() != ReportType.PRODUCT_DEMAND) {
+            throw new RuntimeException("storeId can only be used with PRODUCT_DEMAND reports");
+        }
+
+        Report saved = transactionTemplate.execute(status -> {
+            Report report = new Report();
+            report.setReportType(request.getReportType());
+            report.setUser(entityManager.getReference(User.class, request.getUserId()));
+            report.setCreatedDate(LocalDateTime.now());
+            report.setStatus(ReportStatus.PENDING);
+            report.setFromDate(request.getFromDate());
+            report.setToDate(request.getToDate());
+            report.setStoreId(request.getStoreId());
+            report.setOwner(instanceId);
+            report.setHeartbeatAt(report.getCreatedDate());
+            return reportRepository.save(report);
+        });
+        long reportId = saved.getReportId();
+        workers.submit(() -> generate(reportId));
+        return toDTO(saved, request.getUserId());
+    }
+
+    private void generate(long reportId) {
+        Report report = transactionTemplate.execute(status -> {
+            Report r = reportRepository.findById(reportId).orElseThrow();
+            r.setStatus(ReportStatus.RUNNING);
+            return r;
+        });
+        Path file = reportDir.resolve("report-" + reportId + ".csv");
+        Path partial = reportDir.resolve("report-" + reportId + ".csv.part");
+        try {
+            Files.createDirectories(reportDir);
+            long rows;
+            try (BufferedWriter writer = Files.newBufferedWriter(partial, StandardCharsets.UTF_8)) {
+                rows = transactionTemplate.execute(status -> writeRows(report, writer));
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long size = Files.size(file);
+            transactionTemplate.executeWithoutResult(status -> {
+                storeChunks(reportId, file);
+                Report r = reportRepository.findById(reportId).orElseThrow();
+                r.setStatus(ReportStatus.DONE);
+                r.setFileName(file.getFileName().toString());
+                r.setRowCount(rows);
+                r.setFileSize(size);
+                r.setCompletedDate(LocalDateTime.now());
+            });
+            log.info("Report {} ({}) written: {} rows, {} bytes", reportId, report.getReportType(), rows, size);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Report {} failed: {}", reportId, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> {
+                Report r = reportRepository.findById(reportId).orElseThrow();
+                r.setStatus(ReportStatus.FAILED);
+                r.setError(truncate(e.getMessage()));
+                r.setCompletedDate(LocalDateTime.now());
+            });
+        }
+    }
+
+    //Chép file vào report_file_chunks cùng transaction đánh DONE: report DONE luôn có đủ các khúc
+    private void storeChunks(long reportId, Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            int index = 0;
+            byte[] data;
+            while ((data = in.readNBytes(CHUNK_BYTES)).length > 0) {
+                ReportFileChunk chunk = new ReportFileChunk();
+                chunk.setReportId(reportId);
+                chunk.setChunkIndex(index++);
+                chunk.setData(data);
+                entityManager.persist(chunk);
+                entityManager.flush();
+                entityManager.detach(chunk);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //Chạy trong transaction để Stream giữ cursor mở tới khi ghi xong
+    private long writeRows(Report report, BufferedWriter writer) {
+        LocalDate from = report.getFromDate();
+        LocalDate to = report.getToDate();
+        try {
+            return switch (report.getReportType()) {
+                case PRODUCT_DEMAND -> writeCsv(writer, "date,store_id,product_id,quantity,order_lines",
+                        productDemandRepository.streamRange(from, to, report.getStoreId()));
+                case ORDER_STATUS -> writeCsv(writer, "date,status,order_count",
+                        orderStatusRepository.streamRange(from, to));
+                case PRODUCTION_VS_DEMAND -> writeCsv(writer, "date,product_id,demand,produced",
+                        productionDemandRepository.streamRange(from, to));
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long writeCsv(BufferedWriter writer, String header, Stream<Object[]> rows) throws IOException {
+        writer.write(header);
+        writer.newLine();
+        long count = 0;
+        try (rows) {
+            Iterator<Object[]> it = rows.iterator();
+            while (it.hasNext()) {
+                Object[] row = it.next();
+                //Các cột đều là ngày, số hoặc enum nên không cần escape
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(String.valueOf(row[i]));
+                }
+                writer.newLine();
+                count++;
+                if (count % 1000 == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public ReportResponseDTO getReport(long reportId) {
+        return transactionTemplate.execute(status -> {
+            Report report = reportRepository.findById(reportId)
+                    .orElseThrow(() -> new RuntimeException("Report not found with id: " + reportId));
+            return toDTO(report, report.getUser().getUserId());
+        });
+    }
+
+    @Override
+    public Path getReportFile(long reportId) {
+        Report report = reportRepository.findById(reportId)
+                .orElseThrow(() -> new RuntimeException("Report not found with id: " + reportId));
+        if (report.getStatus() != ReportStatus.DONE) {
+            throw new RuntimeException("Report " + reportId + " is " + report.getStatus());
+        }
+        Path file = reportDir.resolve(report.getFileName());
+        if (!Files.exists(file)) {
+            //File được ghi ở instance khác hoặc bản trên đĩa đã bị xóa: chép lại từ database
+            restoreFile(reportId, file);
+        }
+        return file;
+    }
+
+    private void restoreFile(long reportId, Path file) {
+        try {
+            Files.createDirectories(reportDir);
+            //Tên tạm riêng cho mỗi lần chép để 2 request tải cùng lúc không ghi chung 1 file
+            Path partial = Files.createTempFile(reportDir, "report-" + reportId + "-", ".part");
+            try {
+                int chunks = 0;
+                try (OutputStream out = Files.newOutputStream(partial)) {
+                    Optional<byte[]> data;
+                    while ((data = chunkRepository.findData(reportId, chunks)).isPresent()) {
+                        out.write(data.get());
+                        chunks++;
+                    }
+                }
+                if (chunks == 0) {
+                    throw new RuntimeException("File of report " + reportId + " no longer exists");
+                }
+                Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public AggregateRebuildResultDTO rebuildAggregates(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return reportAggregator.rebuild(from, to);
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || !from.isBefore(to) || from.plusDays(MAX_RANGE_DAYS).isBefore(to)) {
+            throw new RuntimeException("Report range must span 1 to " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+
+    private static ReportResponseDTO toDTO(Report report, Long userId) {
+        return ReportResponseDTO.builder()
+                .reportId(report.getReportId())
+                .reportType(report.getReportType())
+                .status(report.getStatus())
+                .fromDate(report.getFromDate())
+                .toDate(report.getToDate())
+                .storeId(report.getStoreId())
+                .userId(userId)
+                .createdDate(report.getCreatedDate())
+                .completedDate(report.getCompletedDate())
+                .rowCount(report.getRowCount())
+                .fileSize(report.getFileSize())
+                .error(report.getError())
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+}
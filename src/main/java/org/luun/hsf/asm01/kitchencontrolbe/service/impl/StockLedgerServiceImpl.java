@@ -0,0 +1,329 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service.impl;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.CatalogCache;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.StockBalanceDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.StockConsistencyDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.StockSnapshotResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.StockSnapshot;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.TransactionType;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.InventoryTransactionRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.StockSnapshotRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IStockLedgerService;
+import org.luun.hsf.asm01.kitchencontrolbe.util.LongDoubleMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//Số dư tồn kho theo product trong bộ nhớ: load từ snapshot mới nhất + ledger sau đó, StockLedgerListener cộng tiếp sau mỗi commit
+//Id IDENTITY có thể commit lệch thứ tự: transaction cũ hơn snapshot-settle tính theo khoảng id, transaction mới hơn theo từng id
+@Slf4j
+@Service
+public class StockLedgerServiceImpl implements IStockLedgerService {
+
+    private static final double TOLERANCE = 1e-3;
+
+    private final InventoryTransactionRepository transactionRepository;
+    private final StockSnapshotRepository snapshotRepository;
+    private final CatalogCache catalogCache;
+    private final EntityManager entityManager;
+    private final Duration snapshotSettle;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    //Chỉ 1 rebuild tại 1 thời điểm, không chặn đọc/ghi số dư trong lúc rebuild đọc DB
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    //Các field dưới được bảo vệ bởi lock
+    private LongDoubleMap balances = new LongDoubleMap();
+    //Transaction <= settledUpTo đã cũ hơn snapshot-settle và đã nằm trong balances theo khoảng id
+    private long settledUpTo;
+    //Transaction > settledUpTo đã nằm trong balances, để không cộng 2 lần
+    private Set<Long> appliedIds = new HashSet<>();
+    //Khác null trong lúc rebuild đọc DB: commit xảy ra lúc đó được ghi lại để cộng vào balances mới
+    private List<AppliedTransaction> appliedDuringRebuild;
+
+    public StockLedgerServiceImpl(InventoryTransactionRepository transactionRepository,
+                                  StockSnapshotRepository snapshotRepository,
+                                  CatalogCache catalogCache,
+                                  EntityManager entityManager,
+                                  @Value("${kitchen.stock.snapshot-settle:PT2M}") Duration snapshotSettle) {
+        this.transactionRepository = transactionRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.catalogCache = catalogCache;
+        this.entityManager = entityManager;
+        this.snapshotSettle = snapshotSettle;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    @Override
+    public double getStock(long productId) {
+        lock.readLock().lock();
+        try {
+            return balances.get(productId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<StockBalanceDTO> getAllStock() {
+        List<StockBalanceDTO> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            balances.forEach((productId, quantity) -> result.add(StockBalanceDTO.builder()
+                    .productId(productId)
+                    .quantity(quantity)
+                    .build()));
+        } finally {
+            lock.readLock().unlock();
+        }
+        catalogCache.preloadProducts(result.stream().map(b -> (int) b.getProductId()).toList());
+        for (StockBalanceDTO balance : result) {
+            balance.setProductName(catalogCache.productName((int) balance.getProductId()));
+        }
+        result.sort(Comparator.comparingLong(StockBalanceDTO::getProductId));
+        return result;
+    }
+
+    @Override
+    public void applyTransaction(long transactionId, long productId, double delta) {
+        apply(transactionId, productId, delta);
+    }
+
+    //Listener chỉ báo commit của instance này: đọc lại các transaction sau settledUpTo, id nào chưa cộng thì cộng
+    @Override
+    public int catchUp() {
+        long after;
+        lock.readLock().lock();
+        try {
+            after = settledUpTo;
+        } finally {
+            lock.readLock().unlock();
+        }
+        int applied = 0;
+        for (Object[] row : transactionRepository.findNetQuantitiesAfter(after, TransactionType.IMPORT)) {
+            if (apply(((Number) row[0]).longValue(), ((Number) row[1]).longValue(), toDouble(row[2]))) {
+                applied++;
+            }
+        }
+        if (applied > 0) {
+            log.info("Stock ledger caught up {} transactions committed outside this instance", applied);
+        }
+        return applied;
+    }
+
+    private boolean apply(long transactionId, long productId, double delta) {
+        lock.writeLock().lock();
+        try {
+            if (appliedDuringRebuild != null) {
+                appliedDuringRebuild.add(new AppliedTransaction(transactionId, productId, delta));
+            }
+            //Transaction đã được tính khi load thì bỏ qua
+            if (transactionId > settledUpTo && appliedIds.add(transactionId)) {
+                balances.add(productId, delta);
+                return true;
+            }
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        long start = System.nanoTime();
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                appliedDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            //Đọc DB không giữ lock: đọc/ghi số dư vẫn chạy trên balances cũ
+            Long snapshotUpTo = snapshotRepository.findLatestTransactionId();
+            long from = snapshotUpTo == null ? 0 : snapshotUpTo;
+            LongDoubleMap loaded = new LongDoubleMap();
+            if (snapshotUpTo != null) {
+                for (Object[] row : snapshotRepository.findBalances(snapshotUpTo)) {
+                    loaded.put(((Number) row[0]).longValue(), ((Number) row[1]).doubleValue());
+                }
+            }
+            //Transaction cũ hơn settle được cộng theo khoảng id, các transaction mới hơn đọc từng dòng kèm id
+            Long settled = transactionRepository.findMaxTransactionIdCreatedBefore(LocalDateTime.now().minus(snapshotSettle));
+            long upTo = settled == null ? from : Math.max(from, settled);
+            int replayedProducts = 0;
+            if (upTo > from) {
+                List<Object[]> rows = transactionRepository.sumNetQuantityByProduct(from, upTo, TransactionType.IMPORT);
+                for (Object[] row : rows) {
+                    loaded.add(((Number) row[0]).longValue(), toDouble(row[1]));
+                }
+                replayedProducts = rows.size();
+            }
+            Set<Long> applied = new HashSet<>();
+            for (Object[] row : transactionRepository.findNetQuantitiesAfter(upTo, TransactionType.IMPORT)) {
+                applied.add(((Number) row[0]).longValue());
+                loaded.add(((Number) row[1]).longValue(), toDouble(row[2]));
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (AppliedTransaction transaction : appliedDuringRebuild) {
+                    if (transaction.transactionId() > upTo && applied.add(transaction.transactionId())) {
+                        loaded.add(transaction.productId(), transaction.delta());
+                    }
+                }
+                appliedDuringRebuild = null;
+                balances = loaded;
+                settledUpTo = upTo;
+                appliedIds = applied;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Stock ledger loaded: snapshot up to transaction {}, replayed ({}, {}] for {} products and {} recent transactions, {} balances in {} ms",
+                    from, from, upTo, replayedProducts, applied.size(), loaded.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                appliedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuildLock.unlock();
+        }
+    }
+
+    @Override
+    @Transactional
+    public StockSnapshotResultDTO takeSnapshot() {
+        long start = System.nanoTime();
+        Long previous = snapshotRepository.findLatestTransactionId();
+        long from = previous == null ? 0 : previous;
+        //Chỉ lấy transaction đủ cũ để các transaction đang chạy (id nhỏ hơn nhưng chưa commit) không bị bỏ sót
+        Long upTo = transactionRepository.findMaxTransactionIdCreatedBefore(LocalDateTime.now().minus(snapshotSettle));
+        if (upTo == null || upTo <= from) {
+            return StockSnapshotResultDTO.builder()
+                    .created(false)
+                    .lastTransactionId(from)
+                    .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+                    .build();
+        }
+
+        LongDoubleMap totals = new LongDoubleMap();
+        if (previous != null) {
+            for (Object[] row : snapshotRepository.findBalances(previous)) {
+                totals.put(((Number) row[0]).longValue(), ((Number) row[1]).doubleValue());
+            }
+        }
+        for (Object[] row : transactionRepository.sumNetQuantityByProduct(from, upTo, TransactionType.IMPORT)) {
+            totals.add(((Number) row[0]).longValue(), toDouble(row[1]));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        long lastTransactionId = upTo;
+        totals.forEach((productId, quantity) -> {
+            StockSnapshot snapshot = new StockSnapshot();
+            snapshot.setProductId(productId);
+            snapshot.setQuantity(quantity);
+            snapshot.setLastTransactionId(lastTransactionId);
+            snapshot.setCreatedAt(now);
+            entityManager.persist(snapshot);
+        });
+        entityManager.flush();
+        //Giữ lại snapshot trước đó phòng khi snapshot mới có vấn đề
+        int deleted = snapshotRepository.deleteOlderThan(from);
+
+        //Cộng nốt transaction <= upTo của instance khác trước khi thôi theo dõi chúng theo id
+        catchUp();
+        forgetSettled(upTo);
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Stock snapshot up to transaction {}: {} products, {} old rows removed in {} ms",
+                upTo, totals.size(), deleted, elapsedMillis);
+        return StockSnapshotResultDTO.builder()
+                .created(true)
+                .lastTransactionId(upTo)
+                .productCount(totals.size())
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    //Transaction <= upTo đã cũ hơn settle, không còn cần giữ id để chống cộng 2 lần
+    private void forgetSettled(long upTo) {
+        lock.writeLock().lock();
+        try {
+            if (upTo > settledUpTo) {
+                settledUpTo = upTo;
+                appliedIds.removeIf(id -> id <= upTo);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public StockConsistencyDTO checkConsistency() {
+        long start = System.nanoTime();
+        List<StockConsistencyDTO.Mismatch> mismatches = new ArrayList<>();
+        int[] checked = new int[1];
+        //Giữ read lock để không có commit nào được cộng vào giữa lúc đọc ledger và lúc so sánh
+        lock.readLock().lock();
+        try {
+            LongDoubleMap ledger = new LongDoubleMap();
+            for (Object[] row : transactionRepository.sumNetQuantityByProduct(0, Long.MAX_VALUE, TransactionType.IMPORT)) {
+                ledger.put(((Number) row[0]).longValue(), toDouble(row[1]));
+            }
+            ledger.forEach((productId, expected) -> {
+                checked[0]++;
+                double actual = balances.get(productId);
+                if (Math.abs(actual - expected) > TOLERANCE) {
+                    mismatches.add(new StockConsistencyDTO.Mismatch(productId, actual, expected));
+                }
+            });
+            balances.forEach((productId, actual) -> {
+                if (!ledger.containsKey(productId)) {
+                    checked[0]++;
+                    if (Math.abs(actual) > TOLERANCE) {
+                        mismatches.add(new StockConsistencyDTO.Mismatch(productId, actual, 0d));
+                    }
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        mismatches.sort(Comparator.comparingLong(StockConsistencyDTO.Mismatch::getProductId));
+        if (!mismatches.isEmpty()) {
+            log.warn("Stock ledger mismatch for {} of {} products", mismatches.size(), checked[0]);
+        }
+        return StockConsistencyDTO.builder()
+                .consistent(mismatches.isEmpty())
+                .checkedProducts(checked[0])
+                .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+                .mismatches(mismatches)
+                .build();
+    }
+
+    private static double toDouble(Object value) {
+        return value == null ? 0d : ((Number) value).doubleValue();
+    }
+
+    private record AppliedTransaction(long transactionId, long productId, double delta) {
+    }
+}
@@ -0,0 +1,52 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service.impl;
+
+import org.luun.hsf.asm01.kitchencontrolbe.feed.SseStoreEventSink;
+import org.luun.hsf.asm01.kitchencontrolbe.feed.StoreEventHub;
+import org.luun.hsf.asm01.kitchencontrolbe.feed.StoreSubscription;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.StoreRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IStoreEventService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+@Service
+public class StoreEventServiceImpl implements IStoreEventService {
+
+    private final StoreEventHub storeEvents;
+    private final StoreRepository storeRepository;
+    private final Duration streamTimeout;
+    private final Duration reconnectDelay;
+
+    public StoreEventServiceImpl(StoreEventHub storeEvents,
+                                 StoreRepository storeRepository,
+                                 @Value("${kitchen.store-events.stream-timeout:PT30M}") Duration streamTimeout,
+                                 @Value("${kitchen.store-events.reconnect-delay:PT3S}") Duration reconnectDelay) {
+        this.storeEvents = storeEvents;
+        this.storeRepository = storeRepository;
+        this.streamTimeout = streamTimeout;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public SseEmitter subscribe(int storeId, Long lastEventId) {
+        if (!storeRepository.existsById(storeId)) {
+            throw new RuntimeException("Store not found with id: " + storeId);
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        try {
+            //Gửi ngay để client nhận header và biết thời gian chờ trước khi tự kết nối lại
+            emitter.send(SseEmitter.event().reconnectTime(reconnectDelay.toMillis()).comment("store " + storeId));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not open event stream: " + e.getMessage());
+        }
+        StoreSubscription subscription = storeEvents.subscribe(storeId, new SseStoreEventSink(emitter), lastEventId);
+        //Hết timeout thì đóng stream bình thường, EventSource của client sẽ tự kết nối lại
+        emitter.onTimeout(emitter::complete);
+        emitter.onCompletion(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+}
@@ -0,0 +1,43 @@
+package org.luun.hsf.asm01.kitchencontrolbe.util;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Số lock cố định theo hash của key: key nóng chỉ tranh chấp với key cùng stripe
+//ReentrantLock thay vì synchronized để virtual thread đang chờ không giữ carrier thread
+public final class StripedLocks {
+
+    private final ReentrantLock[] locks;
+
+    public StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    //Khóa theo thứ tự stripe tăng dần nên 2 caller có tập key giao nhau không deadlock, trả lock bằng unlockAll
+    public int[] lockAll(long... keys) {
+        int[] stripes = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            stripes[i] = stripe(keys[i]);
+        }
+        int[] ordered = Arrays.stream(stripes).sorted().distinct().toArray();
+        for (int stripe : ordered) {
+            locks[stripe].lock();
+        }
+        return ordered;
+    }
+
+    public void unlockAll(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+
+    private int stripe(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (locks.length - 1);
+    }
+}
@@ -0,0 +1,90 @@
+package org.luun.hsf.asm01.kitchencontrolbe.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ImportJobDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.ImportKind;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.ImportStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IImportService;
+import org.luun.hsf.asm01.kitchencontrolbe.support.TestData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rows/sec of the CSV import pipeline for each file kind, measured by the job itself.
+ * Run with: mvn test -Dbenchmark=true -Dtest=CatalogImportBenchmarkTests
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CatalogImportBenchmarkTests {
+
+    private static final int RAW_MATERIALS = 2_000;
+    private static final int FINISHED_PRODUCTS = 20_000;
+    private static final int INGREDIENTS_PER_RECIPE = 6;
+    private static final int STOCK_RECEIPTS = 100_000;
+
+    @Autowired
+    private IImportService importService;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void measureImportThroughput() throws Exception {
+        String prefix = UUID.randomUUID().toString().substring(0, 8) + "-";
+        Random random = new Random(42);
+        long userId = testData.createUser("KITCHEN");
+
+        StringBuilder products = new StringBuilder("product_name,product_type,unit,shelf_life_days\n");
+        for (int i = 0; i < RAW_MATERIALS; i++) {
+            products.append(prefix).append("raw-").append(i).append(",RAW_MATERIAL,kg,").append(30 + random.nextInt(300)).append('\n');
+        }
+        for (int i = 0; i < FINISHED_PRODUCTS; i++) {
+            products.append(prefix).append("dish-").append(i).append(",FINISHED_PRODUCT,portion,").append(1 + random.nextInt(5)).append('\n');
+        }
+        report("products", runImport(ImportKind.PRODUCTS, products, null));
+
+        StringBuilder recipes = new StringBuilder("product_name,recipe_name,yield_quantity,description,raw_material_name,quantity\n");
+        for (int i = 0; i < FINISHED_PRODUCTS; i++) {
+            for (int d = 0; d < INGREDIENTS_PER_RECIPE; d++) {
+                recipes.append(prefix).append("dish-").append(i).append(",Standard,10,\"Serves 10, default\",")
+                        .append(prefix).append("raw-").append(random.nextInt(RAW_MATERIALS)).append(',')
+                        .append(1 + random.nextInt(50) / 10.0).append('\n');
+            }
+        }
+        report("recipe lines", runImport(ImportKind.RECIPES, recipes, null));
+
+        LocalDate today = LocalDate.now();
+        StringBuilder receipts = new StringBuilder("product_name,quantity,production_date,expiry_date\n");
+        for (int i = 0; i < STOCK_RECEIPTS; i++) {
+            receipts.append(prefix).append("raw-").append(random.nextInt(RAW_MATERIALS)).append(',')
+                    .append(1 + random.nextInt(500)).append(',').append(today.minusDays(random.nextInt(10))).append(",\n");
+        }
+        report("stock receipts", runImport(ImportKind.STOCK_RECEIPTS, receipts, userId));
+    }
+
+    private ImportJobDTO runImport(ImportKind kind, CharSequence csv, Long userId) throws InterruptedException {
+        ImportJobDTO job = importService.startImport(kind, kind + ".csv",
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), userId);
+        while (job.getStatus() != ImportStatus.DONE && job.getStatus() != ImportStatus.FAILED) {
+            Thread.sleep(200);
+            job = importService.getJob(job.getJobId());
+        }
+        return job;
+    }
+
+    private static void report(String name, ImportJobDTO job) {
+        System.out.printf("%s: %d rows (%d rejected), %.0f rows/s%n",
+                name, job.getRowsImported(), job.getRowsRejected(), job.getRowsPerSecond());
+        assertEquals(ImportStatus.DONE, job.getStatus(), job.getError());
+        assertEquals(0, job.getRowsRejected());
+    }
+}
@@ -0,0 +1,79 @@
+package org.luun.hsf.asm01.kitchencontrolbe.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.DeliveryPlanRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.DeliveryPlanResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IDeliveryService;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderService;
+import org.luun.hsf.asm01.kitchencontrolbe.support.TestData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Assigns tens of thousands of DONE orders to deliveries in one planning run.
+ * Run with: mvn test -Dbenchmark=true -Dtest=DeliveryPlanningBenchmarkTests
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DeliveryPlanningBenchmarkTests {
+
+    private static final int ORDERS = 30_000;
+    private static final int STORES = 120;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private IDeliveryService deliveryService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void planTensOfThousandsOfOrders() {
+        Random random = new Random(7);
+        List<OrderRequestDTO> requests = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            requests.add(new OrderRequestDTO(1 + random.nextInt(STORES),
+                    List.of(new OrderRequestDTO.OrderDetailRequest(1 + random.nextInt(50), 2f))));
+        }
+        for (int from = 0; from < ORDERS; from += 5_000) {
+            orderService.createOrders(requests.subList(from, from + 5_000));
+        }
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("update Order o set o.status = :done")
+                .setParameter("done", OrderStatus.DONE)
+                .executeUpdate());
+
+        List<DeliveryPlanRequest.ShipperCapacity> shippers = new ArrayList<>();
+        for (int s = 0; s < 10; s++) {
+            shippers.add(new DeliveryPlanRequest.ShipperCapacity(testData.createUser("SHIPPER"), 40));
+        }
+
+        long start = System.nanoTime();
+        DeliveryPlanResultDTO result = deliveryService.planDeliveries(new DeliveryPlanRequest(LocalDate.now(), shippers));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("planned %d orders into %d deliveries in %d ms (%.0f orders/s)%n",
+                result.getOrderCount(), result.getDeliveryCount(), elapsedMillis, result.getOrderCount() * 1000.0 / elapsedMillis);
+        assertEquals(ORDERS, result.getOrderCount());
+    }
+}
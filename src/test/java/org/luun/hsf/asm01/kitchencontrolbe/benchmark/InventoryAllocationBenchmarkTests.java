@@ -0,0 +1,92 @@
+package org.luun.hsf.asm01.kitchencontrolbe.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IInventoryAllocationService;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderService;
+import org.luun.hsf.asm01.kitchencontrolbe.support.TestData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Allocation throughput with one thread versus one thread per product: products sit on different
+ * lock stripes, so allocations for different products should not wait on each other.
+ * Run with: mvn test -Dbenchmark=true -Dtest=InventoryAllocationBenchmarkTests
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InventoryAllocationBenchmarkTests {
+
+    private static final int PRODUCTS = 8;
+    private static final int ORDERS_PER_PRODUCT = 250;
+
+    @Autowired
+    private IInventoryAllocationService allocationService;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void throughputAcrossProductsScalesWithThreads() throws Exception {
+        long userId = testData.createUser("KITCHEN");
+        List<Integer> serial = new ArrayList<>();
+        List<Integer> parallel = new ArrayList<>();
+        for (int p = 0; p < PRODUCTS; p++) {
+            int productId = testData.createProduct();
+            testData.addStock(productId, 2 * ORDERS_PER_PRODUCT, LocalDate.now().plusDays(5));
+            serial.addAll(createOrders(productId, ORDERS_PER_PRODUCT));
+            parallel.addAll(createOrders(productId, ORDERS_PER_PRODUCT));
+        }
+
+        long start = System.nanoTime();
+        int serialDone = runConcurrently(serial, 1, userId);
+        double serialRate = serialDone / ((System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        int parallelDone = runConcurrently(parallel, PRODUCTS, userId);
+        double parallelRate = parallelDone / ((System.nanoTime() - start) / 1e9);
+
+        System.out.printf("allocations/s: 1 thread %.0f, %d threads %.0f%n", serialRate, PRODUCTS, parallelRate);
+        assertEquals(serial.size(), serialDone);
+        assertEquals(parallel.size(), parallelDone);
+    }
+
+    private int runConcurrently(List<Integer> orderIds, int threads, long userId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (Integer orderId : orderIds) {
+                results.add(executor.submit(() -> allocationService.allocateOrder(orderId, userId)));
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+            return results.size();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Integer> createOrders(int productId, int count) {
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(orderService.createOrder(new OrderRequestDTO(1,
+                    List.of(new OrderRequestDTO.OrderDetailRequest(productId, 1f))), null).getOrderId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,76 @@
+package org.luun.hsf.asm01.kitchencontrolbe.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.BatchOrderResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderDetailRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rows/sec of POST /api/orders one by one vs. POST /api/orders/batch.
+ * Run with: mvn test -Dbenchmark=true -Dtest=OrderIngestionBenchmarkTests
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderIngestionBenchmarkTests {
+
+    private static final int ORDERS = 2_000;
+    private static final int DETAILS_PER_ORDER = 8;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderDetailRepository orderDetailRepository;
+
+    @Test
+    void compareOneByOneWithBatchIngestion() {
+        List<OrderRequestDTO> requests = dataset(new Random(42));
+
+        //Warm up cả 2 path để JIT và connection pool ổn định
+        requests.subList(0, 200).forEach(orderService::createOrder);
+        orderService.createOrders(requests.subList(0, 200));
+        orderDetailRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+
+        long start = System.nanoTime();
+        requests.forEach(orderService::createOrder);
+        double oneByOne = rowsPerSecond(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        List<BatchOrderResultDTO> results = orderService.createOrders(requests);
+        double batched = rowsPerSecond(System.nanoTime() - start);
+
+        System.out.printf("one-by-one: %.0f rows/s, batch: %.0f rows/s (x%.1f)%n", oneByOne, batched, batched / oneByOne);
+        assertTrue(results.stream().allMatch(BatchOrderResultDTO::isSuccess));
+    }
+
+    private static double rowsPerSecond(long nanos) {
+        return ORDERS * (1 + DETAILS_PER_ORDER) / (nanos / 1e9);
+    }
+
+    private static List<OrderRequestDTO> dataset(Random random) {
+        List<OrderRequestDTO> requests = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            List<OrderRequestDTO.OrderDetailRequest> details = new ArrayList<>(DETAILS_PER_ORDER);
+            for (int d = 0; d < DETAILS_PER_ORDER; d++) {
+                details.add(new OrderRequestDTO.OrderDetailRequest(1 + random.nextInt(200), 1 + random.nextInt(20)));
+            }
+            requests.add(new OrderRequestDTO(1 + random.nextInt(30), details));
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,131 @@
+package org.luun.hsf.asm01.kitchencontrolbe.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.BatchOrderResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Order;
+import org.luun.hsf.asm01.kitchencontrolbe.mapper.OrderMapper;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Read latency of GET /api/orders/{id} and GET /api/orders served from order_view (one row per
+ * order, details decoded from the lines column) vs. the previous path that loads orders +
+ * order_details and maps them with OrderMapper. Reports p50/p99 per call.
+ * Run with: mvn test -Dbenchmark=true -Dtest=OrderReadPathBenchmarkTests
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderReadPathBenchmarkTests {
+
+    private static final int ORDERS = 5_000;
+    private static final int DETAILS_PER_ORDER = 8;
+    private static final int STORES = 30;
+    private static final int READS = 20_000;
+    private static final int PAGES = 2_000;
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void compareViewWithMapperPath() {
+        Random random = new Random(42);
+        List<Integer> orderIds = new ArrayList<>(ORDERS);
+        List<OrderRequestDTO> requests = dataset(random);
+        for (int from = 0; from < ORDERS; from += 1_000) {
+            orderService.createOrders(requests.subList(from, from + 1_000)).stream()
+                    .map(BatchOrderResultDTO::getOrder)
+                    .forEach(order -> orderIds.add(order.getOrderId()));
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        IntConsumer viewById = i -> orderService.getOrderById(orderIds.get(i % ORDERS));
+        IntConsumer tablesById = i -> readOnly.executeWithoutResult(status -> orderMapper.toResponseDTO(
+                orderRepository.findWithDetailsByOrderId(orderIds.get(i % ORDERS)).orElseThrow()));
+        IntConsumer viewPage = i -> orderService.getOrders(storeFilter(i), null, PAGE_SIZE);
+        IntConsumer tablesPage = i -> readOnly.executeWithoutResult(status -> {
+            List<Integer> ids = orderRepository.findPageIds(storeFilter(i), null, PAGE_SIZE);
+            orderRepository.findAllWithDetailsByOrderIdIn(ids).forEach(orderMapper::toResponseDTO);
+        });
+
+        //Cả 2 path phải trả cùng kết quả
+        int sample = orderIds.get(ORDERS / 2);
+        OrderResponseDTO fromTables = readOnly.execute(status -> {
+            Order order = orderRepository.findWithDetailsByOrderId(sample).orElseThrow();
+            return orderMapper.toResponseDTO(order);
+        });
+        assertEquals(fromTables, orderService.getOrderById(sample));
+
+        //Warm up để JIT, connection pool và CatalogCache ổn định
+        measure(viewById, READS / 4);
+        measure(tablesById, READS / 4);
+        measure(viewPage, PAGES / 4);
+        measure(tablesPage, PAGES / 4);
+
+        report("GET /api/orders/{id}", measure(viewById, READS), measure(tablesById, READS));
+        report("GET /api/orders?storeId&size=" + PAGE_SIZE, measure(viewPage, PAGES), measure(tablesPage, PAGES));
+    }
+
+    private static OrderFilterRequest storeFilter(int i) {
+        return new OrderFilterRequest(1 + i % STORES, null, null, null, false);
+    }
+
+    private static long[] measure(IntConsumer call, int times) {
+        long[] nanos = new long[times];
+        for (int i = 0; i < times; i++) {
+            long start = System.nanoTime();
+            call.accept(i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static void report(String name, long[] view, long[] tables) {
+        System.out.printf("%s: order_view p50=%d us p99=%d us, orders+details+mapper p50=%d us p99=%d us (p50 x%.1f)%n",
+                name, percentile(view, 50), percentile(view, 99), percentile(tables, 50), percentile(tables, 99),
+                (double) percentile(tables, 50) / Math.max(1, percentile(view, 50)));
+    }
+
+    private static long percentile(long[] sortedNanos, int p) {
+        return sortedNanos[Math.min(sortedNanos.length - 1, sortedNanos.length * p / 100)] / 1_000;
+    }
+
+    private static List<OrderRequestDTO> dataset(Random random) {
+        List<OrderRequestDTO> requests = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            List<OrderRequestDTO.OrderDetailRequest> details = new ArrayList<>(DETAILS_PER_ORDER);
+            for (int d = 0; d < DETAILS_PER_ORDER; d++) {
+                details.add(new OrderRequestDTO.OrderDetailRequest(1 + random.nextInt(200), 1 + random.nextInt(20)));
+            }
+            requests.add(new OrderRequestDTO(1 + random.nextInt(STORES), details));
+        }
+        return requests;
+    }
+}
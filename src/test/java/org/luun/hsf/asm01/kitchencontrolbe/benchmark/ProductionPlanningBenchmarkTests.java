@@ -0,0 +1,73 @@
+package org.luun.hsf.asm01.kitchencontrolbe.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.PlanAggregationResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderService;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IProductionPlanService;
+import org.luun.hsf.asm01.kitchencontrolbe.support.TestData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Aggregates 100k WAITTING order lines of one day into a production plan.
+ * Run with: mvn test -Dbenchmark=true -Dtest=ProductionPlanningBenchmarkTests
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductionPlanningBenchmarkTests {
+
+    private static final int ORDERS = 10_000;
+    private static final int LINES_PER_ORDER = 10;
+    private static final int PRODUCTS = 200;
+    private static final int STORES = 120;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private IProductionPlanService productionPlanService;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void planOneHundredThousandOrderLines() {
+        Random random = new Random(7);
+        List<OrderRequestDTO> requests = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            List<OrderRequestDTO.OrderDetailRequest> lines = new ArrayList<>(LINES_PER_ORDER);
+            for (int l = 0; l < LINES_PER_ORDER; l++) {
+                lines.add(new OrderRequestDTO.OrderDetailRequest(1 + random.nextInt(PRODUCTS), 1 + random.nextInt(5)));
+            }
+            requests.add(new OrderRequestDTO(1 + random.nextInt(STORES), lines));
+        }
+        for (int from = 0; from < ORDERS; from += 5_000) {
+            orderService.createOrders(requests.subList(from, from + 5_000));
+        }
+        long userId = testData.createUser("PLANNER");
+
+        LocalDate today = LocalDate.now();
+        long start = System.nanoTime();
+        PlanAggregationResultDTO result = productionPlanService.aggregateWaitingOrders(today, today.plusDays(1), userId);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("planned %d orders, %d lines into %d plans in %d ms (%.0f lines/s)%n",
+                result.getOrderCount(), result.getOrderLines(), result.getPlans().size(), elapsedMillis,
+                result.getOrderLines() * 1000.0 / elapsedMillis);
+        assertTrue(result.getOrderCount() >= ORDERS);
+        assertTrue(result.getOrderLines() >= (long) ORDERS * LINES_PER_ORDER);
+        assertEquals(1, result.getPlans().size());
+        //Plan lần 2 không gom lại các order đã có plan
+        assertEquals(0, productionPlanService.aggregateWaitingOrders(today, today.plusDays(1), userId).getOrderCount());
+    }
+}
@@ -0,0 +1,196 @@
+package org.luun.hsf.asm01.kitchencontrolbe.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.luun.hsf.asm01.kitchencontrolbe.KItchenControlBeApplication;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.StoreEventDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.feed.StoreEventHub;
+import org.luun.hsf.asm01.kitchencontrolbe.feed.StoreEventType;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.StoreRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Thousands of concurrent SSE subscribers on a real Tomcat: heap per open stream, time to fan events
+ * out to all of them, and one client that stops reading, which must be dropped once its buffer is
+ * full instead of growing the heap.
+ * Run with: mvn test -Dbenchmark=true -Dtest=StoreEventStreamBenchmarkTests
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StoreEventStreamBenchmarkTests {
+
+    private static final int STORES = 100;
+    private static final int SUBSCRIBERS = 5_000;
+    private static final int ROUNDS = 20;
+    //Đủ lớn để lấp đầy socket buffer của client không đọc rồi tới buffer của hub
+    private static final int SLOW_BURST = 50_000;
+
+    @Test
+    void holdThousandsOfSubscribers() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(KItchenControlBeApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:store-events;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "server.tomcat.max-connections=20000",
+                        "server.tomcat.accept-count=1000",
+                        "kitchen.store-events.max-subscribers=20000",
+                        "logging.level.root=WARN")
+                .run();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            StoreEventHub hub = context.getBean(StoreEventHub.class);
+            List<Integer> storeIds = seedStores(context.getBean(StoreRepository.class), STORES + 1);
+            int slowStoreId = storeIds.remove(STORES);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient http = HttpClient.newBuilder().executor(clients).build();
+
+            long heapBefore = usedHeap();
+            AtomicLong received = new AtomicLong();
+            List<CompletableFuture<HttpResponse<Void>>> streams = new ArrayList<>(SUBSCRIBERS);
+            long openStart = System.nanoTime();
+            for (int i = 0; i < SUBSCRIBERS; i++) {
+                streams.add(http.sendAsync(request(port, storeIds.get(i % STORES)),
+                        HttpResponse.BodyHandlers.fromLineSubscriber(new CountingSubscriber(received, Long.MAX_VALUE))));
+                //Mở dần để không vượt accept-count của Tomcat
+                if (i % 500 == 499) {
+                    awaitSubscribers(hub, i + 1);
+                }
+            }
+            awaitSubscribers(hub, SUBSCRIBERS);
+            long openMillis = (System.nanoTime() - openStart) / 1_000_000;
+            long heapPerSubscriber = (usedHeap() - heapBefore) / SUBSCRIBERS;
+
+            long fanOutStart = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                for (int storeId : storeIds) {
+                    hub.publish(event(storeId, round));
+                }
+            }
+            long expected = (long) SUBSCRIBERS * ROUNDS;
+            while (received.get() < expected && System.nanoTime() - fanOutStart < 60_000_000_000L) {
+                Thread.sleep(10);
+            }
+            long fanOutMillis = Math.max(1, (System.nanoTime() - fanOutStart) / 1_000_000);
+
+            //Client chỉ đọc 1 dòng rồi ngừng: TCP đầy, sender bị treo, buffer của hub đầy và subscriber bị ngắt
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            double droppedBefore = dropped(meterRegistry);
+            streams.add(http.sendAsync(request(port, slowStoreId),
+                    HttpResponse.BodyHandlers.fromLineSubscriber(new CountingSubscriber(new AtomicLong(), 1))));
+            awaitSubscribers(hub, SUBSCRIBERS + 1);
+            long heapBeforeBurst = usedHeap();
+            for (int i = 0; i < SLOW_BURST && hub.subscriberCount() > SUBSCRIBERS; i++) {
+                hub.publish(event(slowStoreId, i));
+            }
+            long burstHeapGrowth = usedHeap() - heapBeforeBurst;
+
+            System.out.printf("opened %d streams in %d ms, ~%d bytes heap per stream (client + server)%n",
+                    SUBSCRIBERS, openMillis, heapPerSubscriber);
+            System.out.printf("fan-out: %d events to %d subscribers, %d deliveries in %d ms (%.0f deliveries/s)%n",
+                    STORES * ROUNDS, SUBSCRIBERS, received.get(), fanOutMillis, received.get() * 1000.0 / fanOutMillis);
+            System.out.printf("slow client: dropped=%s, heap growth during burst %d KB%n",
+                    dropped(meterRegistry) > droppedBefore, burstHeapGrowth / 1024);
+
+            assertEquals(expected, received.get());
+            assertTrue(dropped(meterRegistry) > droppedBefore, "slow subscriber was not dropped");
+            assertEquals(SUBSCRIBERS, hub.subscriberCount());
+            streams.forEach(stream -> stream.cancel(true));
+        }
+    }
+
+    private static HttpRequest request(int port, int storeId) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/stores/" + storeId + "/events"))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+    }
+
+    private static void awaitSubscribers(StoreEventHub hub, int count) throws InterruptedException {
+        for (int i = 0; i < 3_000 && hub.subscriberCount() < count; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(hub.subscriberCount() >= count, "only " + hub.subscriberCount() + " of " + count + " subscribed");
+    }
+
+    private static double dropped(MeterRegistry meterRegistry) {
+        return meterRegistry.counter("kitchen.store-events.dropped", "reason", "slow").count()
+                + meterRegistry.counter("kitchen.store-events.dropped", "reason", "error").count();
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        Thread.sleep(200);
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static List<Integer> seedStores(StoreRepository storeRepository, int count) {
+        List<Store> stores = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Store store = new Store();
+            store.setStoreName("Store " + i);
+            stores.add(store);
+        }
+        return new ArrayList<>(storeRepository.saveAll(stores).stream().map(Store::getStoreId).toList());
+    }
+
+    private static StoreEventDTO event(int storeId, int orderId) {
+        return StoreEventDTO.builder()
+                .type(StoreEventType.ORDER_STATUS)
+                .storeId(storeId)
+                .eventId((long) orderId)
+                .orderId(orderId)
+                .previousStatus("WAITTING")
+                .status("PROCESSING")
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    //Đếm dòng "event:", demand giới hạn để giả lập client ngừng đọc
+    private static class CountingSubscriber implements Flow.Subscriber<String> {
+        private final AtomicLong received;
+        private final long demand;
+
+        CountingSubscriber(AtomicLong received, long demand) {
+            this.received = received;
+            this.demand = demand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(demand);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.startsWith("event:")) {
+                received.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.luun.hsf.asm01.kitchencontrolbe.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.luun.hsf.asm01.kitchencontrolbe.KItchenControlBeApplication;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * p99 latency of GET /api/orders at rising concurrency, Tomcat platform threads vs virtual threads.
+ * "max concurrency" is the highest level that still finished without errors and within the p99 SLO.
+ * Run with: mvn test -Dbenchmark=true -Dtest=ThreadModeLoadBenchmarkTests
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadModeLoadBenchmarkTests {
+
+    private static final int[] CONCURRENCY = {50, 100, 200, 400, 800, 1600};
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final long P99_SLO_MILLIS = 500;
+
+    @Test
+    void compareThreadModes() throws Exception {
+        List<Level> platform = run(false);
+        List<Level> virtual = run(true);
+
+        System.out.printf("%-12s %-22s %-22s%n", "concurrency", "platform p99 / errors", "virtual p99 / errors");
+        for (int i = 0; i < CONCURRENCY.length; i++) {
+            System.out.printf("%-12d %-22s %-22s%n", CONCURRENCY[i],
+                    platform.get(i).p99Millis() + " ms / " + platform.get(i).errors(),
+                    virtual.get(i).p99Millis() + " ms / " + virtual.get(i).errors());
+        }
+        System.out.printf("max concurrency within %d ms p99: platform %d, virtual %d%n",
+                P99_SLO_MILLIS, maxConcurrency(platform), maxConcurrency(virtual));
+        assertEquals(0, platform.get(0).errors());
+        assertEquals(0, virtual.get(0).errors());
+    }
+
+    private List<Level> run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(KItchenControlBeApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=20",
+                        "server.tomcat.threads.max=200",
+                        "logging.level.root=WARN")
+                .run()) {
+            seed(context.getBean(IOrderService.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/api/orders?size=20");
+            List<Level> levels = new ArrayList<>();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient http = HttpClient.newBuilder().executor(clients).build();
+                //Warm up JIT, pool JDBC và CatalogCache
+                measure(http, clients, uri, 20);
+                for (int concurrency : CONCURRENCY) {
+                    levels.add(measure(http, clients, uri, concurrency));
+                }
+            }
+            return levels;
+        }
+    }
+
+    private static Level measure(HttpClient http, ExecutorService clients, URI uri, int concurrency) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        long[] latencies = new long[concurrency * REQUESTS_PER_CLIENT];
+        AtomicInteger errors = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(concurrency);
+        for (int c = 0; c < concurrency; c++) {
+            int offset = c * REQUESTS_PER_CLIENT;
+            futures.add(clients.submit(() -> {
+                for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[offset + r] = System.nanoTime() - start;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        Arrays.sort(latencies);
+        long p99 = latencies[(int) Math.ceil(latencies.length * 0.99) - 1];
+        return new Level(concurrency, TimeUnit.NANOSECONDS.toMillis(p99), errors.get());
+    }
+
+    private static int maxConcurrency(List<Level> levels) {
+        int max = 0;
+        for (Level level : levels) {
+            if (level.errors() > 0 || level.p99Millis() > P99_SLO_MILLIS) {
+                break;
+            }
+            max = level.concurrency();
+        }
+        return max;
+    }
+
+    private static void seed(IOrderService orderService) {
+        Random random = new Random(42);
+        List<OrderRequestDTO> requests = new ArrayList<>(1_000);
+        for (int i = 0; i < 1_000; i++) {
+            List<OrderRequestDTO.OrderDetailRequest> details = new ArrayList<>(5);
+            for (int d = 0; d < 5; d++) {
+                details.add(new OrderRequestDTO.OrderDetailRequest(1 + random.nextInt(100), 1 + random.nextInt(10)));
+            }
+            requests.add(new OrderRequestDTO(1 + random.nextInt(20), details));
+        }
+        orderService.createOrders(requests);
+    }
+
+    private record Level(int concurrency, long p99Millis, int errors) {
+    }
+}
@@ -0,0 +1,86 @@
+package org.luun.hsf.asm01.kitchencontrolbe.cache;
+
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.ProductRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.StoreRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogCacheTests {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final CatalogCache cache = new CatalogCache(productRepository, mock(StoreRepository.class), 2, Duration.ofMinutes(10));
+
+    @Test
+    void loadInFlightDuringInvalidationIsNotPublished() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        when(productRepository.findNamesByProductIdIn(anyCollection()))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    assertTrue(invalidated.await(5, TimeUnit.SECONDS));
+                    return List.<Object[]>of(new Object[]{1L, "Old name"});
+                })
+                .thenReturn(List.<Object[]>of(new Object[]{1L, "New name"}));
+
+        //Load đọc tên cũ, trong lúc đó tên bị đổi và cache bị invalidate
+        CompletableFuture<String> stale = CompletableFuture.supplyAsync(() -> cache.productName(1));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        cache.invalidateAll();
+        invalidated.countDown();
+
+        assertEquals("Old name", stale.get(5, TimeUnit.SECONDS));
+        assertEquals("New name", cache.productName(1));
+        assertEquals("New name", cache.productName(1));
+        verify(productRepository, times(2)).findNamesByProductIdIn(anyCollection());
+    }
+
+    @Test
+    void fullCacheEvictsToStayWithinMaxEntries() {
+        when(productRepository.findNamesByProductIdIn(anyCollection()))
+                .thenAnswer(invocation -> {
+                    Long id = (Long) invocation.<List<?>>getArgument(0).get(0);
+                    return List.<Object[]>of(new Object[]{id, "Product " + id});
+                });
+
+        for (int id = 1; id <= 5; id++) {
+            assertEquals("Product " + id, cache.productName(id));
+        }
+
+        assertTrue(cache.stats().getProductEntries() <= 2);
+        assertEquals("Product 5", cache.productName(5));
+    }
+
+    @Test
+    void fullCacheEvictsTheOldestEntryFirst() {
+        when(productRepository.findNamesByProductIdIn(anyCollection()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).stream()
+                        .map(id -> new Object[]{id, "Product " + id})
+                        .toList());
+
+        cache.productName(1);
+        cache.productName(2);
+        //Đọc lại 1 không đổi thứ tự thêm vào: thêm 3 thì 1 bị bỏ, 2 vẫn còn
+        cache.productName(1);
+        cache.productName(3);
+        verify(productRepository, times(3)).findNamesByProductIdIn(anyCollection());
+
+        assertEquals("Product 2", cache.productName(2));
+        assertEquals("Product 3", cache.productName(3));
+        verify(productRepository, times(3)).findNamesByProductIdIn(anyCollection());
+        assertEquals("Product 1", cache.productName(1));
+        verify(productRepository, times(4)).findNamesByProductIdIn(anyCollection());
+    }
+}
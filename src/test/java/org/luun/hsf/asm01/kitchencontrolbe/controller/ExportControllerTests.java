@@ -0,0 +1,65 @@
+package org.luun.hsf.asm01.kitchencontrolbe.controller;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExportControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void finishedExportsDoNotKeepTheirSlot() throws Exception {
+        int storeId = transactionTemplate.execute(status -> {
+            Store store = new Store();
+            store.setStoreName("Export store " + UUID.randomUUID());
+            entityManager.persist(store);
+            return store.getStoreId();
+        });
+        orderService.createOrder(new OrderRequestDTO(storeId, List.of(
+                new OrderRequestDTO.OrderDetailRequest(1, 2f))), null);
+
+        //Nhiều hơn max-concurrent (4) export liên tiếp: mỗi export phải trả chỗ đúng 1 lần
+        for (int i = 0; i < 6; i++) {
+            MvcResult started = mockMvc.perform(get("/api/exports/orders").param("storeId", String.valueOf(storeId)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String csv = mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString(StandardCharsets.UTF_8);
+            assertEquals(2, csv.trim().split("\n").length);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.luun.hsf.asm01.kitchencontrolbe.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.CursorPageResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderFormatNegotiationTests {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final TypeReference<CursorPageResponseDTO<OrderResponseDTO>> ORDER_PAGE = new TypeReference<>() {
+    };
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private int storeId;
+
+    @BeforeEach
+    void setUp() {
+        storeId = transactionTemplate.execute(status -> {
+            Store store = new Store();
+            store.setStoreName("Format store " + UUID.randomUUID());
+            entityManager.persist(store);
+            return store.getStoreId();
+        });
+    }
+
+    @Test
+    void orderIsServedInTheAcceptedFormat() throws Exception {
+        OrderResponseDTO expected = orderService.getOrderById(newOrder());
+        String path = "/api/orders/" + expected.getOrderId();
+
+        MockHttpServletResponse json = fetch(path, null);
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(json.getContentType())));
+        assertEquals(expected, objectMapper.readValue(json.getContentAsByteArray(), OrderResponseDTO.class));
+
+        MockHttpServletResponse smile = fetch(path, SMILE);
+        assertEquals(expected, smileConverter.getObjectMapper().readValue(smile.getContentAsByteArray(), OrderResponseDTO.class));
+        MockHttpServletResponse cbor = fetch(path, CBOR);
+        assertEquals(expected, cborConverter.getObjectMapper().readValue(cbor.getContentAsByteArray(), OrderResponseDTO.class));
+        //Cùng ETag cho cả 3 định dạng
+        assertEquals(json.getHeader(HttpHeaders.ETAG), smile.getHeader(HttpHeaders.ETAG));
+        assertTrue(smile.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void orderListIsSmallerInBinaryFormats() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            newOrder();
+        }
+        String path = "/api/orders?size=50&storeId=" + storeId;
+
+        byte[] json = fetch(path, MediaType.APPLICATION_JSON).getContentAsByteArray();
+        byte[] smile = fetch(path, SMILE).getContentAsByteArray();
+        byte[] cbor = fetch(path, CBOR).getContentAsByteArray();
+
+        CursorPageResponseDTO<OrderResponseDTO> expected = objectMapper.readValue(json, ORDER_PAGE);
+        assertEquals(20, expected.getSize());
+        assertEquals(expected, smileConverter.getObjectMapper().readValue(smile, ORDER_PAGE));
+        assertEquals(expected, cborConverter.getObjectMapper().readValue(cbor, ORDER_PAGE));
+        //Smile chỉ ghi mỗi tên field và tên product lặp lại 1 lần
+        assertTrue(smile.length < cbor.length, "smile " + smile.length + " < cbor " + cbor.length);
+        assertTrue(cbor.length < json.length, "cbor " + cbor.length + " < json " + json.length);
+    }
+
+    private MockHttpServletResponse fetch(String path, MediaType accept) throws Exception {
+        var request = get(path);
+        if (accept != null) {
+            request.accept(accept);
+        }
+        MockHttpServletResponse response = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse();
+        if (accept != null) {
+            assertTrue(accept.isCompatibleWith(MediaType.parseMediaType(response.getContentType())));
+        }
+        return response;
+    }
+
+    private int newOrder() {
+        List<OrderRequestDTO.OrderDetailRequest> lines = new ArrayList<>();
+        for (int productId = 1; productId <= 8; productId++) {
+            lines.add(new OrderRequestDTO.OrderDetailRequest(productId, productId * 1.5f));
+        }
+        return orderService.createOrder(new OrderRequestDTO(storeId, lines), null).getOrderId();
+    }
+}
@@ -0,0 +1,217 @@
+package org.luun.hsf.asm01.kitchencontrolbe.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderStatusTransitionRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.BatchOrderResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.CursorPageResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderListingTests {
+
+    private static final TypeReference<CursorPageResponseDTO<OrderResponseDTO>> ORDER_PAGE = new TypeReference<>() {
+    };
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private int storeId;
+    private LocalDateTime day;
+
+    @BeforeEach
+    void setUp() {
+        storeId = transactionTemplate.execute(status -> {
+            Store store = new Store();
+            store.setStoreName("Listing store " + UUID.randomUUID());
+            entityManager.persist(store);
+            return store.getStoreId();
+        });
+        day = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(3);
+    }
+
+    @Test
+    void cursorWalksEveryOrderOnceWhenOrderDatesTie() throws Exception {
+        List<Integer> older = newOrders(2, day.minusDays(1));
+        //5 order cùng order_date: cursor phải phân biệt bằng orderId
+        List<Integer> tied = newOrders(5, day);
+
+        List<Integer> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageResponseDTO<OrderResponseDTO> page = list("?size=2&storeId=" + storeId
+                    + (cursor == null ? "" : "&cursor=" + cursor));
+            assertEquals(page.getItems().size(), page.getSize());
+            assertEquals(page.getNextCursor() != null, page.isHasMore());
+            paged.addAll(ids(page));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        //Mới nhất trước, cùng ngày thì orderId lớn trước
+        List<Integer> expected = new ArrayList<>(tied.reversed());
+        expected.addAll(older.reversed());
+        assertEquals(expected, paged);
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void filtersNarrowTheListAndTheStream() throws Exception {
+        List<Integer> older = newOrders(2, day.minusDays(1));
+        List<Integer> recent = newOrders(3, day);
+        orderService.transitionStatus(new OrderStatusTransitionRequest(OrderStatus.WAITTING, OrderStatus.PROCESSING,
+                List.of(older.get(0), recent.get(1)), null, null, null, null));
+
+        String byStatus = "?storeId=" + storeId + "&status=PROCESSING";
+        assertEquals(List.of(recent.get(1), older.get(0)), ids(list(byStatus)));
+        assertEquals(List.of(recent.get(1), older.get(0)), ids(stream(byStatus)));
+
+        //fromDate tính cả mốc, toDate không tính
+        String byDate = "?storeId=" + storeId + "&fromDate=" + day.minusDays(1) + "&toDate=" + day;
+        assertEquals(older.reversed(), ids(list(byDate)));
+        assertEquals(older.reversed(), ids(stream(byDate)));
+
+        String other = "?storeId=" + (storeId + 1_000_000);
+        assertTrue(list(other).getItems().isEmpty());
+        assertTrue(stream(other).isEmpty());
+    }
+
+    @Test
+    void pageSizeIsClampedBetweenOneAndFiveHundred() throws Exception {
+        List<BatchOrderResultDTO> created = orderService.createOrders(
+                Collections.nCopies(501, new OrderRequestDTO(storeId, List.of(new OrderRequestDTO.OrderDetailRequest(1, 1f)))));
+        assertTrue(created.stream().allMatch(BatchOrderResultDTO::isSuccess));
+
+        CursorPageResponseDTO<OrderResponseDTO> smallest = list("?size=0&storeId=" + storeId);
+        assertEquals(1, smallest.getItems().size());
+        assertTrue(smallest.isHasMore());
+
+        CursorPageResponseDTO<OrderResponseDTO> largest = list("?size=100000&storeId=" + storeId);
+        assertEquals(500, largest.getItems().size());
+        assertTrue(largest.isHasMore());
+
+        CursorPageResponseDTO<OrderResponseDTO> last = list("?size=500&storeId=" + storeId + "&cursor=" + largest.getNextCursor());
+        assertEquals(1, last.getItems().size());
+        assertFalse(last.isHasMore());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void streamWritesOneJsonObjectPerLine() throws Exception {
+        List<Integer> orderIds = newOrders(3, day);
+
+        MockHttpServletResponse response = streamResponse("?storeId=" + storeId);
+
+        assertTrue(MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(response.getContentType())));
+        String body = response.getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            OrderResponseDTO order = objectMapper.readValue(lines[i], OrderResponseDTO.class);
+            assertEquals(orderIds.reversed().get(i), order.getOrderId());
+            assertEquals(orderService.getOrderById(order.getOrderId()), order);
+        }
+    }
+
+    private CursorPageResponseDTO<OrderResponseDTO> list(String query) throws Exception {
+        byte[] body = mockMvc.perform(get("/api/orders" + query))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+        return objectMapper.readValue(body, ORDER_PAGE);
+    }
+
+    private List<OrderResponseDTO> stream(String query) throws Exception {
+        List<OrderResponseDTO> orders = new ArrayList<>();
+        for (String line : streamResponse(query).getContentAsString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                orders.add(objectMapper.readValue(line, OrderResponseDTO.class));
+            }
+        }
+        return orders;
+    }
+
+    private MockHttpServletResponse streamResponse(String query) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/orders/stream" + query))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+    }
+
+    //Order mới rồi đặt order_date (cả dòng order_view) về orderDate
+    private List<Integer> newOrders(int count, LocalDateTime orderDate) {
+        List<Integer> orderIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            orderIds.add(orderService.createOrder(new OrderRequestDTO(storeId, List.of(
+                    new OrderRequestDTO.OrderDetailRequest(1, 1f + i))), null).getOrderId());
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String table : List.of("orders", "order_view")) {
+                entityManager.createNativeQuery("update " + table + " set order_date = :orderDate where order_id in (:orderIds)")
+                        .setParameter("orderDate", orderDate)
+                        .setParameter("orderIds", orderIds)
+                        .executeUpdate();
+            }
+        });
+        return orderIds;
+    }
+
+    private static List<Integer> ids(CursorPageResponseDTO<OrderResponseDTO> page) {
+        return ids(page.getItems());
+    }
+
+    private static List<Integer> ids(List<OrderResponseDTO> orders) {
+        return orders.stream().map(OrderResponseDTO::getOrderId).toList();
+    }
+}
@@ -0,0 +1,258 @@
+package org.luun.hsf.asm01.kitchencontrolbe.feed;
+
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.StoreEventDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderEventType;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.outbox.OrderOutbox;
+import org.luun.hsf.asm01.kitchencontrolbe.outbox.OutboxDispatcher;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.StoreRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StoreEventFeedTests {
+
+    //storeId chỉ dùng trong hub, không cần có trong bảng stores
+    private static final AtomicInteger HUB_STORE_IDS = new AtomicInteger(900_000);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StoreEventHub storeEvents;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private OrderOutbox orderOutbox;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void orderStatusChangeIsPushedToItsStoreOnly() throws Exception {
+        int storeId = newStore();
+        int otherStoreId = newStore();
+        int orderId = orderService.createOrder(new OrderRequestDTO(storeId,
+                List.of(new OrderRequestDTO.OrderDetailRequest(1, 2f))), null).getOrderId();
+        MvcResult stream = mockMvc.perform(get("/api/stores/{storeId}/events", storeId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult otherStream = mockMvc.perform(get("/api/stores/{storeId}/events", otherStoreId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            orderRepository.updateStatusIfCurrent(orderId, OrderStatus.WAITTING, OrderStatus.PROCESSING);
+            orderOutbox.record(orderId, LocalDate.now(), OrderEventType.STATUS_CHANGED,
+                    OrderStatus.WAITTING, OrderStatus.PROCESSING);
+        });
+
+        //Event được gửi ra stream trên sender thread, nên lặp tới khi event tới stream
+        String expected = "\"previousStatus\":\"WAITTING\",\"status\":\"PROCESSING\"";
+        for (int i = 0; i < 50 && !stream.getResponse().getContentAsString().contains(expected); i++) {
+            outboxDispatcher.dispatchPending();
+            Thread.sleep(100);
+        }
+        String content = stream.getResponse().getContentAsString();
+        assertTrue(content.contains("event:order-status"), content);
+        assertTrue(content.contains(expected), content);
+        assertTrue(content.contains("\"orderId\":" + orderId), content);
+        assertTrue(content.contains("id:"), content);
+        assertFalse(otherStream.getResponse().getContentAsString().contains("order-status"));
+    }
+
+    @Test
+    void unknownStoreIsRejected() throws Exception {
+        mockMvc.perform(get("/api/stores/{storeId}/events", Integer.MAX_VALUE))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void slowSubscriberIsDroppedWithoutHoldingUpOthers() throws Exception {
+        int storeId = HUB_STORE_IDS.incrementAndGet();
+        BlockingSink slow = new BlockingSink();
+        RecordingSink fast = new RecordingSink();
+        storeEvents.subscribe(storeId, slow);
+        storeEvents.subscribe(storeId, fast);
+
+        //Sink chậm giữ 1 event trong send, buffer (64) chứa thêm 64, event tiếp theo làm nó bị ngắt
+        //Publish từng đợt 32 rồi chờ sink nhanh gửi hết, để chỉ sink chậm bị đầy buffer dù sender thread bận
+        int events = 100;
+        storeEvents.publish(event(storeId, 0));
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < events; i++) {
+            storeEvents.publish(event(storeId, i));
+            if (i % 32 == 0) {
+                fast.awaitEvents(i + 1);
+            }
+        }
+
+        //Bị gỡ ngay trong publish, còn kết nối chỉ được đóng khi send đang treo trả về
+        //Đếm theo store: stream của test khác có thể đóng cùng lúc làm lệch tổng
+        assertEquals(1, storeEvents.subscriberCount(storeId));
+        assertEquals(1, slow.closed.getCount());
+        slow.release.countDown();
+        assertTrue(slow.closed.await(5, TimeUnit.SECONDS));
+        assertTrue(slow.sent.get() < events);
+        fast.awaitEvents(events);
+        assertEquals(events, fast.events.size());
+        assertTrue(fast.events.get(events - 1).contains("\"orderId\":" + (events - 1)));
+    }
+
+    @Test
+    void redeliveredEventsAreSentOnce() throws Exception {
+        int storeId = HUB_STORE_IDS.incrementAndGet();
+        RecordingSink sink = new RecordingSink();
+        storeEvents.subscribe(storeId, sink);
+
+        //Lane khác publish id nhỏ hơn sau: vẫn gửi; id đã gửi bị giao lại: bỏ qua
+        for (int eventId : List.of(5, 3, 5, 4, 3, 6)) {
+            storeEvents.publish(event(storeId, eventId));
+        }
+
+        sink.awaitEvents(4);
+        Thread.sleep(200);
+        assertEquals(List.of(5L, 3L, 4L, 6L), sink.ids);
+    }
+
+    @Test
+    void reconnectingClientStillGetsLateLowerIds() throws Exception {
+        int storeId = HUB_STORE_IDS.incrementAndGet();
+        RecordingSink sink = new RecordingSink();
+        //Client đã nhận 150 rồi kết nối lại; 120 của lane khác tới muộn sau đó
+        storeEvents.subscribe(storeId, sink, 150L);
+
+        for (int eventId : List.of(150, 120, 151)) {
+            storeEvents.publish(event(storeId, eventId));
+        }
+
+        sink.awaitEvents(2);
+        Thread.sleep(200);
+        assertEquals(List.of(120L, 151L), sink.ids);
+    }
+
+    @Test
+    void idleSubscribersGetHeartbeats() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        StoreSubscription subscription = storeEvents.subscribe(HUB_STORE_IDS.incrementAndGet(), sink);
+
+        storeEvents.sendHeartbeats();
+
+        sink.awaitHeartbeat();
+        subscription.cancel();
+        assertTrue(sink.closed.await(5, TimeUnit.SECONDS));
+    }
+
+    private int newStore() {
+        Store store = new Store();
+        store.setStoreName("Feed store " + HUB_STORE_IDS.incrementAndGet());
+        return storeRepository.save(store).getStoreId();
+    }
+
+    private static StoreEventDTO event(int storeId, int orderId) {
+        return StoreEventDTO.builder()
+                .type(StoreEventType.ORDER_STATUS)
+                .storeId(storeId)
+                .eventId((long) orderId)
+                .orderId(orderId)
+                .previousStatus(OrderStatus.WAITTING.name())
+                .status(OrderStatus.PROCESSING.name())
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static class RecordingSink implements StoreEventSink {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final List<Long> ids = new CopyOnWriteArrayList<>();
+        final AtomicInteger heartbeats = new AtomicInteger();
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        @Override
+        public void send(StoreEvent event) {
+            if (event.isHeartbeat()) {
+                heartbeats.incrementAndGet();
+            } else {
+                events.add(event.data());
+                ids.add(event.id());
+            }
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+
+        void awaitEvents(int count) throws InterruptedException {
+            for (int i = 0; i < 50 && events.size() < count; i++) {
+                Thread.sleep(100);
+            }
+        }
+
+        void awaitHeartbeat() throws InterruptedException {
+            for (int i = 0; i < 50 && heartbeats.get() == 0; i++) {
+                Thread.sleep(100);
+            }
+            assertTrue(heartbeats.get() > 0);
+        }
+    }
+
+    //Giống client không đọc nữa: send đầu tiên bị treo tới khi release
+    private static class BlockingSink implements StoreEventSink {
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+        final AtomicInteger sent = new AtomicInteger();
+
+        @Override
+        public void send(StoreEvent event) {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sent.incrementAndGet();
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.luun.hsf.asm01.kitchencontrolbe.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class PrometheusEndpointTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void exposesRequestServiceAndHibernateMetrics() throws Exception {
+        mockMvc.perform(get("/api/orders").param("size", "5")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "route latency histogram");
+        assertTrue(scrape.contains("uri=\"/api/orders\""), "route tag");
+        assertTrue(scrape.contains("kitchen_http_sql_statements_count{"), "SQL statements per request");
+        assertTrue(scrape.contains("kitchen_orders_service_seconds_bucket{"), "IOrderService timer");
+        assertTrue(scrape.contains("hibernate_entities_loads"), "Hibernate statistics");
+        assertTrue(scrape.contains("hikaricp_connections_acquire_seconds"), "Hikari pool wait time");
+    }
+}
@@ -0,0 +1,183 @@
+package org.luun.hsf.asm01.kitchencontrolbe.outbox;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderOutboxEvent;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OutboxLease;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderEventType;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.service.IOrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class OrderOutboxTests {
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private RecordingSubscriber subscriber;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void createAndDeleteArePublishedInOrder() {
+        int orderId = orderService.createOrder(request(), null).getOrderId();
+        orderService.deleteOrder(orderId);
+
+        dispatchUntilPublished(orderId);
+
+        assertEquals(List.of(OrderEventType.CREATED, OrderEventType.DELETED), subscriber.received(orderId));
+        assertEquals(OrderStatus.WAITTING, subscriber.firstStatus(orderId));
+    }
+
+    @Test
+    void failedEventIsRetriedBeforeLaterEventsOfTheSameOrder() {
+        int orderId = orderService.createOrder(request(), null).getOrderId();
+        subscriber.failOnce(orderId);
+        orderService.deleteOrder(orderId);
+
+        dispatchUntilPublished(orderId);
+
+        assertEquals(1, subscriber.failures(orderId));
+        assertEquals(List.of(OrderEventType.CREATED, OrderEventType.DELETED), subscriber.received(orderId));
+    }
+
+    @Test
+    void eventFailingMaxAttemptsIsParkedAndStopsBlockingItsOrder() {
+        int orderId = orderService.createOrder(request(), null).getOrderId();
+        subscriber.failAlways(orderId, OrderEventType.CREATED);
+        orderService.deleteOrder(orderId);
+
+        //kitchen.outbox.max-attempts=3 trong test
+        dispatchUntilPublished(orderId);
+
+        assertEquals(3, subscriber.failures(orderId));
+        assertEquals(List.of(OrderEventType.DELETED), subscriber.received(orderId));
+        OrderOutboxEvent created = entityManager.createQuery("select e from OrderOutboxEvent e " +
+                        "where e.orderId = :orderId and e.eventType = :type", OrderOutboxEvent.class)
+                .setParameter("orderId", orderId)
+                .setParameter("type", OrderEventType.CREATED)
+                .getSingleResult();
+        assertNotNull(created.getParkedAt());
+        assertNull(created.getPublishedAt());
+        assertEquals(3, created.getAttempts());
+    }
+
+    @Test
+    void nothingIsDispatchedWhileAnotherInstanceHoldsTheLease() {
+        int orderId = orderService.createOrder(request(), null).getOrderId();
+        setLease("other-instance", LocalDateTime.now().plusMinutes(5));
+        try {
+            assertEquals(0, outboxDispatcher.dispatchPending());
+            assertEquals(1, pendingFor(orderId));
+            assertEquals(List.of(), subscriber.received(orderId));
+
+            //Instance kia dừng, lease hết hạn thì instance này lấy lease và publish tiếp
+            setLease("other-instance", LocalDateTime.now().minusSeconds(1));
+            dispatchUntilPublished(orderId);
+            assertEquals(List.of(OrderEventType.CREATED), subscriber.received(orderId));
+        } finally {
+            setLease("other-instance", LocalDateTime.now().minusSeconds(1));
+        }
+    }
+
+    private void setLease(String owner, LocalDateTime expiresAt) {
+        transactionTemplate.executeWithoutResult(status -> {
+            OutboxLease lease = new OutboxLease();
+            lease.setLeaseName("order-outbox");
+            lease.setOwner(owner);
+            lease.setExpiresAt(expiresAt);
+            entityManager.merge(lease);
+        });
+    }
+
+    private void dispatchUntilPublished(int orderId) {
+        for (int i = 0; i < 20 && pendingFor(orderId) > 0; i++) {
+            outboxDispatcher.dispatchPending();
+        }
+        assertEquals(0, pendingFor(orderId));
+    }
+
+    private long pendingFor(int orderId) {
+        return entityManager.createQuery("select count(e) from OrderOutboxEvent e " +
+                        "where e.orderId = :orderId and e.publishedAt is null and e.parkedAt is null", Long.class)
+                .setParameter("orderId", orderId)
+                .getSingleResult();
+    }
+
+    private static OrderRequestDTO request() {
+        return new OrderRequestDTO(1, List.of(new OrderRequestDTO.OrderDetailRequest(1, 1f)));
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+    }
+
+    static class RecordingSubscriber implements OrderEventSubscriber {
+
+        private final Map<Integer, List<OrderEvent>> events = new ConcurrentHashMap<>();
+        private final Set<Integer> failOnce = ConcurrentHashMap.newKeySet();
+        private final Map<Integer, OrderEventType> failAlways = new ConcurrentHashMap<>();
+        private final Map<Integer, AtomicInteger> failures = new ConcurrentHashMap<>();
+
+        @Override
+        public void onEvent(OrderEvent event) {
+            if (failOnce.remove(event.orderId()) || event.type() == failAlways.get(event.orderId())) {
+                failures.computeIfAbsent(event.orderId(), id -> new AtomicInteger()).incrementAndGet();
+                throw new RuntimeException("Simulated subscriber failure");
+            }
+            events.computeIfAbsent(event.orderId(), id -> Collections.synchronizedList(new ArrayList<>())).add(event);
+        }
+
+        void failOnce(int orderId) {
+            failOnce.add(orderId);
+        }
+
+        void failAlways(int orderId, OrderEventType type) {
+            failAlways.put(orderId, type);
+        }
+
+        int failures(int orderId) {
+            return failures.getOrDefault(orderId, new AtomicInteger()).get();
+        }
+
+        List<OrderEventType> received(int orderId) {
+            return events.getOrDefault(orderId, List.of()).stream().map(OrderEvent::type).toList();
+        }
+
+        OrderStatus firstStatus(int orderId) {
+            return events.get(orderId).get(0).status();
+        }
+    }
+}
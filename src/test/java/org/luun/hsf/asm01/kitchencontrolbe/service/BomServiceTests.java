@@ -0,0 +1,143 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.CatalogCache;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.MaterialDemandDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Product;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Recipe;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.RecipeDetail;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ProductType;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderDetailRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.RecipeDetailRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.impl.BomServiceImpl;
+import org.luun.hsf.asm01.kitchencontrolbe.support.TestData;
+import org.luun.hsf.asm01.kitchencontrolbe.util.LongDoubleMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class BomServiceTests {
+
+    @Autowired
+    private IBomService bomService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void explodesNestedSemiFinishedRecipes() {
+        long flour = testData.createProduct(ProductType.RAW_MATERIAL);
+        long sugar = testData.createProduct(ProductType.RAW_MATERIAL);
+        long dough = testData.createProduct(ProductType.SEMI_FINISHED);
+        long cake = testData.createProduct(ProductType.FINISHED_PRODUCT);
+        //2 phần dough cần 4 flour + 1 sugar; 1 cake cần 2 dough + 1 sugar
+        createRecipe(dough, 2f, Map.of(flour, 4f, sugar, 1f));
+        createRecipe(cake, 1f, Map.of(dough, 2f, sugar, 1f));
+
+        Map<Long, Double> demand = toMap(bomService.explodeProduct(cake, 3));
+
+        assertEquals(2, demand.size());
+        assertEquals(12.0, demand.get(flour), 1e-6);
+        assertEquals(6.0, demand.get(sugar), 1e-6);
+    }
+
+    @Test
+    void recipeChangesInvalidateTheCachedGraph() {
+        long salt = testData.createProduct(ProductType.RAW_MATERIAL);
+        long soup = testData.createProduct(ProductType.FINISHED_PRODUCT);
+        assertEquals(Map.of(soup, 1.0), toMap(bomService.explodeProduct(soup, 1)));
+
+        createRecipe(soup, 1f, Map.of(salt, 0.5f));
+
+        assertEquals(Map.of(salt, 0.5), toMap(bomService.explodeProduct(soup, 1)));
+    }
+
+    @Test
+    void graphLoadedDuringInvalidationIsNotPublished() throws Exception {
+        RecipeDetailRepository recipes = mock(RecipeDetailRepository.class);
+        BomServiceImpl service = new BomServiceImpl(recipes, mock(OrderDetailRepository.class), mock(CatalogCache.class));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        //Lần đọc đầu: soup chưa có recipe, lần sau: soup = 0.5 salt
+        when(recipes.findRecipeGraph())
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    assertTrue(invalidated.await(5, TimeUnit.SECONDS));
+                    return List.of();
+                })
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 10L, 1f, 20L, 0.5f}));
+
+        CompletableFuture<LongDoubleMap> stale = CompletableFuture.supplyAsync(() -> service.explode(demandOf(10L)));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        service.invalidate();
+        invalidated.countDown();
+
+        assertEquals(1.0, stale.get(5, TimeUnit.SECONDS).get(10L), 1e-6);
+        assertEquals(0.5, service.explode(demandOf(10L)).get(20L), 1e-6);
+        verify(recipes, times(2)).findRecipeGraph();
+    }
+
+    @Test
+    void detectsRecipeCycles() {
+        long a = testData.createProduct(ProductType.SEMI_FINISHED);
+        long b = testData.createProduct(ProductType.SEMI_FINISHED);
+        createRecipe(a, 1f, Map.of(b, 1f));
+        createRecipe(b, 1f, Map.of(a, 1f));
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> bomService.explodeProduct(a, 1));
+        assertEquals("Recipe cycle detected: " + a + " -> " + b + " -> " + a, error.getMessage());
+    }
+
+    private static LongDoubleMap demandOf(long productId) {
+        LongDoubleMap demand = new LongDoubleMap(1);
+        demand.put(productId, 1);
+        return demand;
+    }
+
+    private static Map<Long, Double> toMap(List<MaterialDemandDTO> demand) {
+        return demand.stream().collect(Collectors.toMap(MaterialDemandDTO::getProductId, MaterialDemandDTO::getQuantity));
+    }
+
+    private void createRecipe(long productId, float yield, Map<Long, Float> materials) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Recipe recipe = new Recipe();
+            recipe.setRecipeName("Recipe " + productId);
+            recipe.setYieldQuantity(yield);
+            recipe.setProduct(entityManager.getReference(Product.class, productId));
+            List<RecipeDetail> details = new ArrayList<>();
+            materials.forEach((materialId, quantity) -> {
+                RecipeDetail detail = new RecipeDetail();
+                detail.setRecipe(recipe);
+                detail.setRawMaterial(entityManager.getReference(Product.class, materialId));
+                detail.setQuantity(quantity);
+                details.add(detail);
+            });
+            recipe.setRecipeDetails(details);
+            entityManager.persist(recipe);
+        });
+    }
+}
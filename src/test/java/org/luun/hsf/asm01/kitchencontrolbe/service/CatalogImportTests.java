@@ -0,0 +1,146 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ImportJobDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogType;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.TransactionType;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.ImportKind;
+import org.luun.hsf.asm01.kitchencontrolbe.importer.ImportStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.support.TestData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class CatalogImportTests {
+
+    @Autowired
+    private IImportService importService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestData testData;
+
+    private long userId;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        userId = testData.createUser("KITCHEN");
+        prefix = "Import " + UUID.randomUUID() + " ";
+    }
+
+    @Test
+    void importsProductsAndReportsRejectedLines() throws Exception {
+        ImportJobDTO job = runImport(ImportKind.PRODUCTS, """
+                product_name,product_type,unit,shelf_life_days
+                %1$sFlour,RAW_MATERIAL,kg,180
+                "%1$sSugar, fine",raw_material,kg,
+                %1$sBread,FINISHED_PRODUCT,loaf,3
+                %1$sFlour,RAW_MATERIAL,kg,90
+                %1$sCake,DESSERT,piece,2
+                """.formatted(prefix), null);
+
+        assertEquals(ImportStatus.DONE, job.getStatus());
+        assertEquals(5, job.getRowsRead());
+        assertEquals(3, job.getRowsImported());
+        assertEquals(2, job.getRowsRejected());
+        //Lỗi parse được báo trước lỗi lúc ghi của cùng chunk
+        assertEquals(6, job.getErrors().get(0).getLine());
+        assertEquals(5, job.getErrors().get(1).getLine());
+        assertTrue(job.getErrors().get(1).getMessage().startsWith("Duplicate product"));
+        assertEquals(100.0, job.getPercent(), 1e-9);
+        assertEquals(1L, count("select count(p) from Product p where p.productName = ?1", prefix + "Sugar, fine"));
+    }
+
+    @Test
+    void recipeWithAnInvalidLineIsSkippedWhole() throws Exception {
+        runImport(ImportKind.PRODUCTS, """
+                product_name,product_type,unit,shelf_life_days
+                %1$sFlour,RAW_MATERIAL,kg,180
+                %1$sYeast,RAW_MATERIAL,g,30
+                %1$sBread,FINISHED_PRODUCT,loaf,3
+                %1$sBun,FINISHED_PRODUCT,piece,2
+                """.formatted(prefix), null);
+
+        ImportJobDTO job = runImport(ImportKind.RECIPES, """
+                product_name,recipe_name,yield_quantity,description,raw_material_name,quantity
+                %1$sBread,Basic,10,,%1$sFlour,5
+                %1$sBread,Basic,10,,%1$sYeast,0.1
+                %1$sBun,Sweet,20,"Soft, sweet",%1$sFlour,4
+                %1$sBun,Sweet,20,"Soft, sweet",%1$sButter,1
+                """.formatted(prefix), null);
+
+        assertEquals(ImportStatus.DONE, job.getStatus());
+        assertEquals(2, job.getRowsImported());
+        assertEquals(2, job.getRowsRejected());
+        assertEquals(1L, count("select count(r) from Recipe r where r.product.productName = ?1", prefix + "Bread"));
+        assertEquals(2L, count("select count(d) from RecipeDetail d where d.recipe.product.productName = ?1", prefix + "Bread"));
+        assertEquals(0L, count("select count(r) from Recipe r where r.product.productName = ?1", prefix + "Bun"));
+    }
+
+    @Test
+    void stockReceiptsCreateBatchInventoryAndLedgerRows() throws Exception {
+        runImport(ImportKind.PRODUCTS, """
+                product_name,product_type,unit,shelf_life_days
+                %1$sMilk,RAW_MATERIAL,l,7
+                """.formatted(prefix), null);
+        LocalDate today = LocalDate.now();
+
+        ImportJobDTO job = runImport(ImportKind.STOCK_RECEIPTS, """
+                product_name,quantity,production_date,expiry_date
+                %1$sMilk,12.5,%2$s,
+                %1$sMilk,3,%2$s,%3$s
+                %1$sMilk,-1,%2$s,
+                """.formatted(prefix, today, today.plusDays(2)), userId);
+
+        assertEquals(ImportStatus.DONE, job.getStatus());
+        assertEquals(2, job.getRowsImported());
+        assertEquals(1, job.getRowsRejected());
+        String product = prefix + "Milk";
+        assertEquals(2L, count("select count(b) from LogBatch b where b.type = ?1 and b.product.productName = ?2",
+                LogType.PURCHASE, product));
+        assertEquals(1L, count("select count(i) from Inventory i where i.expiryDate = ?1 and i.product.productName = ?2",
+                today.plusDays(7), product));
+        assertEquals(2L, count("select count(t) from InventoryTransaction t where t.type = ?1 and t.createdBy.userId = ?2",
+                TransactionType.IMPORT, userId));
+    }
+
+    @Test
+    void wrongHeaderFailsTheJob() throws Exception {
+        ImportJobDTO job = runImport(ImportKind.PRODUCTS, "name,type\nA,RAW_MATERIAL\n", null);
+
+        assertEquals(ImportStatus.FAILED, job.getStatus());
+        assertTrue(job.getError().startsWith("Expected header"));
+    }
+
+    private ImportJobDTO runImport(ImportKind kind, String csv, Long userId) throws InterruptedException {
+        ImportJobDTO job = importService.startImport(kind, kind + ".csv",
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), userId);
+        for (int i = 0; i < 100 && job.getStatus() != ImportStatus.DONE && job.getStatus() != ImportStatus.FAILED; i++) {
+            Thread.sleep(100);
+            job = importService.getJob(job.getJobId());
+        }
+        return job;
+    }
+
+    private long count(String query, Object... parameters) {
+        TypedQuery<Long> typed = entityManager.createQuery(query, Long.class);
+        for (int i = 0; i < parameters.length; i++) {
+            typed.setParameter(i + 1, parameters[i]);
+        }
+        return typed.getSingleResult();
+    }
+}
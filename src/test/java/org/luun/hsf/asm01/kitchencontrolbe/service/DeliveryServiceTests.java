@@ -0,0 +1,196 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.DeliveryPlanRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderStatusTransitionRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.DeliveryPlanResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.DeliveryResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Delivery;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.DeliveryStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.support.TestData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class DeliveryServiceTests {
+
+    @Autowired
+    private IDeliveryService deliveryService;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    //Ngày riêng của mỗi test để planning không lấy order DONE của các test khác
+    private LocalDate day;
+    private long firstShipper;
+    private long secondShipper;
+
+    @BeforeEach
+    void setUp() {
+        day = LocalDate.now().minusDays(1_000 + ThreadLocalRandom.current().nextInt(10_000));
+        firstShipper = testData.createUser("SHIPPER");
+        secondShipper = testData.createUser("SHIPPER");
+    }
+
+    @Test
+    void planSplitsEachStoreIntoRunsWithinCapacity() {
+        int storeA = newStore();
+        int storeB = newStore();
+        List<Integer> ordersA = doneOrders(storeA, 3);
+        List<Integer> ordersB = doneOrders(storeB, 1);
+        int waiting = newOrder(storeA);
+        int deleted = doneOrders(storeB, 1).get(0);
+        orderService.deleteOrder(deleted);
+
+        DeliveryPlanResultDTO result = plan(2);
+
+        assertEquals(3, result.getDeliveryCount());
+        assertEquals(4, result.getOrderCount());
+        List<DeliveryResponseDTO> runs = result.getDeliveries();
+        //Order của 1 store không bị trộn với store khác, chuyến không vượt capacity, shipper xoay vòng
+        assertEquals(List.of(ordersA.get(0), ordersA.get(1)), runs.get(0).getOrderIds());
+        assertEquals(List.of(ordersA.get(2)), runs.get(1).getOrderIds());
+        assertEquals(ordersB, runs.get(2).getOrderIds());
+        assertEquals(List.of(storeA, storeA, storeB), runs.stream().map(DeliveryResponseDTO::getStoreId).toList());
+        assertEquals(List.of(firstShipper, secondShipper, firstShipper),
+                runs.stream().map(DeliveryResponseDTO::getShipperId).toList());
+        for (DeliveryResponseDTO run : runs) {
+            assertEquals(DeliveryStatus.WAITTING, run.getStatus());
+            assertEquals(run.getOrderIds(), deliveryService.getDelivery(run.getDeliveryId()).getOrderIds());
+        }
+        for (int unplanned : List.of(waiting, deleted)) {
+            assertNull(entityManager.createNativeQuery("select delivery_id from orders where order_id = " + unplanned)
+                    .getSingleResult());
+        }
+
+        //Order đã có chuyến không được xếp lại
+        assertEquals(0, plan(2).getOrderCount());
+    }
+
+    @Test
+    void ordersChangedAfterTheReadAreNotAssigned() {
+        List<Integer> orderIds = doneOrders(newStore(), 4);
+        int reopened = orderIds.get(1);
+        int deleted = orderIds.get(2);
+
+        int assigned = transactionTemplate.execute(status -> {
+            List<Object[]> rows = orderRepository.findUnassignedForDelivery(OrderStatus.DONE,
+                    day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            assertEquals(orderIds, rows.stream().map(row -> ((Number) row[0]).intValue()).toList());
+            //Giữa lúc đọc và lúc gán chuyến, 1 transaction khác đổi status 1 order và xóa mềm 1 order
+            CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(other -> {
+                entityManager.createNativeQuery("update orders set status = 'PROCESSING' where order_id = " + reopened)
+                        .executeUpdate();
+                entityManager.createNativeQuery("update orders set deleted_at = current_timestamp where order_id = " + deleted)
+                        .executeUpdate();
+            })).join();
+            Delivery delivery = new Delivery();
+            delivery.setDeliveryDate(day);
+            delivery.setStatus(DeliveryStatus.WAITTING);
+            entityManager.persist(delivery);
+            entityManager.flush();
+            return orderRepository.assignDelivery(delivery, orderIds, OrderStatus.DONE);
+        });
+
+        assertEquals(2, assigned);
+        for (int skipped : List.of(reopened, deleted)) {
+            assertNull(entityManager.createNativeQuery("select delivery_id from orders where order_id = " + skipped)
+                    .getSingleResult());
+        }
+    }
+
+    @Test
+    void deliveryStatusMovesOneStepForward() {
+        doneOrders(newStore(), 1);
+        long deliveryId = plan(5).getDeliveries().get(0).getDeliveryId();
+
+        assertThrows(RuntimeException.class, () -> deliveryService.changeStatus(deliveryId, DeliveryStatus.DONE));
+        assertEquals(DeliveryStatus.PROCESSING, deliveryService.changeStatus(deliveryId, DeliveryStatus.PROCESSING).getStatus());
+        assertThrows(RuntimeException.class, () -> deliveryService.changeStatus(deliveryId, DeliveryStatus.WAITTING));
+        assertThrows(RuntimeException.class, () -> deliveryService.changeStatus(deliveryId, DeliveryStatus.PROCESSING));
+        assertEquals(DeliveryStatus.DONE, deliveryService.changeStatus(deliveryId, DeliveryStatus.DONE).getStatus());
+        assertEquals(DeliveryStatus.DONE, deliveryService.getDelivery(deliveryId).getStatus());
+        assertThrows(RuntimeException.class, () -> deliveryService.changeStatus(Long.MAX_VALUE, DeliveryStatus.PROCESSING));
+    }
+
+    @Test
+    void invalidPlanRequestsAreRejected() {
+        assertThrows(RuntimeException.class, () -> deliveryService.planDeliveries(new DeliveryPlanRequest(day, List.of())));
+        assertThrows(RuntimeException.class, () -> deliveryService.planDeliveries(new DeliveryPlanRequest(null,
+                List.of(new DeliveryPlanRequest.ShipperCapacity(firstShipper, 1)))));
+        assertThrows(RuntimeException.class, () -> deliveryService.planDeliveries(new DeliveryPlanRequest(day,
+                List.of(new DeliveryPlanRequest.ShipperCapacity(firstShipper, 0)))));
+    }
+
+    private DeliveryPlanResultDTO plan(int capacity) {
+        return deliveryService.planDeliveries(new DeliveryPlanRequest(day, List.of(
+                new DeliveryPlanRequest.ShipperCapacity(firstShipper, capacity),
+                new DeliveryPlanRequest.ShipperCapacity(secondShipper, capacity))));
+    }
+
+    private List<Integer> doneOrders(int storeId, int count) {
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(newOrder(storeId));
+        }
+        orderService.transitionStatus(new OrderStatusTransitionRequest(OrderStatus.WAITTING, OrderStatus.PROCESSING,
+                ids, null, null, null, null));
+        orderService.transitionStatus(new OrderStatusTransitionRequest(OrderStatus.PROCESSING, OrderStatus.DONE,
+                ids, null, null, null, null));
+        return ids;
+    }
+
+    //Order mới rồi lùi ngày đặt về day
+    private int newOrder(int storeId) {
+        int orderId = orderService.createOrder(new OrderRequestDTO(storeId, List.of(
+                new OrderRequestDTO.OrderDetailRequest(1, 1f))), null).getOrderId();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String table : List.of("orders", "order_view")) {
+                entityManager.createNativeQuery("update " + table + " set order_date = :orderDate where order_id = :orderId")
+                        .setParameter("orderDate", day.atTime(10, 0))
+                        .setParameter("orderId", orderId)
+                        .executeUpdate();
+            }
+        });
+        return orderId;
+    }
+
+    private int newStore() {
+        return transactionTemplate.execute(status -> {
+            Store store = new Store();
+            store.setStoreName("Delivery store " + UUID.randomUUID());
+            entityManager.persist(store);
+            return store.getStoreId();
+        });
+    }
+}
@@ -0,0 +1,131 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ExpirySweepResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Inventory;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.LogBatchRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.support.TestData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ExpirySweepTests {
+
+    @Autowired
+    private IExpiryService expiryService;
+
+    @Autowired
+    private IStockLedgerService stockLedgerService;
+
+    @Autowired
+    private LogBatchRepository logBatchRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = testData.createUser("KITCHEN");
+    }
+
+    @Test
+    void expiresDueBatchesAndWritesOffTheirStock() {
+        LocalDate today = LocalDate.now();
+        long productId = testData.createProduct();
+        long expired = testData.addBatch(productId, 12f, today.minusDays(1), LogStatus.DONE);
+        long fresh = testData.addBatch(productId, 5f, today.plusDays(1), LogStatus.DONE);
+        long damaged = testData.addBatch(productId, 3f, today.minusDays(2), LogStatus.DAMAGED);
+        double stockBefore = stockLedgerService.getStock(productId);
+
+        ExpirySweepResultDTO result = expiryService.sweepExpired(userId);
+
+        assertEquals(LogStatus.EXPIRED, status(expired));
+        assertEquals(LogStatus.DONE, status(fresh));
+        assertEquals(LogStatus.DAMAGED, status(damaged));
+        assertEquals(0f, quantityOfBatch(expired));
+        assertEquals(5f, quantityOfBatch(fresh));
+        assertEquals(3f, quantityOfBatch(damaged));
+        Number exported = (Number) entityManager.createQuery(
+                        "select sum(t.quantity) from InventoryTransaction t where t.batch.batchId = :batchId")
+                .setParameter("batchId", expired)
+                .getSingleResult();
+        assertEquals(12.0, exported.doubleValue(), 1e-6);
+        assertEquals(stockBefore - 12.0, stockLedgerService.getStock(productId), 1e-6);
+        assertEquals(0, expiryService.stats().getLagSeconds());
+        assertTrue(result.getBatchesExpired() >= 1);
+    }
+
+    @Test
+    void picksUpBatchesAddedAfterTheQueueWasLoaded() {
+        LocalDate today = LocalDate.now();
+        long productId = testData.createProduct();
+        expiryService.sweepExpired(userId);
+
+        long late = testData.addBatch(productId, 4f, today.minusDays(3), LogStatus.PROCESSING);
+        ExpirySweepResultDTO result = expiryService.sweepExpired(userId);
+
+        assertEquals(1, result.getBatchesExpired());
+        assertEquals(LogStatus.EXPIRED, status(late));
+        assertEquals(0f, quantityOfBatch(late));
+        assertEquals(0, expiryService.sweepExpired(userId).getBatchesExpired());
+    }
+
+    @Test
+    void failingBatchIsRetriedThenParkedWhileOthersExpire() {
+        LocalDate today = LocalDate.now();
+        long productId = testData.createProduct();
+        long poison = testData.addBatch(productId, 2f, today.minusDays(1), LogStatus.DONE);
+        long good = testData.addBatch(productId, 3f, today.minusDays(1), LogStatus.DONE);
+        //Giả lập 1 lô luôn lỗi khi ghi transaction xuất kho
+        transactionTemplate.executeWithoutResult(status -> entityManager.createNativeQuery(
+                "alter table inventory_transactions add constraint poison_batch check (batch_id <> " + poison + ")")
+                .executeUpdate());
+        try {
+            //Test đặt kitchen.expiry.max-attempts=2
+            ExpirySweepResultDTO first = expiryService.sweepExpired(userId);
+            assertEquals(1, first.getBatchesFailed());
+            assertEquals(0, first.getBatchesParked());
+            assertEquals(LogStatus.EXPIRED, status(good));
+            assertEquals(LogStatus.DONE, status(poison));
+
+            ExpirySweepResultDTO second = expiryService.sweepExpired(userId);
+            assertEquals(1, second.getBatchesFailed());
+            assertEquals(1, second.getBatchesParked());
+
+            assertEquals(0, expiryService.sweepExpired(userId).getBatchesFailed());
+            assertEquals(LogStatus.DONE, status(poison));
+            assertEquals(2f, quantityOfBatch(poison));
+            assertTrue(expiryService.stats().getParked() >= 1);
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> entityManager.createNativeQuery(
+                    "alter table inventory_transactions drop constraint poison_batch").executeUpdate());
+        }
+    }
+
+    private LogStatus status(long batchId) {
+        return logBatchRepository.findById(batchId).orElseThrow().getStatus();
+    }
+
+    private float quantityOfBatch(long batchId) {
+        return (Float) entityManager.createQuery("select i.quantity from Inventory i where i.batch.batchId = :batchId")
+                .setParameter("batchId", batchId)
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,171 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderStatusTransitionRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.export.ExportFormat;
+import org.luun.hsf.asm01.kitchencontrolbe.export.ExportTask;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ExportServiceTests {
+
+    @Autowired
+    private IExportService exportService;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private int storeId;
+    private List<Integer> orderIds;
+
+    @BeforeEach
+    void setUp() {
+        storeId = ThreadLocalRandom.current().nextInt(2_000_000, 3_000_000);
+        orderIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            OrderRequestDTO request = new OrderRequestDTO(storeId, List.of(
+                    new OrderRequestDTO.OrderDetailRequest(1, 1f + i),
+                    new OrderRequestDTO.OrderDetailRequest(2, 0.5f)));
+            orderIds.add(orderService.createOrder(request, null).getOrderId());
+        }
+    }
+
+    @Test
+    void exportsOneCsvRowPerOrderLineInOrderIdOrder() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.exportOrderLines(filter(), ExportFormat.CSV).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(6, rows);
+        assertEquals(7, lines.length);
+        assertEquals("order_id,store_id,order_date,status,plan_id,delivery_id,order_detail_id,product_id,quantity", lines[0]);
+        assertTrue(lines[1].startsWith(orderIds.get(0) + "," + storeId + ","));
+        assertTrue(lines[6].startsWith(orderIds.get(2) + "," + storeId + ","));
+        assertTrue(lines[1].contains(",WAITTING,,,"), "null plan and delivery are empty cells");
+    }
+
+    @Test
+    void exportsNdjsonObjectsKeyedByColumn() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportOrderLines(filter(), ExportFormat.NDJSON).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).trim().split("\n");
+        assertEquals(6, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(orderIds.get(0).intValue(), first.get("order_id").asInt());
+        assertEquals(storeId, first.get("store_id").asInt());
+        assertEquals("WAITTING", first.get("status").asText());
+        assertTrue(first.get("plan_id").isNull());
+        assertTrue(first.get("order_date").isTextual());
+    }
+
+    @Test
+    void cancelledExportsGiveTheirSlotBack() throws Exception {
+        //max-concurrent mặc định là 4: giữ hết chỗ rồi hủy mà không chạy
+        List<ExportTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(exportService.exportOrderLines(filter(), ExportFormat.CSV));
+        }
+        assertThrows(RuntimeException.class, () -> exportService.exportOrderLines(filter(), ExportFormat.CSV));
+        tasks.forEach(ExportTask::cancel);
+        tasks.forEach(ExportTask::cancel);
+        assertThrows(IllegalStateException.class, () -> tasks.get(0).writeTo(new ByteArrayOutputStream()));
+
+        List<ExportTask> again = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            again.add(exportService.exportOrderLines(filter(), ExportFormat.CSV));
+        }
+        for (ExportTask task : again) {
+            assertEquals(6, task.writeTo(new ByteArrayOutputStream()));
+            //Task đã chạy xong thì cancel không trả chỗ lần 2
+            task.cancel();
+        }
+        for (int i = 0; i < 4; i++) {
+            exportService.exportOrderLines(filter(), ExportFormat.CSV).cancel();
+        }
+        List<ExportTask> full = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            full.add(exportService.exportOrderLines(filter(), ExportFormat.CSV));
+        }
+        assertThrows(RuntimeException.class, () -> exportService.exportOrderLines(filter(), ExportFormat.CSV));
+        full.forEach(ExportTask::cancel);
+    }
+
+    @Test
+    void archivedOrdersAreExportedOnlyWhenIncluded() throws Exception {
+        int archived = orderIds.get(1);
+        orderService.transitionStatus(new OrderStatusTransitionRequest(OrderStatus.WAITTING, OrderStatus.PROCESSING,
+                List.of(archived), null, null, null, null));
+        orderService.transitionStatus(new OrderStatusTransitionRequest(OrderStatus.PROCESSING, OrderStatus.DONE,
+                List.of(archived), null, null, null, null));
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String table : List.of("orders", "order_view")) {
+                entityManager.createNativeQuery("update " + table + " set order_date = :orderDate where order_id = :orderId")
+                        .setParameter("orderDate", LocalDateTime.now().minusDays(100))
+                        .setParameter("orderId", archived)
+                        .executeUpdate();
+            }
+        });
+        orderService.archiveOrders();
+        assertThrows(RuntimeException.class, () -> orderService.getOrderById(archived));
+
+        ByteArrayOutputStream live = new ByteArrayOutputStream();
+        assertEquals(4, exportService.exportOrderLines(filter(), ExportFormat.CSV).writeTo(live));
+        assertFalse(live.toString(StandardCharsets.UTF_8).contains("\r\n" + archived + ","));
+
+        OrderFilterRequest withArchive = filter();
+        withArchive.setIncludeArchived(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(6, exportService.exportOrderLines(withArchive, ExportFormat.CSV).writeTo(out));
+
+        //Vẫn theo thứ tự orderId, dòng archive không còn order_detail_id
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i < lines.length; i++) {
+            ids.add(Integer.parseInt(lines[i].substring(0, lines[i].indexOf(','))));
+        }
+        assertEquals(List.of(orderIds.get(0), orderIds.get(0), archived, archived, orderIds.get(2), orderIds.get(2)), ids);
+        assertTrue(lines[3].startsWith(archived + "," + storeId + ","));
+        assertTrue(lines[3].contains(",DONE,"));
+        assertTrue(lines[3].endsWith(",,1,2.0"), lines[3]);
+        assertTrue(lines[4].endsWith(",,2,0.5"), lines[4]);
+    }
+
+    private OrderFilterRequest filter() {
+        OrderFilterRequest filter = new OrderFilterRequest();
+        filter.setStoreId(storeId);
+        return filter;
+    }
+}
@@ -0,0 +1,123 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.InventoryRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.support.TestData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class InventoryAllocationConcurrencyTests {
+
+    @Autowired
+    private IInventoryAllocationService allocationService;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestData testData;
+
+    private long userId;
+    private int storeId;
+
+    @BeforeEach
+    void setUp() {
+        userId = testData.createUser("KITCHEN");
+        storeId = testData.createStore();
+    }
+
+    @Test
+    void concurrentAllocationsOfHotProductNeverOversell() throws Exception {
+        LocalDate today = LocalDate.now();
+        int productId = testData.createProduct();
+        long expired = testData.addStock(productId, 100, today.minusDays(1));
+        long late = testData.addStock(productId, 30, today.plusDays(10));
+        long early = testData.addStock(productId, 30, today.plusDays(2));
+        List<Integer> orderIds = createOrders(productId, 100, 1f);
+
+        int allocated = runConcurrently(orderIds, 16);
+
+        assertEquals(60, allocated);
+        assertEquals(0f, quantity(early));
+        assertEquals(0f, quantity(late));
+        assertEquals(100f, quantity(expired), "expired stock must never be allocated");
+        Number exported = (Number) entityManager.createQuery(
+                        "select sum(t.quantity) from InventoryTransaction t where t.product.productId = :productId")
+                .setParameter("productId", (long) productId)
+                .getSingleResult();
+        assertEquals(60.0, exported.doubleValue(), 0.001);
+    }
+
+    @Test
+    void allocatesEarliestExpiryFirst() {
+        LocalDate today = LocalDate.now();
+        int productId = testData.createProduct();
+        long late = testData.addStock(productId, 10, today.plusDays(20));
+        long early = testData.addStock(productId, 10, today.plusDays(1));
+        List<Integer> orderIds = createOrders(productId, 1, 4f);
+
+        allocationService.allocateOrder(orderIds.get(0), userId);
+
+        assertEquals(6f, quantity(early));
+        assertEquals(10f, quantity(late));
+    }
+
+    private int runConcurrently(List<Integer> orderIds, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (Integer orderId : orderIds) {
+                results.add(executor.submit(() -> {
+                    try {
+                        allocationService.allocateOrder(orderId, userId);
+                        return true;
+                    } catch (RuntimeException e) {
+                        return false;
+                    }
+                }));
+            }
+            int success = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(60, TimeUnit.SECONDS)) {
+                    success++;
+                }
+            }
+            return success;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Integer> createOrders(int productId, int count, float quantity) {
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(orderService.createOrder(new OrderRequestDTO(storeId,
+                    List.of(new OrderRequestDTO.OrderDetailRequest(productId, quantity)))).getOrderId());
+        }
+        return ids;
+    }
+
+    private float quantity(long inventoryId) {
+        return inventoryRepository.findQuantity(inventoryId);
+    }
+}
@@ -0,0 +1,245 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.FeedbackRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderStatusTransitionRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.CursorPageResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderArchiveResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderArchive;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.mapper.OrderMapper;
+import org.luun.hsf.asm01.kitchencontrolbe.outbox.OutboxDispatcher;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderArchiveRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderOutboxRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OrderArchiveTests {
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private IQualityFeedbackService feedbackService;
+
+    @Autowired
+    private IReportService reportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private int storeId;
+
+    @BeforeEach
+    void setUp() {
+        storeId = transactionTemplate.execute(status -> {
+            Store store = new Store();
+            store.setStoreName("Archive store " + UUID.randomUUID());
+            entityManager.persist(store);
+            return store.getStoreId();
+        });
+    }
+
+    @Test
+    void deletedOrderIsHiddenButKeptUntilArchived() {
+        int kept = newOrder(1f);
+        int deleted = newOrder(2f);
+
+        orderService.deleteOrder(deleted);
+
+        assertThrows(RuntimeException.class, () -> orderService.getOrderById(deleted));
+        assertThrows(RuntimeException.class, () -> orderService.getOrderById(deleted, true));
+        assertEquals(List.of(kept), ids(orderService.getOrders(storeFilter(false), null, 10)));
+        //Dòng và details vẫn còn, chỉ được đánh dấu deleted_at
+        assertNotNull(nativeValue("select deleted_at from orders where order_id = " + deleted));
+        assertEquals(2L, ((Number) nativeValue("select count(*) from order_details where order_id = " + deleted)).longValue());
+        //Xóa lần 2 không làm gì
+        orderService.deleteOrder(deleted);
+    }
+
+    @Test
+    void deleteTakesBackTheDemandOfTheOrder() {
+        int orderId = newOrder(3f);
+        dispatchAll();
+        assertEquals(3.0, demand(LocalDate.now()), 1e-6);
+
+        orderService.deleteOrder(orderId);
+        dispatchAll();
+
+        assertEquals(0.0, demand(LocalDate.now()), 1e-6);
+    }
+
+    @Test
+    void archiverMovesOldFinishedAndDeletedOrders() {
+        int done = newOrder(2.5f);
+        int waiting = newOrder(1f);
+        int recent = newOrder(1f);
+        int withFeedback = newOrder(1f);
+        int deleted = newOrder(1f);
+        finish(List.of(done, recent, withFeedback));
+        feedbackService.createFeedback(new FeedbackRequest(withFeedback, 4, null));
+        orderService.deleteOrder(deleted);
+        age(done, 100);
+        age(waiting, 101);
+        age(withFeedback, 102);
+        age(deleted, 103);
+        OrderResponseDTO before = fromTables(done);
+
+        OrderArchiveResultDTO result = orderService.archiveOrders();
+
+        assertTrue(result.getOrdersArchived() >= 2);
+        assertTrue(orderArchiveRepository.existsById(done));
+        assertEquals(0L, ((Number) nativeValue("select count(*) from orders where order_id in (" + done + ", " + deleted + ")")).longValue());
+        assertEquals(0L, ((Number) nativeValue("select count(*) from order_details where order_id = " + done)).longValue());
+        assertEquals(3L, ((Number) nativeValue("select count(*) from orders where order_id in (" +
+                waiting + ", " + recent + ", " + withFeedback + ")")).longValue());
+        //Order đã xóa vẫn vào archive nhưng không hiện ra
+        assertNotNull(nativeValue("select deleted_at from orders_archive where order_id = " + deleted));
+        OrderArchive archived = orderArchiveRepository.findById(done).orElseThrow();
+        assertEquals("1:2.5;2:0.1", archived.getLines());
+
+        assertThrows(RuntimeException.class, () -> orderService.getOrderById(done));
+        assertEquals(before, orderService.getOrderById(done, true));
+        assertThrows(RuntimeException.class, () -> orderService.getOrderById(deleted, true));
+    }
+
+    @Test
+    void includeArchivedMergesBothTablesNewestFirst() {
+        int archived = newOrder(1f);
+        int older = newOrder(1f);
+        int recent = newOrder(1f);
+        finish(List.of(archived));
+        age(archived, 100);
+        age(older, 101);
+        orderService.archiveOrders();
+
+        assertEquals(List.of(recent, older), ids(orderService.getOrders(storeFilter(false), null, 10)));
+
+        //Trang nhỏ để cursor đi qua cả 2 bảng
+        List<Integer> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageResponseDTO<OrderResponseDTO> page = orderService.getOrders(storeFilter(true), cursor, 1);
+            paged.addAll(ids(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(List.of(recent, archived, older), paged);
+
+        List<Integer> streamed = new ArrayList<>();
+        orderService.streamOrders(storeFilter(true), order -> streamed.add(order.getOrderId()));
+        assertEquals(List.of(recent, archived, older), streamed);
+    }
+
+    @Test
+    void reportRebuildCountsArchivedOrders() {
+        int orderId = newOrder(4f);
+        finish(List.of(orderId));
+        age(orderId, 100);
+        orderService.archiveOrders();
+        LocalDate day = LocalDate.now().minusDays(100);
+
+        reportService.rebuildAggregates(day, day.plusDays(1));
+
+        assertEquals(4.0, demand(day), 1e-6);
+    }
+
+    private int newOrder(float quantity) {
+        return orderService.createOrder(new OrderRequestDTO(storeId, List.of(
+                new OrderRequestDTO.OrderDetailRequest(1, quantity),
+                new OrderRequestDTO.OrderDetailRequest(2, 0.1f))), null).getOrderId();
+    }
+
+    private void finish(List<Integer> orderIds) {
+        orderService.transitionStatus(new OrderStatusTransitionRequest(OrderStatus.WAITTING, OrderStatus.PROCESSING,
+                orderIds, null, null, null, null));
+        orderService.transitionStatus(new OrderStatusTransitionRequest(OrderStatus.PROCESSING, OrderStatus.DONE,
+                orderIds, null, null, null, null));
+    }
+
+    //Lùi ngày đặt của order (và dòng order_view của nó) về days ngày trước
+    private void age(int orderId, int days) {
+        LocalDateTime orderDate = LocalDate.now().minusDays(days).atTime(10, 0);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String table : List.of("orders", "order_view")) {
+                entityManager.createNativeQuery("update " + table + " set order_date = :orderDate where order_id = :orderId")
+                        .setParameter("orderDate", orderDate)
+                        .setParameter("orderId", orderId)
+                        .executeUpdate();
+            }
+        });
+    }
+
+    private OrderFilterRequest storeFilter(boolean includeArchived) {
+        return new OrderFilterRequest(storeId, null, null, null, includeArchived);
+    }
+
+    private static List<Integer> ids(CursorPageResponseDTO<OrderResponseDTO> page) {
+        return page.getItems().stream().map(OrderResponseDTO::getOrderId).toList();
+    }
+
+    private OrderResponseDTO fromTables(int orderId) {
+        return transactionTemplate.execute(status -> orderMapper.toResponseDTO(
+                orderRepository.findWithDetailsByOrderId(orderId).orElseThrow()));
+    }
+
+    private Object nativeValue(String sql) {
+        List<?> rows = entityManager.createNativeQuery(sql).getResultList();
+        assertFalse(rows.isEmpty());
+        return rows.get(0);
+    }
+
+    private double demand(LocalDate day) {
+        List<Double> rows = entityManager.createQuery("select d.quantity from DailyProductDemand d " +
+                        "where d.reportDate = :day and d.storeId = :storeId and d.productId = 1", Double.class)
+                .setParameter("day", day)
+                .setParameter("storeId", storeId)
+                .getResultList();
+        return rows.isEmpty() ? 0 : rows.get(0);
+    }
+
+    private void dispatchAll() {
+        for (int i = 0; i < 50 && outboxRepository.countPending() > 0; i++) {
+            outboxDispatcher.dispatchPending();
+        }
+        assertEquals(0, outboxRepository.countPending());
+    }
+}
@@ -0,0 +1,140 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.BatchOrderResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.outbox.OrderOutbox;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+//Chunk 2 order để 1 batch nhỏ cũng chia thành nhiều transaction
+@SpringBootTest(properties = "kitchen.orders.batch-chunk-size=2")
+class OrderBatchTests {
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @SpyBean
+    private OrderOutbox orderOutbox;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private int storeId;
+
+    @BeforeEach
+    void setUp() {
+        storeId = transactionTemplate.execute(status -> {
+            Store store = new Store();
+            store.setStoreName("Batch store " + UUID.randomUUID());
+            entityManager.persist(store);
+            return store.getStoreId();
+        });
+    }
+
+    @Test
+    void emptyAndOversizedBatchesAreRejected() {
+        assertThrows(RuntimeException.class, () -> orderService.createOrders(null));
+        assertThrows(RuntimeException.class, () -> orderService.createOrders(List.of()));
+        assertThrows(RuntimeException.class, () -> orderService.createOrders(Collections.nCopies(5_001, order(1f))));
+        assertEquals(0, countOrders());
+    }
+
+    @Test
+    void invalidOrdersGetAnErrorAtTheirIndex() {
+        List<OrderRequestDTO> requests = List.of(
+                order(1f),
+                new OrderRequestDTO(0, List.of(new OrderRequestDTO.OrderDetailRequest(1, 1f))),
+                order(2f),
+                new OrderRequestDTO(storeId, List.of()),
+                order(-1f),
+                order(3f));
+
+        List<BatchOrderResultDTO> results = orderService.createOrders(requests);
+
+        assertEquals(requests.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        assertEquals(List.of(true, false, true, false, false, true),
+                results.stream().map(BatchOrderResultDTO::isSuccess).toList());
+        for (int i : List.of(1, 3, 4)) {
+            assertNull(results.get(i).getOrder());
+            assertTrue(results.get(i).getError() != null && !results.get(i).getError().isBlank());
+        }
+        //Order hợp lệ giữ đúng dữ liệu của phần tử cùng index
+        assertEquals(List.of(1f, 2f, 3f), List.of(0, 2, 5).stream()
+                .map(i -> results.get(i).getOrder().getOrderDetails().get(0).getQuantity())
+                .toList());
+        assertEquals(3, countOrders());
+    }
+
+    @Test
+    void failingChunkDoesNotRollBackTheOtherChunks() {
+        //Chunk đầu tiên (index 0, 1) lỗi khi ghi outbox, các chunk sau chạy bình thường
+        doThrow(new RuntimeException("outbox unavailable")).doCallRealMethod()
+                .when(outboxSpy()).recordAll(any(), any(), any(), any(), any());
+        List<OrderRequestDTO> requests = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            requests.add(order(i));
+        }
+
+        List<BatchOrderResultDTO> results;
+        try {
+            results = orderService.createOrders(requests);
+        } finally {
+            doCallRealMethod().when(outboxSpy()).recordAll(any(), any(), any(), any(), any());
+        }
+
+        for (int i : List.of(0, 1)) {
+            assertFalse(results.get(i).isSuccess());
+            assertEquals("outbox unavailable", results.get(i).getError());
+        }
+        for (int i : List.of(2, 3, 4)) {
+            assertTrue(results.get(i).isSuccess());
+            assertTrue(orderRepository.existsById(results.get(i).getOrder().getOrderId()));
+        }
+        assertEquals(3, countOrders());
+    }
+
+    //Stub trên spy phía sau proxy @Transactional, gọi qua proxy thì MANDATORY báo lỗi vì chưa có transaction
+    private OrderOutbox outboxSpy() {
+        return AopTestUtils.getUltimateTargetObject(orderOutbox);
+    }
+
+    private OrderRequestDTO order(float quantity) {
+        return new OrderRequestDTO(storeId, List.of(new OrderRequestDTO.OrderDetailRequest(1, quantity)));
+    }
+
+    private long countOrders() {
+        return ((Number) entityManager.createNativeQuery("select count(*) from orders where store_id = " + storeId)
+                .getSingleResult()).longValue();
+    }
+}
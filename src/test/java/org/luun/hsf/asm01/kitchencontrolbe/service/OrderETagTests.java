@@ -0,0 +1,140 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderStatusTransitionRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderETagTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private int orderId;
+
+    @BeforeEach
+    void setUp() {
+        //Store riêng: test khác lọc theo store sẽ không thấy order của class này
+        int storeId = transactionTemplate.execute(status -> {
+            Store store = new Store();
+            store.setStoreName("ETag store " + UUID.randomUUID());
+            entityManager.persist(store);
+            return store.getStoreId();
+        });
+        orderId = orderService.createOrder(new OrderRequestDTO(storeId,
+                List.of(new OrderRequestDTO.OrderDetailRequest(1, 2f))), null).getOrderId();
+    }
+
+    @Test
+    void matchingETagIsAnsweredWithoutQueries() throws Exception {
+        //ETag không khớp: đọc version (vào cache) rồi load order
+        mockMvc.perform(get("/api/orders/{id}", orderId).header(HttpHeaders.IF_NONE_MATCH, "\"9\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+        long countBefore = notModifiedStatements().count();
+        double totalBefore = notModifiedStatements().totalAmount();
+
+        mockMvc.perform(get("/api/orders/{id}", orderId).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/orders/{id}", orderId).header(HttpHeaders.IF_NONE_MATCH, "W/\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        assertEquals(countBefore + 2, notModifiedStatements().count());
+        assertEquals(totalBefore, notModifiedStatements().totalAmount());
+    }
+
+    @Test
+    void statusChangeInvalidatesTheETag() throws Exception {
+        mockMvc.perform(get("/api/orders/{id}", orderId).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified());
+
+        startProcessing();
+
+        mockMvc.perform(get("/api/orders/{id}", orderId).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.status").value("PROCESSING"));
+    }
+
+    @Test
+    void watchReturnsTheOrderWhenItChanges() throws Exception {
+        MvcResult pending = mockMvc.perform(get("/api/orders/{id}/watch", orderId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                        .param("timeoutSeconds", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        startProcessing();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void watchTimesOutWithNotModified() throws Exception {
+        MvcResult pending = mockMvc.perform(get("/api/orders/{id}/watch", orderId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                        .param("timeoutSeconds", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+    }
+
+    //Số câu SQL của các response 304
+    private DistributionSummary notModifiedStatements() {
+        return DistributionSummary.builder("kitchen.http.sql.statements")
+                .baseUnit("statements")
+                .tag("method", "GET")
+                .tag("uri", "/api/orders/{id}")
+                .tag("status", "304")
+                .register(meterRegistry);
+    }
+
+    private void startProcessing() {
+        orderService.transitionStatus(new OrderStatusTransitionRequest(OrderStatus.WAITTING, OrderStatus.PROCESSING,
+                List.of(orderId), null, null, null, null));
+    }
+}
@@ -0,0 +1,92 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.exception.IdempotencyKeyReusedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class OrderIdempotencyTests {
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void retryWithSameKeyReturnsTheOriginalOrder() {
+        String key = UUID.randomUUID().toString();
+
+        OrderResponseDTO first = orderService.createOrder(request(2f), key);
+        OrderResponseDTO retry = orderService.createOrder(request(2f), key);
+
+        assertEquals(first.getOrderId(), retry.getOrderId());
+        assertEquals(first.getOrderDetails().size(), retry.getOrderDetails().size());
+        assertEquals(1, countOrders(key));
+    }
+
+    @Test
+    void concurrentRetriesCreateOneOrder() throws Exception {
+        String key = UUID.randomUUID().toString();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<OrderResponseDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> orderService.createOrder(request(1f), key)));
+            }
+            int orderId = results.get(0).get(30, TimeUnit.SECONDS).getOrderId();
+            for (Future<OrderResponseDTO> result : results) {
+                assertEquals(orderId, result.get(30, TimeUnit.SECONDS).getOrderId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, countOrders(key));
+    }
+
+    @Test
+    void sameKeyWithDifferentPayloadIsRejected() {
+        String key = UUID.randomUUID().toString();
+        OrderResponseDTO first = orderService.createOrder(request(2f), key);
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> orderService.createOrder(request(3f), key));
+        assertThrows(IdempotencyKeyReusedException.class, () -> orderService.createOrder(
+                new OrderRequestDTO(2, List.of(new OrderRequestDTO.OrderDetailRequest(1, 2f))), key));
+        assertEquals(first.getOrderId(), orderService.createOrder(request(2f), key).getOrderId());
+        assertEquals(1, countOrders(key));
+    }
+
+    @Test
+    void requestsWithoutKeyAreNotDeduplicated() {
+        OrderResponseDTO first = orderService.createOrder(request(1f), null);
+        OrderResponseDTO second = orderService.createOrder(request(1f), null);
+
+        assertNotEquals(first.getOrderId(), second.getOrderId());
+    }
+
+    private long countOrders(String key) {
+        return entityManager.createQuery("select count(o) from Order o where o.idempotencyKey = :key", Long.class)
+                .setParameter("key", key)
+                .getSingleResult();
+    }
+
+    private static OrderRequestDTO request(float quantity) {
+        return new OrderRequestDTO(1, List.of(new OrderRequestDTO.OrderDetailRequest(1, quantity)));
+    }
+}
@@ -0,0 +1,143 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.CatalogCache;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.CursorPageResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderViewRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.StoreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class OrderQueryCountTests {
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    private Statistics statistics;
+    private int storeId;
+    private int otherStoreId;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        //deleteAll không đi qua OrderOutbox nên phải xóa cả order_view
+        orderViewRepository.deleteAllInBatch();
+        storeRepository.deleteAll();
+        storeId = newStore("Store 1");
+        //Store thật: id của store chưa tồn tại sẽ được cấp cho store do test class sau tạo, kéo theo các order này
+        otherStoreId = newStore("Store 2");
+        for (int i = 0; i < 60; i++) {
+            List<OrderRequestDTO.OrderDetailRequest> details = new ArrayList<>();
+            for (int p = 1; p <= 3; p++) {
+                details.add(new OrderRequestDTO.OrderDetailRequest(p, 1.5f * p));
+            }
+            orderService.createOrder(new OrderRequestDTO(i % 2 == 0 ? storeId : otherStoreId, details));
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        //Warm up CatalogCache để các lần đo chỉ đếm query của order
+        orderService.getOrders(new OrderFilterRequest(), null, 100);
+    }
+
+    @Test
+    void listingQueryCountDoesNotGrowWithPageSize() {
+        long small = countStatements(() -> orderService.getOrders(new OrderFilterRequest(), null, 5));
+        long large = countStatements(() -> orderService.getOrders(new OrderFilterRequest(), null, 50));
+
+        assertEquals(small, large, "listing must not issue one query per order");
+        assertEquals(1, large, "expected a single order_view page query");
+    }
+
+    @Test
+    void listingPagesThroughEveryOrderWithCursor() {
+        int seen = 0;
+        String cursor = null;
+        do {
+            CursorPageResponseDTO<OrderResponseDTO> page = orderService.getOrders(new OrderFilterRequest(), cursor, 25);
+            page.getItems().forEach(order -> assertEquals(3, order.getOrderDetails().size()));
+            seen += page.getSize();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(60, seen);
+    }
+
+    @Test
+    void streamingQueryCountIsIndependentOfRowCount() {
+        AtomicInteger streamed = new AtomicInteger();
+        long statements = countStatements(() -> orderService.streamOrders(new OrderFilterRequest(), order -> streamed.incrementAndGet()));
+
+        assertEquals(60, streamed.get());
+        assertEquals(1, statements, "expected a single order_view stream query");
+    }
+
+    @Test
+    void listingFillsStoreNameFromCatalogCache() {
+        CursorPageResponseDTO<OrderResponseDTO> page = orderService.getOrders(new OrderFilterRequest(), null, 10);
+
+        page.getItems().forEach(order ->
+                assertEquals(order.getStoreId() == storeId ? "Store 1" : "Store 2", order.getStoreName()));
+    }
+
+    @Test
+    void getOrderByIdLoadsDetailsInOneQuery() {
+        int orderId = orderRepository.findAll().get(0).getOrderId();
+
+        long statements = countStatements(() -> orderService.getOrderById(orderId));
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void getOrderByIdWithColdCatalogLoadsNamesInOneQueryEach() {
+        int orderId = orderRepository.findAll().get(0).getOrderId();
+        catalogCache.invalidateAll();
+
+        //order_view + 1 query tên store + 1 query tên cho cả 3 product
+        long statements = countStatements(() -> orderService.getOrderById(orderId));
+
+        assertEquals(3, statements);
+    }
+
+    private int newStore(String name) {
+        Store store = new Store();
+        store.setStoreName(name);
+        return storeRepository.save(store).getStoreId();
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
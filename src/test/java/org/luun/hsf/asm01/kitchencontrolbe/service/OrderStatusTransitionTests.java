@@ -0,0 +1,135 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderStatusTransitionRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderStatusTransitionResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderEventType;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class OrderStatusTransitionTests {
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private int storeId;
+
+    @BeforeEach
+    void setUp() {
+        storeId = transactionTemplate.execute(status -> {
+            Store store = new Store();
+            store.setStoreName("Transition store " + UUID.randomUUID());
+            entityManager.persist(store);
+            return store.getStoreId();
+        });
+    }
+
+    @Test
+    void filterMovesOnlyOrdersInTheFromStatus() {
+        int first = newOrder();
+        int second = newOrder();
+        int third = newOrder();
+        transition(OrderStatus.WAITTING, OrderStatus.PROCESSING, List.of(third));
+
+        OrderStatusTransitionResultDTO result = orderService.transitionStatus(new OrderStatusTransitionRequest(
+                OrderStatus.WAITTING, OrderStatus.PROCESSING, null, null, storeId, null, null));
+
+        assertEquals(3, result.getMatched());
+        assertEquals(2, result.getApplied());
+        assertEquals(1, result.getRejected());
+        assertNull(result.getRejectedOrderIds());
+        for (int orderId : List.of(first, second)) {
+            OrderResponseDTO order = orderService.getOrderById(orderId);
+            assertEquals(OrderStatus.PROCESSING, order.getStatus());
+            assertEquals(1, order.getVersion());
+        }
+        assertEquals(1, orderService.getOrderById(third).getVersion());
+        //1 event của lần đổi riêng order third + 2 event của lần đổi theo store
+        assertEquals(3, statusChangedEvents(List.of(first, second, third)));
+    }
+
+    @Test
+    void orderIdsReportTheRejectedOnes() {
+        int processing = newOrder();
+        int waiting = newOrder();
+        transition(OrderStatus.WAITTING, OrderStatus.PROCESSING, List.of(processing));
+
+        OrderStatusTransitionResultDTO result = transition(OrderStatus.PROCESSING, OrderStatus.DONE,
+                List.of(processing, waiting, Integer.MAX_VALUE));
+
+        assertEquals(3, result.getMatched());
+        assertEquals(1, result.getApplied());
+        assertEquals(2, result.getRejected());
+        assertEquals(List.of(waiting, Integer.MAX_VALUE), result.getRejectedOrderIds());
+        assertEquals(OrderStatus.DONE, orderService.getOrderById(processing).getStatus());
+        assertEquals(OrderStatus.WAITTING, orderService.getOrderById(waiting).getStatus());
+    }
+
+    @Test
+    void invalidRequestsAreRejectedBeforeAnyUpdate() {
+        int orderId = newOrder();
+
+        assertThrows(RuntimeException.class, () -> transition(OrderStatus.WAITTING, OrderStatus.DONE, List.of(orderId)));
+        assertThrows(RuntimeException.class, () -> transition(OrderStatus.DAMAGED, OrderStatus.WAITTING, List.of(orderId)));
+        assertThrows(RuntimeException.class, () -> orderService.transitionStatus(new OrderStatusTransitionRequest(
+                OrderStatus.WAITTING, OrderStatus.PROCESSING, null, null, null, null, null)));
+        assertEquals(0, orderService.getOrderById(orderId).getVersion());
+    }
+
+    @Test
+    void filterMatchingMoreThanTheCapChangesNothing() {
+        //Test đặt kitchen.orders.max-transition-orders=10
+        List<Integer> orderIds = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            orderIds.add(newOrder());
+        }
+
+        assertThrows(RuntimeException.class, () -> orderService.transitionStatus(new OrderStatusTransitionRequest(
+                OrderStatus.WAITTING, OrderStatus.PROCESSING, null, null, storeId, null, null)));
+        assertEquals(0, statusChangedEvents(orderIds));
+
+        transition(OrderStatus.WAITTING, OrderStatus.PROCESSING, orderIds.subList(0, 1));
+        OrderStatusTransitionResultDTO result = orderService.transitionStatus(new OrderStatusTransitionRequest(
+                OrderStatus.WAITTING, OrderStatus.PROCESSING, null, null, storeId, null, null));
+        assertEquals(10, result.getApplied());
+    }
+
+    private OrderStatusTransitionResultDTO transition(OrderStatus from, OrderStatus to, List<Integer> orderIds) {
+        return orderService.transitionStatus(new OrderStatusTransitionRequest(from, to, orderIds, null, null, null, null));
+    }
+
+    private long statusChangedEvents(List<Integer> orderIds) {
+        return entityManager.createQuery("select count(e) from OrderOutboxEvent e " +
+                        "where e.orderId in :orderIds and e.eventType = :type", Long.class)
+                .setParameter("orderIds", orderIds)
+                .setParameter("type", OrderEventType.STATUS_CHANGED)
+                .getSingleResult();
+    }
+
+    private int newOrder() {
+        return orderService.createOrder(new OrderRequestDTO(storeId, List.of(
+                new OrderRequestDTO.OrderDetailRequest(1, 1f))), null).getOrderId();
+    }
+}
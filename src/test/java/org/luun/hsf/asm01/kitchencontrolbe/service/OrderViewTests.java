@@ -0,0 +1,142 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderFilterRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderStatusTransitionRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.CursorPageResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderViewRebuildResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderView;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.mapper.OrderMapper;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderViewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OrderViewTests {
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private int storeId;
+
+    @BeforeEach
+    void setUp() {
+        storeId = transactionTemplate.execute(status -> {
+            Store store = new Store();
+            store.setStoreName("View store " + UUID.randomUUID());
+            entityManager.persist(store);
+            return store.getStoreId();
+        });
+    }
+
+    @Test
+    void viewFollowsCreateStatusChangeAndDelete() {
+        int orderId = newOrder(2.5f);
+        OrderView view = orderViewRepository.findById(orderId).orElseThrow();
+        assertEquals("1:2.5;2:0.1", view.getLines());
+        assertEquals(fromTables(orderId), orderService.getOrderById(orderId));
+
+        orderService.transitionStatus(new OrderStatusTransitionRequest(OrderStatus.WAITTING, OrderStatus.PROCESSING,
+                List.of(orderId), null, null, null, null));
+        OrderResponseDTO changed = orderService.getOrderById(orderId);
+        assertEquals(OrderStatus.PROCESSING, changed.getStatus());
+        assertEquals(1, changed.getVersion());
+        assertEquals(fromTables(orderId), changed);
+
+        orderService.deleteOrder(orderId);
+        assertFalse(orderViewRepository.existsById(orderId));
+        assertThrows(RuntimeException.class, () -> orderService.getOrderById(orderId));
+    }
+
+    @Test
+    void listingFromTheViewMatchesTheTables() {
+        List<Integer> orderIds = List.of(newOrder(1f), newOrder(2f), newOrder(3f));
+
+        //Không giả định store mới chưa có order nào: order của test là 3 order mới nhất của store
+        CursorPageResponseDTO<OrderResponseDTO> page = orderService.getOrders(
+                new OrderFilterRequest(storeId, null, null, null, false), null, orderIds.size());
+
+        assertEquals(3, page.getSize());
+        //Mới nhất trước
+        assertEquals(orderIds.reversed().stream().map(this::fromTables).toList(), page.getItems());
+    }
+
+    @Test
+    void getOrderByIdFallsBackToTheTablesWithoutAViewRow() {
+        int orderId = newOrder(4f);
+        transactionTemplate.executeWithoutResult(status -> orderViewRepository.deleteByOrderIdIn(List.of(orderId)));
+
+        assertEquals(fromTables(orderId), orderService.getOrderById(orderId));
+    }
+
+    @Test
+    void rebuildRepairsDriftedRowsAndRemovesOrphans() {
+        int drifted = newOrder(5f);
+        int missing = newOrder(6f);
+        int orphanId = Integer.MAX_VALUE - storeId;
+        transactionTemplate.executeWithoutResult(status -> {
+            OrderView view = entityManager.find(OrderView.class, drifted);
+            view.setStatus(OrderStatus.DONE);
+            view.setLines("");
+            orderViewRepository.deleteByOrderIdIn(List.of(missing));
+            OrderView orphan = new OrderView();
+            orphan.setOrderId(orphanId);
+            orphan.setStoreId(storeId);
+            orphan.setOrderDate(view.getOrderDate());
+            orphan.setStatus(OrderStatus.WAITTING);
+            orphan.setLines("1:1.0");
+            entityManager.persist(orphan);
+        });
+
+        OrderViewRebuildResultDTO result = orderService.rebuildOrderView();
+
+        assertTrue(result.getRowsWritten() >= 2);
+        assertTrue(result.getOrphansRemoved() >= 1);
+        assertFalse(orderViewRepository.existsById(orphanId));
+        assertEquals(fromTables(drifted), orderService.getOrderById(drifted));
+        assertEquals(fromTables(missing), orderService.getOrderById(missing));
+    }
+
+    private int newOrder(float quantity) {
+        return orderService.createOrder(new OrderRequestDTO(storeId, List.of(
+                new OrderRequestDTO.OrderDetailRequest(1, quantity),
+                new OrderRequestDTO.OrderDetailRequest(2, 0.1f))), null).getOrderId();
+    }
+
+    //Path cũ: orders + order_details qua OrderMapper
+    private OrderResponseDTO fromTables(int orderId) {
+        return transactionTemplate.execute(status -> orderMapper.toResponseDTO(
+                orderRepository.findWithDetailsByOrderId(orderId).orElseThrow()));
+    }
+}
@@ -0,0 +1,140 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.OrderVersionCache;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.AllocationResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.OrderResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.PlanAggregationResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.support.TestData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ProductionPlanTests {
+
+    @Autowired
+    private IProductionPlanService productionPlanService;
+
+    @Autowired
+    private IInventoryAllocationService allocationService;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private OrderVersionCache orderVersions;
+
+    private long userId;
+    private int storeId;
+    //Ngày riêng của mỗi test để plan không gom order của các test khác
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        userId = testData.createUser("KITCHEN");
+        storeId = testData.createStore();
+        day = LocalDate.now().minusDays(1_000 + ThreadLocalRandom.current().nextInt(10_000));
+    }
+
+    @Test
+    void plannedOrdersStayWaitingUntilAllocated() {
+        int productId = testData.createProduct();
+        testData.addStock(productId, 10f, LocalDate.now().plusDays(5));
+        int first = newOrder(productId, 2f);
+        int second = newOrder(productId, 3f);
+
+        PlanAggregationResultDTO result = plan();
+
+        assertEquals(2, result.getOrderCount());
+        assertEquals(1, result.getPlans().size());
+        assertEquals(5.0, result.getPlans().get(0).getProducts().get(0).getQuantity(), 1e-6);
+        Long planId = result.getPlans().get(0).getPlanId();
+        for (int orderId : List.of(first, second)) {
+            OrderResponseDTO order = orderService.getOrderById(orderId);
+            assertEquals(OrderStatus.WAITTING, order.getStatus());
+            assertEquals(planId, order.getPlanId());
+        }
+
+        //Order đã có plan vẫn được cấp kho và chuyển sang PROCESSING
+        AllocationResultDTO allocated = allocationService.allocateOrder(first, userId);
+        assertEquals(OrderStatus.PROCESSING, allocated.getStatus());
+        assertEquals(OrderStatus.PROCESSING, orderService.getOrderById(first).getStatus());
+        assertEquals(planId, orderService.getOrderById(first).getPlanId());
+    }
+
+    @Test
+    void planningTwiceDoesNotPlanAnOrderAgain() {
+        int productId = testData.createProduct();
+        int planned = newOrder(productId, 1f);
+        Long planId = plan().getPlans().get(0).getPlanId();
+        int later = newOrder(productId, 4f);
+
+        PlanAggregationResultDTO result = plan();
+
+        assertEquals(1, result.getOrderCount());
+        assertNotNull(orderService.getOrderById(later).getPlanId());
+        assertTrue(result.getPlans().get(0).getPlanId() > planId);
+        assertEquals(planId, orderService.getOrderById(planned).getPlanId());
+    }
+
+    @Test
+    void planningRefreshesOrderViewAndCachedVersions() {
+        int productId = testData.createProduct();
+        List<Integer> orderIds = List.of(newOrder(productId, 1f), newOrder(productId, 2f), newOrder(productId, 3f));
+        //Version đang nằm trong cache trước khi plan
+        List<Long> before = orderIds.stream().map(orderVersions::version).toList();
+
+        Long planId = plan().getPlans().get(0).getPlanId();
+
+        for (int i = 0; i < orderIds.size(); i++) {
+            int orderId = orderIds.get(i);
+            Object[] view = (Object[]) entityManager.createNativeQuery(
+                            "select plan_id, version from order_view where order_id = " + orderId)
+                    .getSingleResult();
+            assertEquals(planId, ((Number) view[0]).longValue());
+            assertEquals(before.get(i) + 1, ((Number) view[1]).longValue());
+            assertEquals(before.get(i) + 1, orderVersions.version(orderId));
+        }
+    }
+
+    private PlanAggregationResultDTO plan() {
+        return productionPlanService.aggregateWaitingOrders(day, day.plusDays(1), userId);
+    }
+
+    //Order mới rồi lùi ngày đặt về day
+    private int newOrder(int productId, float quantity) {
+        int orderId = orderService.createOrder(new OrderRequestDTO(storeId,
+                List.of(new OrderRequestDTO.OrderDetailRequest(productId, quantity))), null).getOrderId();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String table : List.of("orders", "order_view")) {
+                entityManager.createNativeQuery("update " + table + " set order_date = :orderDate where order_id = :orderId")
+                        .setParameter("orderDate", day.atTime(10, 0))
+                        .setParameter("orderId", orderId)
+                        .executeUpdate();
+            }
+        });
+        return orderId;
+    }
+}
@@ -0,0 +1,182 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.CatalogCache;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.FeedbackRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.FeedbackResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.RatingStatsDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Order;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.QualityFeedback;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderDetailRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.QualityFeedbackRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.impl.QualityFeedbackServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class QualityFeedbackTests {
+
+    //productId riêng cho mỗi test để không lẫn với order của các test khác
+    private static final AtomicInteger PRODUCT_IDS = new AtomicInteger(800_000);
+
+    @Autowired
+    private IQualityFeedbackService feedbackService;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private QualityFeedbackRepository feedbackRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderDetailRepository orderDetailRepository;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    private int storeId;
+    private int productId;
+
+    @BeforeEach
+    void setUp() {
+        storeId = transactionTemplate.execute(status -> {
+            Store store = new Store();
+            store.setStoreName("Feedback store " + UUID.randomUUID());
+            entityManager.persist(store);
+            return store.getStoreId();
+        });
+        productId = PRODUCT_IDS.incrementAndGet();
+    }
+
+    @Test
+    void feedbackUpdatesStoreAndProductCounters() {
+        feedbackService.createFeedback(new FeedbackRequest(newOrder(), 5, "Great"));
+        feedbackService.createFeedback(new FeedbackRequest(newOrder(), 3, null));
+
+        RatingStatsDTO store = feedbackService.getStoreStats(storeId, 7);
+        assertEquals(2, store.getCount());
+        assertEquals(8, store.getSum());
+        assertEquals(4.0, store.getAverage(), 1e-9);
+        assertArrayEquals(new long[]{0, 0, 1, 0, 1}, store.getHistogram());
+
+        RatingStatsDTO product = productStats(30);
+        assertEquals(2, product.getCount());
+        assertEquals(4.0, product.getAverage(), 1e-9);
+    }
+
+    @Test
+    void rebuildMatchesIncrementalCountersAndHonoursTheWindow() {
+        feedbackService.createFeedback(new FeedbackRequest(newOrder(), 4, null));
+        int oldOrderId = newOrder();
+        //Feedback cũ hơn window 30 ngày chỉ được tính vào toàn bộ
+        transactionTemplate.executeWithoutResult(status -> {
+            QualityFeedback old = new QualityFeedback();
+            old.setOrder(entityManager.getReference(Order.class, oldOrderId));
+            old.setStore(entityManager.getReference(Store.class, storeId));
+            old.setRating(1);
+            old.setCreatedAt(LocalDateTime.now().minusDays(40));
+            entityManager.persist(old);
+        });
+
+        feedbackService.rebuild();
+
+        assertArrayEquals(new long[]{1, 0, 0, 1, 0}, feedbackService.getStoreStats(storeId, 0).getHistogram());
+        assertArrayEquals(new long[]{0, 0, 0, 1, 0}, feedbackService.getStoreStats(storeId, 30).getHistogram());
+        assertEquals(2, productStats(0).getCount());
+        assertEquals(1, productStats(7).getCount());
+    }
+
+    @Test
+    void feedbackCommittedLateWithALowerIdIsCountedOnce() throws Exception {
+        QualityFeedbackServiceImpl counters = new QualityFeedbackServiceImpl(feedbackRepository, orderRepository,
+                orderDetailRepository, catalogCache, entityManager, Duration.ofHours(1));
+        int lateOrderId = newOrder();
+        int laterOrderId = newOrder();
+        CountDownLatch created = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        //Feedback lấy id trước nhưng commit sau feedback kế tiếp
+        CompletableFuture<FeedbackResponseDTO> late = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            FeedbackResponseDTO feedback = counters.createFeedback(new FeedbackRequest(lateOrderId, 2, null));
+            created.countDown();
+            await(commit);
+            return feedback;
+        }));
+        assertTrue(created.await(5, TimeUnit.SECONDS));
+        FeedbackResponseDTO later = transactionTemplate.execute(status ->
+                counters.createFeedback(new FeedbackRequest(laterOrderId, 5, null)));
+
+        counters.rebuild();
+        commit.countDown();
+
+        assertTrue(later.getFeedbackId() > late.get(5, TimeUnit.SECONDS).getFeedbackId());
+        assertArrayEquals(new long[]{0, 1, 0, 0, 1}, counters.getStoreStats(storeId, 0).getHistogram());
+        assertEquals(2, counters.getProductStats(7).stream()
+                .filter(stats -> stats.getId() == productId)
+                .findFirst()
+                .orElseThrow()
+                .getCount());
+    }
+
+    @Test
+    void invalidFeedbackIsRejected() {
+        int orderId = newOrder();
+        assertThrows(RuntimeException.class, () -> feedbackService.createFeedback(new FeedbackRequest(orderId, 6, null)));
+        assertThrows(RuntimeException.class, () -> feedbackService.getStoreStats(storeId, 31));
+
+        feedbackService.createFeedback(new FeedbackRequest(orderId, 2, null));
+        assertThrows(RuntimeException.class, () -> feedbackService.createFeedback(new FeedbackRequest(orderId, 3, null)));
+        assertEquals(1, feedbackService.getStoreStats(storeId, 0).getCount());
+    }
+
+    private int newOrder() {
+        //2 dòng cùng product: feedback vẫn chỉ được tính 1 lần cho product đó
+        return orderService.createOrder(new OrderRequestDTO(storeId, List.of(
+                new OrderRequestDTO.OrderDetailRequest(productId, 1f),
+                new OrderRequestDTO.OrderDetailRequest(productId, 2f))), null).getOrderId();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private RatingStatsDTO productStats(int days) {
+        return feedbackService.getProductStats(days).stream()
+                .filter(stats -> stats.getId() == productId)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,271 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.OrderRequestDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.request.ReportRequest;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.ReportResponseDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.LogBatch;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.OrderOutboxEvent;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Product;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Report;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.User;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogType;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderEventType;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.OrderStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ReportStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ReportType;
+import org.luun.hsf.asm01.kitchencontrolbe.outbox.OrderEvent;
+import org.luun.hsf.asm01.kitchencontrolbe.outbox.OutboxDispatcher;
+import org.luun.hsf.asm01.kitchencontrolbe.report.ReportAggregator;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.OrderOutboxRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.support.TestData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ReportAggregationTests {
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private IReportService reportService;
+
+    @Autowired
+    private ReportAggregator reportAggregator;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private long userId;
+    private int storeId;
+    private int productId;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        userId = testData.createUser("MANAGER");
+        productId = testData.createProduct();
+        storeId = ThreadLocalRandom.current().nextInt(1_000_000, 2_000_000);
+        today = LocalDate.now();
+    }
+
+    @Test
+    void newOrdersAndProductionUpdateTheDailyAggregates() {
+        dispatchAll();
+        long waitingBefore = orderCount(OrderStatus.WAITTING);
+
+        orderService.createOrder(request(3f, 2f), null);
+        addProduction(7f);
+        dispatchAll();
+
+        assertEquals(5.0, demand(), 1e-6);
+        assertEquals(5.0, productionColumn("demand"), 1e-6);
+        assertEquals(7.0, productionColumn("produced"), 1e-6);
+        assertEquals(waitingBefore + 1, orderCount(OrderStatus.WAITTING));
+    }
+
+    @Test
+    void redeliveredEventIsAppliedOnce() {
+        int orderId = orderService.createOrder(request(4f), null).getOrderId();
+        dispatchAll();
+
+        OrderOutboxEvent row = entityManager.createQuery(
+                        "select e from OrderOutboxEvent e where e.orderId = :orderId", OrderOutboxEvent.class)
+                .setParameter("orderId", orderId)
+                .getSingleResult();
+        reportAggregator.onEvent(new OrderEvent(row.getEventId(), orderId, row.getOrderDay(), row.getEventType(),
+                row.getPreviousStatus(), row.getStatus(), row.getCreatedAt()));
+
+        assertEquals(4.0, demand(), 1e-6);
+    }
+
+    @Test
+    void rebuildMatchesIncrementalTotals() {
+        orderService.createOrder(request(6f), null);
+        orderService.createOrder(request(1.5f), null);
+        addProduction(2f);
+        dispatchAll();
+        double incremental = demand();
+
+        reportService.rebuildAggregates(today, today.plusDays(1));
+
+        assertEquals(incremental, demand(), 1e-6);
+        assertEquals(7.5, productionColumn("demand"), 1e-6);
+        assertEquals(2.0, productionColumn("produced"), 1e-6);
+    }
+
+    @Test
+    void reportFileIsGeneratedFromAggregates() throws Exception {
+        orderService.createOrder(request(9f), null);
+        dispatchAll();
+
+        ReportResponseDTO report = reportService.requestReport(
+                new ReportRequest(ReportType.PRODUCT_DEMAND, today, today.plusDays(1), storeId, userId));
+        for (int i = 0; i < 100 && report.getStatus() != ReportStatus.DONE && report.getStatus() != ReportStatus.FAILED; i++) {
+            Thread.sleep(100);
+            report = reportService.getReport(report.getReportId());
+        }
+
+        assertEquals(ReportStatus.DONE, report.getStatus());
+        assertEquals(1, report.getRowCount());
+        List<String> lines = Files.readAllLines(reportService.getReportFile(report.getReportId()));
+        assertEquals("date,store_id,product_id,quantity,order_lines", lines.get(0));
+        assertTrue(lines.get(1).startsWith(today + "," + storeId + "," + productId + ","));
+
+        //Instance khác (không có file trên đĩa) vẫn tải được: file được chép lại từ database
+        Files.delete(reportService.getReportFile(report.getReportId()));
+        assertEquals(lines, Files.readAllLines(reportService.getReportFile(report.getReportId())));
+    }
+
+    @Test
+    void concurrentWritersOfANewDailyRowAreAllCounted() throws Exception {
+        //Ngày chưa có dòng daily_order_status nào: mọi writer cùng đi nhánh INSERT, bên thua phải chạy lại
+        LocalDate day = LocalDate.of(2000, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(3000));
+        long firstEventId = ThreadLocalRandom.current().nextLong(1L << 40, 1L << 50);
+        int writers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        try {
+            for (int i = 0; i < writers; i++) {
+                OrderEvent event = new OrderEvent(firstEventId + i, 0, day, OrderEventType.STATUS_CHANGED,
+                        null, OrderStatus.DONE, LocalDateTime.now());
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    reportAggregator.onEvent(event);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(writers, orderCount(day, OrderStatus.DONE));
+    }
+
+    @Test
+    void unfinishedReportIsFailedOnlyAfterItsHeartbeatExpires() {
+        //Report của instance khác: 1 còn heartbeat, 1 đã quá kitchen.reports.heartbeat-timeout, 1 từ trước khi có heartbeat
+        long alive = runningReport(LocalDateTime.now());
+        long stale = runningReport(LocalDateTime.now().minusHours(1));
+        long legacy = runningReport(null);
+
+        reportService.failStaleReports();
+
+        assertEquals(ReportStatus.RUNNING, reportService.getReport(alive).getStatus());
+        assertEquals(ReportStatus.FAILED, reportService.getReport(stale).getStatus());
+        assertEquals(ReportStatus.FAILED, reportService.getReport(legacy).getStatus());
+    }
+
+    private long runningReport(LocalDateTime heartbeatAt) {
+        return transactionTemplate.execute(status -> {
+            Report report = new Report();
+            report.setReportType(ReportType.ORDER_STATUS);
+            report.setUser(entityManager.getReference(User.class, userId));
+            report.setCreatedDate(LocalDateTime.now());
+            report.setStatus(ReportStatus.RUNNING);
+            report.setFromDate(today);
+            report.setToDate(today.plusDays(1));
+            report.setOwner("other-instance");
+            report.setHeartbeatAt(heartbeatAt);
+            entityManager.persist(report);
+            return report.getReportId();
+        });
+    }
+
+    private void dispatchAll() {
+        for (int i = 0; i < 50 && outboxRepository.countPending() > 0; i++) {
+            outboxDispatcher.dispatchPending();
+        }
+        assertEquals(0, outboxRepository.countPending());
+    }
+
+    private double demand() {
+        List<Double> rows = entityManager.createQuery("select d.quantity from DailyProductDemand d " +
+                        "where d.reportDate = :day and d.storeId = :storeId and d.productId = :productId", Double.class)
+                .setParameter("day", today)
+                .setParameter("storeId", storeId)
+                .setParameter("productId", productId)
+                .getResultList();
+        return rows.isEmpty() ? 0 : rows.get(0);
+    }
+
+    private double productionColumn(String column) {
+        return entityManager.createQuery("select p." + column + " from DailyProductionDemand p " +
+                        "where p.reportDate = :day and p.productId = :productId", Double.class)
+                .setParameter("day", today)
+                .setParameter("productId", productId)
+                .getSingleResult();
+    }
+
+    private long orderCount(OrderStatus status) {
+        return orderCount(today, status);
+    }
+
+    private long orderCount(LocalDate day, OrderStatus status) {
+        List<Long> rows = entityManager.createQuery("select s.orderCount from DailyOrderStatus s " +
+                        "where s.reportDate = :day and s.status = :status", Long.class)
+                .setParameter("day", day)
+                .setParameter("status", status)
+                .getResultList();
+        return rows.isEmpty() ? 0 : rows.get(0);
+    }
+
+    private void addProduction(float quantity) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LogBatch batch = new LogBatch();
+            batch.setProduct(entityManager.getReference(Product.class, (long) productId));
+            batch.setQuantity(quantity);
+            batch.setProductionDate(today);
+            batch.setExpiryDate(today.plusDays(30));
+            batch.setStatus(LogStatus.DONE);
+            batch.setType(LogType.PRODUCTION);
+            batch.setCreatedAt(LocalDateTime.now());
+            entityManager.persist(batch);
+        });
+    }
+
+    private OrderRequestDTO request(float... quantities) {
+        List<OrderRequestDTO.OrderDetailRequest> details = new ArrayList<>();
+        for (float quantity : quantities) {
+            details.add(new OrderRequestDTO.OrderDetailRequest(productId, quantity));
+        }
+        return new OrderRequestDTO(storeId, details);
+    }
+}
@@ -0,0 +1,200 @@
+package org.luun.hsf.asm01.kitchencontrolbe.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luun.hsf.asm01.kitchencontrolbe.cache.CatalogCache;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.StockConsistencyDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.dto.response.StockSnapshotResultDTO;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.InventoryTransaction;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Product;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.User;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ProductType;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.TransactionType;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.InventoryTransactionRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.repository.StockSnapshotRepository;
+import org.luun.hsf.asm01.kitchencontrolbe.service.impl.StockLedgerServiceImpl;
+import org.luun.hsf.asm01.kitchencontrolbe.support.TestData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class StockLedgerTests {
+
+    @Autowired
+    private IStockLedgerService stockLedgerService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private InventoryTransactionRepository transactionRepository;
+
+    @Autowired
+    private StockSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = testData.createUser("KITCHEN");
+    }
+
+    @Test
+    void balancesFollowCommittedTransactionsWithoutQueries() {
+        long productId = testData.createProduct(ProductType.RAW_MATERIAL);
+        record(productId, TransactionType.IMPORT, 10f);
+        record(productId, TransactionType.EXPORT, 3f);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(7.0, stockLedgerService.getStock(productId), 1e-6);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void rolledBackTransactionsAreNotCounted() {
+        long productId = testData.createProduct(ProductType.RAW_MATERIAL);
+        record(productId, TransactionType.IMPORT, 5f);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            persistTransaction(productId, TransactionType.IMPORT, 100f);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(5.0, stockLedgerService.getStock(productId), 1e-6);
+    }
+
+    @Test
+    void rebuildFromSnapshotReplaysOnlyNewerTransactions() {
+        long productId = testData.createProduct(ProductType.RAW_MATERIAL);
+        record(productId, TransactionType.IMPORT, 20f);
+        record(productId, TransactionType.EXPORT, 4f);
+
+        StockSnapshotResultDTO snapshot = stockLedgerService.takeSnapshot();
+        assertTrue(snapshot.isCreated());
+
+        record(productId, TransactionType.IMPORT, 2.5f);
+        stockLedgerService.rebuild();
+
+        assertEquals(18.5, stockLedgerService.getStock(productId), 1e-6);
+        assertTrue(stockLedgerService.checkConsistency().isConsistent());
+    }
+
+    @Test
+    void consistencyCheckReportsDrift() {
+        long productId = testData.createProduct(ProductType.RAW_MATERIAL);
+        record(productId, TransactionType.IMPORT, 8f);
+        //Giả lập số dư trong bộ nhớ bị lệch so với ledger
+        stockLedgerService.applyTransaction(Long.MAX_VALUE, productId, 1d);
+
+        StockConsistencyDTO result = stockLedgerService.checkConsistency();
+
+        assertEquals(1, result.getMismatches().size());
+        assertEquals(productId, result.getMismatches().get(0).getProductId());
+        assertEquals(9.0, result.getMismatches().get(0).getInMemory(), 1e-6);
+        assertEquals(8.0, result.getMismatches().get(0).getLedger(), 1e-6);
+        stockLedgerService.rebuild();
+        assertTrue(stockLedgerService.checkConsistency().isConsistent());
+    }
+
+    @Test
+    void transactionCommittedLateWithALowerIdIsNotLost() throws Exception {
+        //Settle dài để các transaction của test đều còn được theo dõi theo id
+        StockLedgerServiceImpl ledger = new StockLedgerServiceImpl(transactionRepository, snapshotRepository,
+                catalogCache, entityManager, Duration.ofHours(1));
+        long productId = testData.createProduct(ProductType.RAW_MATERIAL);
+        CountDownLatch persisted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        AtomicLong lateId = new AtomicLong();
+        //Transaction lấy id trước nhưng commit sau transaction kế tiếp
+        CompletableFuture<Void> late = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            lateId.set(persistTransaction(productId, TransactionType.IMPORT, 2f));
+            entityManager.flush();
+            persisted.countDown();
+            await(commit);
+        }));
+        assertTrue(persisted.await(5, TimeUnit.SECONDS));
+        long laterId = record(productId, TransactionType.IMPORT, 5f);
+        assertTrue(laterId > lateId.get());
+
+        ledger.rebuild();
+        commit.countDown();
+        late.get(5, TimeUnit.SECONDS);
+        ledger.applyTransaction(lateId.get(), productId, 2d);
+        //Listener của transaction đã được rebuild đọc tới sau thì không cộng lại
+        ledger.applyTransaction(laterId, productId, 5d);
+
+        assertEquals(7.0, ledger.getStock(productId), 1e-6);
+    }
+
+    @Test
+    void catchUpAppliesTransactionsCommittedByAnotherInstance() {
+        //ledger đóng vai instance này: listener chỉ báo cho bean của Spring, giống transaction ghi ở instance khác
+        StockLedgerServiceImpl ledger = new StockLedgerServiceImpl(transactionRepository, snapshotRepository,
+                catalogCache, entityManager, Duration.ofHours(1));
+        long productId = testData.createProduct(ProductType.RAW_MATERIAL);
+        record(productId, TransactionType.IMPORT, 6f);
+        ledger.rebuild();
+        long otherId = record(productId, TransactionType.EXPORT, 2f);
+        assertEquals(6.0, ledger.getStock(productId), 1e-6);
+
+        assertEquals(1, ledger.catchUp());
+        assertEquals(4.0, ledger.getStock(productId), 1e-6);
+
+        //Lần sau và listener đến muộn không cộng lại
+        assertEquals(0, ledger.catchUp());
+        ledger.applyTransaction(otherId, productId, -2d);
+        assertEquals(4.0, ledger.getStock(productId), 1e-6);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private long record(long productId, TransactionType type, float quantity) {
+        return transactionTemplate.execute(status -> persistTransaction(productId, type, quantity));
+    }
+
+    private long persistTransaction(long productId, TransactionType type, float quantity) {
+        InventoryTransaction transaction = new InventoryTransaction();
+        transaction.setProduct(entityManager.getReference(Product.class, productId));
+        transaction.setCreatedBy(entityManager.getReference(User.class, userId));
+        transaction.setType(type);
+        transaction.setQuantity(quantity);
+        transaction.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(transaction);
+        return transaction.getTransactionId();
+    }
+}
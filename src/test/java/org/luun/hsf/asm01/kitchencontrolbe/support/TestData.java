@@ -0,0 +1,100 @@
+package org.luun.hsf.asm01.kitchencontrolbe.support;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Inventory;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.LogBatch;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Product;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Role;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.Store;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.User;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogStatus;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.LogType;
+import org.luun.hsf.asm01.kitchencontrolbe.entity.enums.ProductType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+//Dữ liệu dùng chung cho test và benchmark: mỗi hàm commit trong transaction riêng, tên random để các test không thấy dữ liệu của nhau
+@Component
+@RequiredArgsConstructor
+public class TestData {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    //User mới với role riêng, vd. role "KITCHEN" -> KITCHEN_<uuid> và username kitchen-<uuid>
+    public long createUser(String role) {
+        return transactionTemplate.execute(status -> {
+            Role userRole = new Role();
+            userRole.setRoleName(role + "_" + UUID.randomUUID());
+            entityManager.persist(userRole);
+            User user = new User();
+            user.setUsername(role.toLowerCase() + "-" + UUID.randomUUID());
+            user.setPassword("secret");
+            user.setRole(userRole);
+            entityManager.persist(user);
+            return user.getUserId();
+        });
+    }
+
+    //Store riêng để bộ lọc theo store của test khác không thấy order của test này
+    public int createStore() {
+        return transactionTemplate.execute(status -> {
+            Store store = new Store();
+            store.setStoreName("Store " + UUID.randomUUID());
+            entityManager.persist(store);
+            return store.getStoreId();
+        });
+    }
+
+    //Trả về int vì order detail giữ productId kiểu int
+    public int createProduct() {
+        return createProduct(ProductType.FINISHED_PRODUCT);
+    }
+
+    public int createProduct(ProductType type) {
+        return transactionTemplate.execute(status -> {
+            Product product = new Product();
+            product.setProductName("Product " + UUID.randomUUID());
+            product.setProductType(type);
+            product.setUnit("kg");
+            entityManager.persist(product);
+            return product.getProductId().intValue();
+        });
+    }
+
+    //Lô nhập DONE kèm dòng inventory, trả về inventoryId
+    public long addStock(long productId, float quantity, LocalDate expiryDate) {
+        return addInventory(productId, quantity, expiryDate, LogStatus.DONE).getInventoryId();
+    }
+
+    //Như addStock nhưng chọn status của lô, trả về batchId
+    public long addBatch(long productId, float quantity, LocalDate expiryDate, LogStatus status) {
+        return addInventory(productId, quantity, expiryDate, status).getBatch().getBatchId();
+    }
+
+    private Inventory addInventory(long productId, float quantity, LocalDate expiryDate, LogStatus status) {
+        return transactionTemplate.execute(tx -> {
+            Product product = entityManager.getReference(Product.class, productId);
+            LogBatch batch = new LogBatch();
+            batch.setProduct(product);
+            batch.setQuantity(quantity);
+            batch.setExpiryDate(expiryDate);
+            batch.setStatus(status);
+            batch.setType(LogType.PURCHASE);
+            batch.setCreatedAt(LocalDateTime.now());
+            entityManager.persist(batch);
+            Inventory inventory = new Inventory();
+            inventory.setProduct(product);
+            inventory.setBatch(batch);
+            inventory.setQuantity(quantity);
+            inventory.setExpiryDate(expiryDate);
+            entityManager.persist(inventory);
+            return inventory;
+        });
+    }
+}